@@ -19,6 +19,7 @@ package com.helger.photon.bootstrap5.demo.servlet;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
+import com.helger.base.string.StringHelper;
 import com.helger.html.hc.config.HCSettings;
 import com.helger.html.jquery.JQueryAjaxBuilder;
 import com.helger.html.jscode.JSAssocArray;
@@ -31,6 +32,7 @@ import com.helger.photon.bootstrap5.demo.pub.menu.MenuPublic;
 import com.helger.photon.bootstrap5.demo.secure.menu.MenuSecure;
 import com.helger.photon.bootstrap5.servlet.WebAppListenerBootstrap;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
+import com.helger.photon.bootstrap5.uictrls.ext.BootstrapPartialNavigation;
 import com.helger.photon.core.appid.CApplicationID;
 import com.helger.photon.core.appid.PhotonGlobalState;
 import com.helger.photon.core.configfile.ConfigurationFile;
@@ -209,6 +211,12 @@ public final class AppWebAppListener extends WebAppListenerBootstrap
     aAjaxRegistry.registerFunction (CAjax.LOGIN);
     aAjaxRegistry.registerFunction (CAjax.UPDATE_MENU_VIEW_PUB);
     aAjaxRegistry.registerFunction (CAjax.UPDATE_MENU_VIEW_SEC);
+    aAjaxRegistry.registerFunction (BootstrapPartialNavigation.AJAX_PAGE_CONTENT);
+    // Same title as in AppLayoutHTMLProvider
+    BootstrapPartialNavigation.setPageTitleProvider (aLEC -> StringHelper.getConcatenatedOnDemand (CApp.getApplicationTitle (),
+                                                                                                  " - ",
+                                                                                                  aLEC.getSelectedMenuItem ()
+                                                                                                      .getDisplayText (aLEC.getDisplayLocale ())));
   }
 
   @Override
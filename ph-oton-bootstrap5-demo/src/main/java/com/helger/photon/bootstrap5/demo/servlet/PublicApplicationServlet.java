@@ -20,6 +20,7 @@ import com.helger.http.csp.ECSPMode;
 import com.helger.photon.app.html.IHTMLProvider;
 import com.helger.photon.bootstrap5.demo.app.ui.AppLayoutHTMLProvider;
 import com.helger.photon.bootstrap5.demo.pub.AppRendererPublic;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistogramXServletFilter;
 import com.helger.photon.core.servlet.AbstractPublicApplicationServlet;
 import com.helger.web.scope.IRequestWebScopeWithoutResponse;
 
@@ -35,5 +36,7 @@ public class PublicApplicationServlet extends AbstractPublicApplicationServlet
         return new AppLayoutHTMLProvider (AppRendererPublic::getContent);
       }
     });
+    // Request duration percentiles on the statistics page
+    filterHighLevelList ().add (new StatisticsHistogramXServletFilter ());
   }
 }
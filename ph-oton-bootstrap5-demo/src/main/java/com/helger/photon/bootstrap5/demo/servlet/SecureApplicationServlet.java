@@ -20,6 +20,7 @@ import com.helger.http.csp.ECSPMode;
 import com.helger.photon.app.html.IHTMLProvider;
 import com.helger.photon.bootstrap5.demo.app.ui.AppLayoutHTMLProvider;
 import com.helger.photon.bootstrap5.demo.secure.AppRendererSecure;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistogramXServletFilter;
 import com.helger.photon.core.servlet.AbstractSecureApplicationServlet;
 import com.helger.web.scope.IRequestWebScopeWithoutResponse;
 
@@ -40,5 +41,7 @@ public class SecureApplicationServlet extends AbstractSecureApplicationServlet
         return new AppLayoutHTMLProvider (AppRendererSecure::getContent);
       }
     });
+    // Request duration percentiles on the statistics page
+    filterHighLevelList ().add (new StatisticsHistogramXServletFilter ());
   }
 }
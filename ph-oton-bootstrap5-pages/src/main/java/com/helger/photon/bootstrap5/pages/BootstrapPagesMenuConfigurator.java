@@ -42,9 +42,11 @@ import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringAudit;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringFailedMails;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringLockedObjects;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringLoginInfo;
+import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringLogs;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringSessions;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringStatistics;
 import com.helger.photon.bootstrap5.pages.monitoring.BasePageMonitoringSystemMigrations;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistorySampler;
 import com.helger.photon.bootstrap5.pages.security.BasePageSecurityRoleManagement;
 import com.helger.photon.bootstrap5.pages.security.BasePageSecurityUserGroupManagement;
 import com.helger.photon.bootstrap5.pages.security.BasePageSecurityUserManagement;
@@ -56,13 +58,18 @@ import com.helger.photon.bootstrap5.pages.settings.BasePageSettingsSMTP;
 import com.helger.photon.bootstrap5.pages.settings.BasePageSettingsSystemMessage;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoCACerts;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoEnvironmentVariables;
+import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoHeap;
+import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoJFR;
+import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoMemory;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoNetwork;
+import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoProfiler;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoRequest;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoSecurity;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoServletContext;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoSystemProperties;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoThirdPartyLibraries;
 import com.helger.photon.bootstrap5.pages.sysinfo.BasePageSysInfoThreads;
+import com.helger.photon.bootstrap5.pages.sysinfo.JvmMemoryMonitor;
 import com.helger.photon.bootstrap5.pages.utils.BasePageUtilsBase64Decode;
 import com.helger.photon.bootstrap5.pages.utils.BasePageUtilsBase64Encode;
 import com.helger.photon.bootstrap5.pages.utils.BasePageUtilsHttpClient;
@@ -82,6 +89,16 @@ import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.system.BasePageShowChildren;
 import com.helger.smtp.failed.FailedMailQueue;
 
+/**
+ * Adds the administration pages of this library to a menu tree.
+ * <p>
+ * Besides building the menu, {@link #addAllItems(IMenuTree, IMenuItem, IMenuObjectFilter, Locale)}
+ * also starts the background samplers of the statistics and the memory pages
+ * via {@link #startBackgroundSamplers()}, so that their history covers the
+ * time since application startup.
+ *
+ * @author Philip Helger
+ */
 @Immutable
 public final class BootstrapPagesMenuConfigurator
 {
@@ -96,6 +113,7 @@ public final class BootstrapPagesMenuConfigurator
   public static final String MENU_ADMIN_MONITORING_FAILEDMAILS = "admin_monitoring_failedmails";
   public static final String MENU_ADMIN_MONITORING_LOCKEDOBJECTS = "admin_monitoring_lockedobjects";
   public static final String MENU_ADMIN_MONITORING_LOGININFO = "admin_monitoring_logininfo";
+  public static final String MENU_ADMIN_MONITORING_LOGS = "admin_monitoring_logs";
   public static final String MENU_ADMIN_MONITORING_SESSIONS = "admin_monitoring_sessions";
   public static final String MENU_ADMIN_MONITORING_STATISTICS = "admin_monitoring_statistics";
   public static final String MENU_ADMIN_MONITORING_SYSTEMMIGRATIONS = "admin_monitoring_systemmigrations";
@@ -103,7 +121,11 @@ public final class BootstrapPagesMenuConfigurator
   public static final String MENU_ADMIN_SYSINFO = "admin_sysinfo";
   public static final String MENU_ADMIN_SYSINFO_CACERTS = "admin_sysinfo_cacerts";
   public static final String MENU_ADMIN_SYSINFO_ENVVARS = "admin_sysinfo_envvars";
+  public static final String MENU_ADMIN_SYSINFO_HEAP = "admin_sysinfo_heap";
+  public static final String MENU_ADMIN_SYSINFO_JFR = "admin_sysinfo_jfr";
+  public static final String MENU_ADMIN_SYSINFO_MEMORY = "admin_sysinfo_memory";
   public static final String MENU_ADMIN_SYSINFO_NETWORK = "admin_sysinfo_network";
+  public static final String MENU_ADMIN_SYSINFO_PROFILER = "admin_sysinfo_profiler";
   public static final String MENU_ADMIN_SYSINFO_REQUEST = "admin_sysinfo_request";
   public static final String MENU_ADMIN_SYSINFO_SECURITY = "admin_sysinfo_security";
   public static final String MENU_ADMIN_SYSINFO_SERVLETCONTEXT = "admin_sysinfo_servletcontext";
@@ -214,6 +236,8 @@ public final class BootstrapPagesMenuConfigurator
     }
     aMenuTree.createItem (aAdminMonitoring, new BasePageMonitoringLoginInfo <> (MENU_ADMIN_MONITORING_LOGININFO))
              .setDisplayFilter (aDisplayFilter);
+    aMenuTree.createItem (aAdminMonitoring, new BasePageMonitoringLogs <> (MENU_ADMIN_MONITORING_LOGS))
+             .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminMonitoring, new BasePageMonitoringSessions <> (MENU_ADMIN_MONITORING_SESSIONS))
              .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminMonitoring, new BasePageMonitoringStatistics <> (MENU_ADMIN_MONITORING_STATISTICS))
@@ -242,8 +266,16 @@ public final class BootstrapPagesMenuConfigurator
              .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoEnvironmentVariables <> (MENU_ADMIN_SYSINFO_ENVVARS))
              .setDisplayFilter (aDisplayFilter);
+    aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoHeap <> (MENU_ADMIN_SYSINFO_HEAP))
+             .setDisplayFilter (aDisplayFilter);
+    aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoJFR <> (MENU_ADMIN_SYSINFO_JFR))
+             .setDisplayFilter (aDisplayFilter);
+    aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoMemory <> (MENU_ADMIN_SYSINFO_MEMORY))
+             .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoNetwork <> (MENU_ADMIN_SYSINFO_NETWORK))
              .setDisplayFilter (aDisplayFilter);
+    aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoProfiler <> (MENU_ADMIN_SYSINFO_PROFILER))
+             .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoRequest <> (MENU_ADMIN_SYSINFO_REQUEST))
              .setDisplayFilter (aDisplayFilter);
     aMenuTree.createItem (aAdminSysInfo, new BasePageSysInfoSecurity <> (MENU_ADMIN_SYSINFO_SECURITY))
@@ -396,6 +428,19 @@ public final class BootstrapPagesMenuConfigurator
     return aAdminSettings;
   }
 
+  /**
+   * Start the background samplers of the monitoring pages, so that their
+   * history is already available when the pages are opened for the first time.
+   * This is called by {@link #addAllItems(IMenuTree, IMenuItem, IMenuObjectFilter, Locale)}.
+   * Applications adding only selected items must call it explicitly during
+   * startup. Calling it more than once has no additional effect.
+   */
+  public static void startBackgroundSamplers ()
+  {
+    StatisticsHistorySampler.getInstance ();
+    JvmMemoryMonitor.getInstance ();
+  }
+
   public static void addAllItems (@NonNull final IMenuTree aMenuTree,
                                   @NonNull final IMenuItem aParent,
                                   @Nullable final IMenuObjectFilter aDisplayFilter,
@@ -408,5 +453,6 @@ public final class BootstrapPagesMenuConfigurator
     BootstrapPagesMenuConfigurator.addDataItems (aMenuTree, aParent, aDisplayFilter);
     BootstrapPagesMenuConfigurator.addUtilsItems (aMenuTree, aParent, aDisplayFilter);
     BootstrapPagesMenuConfigurator.addSettingsItems (aMenuTree, aParent, aDisplayFilter);
+    startBackgroundSamplers ();
   }
 }
@@ -0,0 +1,634 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringParser;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.photon.audit.IAuditItem;
+
+/**
+ * A time range index over the audit items provided by an
+ * {@link IAuditDaySource}. Each day is indexed once into an array sorted by
+ * date time, with the offsets of every hour and per hour bitmaps of the
+ * contained audit types and users. Queries walk the days and hours backwards,
+ * skip all hours whose bitmaps cannot match and use keyset pagination, so a
+ * single page never requires more than the matching days to be indexed.
+ * <p>
+ * Past days are cached (bounded, least recently used days are evicted first).
+ * A day that was indexed before its end (e.g. the current day) is re-indexed
+ * after {@link #TODAY_REFRESH}. The dictionaries of the audit types and users
+ * are bounded by {@link #MAX_DICTIONARY_SIZE} - if it is exceeded, all cached
+ * days are dropped together with the dictionaries.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class AuditIndex
+{
+  public static final int DEFAULT_MAX_CACHED_DAYS = 62;
+  /** The maximum number of distinct audit types or users that are indexed */
+  public static final int MAX_DICTIONARY_SIZE = 100_000;
+  public static final Duration TODAY_REFRESH = Duration.ofSeconds (30);
+
+  private static final int HOURS = 24;
+
+  /**
+   * A query on the audit index.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Query
+  {
+    private final LocalDate m_aFrom;
+    private final LocalDate m_aTo;
+    private final String m_sUserID;
+    private final String m_sTypeID;
+    private final Boolean m_aSuccess;
+
+    /**
+     * Constructor
+     *
+     * @param aFrom
+     *        First day to search (inclusive). May not be <code>null</code>.
+     * @param aTo
+     *        Last day to search (inclusive). May not be <code>null</code>.
+     * @param sUserID
+     *        The user ID to search. May be <code>null</code>.
+     * @param sTypeID
+     *        The audit action type ID to search. May be <code>null</code>.
+     * @param aSuccess
+     *        The success state to search. May be <code>null</code>.
+     */
+    public Query (@NonNull final LocalDate aFrom,
+                  @NonNull final LocalDate aTo,
+                  @Nullable final String sUserID,
+                  @Nullable final String sTypeID,
+                  @Nullable final Boolean aSuccess)
+    {
+      ValueEnforcer.notNull (aFrom, "From");
+      ValueEnforcer.notNull (aTo, "To");
+      ValueEnforcer.isTrue ( () -> !aFrom.isAfter (aTo), "From must not be after To");
+      m_aFrom = aFrom;
+      m_aTo = aTo;
+      m_sUserID = StringHelper.isEmpty (sUserID) ? null : sUserID;
+      m_sTypeID = StringHelper.isEmpty (sTypeID) ? null : sTypeID;
+      m_aSuccess = aSuccess;
+    }
+
+    @NonNull
+    public LocalDate getFrom ()
+    {
+      return m_aFrom;
+    }
+
+    @NonNull
+    public LocalDate getTo ()
+    {
+      return m_aTo;
+    }
+
+    @Nullable
+    public String getUserID ()
+    {
+      return m_sUserID;
+    }
+
+    @Nullable
+    public String getTypeID ()
+    {
+      return m_sTypeID;
+    }
+
+    @Nullable
+    public Boolean getSuccess ()
+    {
+      return m_aSuccess;
+    }
+
+    boolean matches (@NonNull final IAuditItem aItem)
+    {
+      if (m_sUserID != null && !m_sUserID.equals (aItem.getUserID ()))
+        return false;
+      if (m_sTypeID != null && !m_sTypeID.equals (aItem.getType ().getID ()))
+        return false;
+      if (m_aSuccess != null && m_aSuccess.booleanValue () != aItem.getSuccess ().isSuccess ())
+        return false;
+      return true;
+    }
+  }
+
+  /**
+   * A single page of query results.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Result
+  {
+    private final ICommonsList <IAuditItem> m_aItems;
+    private final String m_sNextCursor;
+    private final int m_nScannedDays;
+
+    Result (@NonNull final ICommonsList <IAuditItem> aItems,
+            @Nullable final String sNextCursor,
+            final int nScannedDays)
+    {
+      m_aItems = aItems;
+      m_sNextCursor = sNextCursor;
+      m_nScannedDays = nScannedDays;
+    }
+
+    /**
+     * @return The matching items, newest first. Never <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <IAuditItem> getAllItems ()
+    {
+      return m_aItems.getClone ();
+    }
+
+    /**
+     * @return The cursor to get the next (older) page or <code>null</code> if
+     *         there are no more results.
+     */
+    @Nullable
+    public String getNextCursor ()
+    {
+      return m_sNextCursor;
+    }
+
+    @Nonnegative
+    public int getScannedDays ()
+    {
+      return m_nScannedDays;
+    }
+  }
+
+  /**
+   * The keyset pagination cursor. It identifies the next item to be returned
+   * by its date time and a tie-break key derived from the item content. As
+   * several items may have the same date time and content, the number of such
+   * equal items that were already passed is contained as well.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  static final class Cursor
+  {
+    private static final char SEPARATOR = '@';
+
+    private final LocalDateTime m_aDT;
+    private final int m_nTieKey;
+    private final int m_nPassedEqual;
+
+    Cursor (@NonNull final LocalDateTime aDT, final int nTieKey, @Nonnegative final int nPassedEqual)
+    {
+      m_aDT = aDT;
+      m_nTieKey = nTieKey;
+      m_nPassedEqual = nPassedEqual;
+    }
+
+    @NonNull
+    LocalDateTime getDateTime ()
+    {
+      return m_aDT;
+    }
+
+    int getTieKey ()
+    {
+      return m_nTieKey;
+    }
+
+    @Nonnegative
+    int getPassedEqual ()
+    {
+      return m_nPassedEqual;
+    }
+
+    @NonNull
+    String getAsString ()
+    {
+      return m_aDT.toString () + SEPARATOR + m_nTieKey + SEPARATOR + m_nPassedEqual;
+    }
+
+    /**
+     * @param sCursor
+     *        The string created by {@link #getAsString()}. May be
+     *        <code>null</code>.
+     * @return <code>null</code> if the cursor is empty or invalid.
+     */
+    @Nullable
+    static Cursor parse (@Nullable final String sCursor)
+    {
+      if (StringHelper.isEmpty (sCursor))
+        return null;
+      final int nSep1 = sCursor.indexOf (SEPARATOR);
+      final int nSep2 = nSep1 < 0 ? -1 : sCursor.indexOf (SEPARATOR, nSep1 + 1);
+      if (nSep1 <= 0 || nSep2 < 0)
+        return null;
+      try
+      {
+        final LocalDateTime aDT = LocalDateTime.parse (sCursor.substring (0, nSep1));
+        final Integer aTieKey = StringParser.parseIntObj (sCursor.substring (nSep1 + 1, nSep2));
+        final int nPassedEqual = StringParser.parseInt (sCursor.substring (nSep2 + 1), -1);
+        if (aTieKey == null || nPassedEqual < 0)
+          return null;
+        return new Cursor (aDT, aTieKey.intValue (), nPassedEqual);
+      }
+      catch (final DateTimeParseException ex)
+      {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * The indexed audit items of a single day.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  private static final class DaySegment
+  {
+    private final IAuditItem [] m_aItems;
+    private final LocalDateTime [] m_aDTs;
+    private final int [] m_aTieKeys;
+    // Index of the first item of each hour; HOURS + 1 elements
+    private final int [] m_aHourStart = new int [HOURS + 1];
+    private final BitSet [] m_aHourTypes = new BitSet [HOURS];
+    private final BitSet [] m_aHourUsers = new BitSet [HOURS];
+    // The dictionaries the bitmaps refer to
+    private final ICommonsMap <String, Integer> m_aTypeDict;
+    private final ICommonsMap <String, Integer> m_aUserDict;
+    private final LocalDateTime m_aIndexDT;
+
+    // Must be called with the write lock held, as the dictionaries are
+    // modified
+    DaySegment (@NonNull final IAuditItem [] aItems,
+                @NonNull final ICommonsMap <String, Integer> aTypeDict,
+                @NonNull final ICommonsMap <String, Integer> aUserDict)
+    {
+      m_aItems = aItems;
+      m_aDTs = new LocalDateTime [aItems.length];
+      m_aTieKeys = new int [aItems.length];
+      for (int i = 0; i < aItems.length; ++i)
+      {
+        m_aDTs[i] = aItems[i].getDateTime ();
+        m_aTieKeys[i] = getTieKey (aItems[i]);
+      }
+      int nIndex = 0;
+      for (int nHour = 0; nHour < HOURS; ++nHour)
+      {
+        m_aHourStart[nHour] = nIndex;
+        final BitSet aTypes = new BitSet ();
+        final BitSet aUsers = new BitSet ();
+        while (nIndex < aItems.length && aItems[nIndex].getDateTime ().getHour () == nHour)
+        {
+          aTypes.set (_getDictIndex (aTypeDict, aItems[nIndex].getType ().getID ()));
+          aUsers.set (_getDictIndex (aUserDict, aItems[nIndex].getUserID ()));
+          nIndex++;
+        }
+        m_aHourTypes[nHour] = aTypes;
+        m_aHourUsers[nHour] = aUsers;
+      }
+      m_aHourStart[HOURS] = aItems.length;
+      m_aTypeDict = aTypeDict;
+      m_aUserDict = aUserDict;
+      m_aIndexDT = PDTFactory.getCurrentLocalDateTime ();
+    }
+  }
+
+  private final IAuditDaySource m_aSource;
+  private final int m_nMaxCachedDays;
+
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  // Access ordered, so that the least recently used day is evicted first
+  @GuardedBy ("m_aRWLock")
+  private final Map <LocalDate, DaySegment> m_aDays = new LinkedHashMap <> (16, 0.75f, true)
+  {
+    @Override
+    protected boolean removeEldestEntry (final Map.Entry <LocalDate, DaySegment> aEldest)
+    {
+      return size () > m_nMaxCachedDays;
+    }
+  };
+  @GuardedBy ("m_aRWLock")
+  private ICommonsMap <String, Integer> m_aTypeDict = new CommonsHashMap <> ();
+  @GuardedBy ("m_aRWLock")
+  private ICommonsMap <String, Integer> m_aUserDict = new CommonsHashMap <> ();
+
+  public AuditIndex (@NonNull final IAuditDaySource aSource)
+  {
+    this (aSource, DEFAULT_MAX_CACHED_DAYS);
+  }
+
+  public AuditIndex (@NonNull final IAuditDaySource aSource, @Nonnegative final int nMaxCachedDays)
+  {
+    ValueEnforcer.notNull (aSource, "Source");
+    ValueEnforcer.isGT0 (nMaxCachedDays, "MaxCachedDays");
+    m_aSource = aSource;
+    m_nMaxCachedDays = nMaxCachedDays;
+  }
+
+  private static int _getDictIndex (@NonNull final ICommonsMap <String, Integer> aDict, @Nullable final String sKey)
+  {
+    // null is mapped to the empty string
+    return aDict.computeIfAbsent (sKey == null ? "" : sKey, k -> Integer.valueOf (aDict.size ())).intValue ();
+  }
+
+  /**
+   * @param aSegment
+   *        The segment whose dictionary should be used
+   * @param sTypeID
+   *        The type ID to search
+   * @return -1 if the type was never indexed, so the segment cannot contain
+   *         it.
+   */
+  private int _getExistingTypeIndex (@NonNull final DaySegment aSegment, @NonNull final String sTypeID)
+  {
+    // The dictionary may be extended by other segments
+    final Integer aIndex = m_aRWLock.readLockedGet ( () -> aSegment.m_aTypeDict.get (sTypeID));
+    return aIndex == null ? -1 : aIndex.intValue ();
+  }
+
+  /**
+   * @param aSegment
+   *        The segment whose dictionary should be used
+   * @param sUserID
+   *        The user ID to search
+   * @return -1 if the user was never indexed, so the segment cannot contain
+   *         it.
+   */
+  private int _getExistingUserIndex (@NonNull final DaySegment aSegment, @NonNull final String sUserID)
+  {
+    final Integer aIndex = m_aRWLock.readLockedGet ( () -> aSegment.m_aUserDict.get (sUserID));
+    return aIndex == null ? -1 : aIndex.intValue ();
+  }
+
+  private void _clearAll ()
+  {
+    // Must be called within the write lock
+    m_aDays.clear ();
+    // Segments still in use keep their own dictionaries
+    m_aTypeDict = new CommonsHashMap <> ();
+    m_aUserDict = new CommonsHashMap <> ();
+  }
+
+  /**
+   * Get the tie-break key of an audit item, to have a total order of items
+   * with the same date time.
+   *
+   * @param aItem
+   *        The audit item. May not be <code>null</code>.
+   * @return The tie-break key.
+   */
+  static int getTieKey (@NonNull final IAuditItem aItem)
+  {
+    return Objects.hash (aItem.getType ().getID (),
+                         aItem.getUserID (),
+                         Boolean.valueOf (aItem.getSuccess ().isSuccess ()),
+                         aItem.getAction ());
+  }
+
+  private static int _compare (@NonNull final LocalDateTime aDT1,
+                               final int nTieKey1,
+                               @NonNull final LocalDateTime aDT2,
+                               final int nTieKey2)
+  {
+    final int ret = aDT1.compareTo (aDT2);
+    return ret != 0 ? ret : Integer.compare (nTieKey1, nTieKey2);
+  }
+
+  /**
+   * Get the index of the first item to be checked in a day that is sorted by
+   * date time and tie-break key, when iterating backwards from the cursor.
+   * Items inserted or removed in the meantime don't affect the position.
+   *
+   * @param aDTs
+   *        The sorted date times of the items in a day. May not be
+   *        <code>null</code>.
+   * @param aTieKeys
+   *        The tie-break keys of the items in a day. May not be
+   *        <code>null</code>.
+   * @param aCursor
+   *        The cursor to seek to. May not be <code>null</code>.
+   * @return The index of the next item or -1 if there are no more items.
+   */
+  static int getSeekIndex (@NonNull final LocalDateTime [] aDTs,
+                           @NonNull final int [] aTieKeys,
+                           @NonNull final Cursor aCursor)
+  {
+    // First index with a key >= cursor key
+    int nLow = 0;
+    int nHigh = aDTs.length;
+    while (nLow < nHigh)
+    {
+      final int nMid = (nLow + nHigh) >>> 1;
+      if (_compare (aDTs[nMid], aTieKeys[nMid], aCursor.getDateTime (), aCursor.getTieKey ()) < 0)
+        nLow = nMid + 1;
+      else
+        nHigh = nMid;
+    }
+    final int nGroupStart = nLow;
+    // First index with a key > cursor key
+    nHigh = aDTs.length;
+    while (nLow < nHigh)
+    {
+      final int nMid = (nLow + nHigh) >>> 1;
+      if (_compare (aDTs[nMid], aTieKeys[nMid], aCursor.getDateTime (), aCursor.getTieKey ()) <= 0)
+        nLow = nMid + 1;
+      else
+        nHigh = nMid;
+    }
+    final int nGroupEnd = nLow;
+    // Skip the equal items that were already passed
+    return Math.max (nGroupEnd - 1 - aCursor.getPassedEqual (), nGroupStart - 1);
+  }
+
+  /**
+   * Check if an indexed day must be re-indexed. This is the case if the index
+   * was created before the end of the day and is older than
+   * {@link #TODAY_REFRESH}.
+   *
+   * @param aDay
+   *        The indexed day. May not be <code>null</code>.
+   * @param aIndexDT
+   *        The date time when the day was indexed. May not be
+   *        <code>null</code>.
+   * @param aNow
+   *        The current date time. May not be <code>null</code>.
+   * @return <code>true</code> if the day needs to be re-indexed.
+   */
+  static boolean isRefreshRequired (@NonNull final LocalDate aDay,
+                                    @NonNull final LocalDateTime aIndexDT,
+                                    @NonNull final LocalDateTime aNow)
+  {
+    final boolean bIndexedBeforeEndOfDay = aIndexDT.isBefore (aDay.plusDays (1).atStartOfDay ());
+    return bIndexedBeforeEndOfDay && aIndexDT.plus (TODAY_REFRESH).isBefore (aNow);
+  }
+
+  @NonNull
+  private DaySegment _getSegment (@NonNull final LocalDate aDay)
+  {
+    // A lookup changes the access order, so the write lock is needed
+    final DaySegment aSegment = m_aRWLock.writeLockedGet ( () -> m_aDays.get (aDay));
+    if (aSegment != null &&
+        !isRefreshRequired (aDay, aSegment.m_aIndexDT, PDTFactory.getCurrentLocalDateTime ()))
+      return aSegment;
+
+    // Index outside of the lock - reading may take a while
+    final ICommonsList <IAuditItem> aItems = m_aSource.getAllAuditItemsOfDay (aDay);
+    // Ignore all items that don't belong to the day
+    final IAuditItem [] aSortedItems = aItems == null ? new IAuditItem [0]
+                                                      : aItems.getAll (x -> aDay.equals (x.getDateTime ()
+                                                                                          .toLocalDate ()))
+                                                              .toArray (new IAuditItem [0]);
+    Arrays.sort (aSortedItems, Comparator.comparing (IAuditItem::getDateTime).thenComparingInt (AuditIndex::getTieKey));
+
+    return m_aRWLock.writeLockedGet ( () -> {
+      if (m_aTypeDict.size () > MAX_DICTIONARY_SIZE || m_aUserDict.size () > MAX_DICTIONARY_SIZE)
+        _clearAll ();
+      final DaySegment aNewSegment = new DaySegment (aSortedItems, m_aTypeDict, m_aUserDict);
+      m_aDays.put (aDay, aNewSegment);
+      return aNewSegment;
+    });
+  }
+
+  @NonNull
+  private static String _createCursor (@NonNull final DaySegment aSegment, final int nIndex)
+  {
+    // Count the equal items that come before in the iteration order
+    int nPassedEqual = 0;
+    for (int i = nIndex + 1; i < aSegment.m_aItems.length; ++i)
+    {
+      if (_compare (aSegment.m_aDTs[i], aSegment.m_aTieKeys[i], aSegment.m_aDTs[nIndex], aSegment.m_aTieKeys[nIndex]) != 0)
+        break;
+      nPassedEqual++;
+    }
+    return new Cursor (aSegment.m_aDTs[nIndex], aSegment.m_aTieKeys[nIndex], nPassedEqual).getAsString ();
+  }
+
+  /**
+   * Execute a query.
+   *
+   * @param aQuery
+   *        The query to execute. May not be <code>null</code>.
+   * @param sCursor
+   *        The cursor as returned by {@link Result#getNextCursor()} of the
+   *        previous page. May be <code>null</code> to start with the newest
+   *        items.
+   * @param nLimit
+   *        The maximum number of items to return. Must be &gt; 0.
+   * @return The result page. Never <code>null</code>.
+   */
+  @NonNull
+  public Result query (@NonNull final Query aQuery, @Nullable final String sCursor, @Nonnegative final int nLimit)
+  {
+    ValueEnforcer.notNull (aQuery, "Query");
+    ValueEnforcer.isGT0 (nLimit, "Limit");
+
+    // Parse the keyset cursor - start from the beginning if it is invalid
+    final Cursor aCursor = Cursor.parse (sCursor);
+    final LocalDate aCursorDay = aCursor == null ? null : aCursor.getDateTime ().toLocalDate ();
+
+    m_aSource.onBeginQuery ();
+
+    final ICommonsList <IAuditItem> ret = new CommonsArrayList <> ();
+    int nScannedDays = 0;
+    LocalDate aDay = aCursorDay != null && aCursorDay.isBefore (aQuery.getTo ()) ? aCursorDay : aQuery.getTo ();
+    while (!aDay.isBefore (aQuery.getFrom ()))
+    {
+      final DaySegment aSegment = _getSegment (aDay);
+      nScannedDays++;
+
+      // Resolve after indexing the segment, as this may add new values
+      final int nTypeIndex = aQuery.getTypeID () == null ? -1 : _getExistingTypeIndex (aSegment, aQuery.getTypeID ());
+      final int nUserIndex = aQuery.getUserID () == null ? -1 : _getExistingUserIndex (aSegment, aQuery.getUserID ());
+
+      int nIndex = aDay.equals (aCursorDay) ? getSeekIndex (aSegment.m_aDTs, aSegment.m_aTieKeys, aCursor)
+                                            : aSegment.m_aItems.length - 1;
+      while (nIndex >= 0)
+      {
+        final int nHour = aSegment.m_aItems[nIndex].getDateTime ().getHour ();
+        final int nHourStart = aSegment.m_aHourStart[nHour];
+
+        // Skip the whole hour if the bitmaps prove that nothing matches
+        final boolean bSkipHour = (aQuery.getTypeID () != null &&
+                                   (nTypeIndex < 0 || !aSegment.m_aHourTypes[nHour].get (nTypeIndex))) ||
+                                  (aQuery.getUserID () != null &&
+                                   (nUserIndex < 0 || !aSegment.m_aHourUsers[nHour].get (nUserIndex)));
+        if (bSkipHour)
+        {
+          nIndex = nHourStart - 1;
+          continue;
+        }
+
+        for (; nIndex >= nHourStart; --nIndex)
+        {
+          final IAuditItem aItem = aSegment.m_aItems[nIndex];
+          if (aQuery.matches (aItem))
+          {
+            if (ret.size () == nLimit)
+            {
+              // There is at least one more item - continue with this one
+              return new Result (ret, _createCursor (aSegment, nIndex), nScannedDays);
+            }
+            ret.add (aItem);
+          }
+        }
+      }
+      aDay = aDay.minusDays (1);
+    }
+    return new Result (ret, null, nScannedDays);
+  }
+
+  /**
+   * Remove all cached days and the dictionaries of audit types and users.
+   */
+  public void clearCache ()
+  {
+    m_aRWLock.writeLocked (this::_clearAll);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.LocalDate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.photon.audit.IAuditItem;
+import com.helger.photon.audit.IAuditManager;
+
+/**
+ * An {@link IAuditDaySource} that uses the last audit items that are kept in
+ * memory by an {@link IAuditManager}. The items are fetched only once per
+ * query and grouped by day.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class AuditManagerDaySource implements IAuditDaySource
+{
+  private final IAuditManager m_aAuditMgr;
+  private final int m_nMaxItems;
+
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  @GuardedBy ("m_aRWLock")
+  private ICommonsMap <LocalDate, ICommonsList <IAuditItem>> m_aItemsPerDay;
+
+  /**
+   * Constructor
+   *
+   * @param aAuditMgr
+   *        The audit manager to use. May not be <code>null</code>.
+   * @param nMaxItems
+   *        The maximum number of audit items to fetch. Must be &gt; 0.
+   */
+  public AuditManagerDaySource (@NonNull final IAuditManager aAuditMgr, @Nonnegative final int nMaxItems)
+  {
+    ValueEnforcer.notNull (aAuditMgr, "AuditMgr");
+    ValueEnforcer.isGT0 (nMaxItems, "MaxItems");
+    m_aAuditMgr = aAuditMgr;
+    m_nMaxItems = nMaxItems;
+  }
+
+  @Override
+  public void onBeginQuery ()
+  {
+    m_aRWLock.writeLocked ( () -> m_aItemsPerDay = null);
+  }
+
+  @NonNull
+  private ICommonsMap <LocalDate, ICommonsList <IAuditItem>> _getItemsPerDay ()
+  {
+    ICommonsMap <LocalDate, ICommonsList <IAuditItem>> ret = m_aRWLock.readLockedGet ( () -> m_aItemsPerDay);
+    if (ret == null)
+    {
+      // Read outside of the lock
+      final ICommonsMap <LocalDate, ICommonsList <IAuditItem>> aItemsPerDay = new CommonsHashMap <> ();
+      for (final IAuditItem aItem : m_aAuditMgr.getLastAuditItems (m_nMaxItems))
+        aItemsPerDay.computeIfAbsent (aItem.getDateTime ().toLocalDate (), k -> new CommonsArrayList <> ()).add (aItem);
+      m_aRWLock.writeLocked ( () -> m_aItemsPerDay = aItemsPerDay);
+      ret = aItemsPerDay;
+    }
+    return ret;
+  }
+
+  @Nullable
+  public ICommonsList <IAuditItem> getAllAuditItemsOfDay (@NonNull final LocalDate aDay)
+  {
+    final ICommonsList <IAuditItem> ret = _getItemsPerDay ().get (aDay);
+    return ret == null ? null : ret.getClone ();
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.photon.audit.AuditItem;
+import com.helger.photon.audit.AuditManager;
+import com.helger.photon.audit.IAuditItem;
+import com.helger.photon.io.WebFileIO;
+import com.helger.xml.microdom.IMicroDocument;
+import com.helger.xml.microdom.IMicroElement;
+import com.helger.xml.microdom.convert.MicroTypeConverter;
+import com.helger.xml.microdom.serialize.MicroReader;
+
+/**
+ * An {@link IAuditDaySource} that reads the persisted XML audit files. Each
+ * child element of the document element of a day file is converted to an
+ * {@link AuditItem} using the registered micro type converter. For days
+ * without an audit file, an optional fallback source is used.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public class AuditXMLFileDaySource implements IAuditDaySource
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (AuditXMLFileDaySource.class);
+
+  private final Function <LocalDate, File> m_aFileResolver;
+  private final IAuditDaySource m_aFallback;
+
+  /**
+   * Constructor
+   *
+   * @param aFileResolver
+   *        The function that determines the audit file of a single day. May
+   *        not be <code>null</code>.
+   */
+  public AuditXMLFileDaySource (@NonNull final Function <LocalDate, File> aFileResolver)
+  {
+    this (aFileResolver, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aFileResolver
+   *        The function that determines the audit file of a single day. May
+   *        not be <code>null</code>.
+   * @param aFallback
+   *        The source to be used for days without an audit file. May be
+   *        <code>null</code>.
+   */
+  public AuditXMLFileDaySource (@NonNull final Function <LocalDate, File> aFileResolver,
+                                @Nullable final IAuditDaySource aFallback)
+  {
+    ValueEnforcer.notNull (aFileResolver, "FileResolver");
+    m_aFileResolver = aFileResolver;
+    m_aFallback = aFallback;
+  }
+
+  /**
+   * Get the resolver for the day files written by the provided audit manager.
+   *
+   * @param aAuditMgr
+   *        The audit manager to use. May not be <code>null</code>.
+   * @return <code>null</code> if the audit manager only works in memory.
+   */
+  @Nullable
+  public static Function <LocalDate, File> getFileResolver (@NonNull final AuditManager aAuditMgr)
+  {
+    ValueEnforcer.notNull (aAuditMgr, "AuditMgr");
+    if (aAuditMgr.isInMemory ())
+      return null;
+
+    // Same layout as used by the audit manager itself
+    final String sBaseDir = aAuditMgr.getBaseDir ();
+    return aDay -> WebFileIO.getDataIO ()
+                            .getFile (sBaseDir +
+                                      AuditManager.getRelativeAuditDirectory (aDay) +
+                                      AuditManager.getDefaultAuditFilename (aDay));
+  }
+
+  @Override
+  public void onBeginQuery ()
+  {
+    if (m_aFallback != null)
+      m_aFallback.onBeginQuery ();
+  }
+
+  @Nullable
+  public ICommonsList <IAuditItem> getAllAuditItemsOfDay (@NonNull final LocalDate aDay)
+  {
+    final File aFile = m_aFileResolver.apply (aDay);
+    if (aFile == null || !aFile.isFile ())
+      return m_aFallback == null ? null : m_aFallback.getAllAuditItemsOfDay (aDay);
+
+    final IMicroDocument aDoc = MicroReader.readMicroXML (aFile);
+    if (aDoc == null || aDoc.getDocumentElement () == null)
+    {
+      LOGGER.warn ("Failed to read audit file '" + aFile.getAbsolutePath () + "'");
+      return null;
+    }
+
+    final ICommonsList <IAuditItem> ret = new CommonsArrayList <> ();
+    for (final IMicroElement eItem : aDoc.getDocumentElement ().getAllChildElements ())
+    {
+      final AuditItem aItem = MicroTypeConverter.convertToNative (eItem, AuditItem.class);
+      if (aItem != null)
+        ret.add (aItem);
+    }
+    return ret;
+  }
+}
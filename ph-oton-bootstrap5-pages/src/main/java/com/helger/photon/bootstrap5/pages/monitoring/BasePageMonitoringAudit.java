@@ -16,27 +16,45 @@
  */
 package com.helger.photon.bootstrap5.pages.monitoring;
 
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.GuardedBy;
 import com.helger.annotation.misc.Translatable;
 import com.helger.annotation.style.OverrideOnDemand;
 import com.helger.base.compare.ESortOrder;
+import com.helger.base.concurrent.SimpleReadWriteLock;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
 import com.helger.datetime.format.PDTToString;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.html.hc.html.forms.HCEdit;
 import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.impl.HCNodeList;
+import com.helger.photon.audit.AuditManager;
+import com.helger.photon.audit.EAuditActionType;
 import com.helger.photon.audit.IAuditItem;
 import com.helger.photon.audit.IAuditManager;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.form.BootstrapForm;
+import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
 import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.core.form.FormErrorList;
+import com.helger.photon.core.form.RequestField;
 import com.helger.photon.security.util.SecurityHelper;
+import com.helger.photon.uicore.html.select.HCExtSelect;
 import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
@@ -47,9 +65,11 @@ import com.helger.text.IMultilingualText;
 import com.helger.text.display.IHasDisplayText;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
+import com.helger.url.SimpleURL;
 
 /**
- * Show audit items.
+ * Show audit items. The items are searched by time range, user, type and
+ * success via an {@link AuditIndex} and shown page by page.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -65,7 +85,16 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
     MSG_USER ("Benutzer", "User"),
     MSG_TYPE ("Typ", "Type"),
     MSG_SUCCESS ("Erfolg?", "Success?"),
-    MSG_ACTION ("Aktion", "Action");
+    MSG_ACTION ("Aktion", "Action"),
+    MSG_FROM ("Von (JJJJ-MM-TT)", "From (YYYY-MM-DD)"),
+    MSG_TO ("Bis (JJJJ-MM-TT)", "To (YYYY-MM-DD)"),
+    MSG_USER_ID ("Benutzer-ID", "User ID"),
+    MSG_ALL ("Alle", "All"),
+    MSG_BUTTON_SEARCH ("Suchen", "Search"),
+    MSG_NEWEST ("Neueste", "Newest"),
+    MSG_OLDER ("Ältere", "Older"),
+    MSG_ERR_DATE ("Bitte ein gültiges Datum angeben.", "Please provide a valid date."),
+    MSG_ERR_RANGE ("Das Startdatum muss vor dem Enddatum liegen.", "The start date must be before the end date.");
 
     @NonNull
     private final IMultilingualText m_aTP;
@@ -84,8 +113,30 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
 
   public static final int DEFAULT_MAX_ITEMS = 250;
   public static final String PARAM_MAX_ITEMS = "maxitems";
+  public static final String FIELD_FROM = "from";
+  public static final String FIELD_TO = "to";
+  public static final String FIELD_USER = "user";
+  public static final String FIELD_TYPE = "type";
+  public static final String FIELD_SUCCESS = "success";
+  public static final String PARAM_CURSOR = "cursor";
+  /** The default number of days to search */
+  public static final int DEFAULT_DAYS = 7;
+  /**
+   * The maximum number of days that can be searched at once. Matches the
+   * number of days cached by the {@link AuditIndex}, so that paging through a
+   * search does not read the same days again.
+   */
+  public static final int MAX_DAYS = AuditIndex.DEFAULT_MAX_CACHED_DAYS;
+  /**
+   * The number of items that is read from the audit manager, if the audit
+   * items are not persisted in files
+   */
+  public static final int DEFAULT_FALLBACK_ITEMS = 10_000;
 
   private final IAuditManager m_aAuditMgr;
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  @GuardedBy ("m_aRWLock")
+  private AuditIndex m_aAuditIndex;
 
   public BasePageMonitoringAudit (@NonNull @Nonempty final String sID, @NonNull final IAuditManager aAuditMgr)
   {
@@ -130,6 +181,60 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
     return aItem.getAction ();
   }
 
+  /**
+   * Create the source of the audit items. If the audit manager persists the
+   * audit items in day files, the complete persisted audit history is
+   * searched via an {@link AuditXMLFileDaySource}. Otherwise, and for days
+   * without a file, only the last {@link #DEFAULT_FALLBACK_ITEMS} items of the
+   * audit manager are available.
+   *
+   * @return The audit day source to use. May not be <code>null</code>.
+   */
+  @NonNull
+  @OverrideOnDemand
+  protected IAuditDaySource createAuditDaySource ()
+  {
+    final IAuditDaySource aInMemorySource = new AuditManagerDaySource (m_aAuditMgr, DEFAULT_FALLBACK_ITEMS);
+    if (m_aAuditMgr instanceof final AuditManager aAuditMgr)
+    {
+      final Function <LocalDate, File> aFileResolver = AuditXMLFileDaySource.getFileResolver (aAuditMgr);
+      if (aFileResolver != null)
+        return new AuditXMLFileDaySource (aFileResolver, aInMemorySource);
+    }
+    return aInMemorySource;
+  }
+
+  /**
+   * @return The audit index of this page. Created on first access.
+   */
+  @NonNull
+  protected final AuditIndex getAuditIndex ()
+  {
+    final AuditIndex ret = m_aRWLock.readLockedGet ( () -> m_aAuditIndex);
+    if (ret != null)
+      return ret;
+    return m_aRWLock.writeLockedGet ( () -> {
+      if (m_aAuditIndex == null)
+        m_aAuditIndex = new AuditIndex (createAuditDaySource ());
+      return m_aAuditIndex;
+    });
+  }
+
+  @Nullable
+  private static LocalDate _parseDate (@Nullable final String sDate)
+  {
+    if (StringHelper.isEmpty (sDate))
+      return null;
+    try
+    {
+      return LocalDate.parse (sDate);
+    }
+    catch (final DateTimeParseException ex)
+    {
+      return null;
+    }
+  }
+
   @Override
   protected void fillContent (@NonNull final WPECTYPE aWPEC)
   {
@@ -150,6 +255,78 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
     if (nMaxItems <= 0)
       nMaxItems = DEFAULT_MAX_ITEMS;
 
+    // Read the query
+    final FormErrorList aFormErrors = new FormErrorList ();
+    final LocalDate aToday = PDTFactory.getCurrentLocalDate ();
+    final String sFrom = aWPEC.params ().getAsStringTrimmed (FIELD_FROM);
+    final String sTo = aWPEC.params ().getAsStringTrimmed (FIELD_TO);
+    LocalDate aFrom = _parseDate (sFrom);
+    LocalDate aTo = _parseDate (sTo);
+    if (StringHelper.isNotEmpty (sFrom) && aFrom == null)
+      aFormErrors.addFieldError (FIELD_FROM, EText.MSG_ERR_DATE.getDisplayText (aDisplayLocale));
+    if (StringHelper.isNotEmpty (sTo) && aTo == null)
+      aFormErrors.addFieldError (FIELD_TO, EText.MSG_ERR_DATE.getDisplayText (aDisplayLocale));
+    if (aTo == null)
+      aTo = aToday;
+    if (aFrom == null)
+      aFrom = aTo.minusDays (DEFAULT_DAYS - 1L);
+    if (aFrom.isAfter (aTo))
+    {
+      aFormErrors.addFieldError (FIELD_FROM, EText.MSG_ERR_RANGE.getDisplayText (aDisplayLocale));
+      aFrom = aTo;
+    }
+    if (aFrom.isBefore (aTo.minusDays (MAX_DAYS - 1L)))
+      aFrom = aTo.minusDays (MAX_DAYS - 1L);
+
+    final String sUserID = aWPEC.params ().getAsStringTrimmed (FIELD_USER);
+    final String sType = aWPEC.params ().getAsString (FIELD_TYPE);
+    EAuditActionType eType = null;
+    for (final EAuditActionType e : EAuditActionType.values ())
+      if (e.getID ().equals (sType))
+        eType = e;
+    final String sSuccess = aWPEC.params ().getAsString (FIELD_SUCCESS);
+    final Boolean aSuccess = "true".equals (sSuccess) ? Boolean.TRUE : "false".equals (sSuccess) ? Boolean.FALSE
+                                                                                                 : null;
+
+    // Search form
+    final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FROM.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_FROM, aFrom.toString ())))
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_FROM)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_TO.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_TO, aTo.toString ())))
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_TO)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_USER_ID.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_USER))));
+    {
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (FIELD_TYPE));
+      aSelect.addOption ("", EText.MSG_ALL.getDisplayText (aDisplayLocale));
+      for (final EAuditActionType e : EAuditActionType.values ())
+        aSelect.addOption (e.getID ());
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_TYPE.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (aSelect));
+    }
+    {
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (FIELD_SUCCESS));
+      aSelect.addOption ("", EText.MSG_ALL.getDisplayText (aDisplayLocale));
+      aSelect.addOption ("true", EPhotonCoreText.getYesOrNo (true, aDisplayLocale));
+      aSelect.addOption ("false", EPhotonCoreText.getYesOrNo (false, aDisplayLocale));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_SUCCESS.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (aSelect));
+    }
+    aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_BUTTON_SEARCH.getDisplayText (aDisplayLocale))
+                                                .setIcon (EDefaultIcon.MAGNIFIER));
+
+    // Execute the query - only the requested page is materialized
+    final AuditIndex.Query aQuery = new AuditIndex.Query (aFrom,
+                                                          aTo,
+                                                          sUserID,
+                                                          eType == null ? null : eType.getID (),
+                                                          aSuccess);
+    final String sCursor = aWPEC.params ().getAsString (PARAM_CURSOR);
+    final int nLimit = nMaxItems;
+    final AuditIndex.Result aResult = getAuditIndex ().query (aQuery, sCursor, nLimit);
+
     final HCTable aTable = new HCTable (new DTCol (EText.MSG_DATE.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DATETIME,
                                                                                                                    aDisplayLocale)
                                                                                                   .setInitialSorting (ESortOrder.DESCENDING),
@@ -157,7 +334,7 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
                                         new DTCol (EText.MSG_TYPE.getDisplayText (aDisplayLocale)),
                                         new DTCol (EText.MSG_SUCCESS.getDisplayText (aDisplayLocale)),
                                         new DTCol (EText.MSG_ACTION.getDisplayText (aDisplayLocale)).setDataSort (4, 0)).setID (getID ());
-    for (final IAuditItem aItem : m_aAuditMgr.getLastAuditItems (nMaxItems))
+    for (final IAuditItem aItem : aResult.getAllItems ())
     {
       final HCRow aRow = aTable.addBodyRow ();
       aRow.addCell (PDTToString.getAsString (aItem.getDateTime (), aDisplayLocale));
@@ -170,5 +347,32 @@ public class BasePageMonitoringAudit <WPECTYPE extends IWebPageExecutionContext>
 
     final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
     aNodeList.addChild (aDataTables);
+
+    // Keyset pagination
+    final String sTypeID = eType == null ? null : eType.getID ();
+    final Supplier <SimpleURL> aBaseURL = () -> {
+      final SimpleURL ret = aWPEC.getSelfHref ()
+                                 .add (FIELD_FROM, aQuery.getFrom ().toString ())
+                                 .add (FIELD_TO, aQuery.getTo ().toString ())
+                                 .add (PARAM_MAX_ITEMS, Integer.toString (nLimit));
+      if (StringHelper.isNotEmpty (sUserID))
+        ret.add (FIELD_USER, sUserID);
+      if (sTypeID != null)
+        ret.add (FIELD_TYPE, sTypeID);
+      if (aSuccess != null)
+        ret.add (FIELD_SUCCESS, aSuccess.toString ());
+      return ret;
+    };
+
+    final BootstrapButtonToolbar aPagingToolbar = new BootstrapButtonToolbar (aWPEC);
+    if (StringHelper.isNotEmpty (sCursor))
+      aPagingToolbar.addButton (EText.MSG_NEWEST.getDisplayText (aDisplayLocale),
+                                aBaseURL.get (),
+                                EDefaultIcon.BACK_TO_LIST);
+    if (aResult.getNextCursor () != null)
+      aPagingToolbar.addButton (EText.MSG_OLDER.getDisplayText (aDisplayLocale),
+                                aBaseURL.get ().add (PARAM_CURSOR, aResult.getNextCursor ()),
+                                EDefaultIcon.NEXT);
+    aNodeList.addChild (aPagingToolbar);
   }
 }
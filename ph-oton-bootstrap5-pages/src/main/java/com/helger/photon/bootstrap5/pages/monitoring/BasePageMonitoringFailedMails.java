@@ -16,8 +16,11 @@
  */
 package com.helger.photon.bootstrap5.pages.monitoring;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.IntFunction;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -26,21 +29,36 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
-import com.helger.base.compare.ESortOrder;
 import com.helger.base.email.IEmailAddress;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.css.ECSSUnit;
+import com.helger.css.property.CCSSProperties;
 import com.helger.datetime.format.PDTToString;
 import com.helger.html.hc.IHCNode;
 import com.helger.html.hc.ext.HCA_MailTo;
 import com.helger.html.hc.ext.HCExtHelper;
+import com.helger.html.hc.html.forms.HCCheckBox;
+import com.helger.html.hc.html.forms.HCEdit;
+import com.helger.html.hc.html.forms.HCHiddenField;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCRow;
-import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.html.textlevel.HCA;
 import com.helger.html.hc.impl.HCNodeList;
 import com.helger.html.hc.impl.HCTextNode;
+import com.helger.html.hc.render.HCRenderer;
+import com.helger.html.jquery.JQuery;
+import com.helger.html.jscode.JSAnonymousFunction;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
 import com.helger.photon.bootstrap5.button.BootstrapButton;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
@@ -49,10 +67,12 @@ import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPageForm;
 import com.helger.photon.bootstrap5.pages.BootstrapPagesMenuConfigurator;
 import com.helger.photon.bootstrap5.pages.handler.AbstractBootstrapWebPageActionHandler;
 import com.helger.photon.bootstrap5.pages.handler.AbstractBootstrapWebPageActionHandlerDelete;
+import com.helger.photon.bootstrap5.pagination.BootstrapPagination;
 import com.helger.photon.bootstrap5.table.BootstrapTable;
-import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
 import com.helger.photon.core.EPhotonCoreText;
 import com.helger.photon.core.form.FormErrorList;
+import com.helger.photon.core.form.RequestField;
+import com.helger.photon.core.form.RequestFieldBoolean;
 import com.helger.photon.core.mgr.PhotonCoreManager;
 import com.helger.photon.uicore.css.CPageParam;
 import com.helger.photon.uicore.icon.EDefaultIcon;
@@ -60,9 +80,6 @@ import com.helger.photon.uicore.page.EShowList;
 import com.helger.photon.uicore.page.EWebPageFormAction;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
-import com.helger.photon.uictrls.datatables.DataTables;
-import com.helger.photon.uictrls.datatables.column.DTCol;
-import com.helger.photon.uictrls.datatables.column.EDTColType;
 import com.helger.smtp.data.IEmailAttachment;
 import com.helger.smtp.data.IEmailAttachmentList;
 import com.helger.smtp.data.IEmailData;
@@ -77,6 +94,7 @@ import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 import com.helger.url.ISimpleURL;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
 
 /**
  * Show all failed mails.
@@ -106,16 +124,41 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
     MSG_ATTACHMENTS ("Beilagen", "Attachments"),
     MSG_ERROR ("Fehlermeldung", "Error message"),
     RESENT_SUCCESS ("Das E-Mail wurde erneut versendet.", "The email was scheduled for resending."),
-    RESENT_ALL_SUCCESS_1 ("Es wurde 1 E-Mail erneut versendet.", "1 email was scheduled for resending."),
-    RESENT_ALL_SUCCESS_N ("Es wurden {0} E-Mails erneut versendet.", "{0} emails were scheduled for resending."),
+    RESENT_ALL_SUCCESS_1 ("Das erneute Versenden von 1 E-Mail wurde im Hintergrund gestartet.",
+                          "Resending of 1 email was started in the background."),
+    RESENT_ALL_SUCCESS_N ("Das erneute Versenden von {0} E-Mails wurde im Hintergrund gestartet.",
+                          "Resending of {0} emails was started in the background."),
+    RESENT_ALL_RUNNING ("Es werden bereits E-Mails erneut versendet.", "Emails are already being resent."),
     DELETE_QUERY ("Soll das E-Mail wirklich gelöscht werden?", "Should the email really be deleted?"),
     DELETE_SUCCESS ("Das E-Mail wurde erfolgreich gelöscht.", "The email was successfully deleted."),
     DELETE_ALL_SUCCESS_1 ("Es wurde 1 E-Mail erfolgreich gelöscht.", "1 email was successfully deleted."),
     DELETE_ALL_SUCCESS_N ("Es wurden {0} E-Mails erfolgreich gelöscht.", "{0} emails were successfully deleted."),
     MSG_BUTTON_RESEND_DEFAULT_SETTINGS ("Erneut versenden (mit aktuellen SMTP-Einstellungen)",
                                         "Resend (with current SMTP settings)"),
-    MSG_BUTTON_RESEND_ALL_DEFAULT_SETTINGS ("Alle erneut versenden (mit aktuellen SMTP-Einstellungen)",
-                                            "Resend all (with current SMTP settings)");
+    MSG_MAILS_PER_SECOND ("E-Mails pro Sekunde", "Emails per second"),
+    MSG_BATCH_SIZE ("Stapelgröße", "Batch size"),
+    MSG_USE_DEFAULT_SETTINGS ("Aktuelle SMTP-Einstellungen verwenden", "Use current SMTP settings"),
+    MSG_RESEND_HEADER ("Erneutes Versenden", "Resending"),
+    MSG_RESEND_NONE ("Es wurden noch keine E-Mails im Hintergrund erneut versendet.",
+                     "No emails were resent in the background yet."),
+    MSG_RESEND_STATE ("Gestartet am {0}: {1}", "Started at {0}: {1}"),
+    MSG_STATE_RUNNING ("läuft", "running"),
+    MSG_STATE_PAUSED ("pausiert", "paused"),
+    MSG_STATE_CANCELLED ("abgebrochen", "cancelled"),
+    MSG_STATE_FINISHED ("beendet", "finished"),
+    MSG_RESEND_RESENT ("Erneut versendet", "Resent"),
+    MSG_RESEND_REMAINING ("Verbleibend in der Warteschlange", "Remaining in the queue"),
+    MSG_RESEND_WAITING ("Erneut fehlgeschlagen, wartet auf Backoff", "Failed again, waiting for backoff"),
+    MSG_RESEND_GIVEN_UP ("Aufgegeben nach {0} Versuchen", "Given up after {0} attempts"),
+    MSG_RESEND_BATCHES ("Stapel", "Batches"),
+    MSG_RESEND_SETTINGS ("Einstellungen", "Settings"),
+    MSG_RESEND_SETTINGS_VALUE ("{0} E-Mails pro Sekunde, Stapelgröße {1}", "{0} emails per second, batch size {1}"),
+    MSG_BUTTON_PAUSE ("Pausieren", "Pause"),
+    MSG_BUTTON_RESUME ("Fortsetzen", "Resume"),
+    MSG_BUTTON_CANCEL ("Abbrechen", "Cancel"),
+    MSG_COUNT ("{0} fehlgeschlagene E-Mails", "{0} failed emails"),
+    MSG_PREV_PAGE ("Zurück", "Previous"),
+    MSG_NEXT_PAGE ("Weiter", "Next");
 
     @NonNull
     private final IMultilingualText m_aTP;
@@ -136,7 +179,29 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
   private static final String ACTION_RESEND = "resend";
   private static final String ACTION_RESEND_DEFAULT_SETTINGS = "resend-default-settings";
   private static final String ACTION_RESEND_ALL = "resend-all";
-  private static final String ACTION_RESEND_ALL_DEFAULT_SETTINGS = "resend-all-default-settings";
+  private static final String ACTION_PAUSE_RESEND = "pause-resend";
+  private static final String ACTION_RESUME_RESEND = "resume-resend";
+  private static final String ACTION_CANCEL_RESEND = "cancel-resend";
+  private static final String FIELD_MAILS_PER_SECOND = "mailspersecond";
+  private static final String FIELD_BATCH_SIZE = "batchsize";
+  private static final String FIELD_DEFAULT_SETTINGS = "defaultsettings";
+  private static final String RESEND_CONTAINER_ID = "failedmailresend";
+  private static final long RESEND_POLL_MILLIS = 1_000;
+
+  public static final String PARAM_PAGE = "page";
+  public static final int DEFAULT_PAGE_SIZE = 50;
+
+  private static final AjaxFunctionDeclaration AJAX_RESEND_PROGRESS;
+
+  static
+  {
+    AJAX_RESEND_PROGRESS = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      final IHCNode aNode = createResendProgress (aRequestScope, aRequestScope.getRequest ().getLocale ());
+      aAjaxResponse.setContentAndCharset (HCRenderer.getAsHTMLStringWithoutNamespaces (aNode), StandardCharsets.UTF_8);
+      aAjaxResponse.setMimeType (CMimeType.TEXT_HTML);
+      aAjaxResponse.disableCaching ();
+    });
+  }
 
   private final FailedMailQueue m_aFailedMailQueue;
 
@@ -233,39 +298,55 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
       {
         final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
 
-        // Resend all failed mails
-        final List <FailedMailData> aFailedMails = m_aFailedMailQueue.removeAll ();
-        if (!aFailedMails.isEmpty ())
+        // Resend all failed mails in the background
+        final int nFailedMails = m_aFailedMailQueue.getAllFailedMails ().size ();
+        if (nFailedMails > 0)
         {
-          final ISMTPSettings aDefaultSMTPSettings = aWPEC.hasAction (ACTION_RESEND_ALL_DEFAULT_SETTINGS) ? PhotonCoreManager.getSMTPSettingsMgr ()
-                                                                                                                             .getDefaultSMTPSettings ()
-                                                                                                          : null;
-          LOGGER.info ("Trying to resend " +
-                       aFailedMails.size () +
-                       " failed mails" +
-                       (aDefaultSMTPSettings != null ? " with default settings" : "") +
-                       "!");
-
-          // Main resend
-          for (final FailedMailData aFailedMailData : aFailedMails)
+          final boolean bDefaultSettings = aWPEC.params ().isCheckBoxChecked (FIELD_DEFAULT_SETTINGS, false);
+          final ISMTPSettings aDefaultSMTPSettings = bDefaultSettings ? PhotonCoreManager.getSMTPSettingsMgr ()
+                                                                                         .getDefaultSMTPSettings ()
+                                                                      : null;
+          final int nMailsPerSecond = _getInt (aWPEC,
+                                               FIELD_MAILS_PER_SECOND,
+                                               FailedMailResender.DEFAULT_MAILS_PER_SECOND,
+                                               FailedMailResender.MAX_MAILS_PER_SECOND);
+          final int nBatchSize = _getInt (aWPEC,
+                                          FIELD_BATCH_SIZE,
+                                          FailedMailResender.DEFAULT_BATCH_SIZE,
+                                          FailedMailResender.MAX_BATCH_SIZE);
+
+          if (FailedMailResender.getInstance ()
+                                .startJob (m_aFailedMailQueue, aDefaultSMTPSettings, nMailsPerSecond, nBatchSize) == null)
+            aWPEC.postRedirectGetInternal (warn (EText.RESENT_ALL_RUNNING.getDisplayText (aDisplayLocale)));
+          else
           {
-            ScopedMailAPI.getInstance ()
-                         .queueMail (aDefaultSMTPSettings != null ? aDefaultSMTPSettings : aFailedMailData
-                                                                                                          .getSMTPSettings (),
-                                     aFailedMailData.getEmailData ());
+            // Success message
+            final String sSuccessMsg = nFailedMails == 1 ? EText.RESENT_ALL_SUCCESS_1.getDisplayText (aDisplayLocale)
+                                                         : EText.RESENT_ALL_SUCCESS_N.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                              Integer.toString (nFailedMails));
+            aWPEC.postRedirectGetInternal (success (sSuccessMsg));
           }
-          // Success message
-          final String sSuccessMsg = aFailedMails.size () == 1 ? EText.RESENT_ALL_SUCCESS_1.getDisplayText (
-                                                                                                            aDisplayLocale)
-                                                               : EText.RESENT_ALL_SUCCESS_N.getDisplayTextWithArgs (aDisplayLocale,
-                                                                                                                    Integer.toString (aFailedMails.size ()));
-          aWPEC.postRedirectGetInternal (success (sSuccessMsg));
         }
         return EShowList.SHOW_LIST;
       }
     };
     addCustomHandler (ACTION_RESEND_ALL, aResendAllHdl);
-    addCustomHandler (ACTION_RESEND_ALL_DEFAULT_SETTINGS, aResendAllHdl);
+    final AbstractBootstrapWebPageActionHandler <FailedMailData, WPECTYPE> aResendControlHdl = new AbstractBootstrapWebPageActionHandler <> (false)
+    {
+      @NonNull
+      public EShowList handleAction (@NonNull final WPECTYPE aWPEC, final FailedMailData aSelectedObject)
+      {
+        final FailedMailResender aResender = FailedMailResender.getInstance ();
+        if (aWPEC.hasAction (ACTION_CANCEL_RESEND))
+          aResender.cancelJob ();
+        else
+          aResender.setJobPaused (aWPEC.hasAction (ACTION_PAUSE_RESEND));
+        return EShowList.SHOW_LIST;
+      }
+    };
+    addCustomHandler (ACTION_PAUSE_RESEND, aResendControlHdl);
+    addCustomHandler (ACTION_RESUME_RESEND, aResendControlHdl);
+    addCustomHandler (ACTION_CANCEL_RESEND, aResendControlHdl);
     setObjectLockingEnabled (true);
   }
 
@@ -484,35 +565,109 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
     throw new UnsupportedOperationException ();
   }
 
+  private static int _getInt (@NonNull final IWebPageExecutionContext aWPEC,
+                              @NonNull final String sFieldName,
+                              final int nDefault,
+                              final int nMax)
+  {
+    return Math.max (1, Math.min (aWPEC.params ().getAsInt (sFieldName, nDefault), nMax));
+  }
+
+  /**
+   * Create the progress of the current or last background resend job. While
+   * the job is running, the node reloads itself periodically.
+   *
+   * @param aRequestScope
+   *        The current request scope. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @return The created node. Never <code>null</code>.
+   */
+  @NonNull
+  public static IHCNode createResendProgress (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                                              @NonNull final Locale aDisplayLocale)
+  {
+    final HCNodeList ret = new HCNodeList ();
+    final FailedMailResender.Job aJob = FailedMailResender.getInstance ().getJob ();
+    if (aJob == null)
+    {
+      ret.addChild (new HCDiv ().addChild (EText.MSG_RESEND_NONE.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    final boolean bRunning = aJob.isRunning ();
+    final EText eState = aJob.isCancelled () ? EText.MSG_STATE_CANCELLED : !bRunning ? EText.MSG_STATE_FINISHED
+                                                                                     : aJob.isPaused () ? EText.MSG_STATE_PAUSED
+                                                                                                        : EText.MSG_STATE_RUNNING;
+    ret.addChild (new HCDiv ().addChild (EText.MSG_RESEND_STATE.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                        PDTToString.getAsString (aJob.getStartDateTime (),
+                                                                                                                 aDisplayLocale),
+                                                                                        eState.getDisplayText (aDisplayLocale))));
+
+    final int nInitial = aJob.getInitialCount ();
+    final int nResent = aJob.getResentCount ();
+    final HCDiv aBar = new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR);
+    final double dShare = nInitial <= 0 ? 100 : Math.min (100d, nResent * 100d / nInitial);
+    aBar.addStyle (CCSSProperties.WIDTH.newValue (ECSSUnit.perc (dShare)));
+    ret.addChild (new HCDiv ().addClass (CBootstrapCSS.PROGRESS).addClass (CBootstrapCSS.MB_2).addChild (aBar));
+
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+    aTable.setCondensed (true);
+    aTable.addBodyRow ()
+          .addCells (EText.MSG_RESEND_RESENT.getDisplayText (aDisplayLocale), nResent + " / " + nInitial);
+    aTable.addBodyRow ()
+          .addCells (EText.MSG_RESEND_BATCHES.getDisplayText (aDisplayLocale),
+                     Integer.toString (aJob.getBatchCount ()));
+    aTable.addBodyRow ()
+          .addCells (EText.MSG_RESEND_WAITING.getDisplayText (aDisplayLocale),
+                     Integer.toString (aJob.getWaitingCount ()));
+    aTable.addBodyRow ()
+          .addCells (EText.MSG_RESEND_GIVEN_UP.getDisplayTextWithArgs (aDisplayLocale,
+                                                                       Integer.toString (FailedMailResender.MAX_ATTEMPTS)),
+                     Integer.toString (aJob.getGivenUpCount ()));
+    aTable.addBodyRow ()
+          .addCells (EText.MSG_RESEND_SETTINGS.getDisplayText (aDisplayLocale),
+                     EText.MSG_RESEND_SETTINGS_VALUE.getDisplayTextWithArgs (aDisplayLocale,
+                                                                             Integer.toString (aJob.getMailsPerSecond ()),
+                                                                             Integer.toString (aJob.getBatchSize ())));
+    ret.addChild (aTable);
+
+    if (bRunning)
+    {
+      // Reload once - the reloaded content schedules the next reload until the job is finished
+      final JSAnonymousFunction aReload = new JSAnonymousFunction ();
+      aReload.body ()
+             .add (JQuery.idRef (RESEND_CONTAINER_ID)
+                         .load (AJAX_RESEND_PROGRESS.getInvocationURL (aRequestScope).getAsString ()));
+      final JSPackage aPkg = new JSPackage ();
+      aPkg.add (JSExpr.invoke ("setTimeout").arg (aReload).arg (RESEND_POLL_MILLIS));
+      ret.addChild (new HCScriptInline (aPkg));
+    }
+    return ret;
+  }
+
   @Override
   protected void showListOfExistingObjects (@NonNull final WPECTYPE aWPEC)
   {
     final HCNodeList aNodeList = aWPEC.getNodeList ();
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
 
+    final ICommonsList <FailedMailData> aAllFailedMails = m_aFailedMailQueue.getAllFailedMails ();
+    final FailedMailResender.Job aResendJob = FailedMailResender.getInstance ().getJob ();
+    final boolean bResendRunning = aResendJob != null && aResendJob.isRunning ();
+
     // Refresh button
-    final boolean bDisabled = m_aFailedMailQueue.getAllFailedMails ().isEmpty ();
+    final boolean bDisabled = aAllFailedMails.isEmpty ();
     final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
     aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
                         aWPEC.getSelfHref (),
                         EDefaultIcon.REFRESH);
-    aToolbar.addChild (new BootstrapButton ().addChild (EPhotonCoreText.BUTTON_RESEND_ALL.getDisplayText (aDisplayLocale))
-                                             .setOnClick (aWPEC.getSelfHref ()
-                                                               .add (CPageParam.PARAM_ACTION, ACTION_RESEND_ALL))
-                                             .setIcon (EDefaultIcon.YES)
-                                             .setDisabled (bDisabled));
-    aToolbar.addChild (new BootstrapButton ().addChild (EText.MSG_BUTTON_RESEND_ALL_DEFAULT_SETTINGS.getDisplayText (aDisplayLocale))
-                                             .setOnClick (aWPEC.getSelfHref ()
-                                                               .add (CPageParam.PARAM_ACTION,
-                                                                     ACTION_RESEND_ALL_DEFAULT_SETTINGS))
-                                             .setIcon (EDefaultIcon.YES)
-                                             .setDisabled (bDisabled));
     aToolbar.addChild (new BootstrapButton ().addChild (EPhotonCoreText.BUTTON_DELETE_ALL.getDisplayText (aDisplayLocale))
                                              .setOnClick (aWPEC.getSelfHref ()
                                                                .add (CPageParam.PARAM_ACTION,
                                                                      CPageParam.ACTION_DELETE_ALL))
                                              .setIcon (EDefaultIcon.DELETE)
-                                             .setDisabled (bDisabled));
+                                             .setDisabled (bDisabled || bResendRunning));
     if (aWPEC.getMenuTree ().containsItemWithID (BootstrapPagesMenuConfigurator.MENU_ADMIN_SETTINGS_SMTP))
     {
       aToolbar.addChild (new BootstrapButton ().addChild (EWebPageText.PAGE_NAME_SETTINGS_SMTP.getDisplayText (aDisplayLocale))
@@ -521,13 +676,67 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
     }
     aNodeList.addChild (aToolbar);
 
-    final HCTable aTable = new HCTable (new DTCol (EText.MSG_ID.getDisplayText (aDisplayLocale)).setInitialSorting (ESortOrder.DESCENDING),
-                                        new DTCol (EText.MSG_ERROR_DT.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DATETIME,
-                                                                                                                       aDisplayLocale),
-                                        new DTCol (EText.MSG_SMTP_SETTINGS.getDisplayText (aDisplayLocale)),
-                                        new DTCol (EText.MSG_SUBJECT.getDisplayText (aDisplayLocale)),
-                                        new DTCol (EText.MSG_ERROR.getDisplayText (aDisplayLocale))).setID (getID ());
-    for (final FailedMailData aItem : m_aFailedMailQueue.getAllFailedMails ())
+    // Background resending
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_RESEND_HEADER.getDisplayText (aDisplayLocale)));
+    if (bResendRunning)
+    {
+      final BootstrapButtonToolbar aResendToolbar = new BootstrapButtonToolbar (aWPEC);
+      if (aResendJob.isPaused ())
+        aResendToolbar.addButton (EText.MSG_BUTTON_RESUME.getDisplayText (aDisplayLocale),
+                                  aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_RESUME_RESEND),
+                                  EDefaultIcon.YES);
+      else
+        aResendToolbar.addButton (EText.MSG_BUTTON_PAUSE.getDisplayText (aDisplayLocale),
+                                  aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_PAUSE_RESEND),
+                                  EDefaultIcon.NO);
+      aResendToolbar.addButton (EText.MSG_BUTTON_CANCEL.getDisplayText (aDisplayLocale),
+                                aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_CANCEL_RESEND),
+                                EDefaultIcon.CANCEL);
+      aNodeList.addChild (aResendToolbar);
+    }
+    aNodeList.addChild (new HCDiv ().setID (RESEND_CONTAINER_ID)
+                                    .addClass (CBootstrapCSS.MB_2)
+                                    .addChild (createResendProgress (aWPEC.getRequestScope (), aDisplayLocale)));
+    if (!bResendRunning && !bDisabled)
+    {
+      final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+      aForm.addChild (new HCHiddenField (CPageParam.PARAM_ACTION, ACTION_RESEND_ALL));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_MAILS_PER_SECOND.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCEdit (new RequestField (FIELD_MAILS_PER_SECOND,
+                                                                                           Integer.toString (FailedMailResender.DEFAULT_MAILS_PER_SECOND)))));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_BATCH_SIZE.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCEdit (new RequestField (FIELD_BATCH_SIZE,
+                                                                                           Integer.toString (FailedMailResender.DEFAULT_BATCH_SIZE)))));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabelForCheckBox (EText.MSG_USE_DEFAULT_SETTINGS.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCCheckBox (new RequestFieldBoolean (FIELD_DEFAULT_SETTINGS,
+                                                                                                      false))));
+      aForm.addChild (new BootstrapSubmitButton ().addChild (EPhotonCoreText.BUTTON_RESEND_ALL.getDisplayText (aDisplayLocale))
+                                                  .setIcon (EDefaultIcon.YES));
+    }
+
+    // Only the current page is rendered - newest errors first
+    final int nTotalCount = aAllFailedMails.size ();
+    final int nPageCount = Math.max (1, (nTotalCount + DEFAULT_PAGE_SIZE - 1) / DEFAULT_PAGE_SIZE);
+    final int nPage = Math.min (Math.max (0, aWPEC.params ().getAsInt (PARAM_PAGE, 0)), nPageCount - 1);
+    aAllFailedMails.sort (Comparator.comparing (FailedMailData::getErrorDateTime).reversed ());
+    final int nFromIndex = nPage * DEFAULT_PAGE_SIZE;
+    final List <FailedMailData> aPage = aAllFailedMails.subList (nFromIndex,
+                                                               Math.min (nFromIndex + DEFAULT_PAGE_SIZE, nTotalCount));
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_COUNT.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                      Integer.toString (nTotalCount))));
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                      new HCCol (170),
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star ()).setStriped (true);
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_ID.getDisplayText (aDisplayLocale),
+                     EText.MSG_ERROR_DT.getDisplayText (aDisplayLocale),
+                     EText.MSG_SMTP_SETTINGS.getDisplayText (aDisplayLocale),
+                     EText.MSG_SUBJECT.getDisplayText (aDisplayLocale),
+                     EText.MSG_ERROR.getDisplayText (aDisplayLocale));
+    for (final FailedMailData aItem : aPage)
     {
       final ISimpleURL aViewURL = createViewURL (aWPEC, aItem);
       final IEmailData aEmailData = aItem.getEmailData ();
@@ -542,7 +751,18 @@ public class BasePageMonitoringFailedMails <WPECTYPE extends IWebPageExecutionCo
     }
     aNodeList.addChild (aTable);
 
-    final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
-    aNodeList.addChild (aDataTables);
+    // Pagination
+    if (nPageCount > 1)
+    {
+      final IntFunction <ISimpleURL> aPageURL = nTargetPage -> nTargetPage > 0 ? aWPEC.getSelfHref ()
+                                                                                     .add (PARAM_PAGE,
+                                                                                           Integer.toString (nTargetPage))
+                                                                               : aWPEC.getSelfHref ();
+      aNodeList.addChild (BootstrapPagination.create (nPage,
+                                                      nPageCount,
+                                                      aPageURL,
+                                                      EText.MSG_PREV_PAGE.getDisplayText (aDisplayLocale),
+                                                      EText.MSG_NEXT_PAGE.getDisplayText (aDisplayLocale)));
+    }
   }
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.Locale;
+import java.util.regex.PatternSyntaxException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.reflection.GenericReflection;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.css.property.CCSSProperties;
+import com.helger.html.hc.html.forms.HCEdit;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.photon.app.html.PhotonJS;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.button.BootstrapButton;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.form.BootstrapForm;
+import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
+import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
+import com.helger.photon.bootstrap5.uictrls.EBootstrapUICtrlsJSPathProvider;
+import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.core.form.FormErrorList;
+import com.helger.photon.core.form.RequestField;
+import com.helger.photon.uicore.html.select.HCExtSelect;
+import com.helger.photon.uicore.icon.EDefaultIcon;
+import com.helger.photon.uicore.page.IWebPageExecutionContext;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.url.ISimpleURL;
+import com.helger.url.SimpleURL;
+
+/**
+ * Show the latest log entries collected in the in-memory
+ * {@link LogRingBuffer}. The entries can be filtered by level, logger and a
+ * regular expression. If a live tail URL pointing to a {@link LogTailServlet}
+ * is configured, new entries can be streamed into the page.
+ *
+ * @author Philip Helger
+ * @param <WPECTYPE>
+ *        Web Page Execution Context type
+ */
+public class BasePageMonitoringLogs <WPECTYPE extends IWebPageExecutionContext> extends AbstractBootstrapWebPage <WPECTYPE>
+{
+  @Translatable
+  protected enum EText implements IHasDisplayTextWithArgs
+  {
+    MSG_NOT_INSTALLED ("Die Log-Einträge können nicht gesammelt werden, da Log4J 2.x nicht als Logging-Implementierung verwendet wird.",
+                       "The log entries cannot be collected, because Log4J 2.x is not used as the logging implementation."),
+    MSG_FILTER_LEVEL ("Mindest-Level", "Minimum level"),
+    MSG_FILTER_LOGGER ("Logger beginnt mit", "Logger starts with"),
+    MSG_FILTER_REGEX ("Regulärer Ausdruck", "Regular expression"),
+    MSG_ERR_INVALID_REGEX ("Der reguläre Ausdruck ist ungültig: {0}", "The regular expression is invalid: {0}"),
+    MSG_ALL ("Alle", "All"),
+    MSG_BUTTON_FILTER ("Filtern", "Filter"),
+    MSG_SUMMARY ("Es werden die neuesten {0} passenden Einträge angezeigt. Insgesamt wurden {1} Einträge gesammelt, davon werden maximal {2} im Speicher gehalten.",
+                 "Showing the latest {0} matching entries. In total {1} entries were collected, of which at most {2} are kept in memory."),
+    MSG_LIVE_TAIL_START ("Live-Ansicht starten", "Start live tail"),
+    MSG_LIVE_TAIL_STOP ("Live-Ansicht stoppen", "Stop live tail"),
+    MSG_TIME ("Zeit", "Time"),
+    MSG_LEVEL ("Level", "Level"),
+    MSG_LOGGER ("Logger", "Logger"),
+    MSG_THREAD ("Thread", "Thread"),
+    MSG_MESSAGE ("Nachricht", "Message");
+
+    private final IMultilingualText m_aTP;
+
+    EText (final String sDE, final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  /** The maximum number of entries shown in the page */
+  public static final int DEFAULT_MAX_ENTRIES = 500;
+
+  private final boolean m_bInstalled;
+  private ISimpleURL m_aLiveTailURL;
+
+  private static boolean _installAppender ()
+  {
+    // Keep the Log4J classes away if Log4J is not present
+    if (GenericReflection.getClassFromNameSafe ("org.apache.logging.log4j.core.LoggerContext") == null)
+      return false;
+    return LogRingBufferAppender.install ();
+  }
+
+  public BasePageMonitoringLogs (@NonNull @Nonempty final String sID)
+  {
+    super (sID, TextHelper.create_DE_EN ("Log-Einträge", "Log entries"));
+    m_bInstalled = _installAppender ();
+  }
+
+  public BasePageMonitoringLogs (@NonNull @Nonempty final String sID, @NonNull final String sName)
+  {
+    super (sID, sName);
+    m_bInstalled = _installAppender ();
+  }
+
+  public BasePageMonitoringLogs (@NonNull @Nonempty final String sID,
+                                 @NonNull final String sName,
+                                 @Nullable final String sDescription)
+  {
+    super (sID, sName, sDescription);
+    m_bInstalled = _installAppender ();
+  }
+
+  public BasePageMonitoringLogs (@NonNull @Nonempty final String sID,
+                                 @NonNull final IMultilingualText aName,
+                                 @Nullable final IMultilingualText aDescription)
+  {
+    super (sID, aName, aDescription);
+    m_bInstalled = _installAppender ();
+  }
+
+  /**
+   * @return The URL of the {@link LogTailServlet} used for the live tail. May
+   *         be <code>null</code>.
+   */
+  @Nullable
+  public final ISimpleURL getLiveTailURL ()
+  {
+    return m_aLiveTailURL;
+  }
+
+  /**
+   * Set the URL of the {@link LogTailServlet} to enable the live tail. The
+   * servlet must be mapped by the application below a path that requires a
+   * login.
+   *
+   * @param aLiveTailURL
+   *        The URL to use. May be <code>null</code> to disable the live tail.
+   * @return this for chaining
+   */
+  @NonNull
+  public final BasePageMonitoringLogs <WPECTYPE> setLiveTailURL (@Nullable final ISimpleURL aLiveTailURL)
+  {
+    m_aLiveTailURL = aLiveTailURL;
+    return this;
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    if (!m_bInstalled)
+      aNodeList.addChild (warn (EText.MSG_NOT_INSTALLED.getDisplayText (aDisplayLocale)));
+
+    // Read the filter
+    final FormErrorList aFormErrors = new FormErrorList ();
+    final String sLevel = aWPEC.params ().getAsStringTrimmed (LogEntryFilter.PARAM_LEVEL);
+    final String sLogger = aWPEC.params ().getAsStringTrimmed (LogEntryFilter.PARAM_LOGGER);
+    final String sRegex = aWPEC.params ().getAsString (LogEntryFilter.PARAM_REGEX);
+    LogEntryFilter aFilter;
+    try
+    {
+      aFilter = LogEntryFilter.create (sLevel, sLogger, sRegex);
+    }
+    catch (final PatternSyntaxException ex)
+    {
+      aFormErrors.addFieldError (LogEntryFilter.PARAM_REGEX,
+                                 EText.MSG_ERR_INVALID_REGEX.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                     ex.getDescription ()));
+      aFilter = LogEntryFilter.create (sLevel, sLogger, null);
+    }
+
+    final LogRingBuffer aBuffer = LogRingBuffer.getInstance ();
+    // Determine the cursor before reading, so that the live tail does not
+    // miss anything
+    final long nLastSequence = aBuffer.getTotalCount () - 1;
+    final ICommonsList <LogRingBuffer.Entry> aEntries = aBuffer.getLatestEntries (aFilter, DEFAULT_MAX_ENTRIES);
+
+    final SimpleURL aSelfURL = aFilter.addToURL (aWPEC.getSelfHref ());
+
+    // Toolbar
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                        aSelfURL,
+                        EDefaultIcon.REFRESH);
+    final String sLiveTailButtonID = getID () + "-livetail";
+    if (m_aLiveTailURL != null)
+    {
+      final String sStart = EText.MSG_LIVE_TAIL_START.getDisplayText (aDisplayLocale);
+      final BootstrapButton aButton = new BootstrapButton ().addChild (sStart);
+      aButton.setID (sLiveTailButtonID);
+      aButton.customAttrs ().setDataAttr ("start", sStart);
+      aButton.customAttrs ().setDataAttr ("stop", EText.MSG_LIVE_TAIL_STOP.getDisplayText (aDisplayLocale));
+      aToolbar.addChild (aButton);
+    }
+    aNodeList.addChild (aToolbar);
+
+    // Filter form
+    final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+    {
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (LogEntryFilter.PARAM_LEVEL));
+      aSelect.addOption ("", EText.MSG_ALL.getDisplayText (aDisplayLocale));
+      for (final String sLevelName : LogEntryFilter.getAllLevelNames ())
+        aSelect.addOption (sLevelName);
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_LEVEL.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (aSelect));
+    }
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_LOGGER.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (LogEntryFilter.PARAM_LOGGER))));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_REGEX.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (LogEntryFilter.PARAM_REGEX)))
+                                                 .setErrorList (aFormErrors.getListOfField (LogEntryFilter.PARAM_REGEX)));
+    aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_BUTTON_FILTER.getDisplayText (aDisplayLocale))
+                                                .setIcon (EDefaultIcon.MAGNIFIER));
+
+    aNodeList.addChild (info (EText.MSG_SUMMARY.getDisplayTextWithArgs (aDisplayLocale,
+                                                                         Integer.toString (aEntries.size ()),
+                                                                         Long.toString (aBuffer.getTotalCount ()),
+                                                                         Integer.toString (aBuffer.getCapacity ()))));
+
+    // Newest first
+    final BootstrapTable aTable = new BootstrapTable (new HCCol (170),
+                                                      new HCCol (70),
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star ()).setStriped (true).setCondensed (true);
+    aTable.setID (getID () + "-entries");
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_TIME.getDisplayText (aDisplayLocale),
+                     EText.MSG_LEVEL.getDisplayText (aDisplayLocale),
+                     EText.MSG_LOGGER.getDisplayText (aDisplayLocale),
+                     EText.MSG_THREAD.getDisplayText (aDisplayLocale),
+                     EText.MSG_MESSAGE.getDisplayText (aDisplayLocale));
+    for (final LogRingBuffer.Entry aEntry : aEntries)
+    {
+      final HCRow aRow = aTable.addBodyRow ();
+      if (aEntry.getIntLevel () <= 200)
+        aRow.addClass (CBootstrapCSS.TEXT_DANGER);
+      else
+        if (aEntry.getIntLevel () <= 300)
+          aRow.addClass (CBootstrapCSS.TEXT_WARNING);
+      aRow.addCell (aEntry.getTimeString ());
+      aRow.addCell (aEntry.getLevel ());
+      aRow.addCell (aEntry.getLoggerName ());
+      aRow.addCell (aEntry.getThreadName ());
+      aRow.addCell (div (aEntry.getMessage ()).addClass (CBootstrapCSS.FONT_MONOSPACE)
+                                              .addStyle (CCSSProperties.WHITE_SPACE.newValue ("pre-wrap")));
+    }
+    aNodeList.addChild (aTable);
+
+    if (m_aLiveTailURL != null)
+    {
+      final SimpleURL aTailURL = aFilter.addToURL (new SimpleURL (m_aLiveTailURL.getAsString ()));
+      aTailURL.add (LogTailXServletHandler.PARAM_AFTER, Long.toString (nLastSequence));
+
+      PhotonJS.registerJSIncludeForThisRequest (EBootstrapUICtrlsJSPathProvider.LOG_TAIL);
+      final JSPackage aPkg = new JSPackage ();
+      aPkg.add (JSExpr.ref ("phLogTail")
+                      .invoke ("bind")
+                      .arg (aTable.getID ())
+                      .arg (sLiveTailButtonID)
+                      .arg (aTailURL.getAsString ())
+                      .arg (DEFAULT_MAX_ENTRIES));
+      aNodeList.addChild (new HCScriptInline (aPkg));
+    }
+  }
+}
@@ -18,8 +18,11 @@ package com.helger.photon.bootstrap5.pages.monitoring;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -28,31 +31,45 @@ import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
 import com.helger.base.CGlobal;
 import com.helger.base.compare.ESortOrder;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
 import com.helger.base.lang.clazz.ClassHelper;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.css.ECSSUnit;
+import com.helger.css.property.CCSSProperties;
 import com.helger.datetime.format.PDTToString;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.html.forms.HCEdit;
+import com.helger.html.hc.html.forms.HCHiddenField;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.html.textlevel.HCA;
 import com.helger.html.hc.impl.HCNodeList;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
 import com.helger.photon.bootstrap5.form.BootstrapViewForm;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPageForm;
-import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDTColAction;
+import com.helger.photon.bootstrap5.pagination.BootstrapPagination;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
 import com.helger.photon.core.EPhotonCoreText;
 import com.helger.photon.core.form.FormErrorList;
+import com.helger.photon.core.form.RequestField;
 import com.helger.photon.uicore.UITextFormatter;
+import com.helger.photon.uicore.css.CPageParam;
 import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageFormAction;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.photon.uictrls.datatables.DataTables;
 import com.helger.photon.uictrls.datatables.column.DTCol;
-import com.helger.photon.uictrls.datatables.column.EDTColType;
 import com.helger.scope.ISessionScope;
 import com.helger.scope.mgr.ScopeSessionManager;
 import com.helger.text.IMultilingualText;
@@ -60,11 +77,14 @@ import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 import com.helger.url.ISimpleURL;
+import com.helger.url.SimpleURL;
 import com.helger.web.scope.ISessionWebScope;
 import com.helger.web.scope.mgr.WebScopeManager;
 
 /**
- * Show information on all active sessions
+ * Show information on all active sessions. The list is paged on the server
+ * side and only reads the {@link SessionMetadataIndex}, so it stays fast with
+ * a large number of sessions.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -96,7 +116,20 @@ public class BasePageMonitoringSessions <WPECTYPE extends IWebPageExecutionConte
     MSG_NAME ("Name", "Wert"),
     MSG_TYPE ("Typ", "Type"),
     MSG_VALUE ("Wert", "Value"),
-    MSG_MY_SESSION (" [ich]", " [me]");
+    MSG_MY_SESSION (" [ich]", " [me]"),
+    MSG_USER ("Benutzer", "User"),
+    MSG_IDLE ("Inaktiv seit", "Idle for"),
+    MSG_FILTER_USER ("Benutzer enthält", "User contains"),
+    MSG_FILTER_MIN_IDLE ("Mindestens inaktiv (Minuten)", "Minimum idle time (minutes)"),
+    MSG_FILTER_MIN_ATTRS ("Mindestanzahl Attribute", "Minimum attribute count"),
+    MSG_BUTTON_FILTER ("Filtern", "Filter"),
+    MSG_MATCHING ("{0} von {1} Sessions passen zum Filter", "{0} of {1} sessions match the filter"),
+    MSG_IDLE_HISTOGRAM ("Sessions nach Inaktivität", "Sessions by idle time"),
+    MSG_IDLE_LESS_THAN ("< {0} min", "< {0} min"),
+    MSG_IDLE_BETWEEN ("{0} - {1} min", "{0} - {1} min"),
+    MSG_IDLE_MORE_THAN ("≥ {0} min", "≥ {0} min"),
+    MSG_PREV_PAGE ("Zurück", "Previous"),
+    MSG_NEXT_PAGE ("Weiter", "Next");
 
     private final IMultilingualText m_aTP;
 
@@ -112,6 +145,68 @@ public class BasePageMonitoringSessions <WPECTYPE extends IWebPageExecutionConte
     }
   }
 
+  /**
+   * The fields the session list can be sorted by.
+   *
+   * @author Philip Helger
+   */
+  protected enum ESortField implements IHasID <String>
+  {
+    ID ("id", Comparator.comparing (SessionMetadata::getID)),
+    USER ("user",
+          Comparator.comparing (SessionMetadata::getUserLoginName, Comparator.nullsLast (Comparator.naturalOrder ()))),
+    ATTRIBUTE_COUNT ("attrs", Comparator.comparingInt (SessionMetadata::getAttributeCount)),
+    LAST_ACCESS ("lastaccess", Comparator.comparingLong (SessionMetadata::getLastAccessMillis));
+
+    private final String m_sID;
+    private final Comparator <SessionMetadata> m_aComparator;
+
+    ESortField (@NonNull @Nonempty final String sID, @NonNull final Comparator <SessionMetadata> aComparator)
+    {
+      m_sID = sID;
+      m_aComparator = aComparator;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getID ()
+    {
+      return m_sID;
+    }
+
+    /**
+     * @param bAscending
+     *        <code>true</code> for ascending order
+     * @return The comparator to use. The session ID is used as the tie breaker
+     *         so that paging is stable.
+     */
+    @NonNull
+    public Comparator <SessionMetadata> getComparator (final boolean bAscending)
+    {
+      final Comparator <SessionMetadata> ret = bAscending ? m_aComparator : m_aComparator.reversed ();
+      return ret.thenComparing (SessionMetadata::getID);
+    }
+
+    @Nullable
+    public static ESortField getFromIDOrNull (@Nullable final String sID)
+    {
+      return EnumHelper.getFromIDOrNull (ESortField.class, sID);
+    }
+  }
+
+  public static final String FIELD_FILTER_USER = "filteruser";
+  public static final String FIELD_FILTER_MIN_IDLE = "filterminidle";
+  public static final String FIELD_FILTER_MIN_ATTRS = "filterminattrs";
+  public static final String PARAM_SORT = "sort";
+  public static final String PARAM_ORDER = "order";
+  public static final String PARAM_PAGE = "page";
+  public static final String ORDER_ASC = "asc";
+  public static final String ORDER_DESC = "desc";
+  public static final int DEFAULT_PAGE_SIZE = 50;
+
+  /** The exclusive upper bounds of the idle time histogram in minutes */
+  private static final long [] IDLE_HISTOGRAM_MINUTES = { 1, 5, 15, 30, 60 };
+
   public BasePageMonitoringSessions (@NonNull @Nonempty final String sID)
   {
     super (sID, EWebPageText.PAGE_NAME_MONITORING_SESSIONS.getAsMLT ());
@@ -272,55 +367,233 @@ public class BasePageMonitoringSessions <WPECTYPE extends IWebPageExecutionConte
     throw new UnsupportedOperationException ();
   }
 
+  @NonNull
+  private static String _getDurationString (final long nMillis)
+  {
+    final long nSeconds = nMillis / CGlobal.MILLISECONDS_PER_SECOND;
+    return String.format (Locale.ROOT,
+                          "%d:%02d:%02d",
+                          Long.valueOf (nSeconds / CGlobal.SECONDS_PER_HOUR),
+                          Long.valueOf ((nSeconds / CGlobal.SECONDS_PER_MINUTE) % CGlobal.MINUTES_PER_HOUR),
+                          Long.valueOf (nSeconds % CGlobal.SECONDS_PER_MINUTE));
+  }
+
+  private static boolean _containsLC (@Nullable final String sText, @NonNull final String sSearchLC)
+  {
+    return sText != null && sText.toLowerCase (Locale.ROOT).contains (sSearchLC);
+  }
+
+  @NonNull
+  private IHCNode _getIdleHistogram (@NonNull final Locale aDisplayLocale)
+  {
+    final long [] aUpperBoundsMillis = new long [IDLE_HISTOGRAM_MINUTES.length];
+    for (int i = 0; i < aUpperBoundsMillis.length; ++i)
+      aUpperBoundsMillis[i] = IDLE_HISTOGRAM_MINUTES[i] * CGlobal.MILLISECONDS_PER_MINUTE;
+    final int [] aCounts = SessionMetadataIndex.getIdleTimeHistogram (aUpperBoundsMillis);
+
+    int nTotal = 0;
+    for (final int n : aCounts)
+      nTotal += n;
+
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setCondensed (true);
+    for (int i = 0; i < aCounts.length; ++i)
+    {
+      final String sLabel;
+      if (i == 0)
+        sLabel = EText.MSG_IDLE_LESS_THAN.getDisplayTextWithArgs (aDisplayLocale,
+                                                                  Long.toString (IDLE_HISTOGRAM_MINUTES[0]));
+      else
+        if (i == IDLE_HISTOGRAM_MINUTES.length)
+          sLabel = EText.MSG_IDLE_MORE_THAN.getDisplayTextWithArgs (aDisplayLocale,
+                                                                    Long.toString (IDLE_HISTOGRAM_MINUTES[i - 1]));
+        else
+          sLabel = EText.MSG_IDLE_BETWEEN.getDisplayTextWithArgs (aDisplayLocale,
+                                                                  Long.toString (IDLE_HISTOGRAM_MINUTES[i - 1]),
+                                                                  Long.toString (IDLE_HISTOGRAM_MINUTES[i]));
+
+      final double dPerc = nTotal == 0 ? 0 : aCounts[i] * 100d / nTotal;
+      final HCDiv aBar = new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR);
+      aBar.addStyle (CCSSProperties.WIDTH.newValue (ECSSUnit.perc (dPerc)));
+
+      final HCRow aRow = aTable.addBodyRow ();
+      aRow.addCell (sLabel);
+      aRow.addCell (Integer.toString (aCounts[i]));
+      aRow.addCell (new HCDiv ().addClass (CBootstrapCSS.PROGRESS).addChild (aBar));
+    }
+    return aTable;
+  }
+
+  @NonNull
+  private static SimpleURL _createListURL (@NonNull final IWebPageExecutionContext aWPEC,
+                                           @Nullable final String sFilterUser,
+                                           final int nFilterMinIdle,
+                                           final int nFilterMinAttrs,
+                                           @NonNull final ESortField eSortField,
+                                           final boolean bAscending,
+                                           final int nPage)
+  {
+    final SimpleURL ret = aWPEC.getSelfHref ();
+    if (StringHelper.isNotEmpty (sFilterUser))
+      ret.add (FIELD_FILTER_USER, sFilterUser);
+    if (nFilterMinIdle > 0)
+      ret.add (FIELD_FILTER_MIN_IDLE, Integer.toString (nFilterMinIdle));
+    if (nFilterMinAttrs > 0)
+      ret.add (FIELD_FILTER_MIN_ATTRS, Integer.toString (nFilterMinAttrs));
+    ret.add (PARAM_SORT, eSortField.getID ());
+    ret.add (PARAM_ORDER, bAscending ? ORDER_ASC : ORDER_DESC);
+    if (nPage > 0)
+      ret.add (PARAM_PAGE, Integer.toString (nPage));
+    return ret;
+  }
+
   @Override
   protected void showListOfExistingObjects (@NonNull final WPECTYPE aWPEC)
   {
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
     final HCNodeList aNodeList = aWPEC.getNodeList ();
 
+    // Read the list state from the request
+    final String sFilterUser = aWPEC.params ().getAsStringTrimmed (FIELD_FILTER_USER);
+    final int nFilterMinIdle = Math.max (0, aWPEC.params ().getAsInt (FIELD_FILTER_MIN_IDLE, 0));
+    final int nFilterMinAttrs = Math.max (0, aWPEC.params ().getAsInt (FIELD_FILTER_MIN_ATTRS, 0));
+    final ESortField eRequestedSortField = ESortField.getFromIDOrNull (aWPEC.params ().getAsString (PARAM_SORT));
+    final ESortField eSortField = eRequestedSortField != null ? eRequestedSortField : ESortField.LAST_ACCESS;
+    final boolean bAscending = ORDER_ASC.equals (aWPEC.params ().getAsString (PARAM_ORDER));
+    final int nRequestedPage = Math.max (0, aWPEC.params ().getAsInt (PARAM_PAGE, 0));
+
     // Refresh button
     final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
     aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
-                        aWPEC.getSelfHref (),
+                        _createListURL (aWPEC,
+                                        sFilterUser,
+                                        nFilterMinIdle,
+                                        nFilterMinAttrs,
+                                        eSortField,
+                                        bAscending,
+                                        nRequestedPage),
                         EDefaultIcon.REFRESH);
     aNodeList.addChild (aToolbar);
 
-    final HCTable aTable = new HCTable (new DTCol (EText.MSG_ID.getDisplayText (aDisplayLocale)),
-                                        new DTCol (EText.MSG_ATTRCOUNT.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
-                                                                                                                        aDisplayLocale),
-                                        new DTCol (EText.MSG_LAST_ACCESS.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DATETIME,
-                                                                                                                          aDisplayLocale)
-                                                                                                         .setInitialSorting (ESortOrder.DESCENDING),
-                                        new BootstrapDTColAction (aDisplayLocale)).setID (getID ());
+    // Aggregated statistics
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_IDLE_HISTOGRAM.getDisplayText (aDisplayLocale)));
+    aNodeList.addChild (_getIdleHistogram (aDisplayLocale));
+
+    // Filter
+    final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+    aForm.addChild (new HCHiddenField (PARAM_SORT, eSortField.getID ()));
+    aForm.addChild (new HCHiddenField (PARAM_ORDER, bAscending ? ORDER_ASC : ORDER_DESC));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_USER.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_FILTER_USER))));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_MIN_IDLE.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_FILTER_MIN_IDLE))));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_FILTER_MIN_ATTRS.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_FILTER_MIN_ATTRS))));
+    aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_BUTTON_FILTER.getDisplayText (aDisplayLocale))
+                                                .setIcon (EDefaultIcon.YES));
+
+    // Build the filter - only the metadata is accessed, not the session scopes
+    final long nNow = System.currentTimeMillis ();
+    final long nMinIdleMillis = (long) nFilterMinIdle * CGlobal.MILLISECONDS_PER_MINUTE;
+    final String sFilterUserLC = sFilterUser == null ? null : sFilterUser.toLowerCase (Locale.ROOT);
+    final Predicate <SessionMetadata> aFilter;
+    if (StringHelper.isEmpty (sFilterUser) && nFilterMinIdle == 0 && nFilterMinAttrs == 0)
+      aFilter = null;
+    else
+      aFilter = x -> {
+        if (x.getIdleMillis (nNow) < nMinIdleMillis)
+          return false;
+        if (x.getAttributeCount () < nFilterMinAttrs)
+          return false;
+        if (StringHelper.isNotEmpty (sFilterUserLC))
+          return _containsLC (x.getUserLoginName (), sFilterUserLC) || _containsLC (x.getUserID (), sFilterUserLC);
+        return true;
+      };
+
+    final int nTotalCount = SessionMetadataIndex.getSessionCount ();
+    final int nMatchingCount = SessionMetadataIndex.getMatchingCount (aFilter);
+    final int nPageCount = Math.max (1, (nMatchingCount + DEFAULT_PAGE_SIZE - 1) / DEFAULT_PAGE_SIZE);
+    final int nPage = Math.min (nRequestedPage, nPageCount - 1);
+    final ICommonsList <SessionMetadata> aPage = SessionMetadataIndex.getPage (aFilter,
+                                                                             eSortField.getComparator (bAscending),
+                                                                             nPage * DEFAULT_PAGE_SIZE,
+                                                                             DEFAULT_PAGE_SIZE);
+
+    aNodeList.addChild (div (EText.MSG_MATCHING.getDisplayTextWithArgs (aDisplayLocale,
+                                                                       Integer.toString (nMatchingCount),
+                                                                       Integer.toString (nTotalCount))));
 
     final String sMySessionID = WebScopeManager.getSessionScope ().getID ();
 
-    for (final ISessionScope aSessionScope : ScopeSessionManager.getInstance ().getAllSessionScopes ())
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star ()).setStriped (true);
+    {
+      final HCRow aHeaderRow = aTable.addHeaderRow ();
+      final ESortField [] aSortFields = { ESortField.ID,
+                                          ESortField.USER,
+                                          ESortField.ATTRIBUTE_COUNT,
+                                          ESortField.LAST_ACCESS };
+      final EText [] aSortTexts = { EText.MSG_ID, EText.MSG_USER, EText.MSG_ATTRCOUNT, EText.MSG_LAST_ACCESS };
+      for (int i = 0; i < aSortFields.length; ++i)
+      {
+        final ESortField eField = aSortFields[i];
+        // Clicking the current sort column toggles the order
+        final boolean bLinkAscending;
+        if (eField == eSortField)
+          bLinkAscending = !bAscending;
+        else
+          bLinkAscending = eField == ESortField.ID || eField == ESortField.USER;
+        String sText = aSortTexts[i].getDisplayText (aDisplayLocale);
+        if (eField == eSortField)
+          sText += bAscending ? " ▲" : " ▼";
+        aHeaderRow.addCell (new HCA (_createListURL (aWPEC,
+                                                     sFilterUser,
+                                                     nFilterMinIdle,
+                                                     nFilterMinAttrs,
+                                                     eField,
+                                                     bLinkAscending,
+                                                     0)).addChild (sText));
+      }
+      aHeaderRow.addCell (EText.MSG_IDLE.getDisplayText (aDisplayLocale));
+    }
+
+    for (final SessionMetadata aMetadata : aPage)
     {
-      final ISessionWebScope aWebScope = aSessionScope instanceof ISessionWebScope ? (ISessionWebScope) aSessionScope
-                                                                                   : null;
-      final ISimpleURL aViewLink = createViewURL (aWPEC, aSessionScope);
-      final boolean bIsMySession = aSessionScope.getID ().equals (sMySessionID);
+      final ISimpleURL aViewLink = aWPEC.getSelfHref ()
+                                        .add (CPageParam.PARAM_ACTION, CPageParam.ACTION_VIEW)
+                                        .add (CPageParam.PARAM_OBJECT, aMetadata.getID ());
+      final boolean bIsMySession = aMetadata.getID ().equals (sMySessionID);
 
       final HCRow aRow = aTable.addBodyRow ();
-      aRow.addCell (new HCA (aViewLink).addChild (aSessionScope.getID () +
+      aRow.addCell (new HCA (aViewLink).addChild (aMetadata.getID () +
                                                   (bIsMySession ? EText.MSG_MY_SESSION.getDisplayText (aDisplayLocale)
                                                                 : "")));
-      aRow.addCell (Integer.toString (aSessionScope.attrs ().size ()));
-      if (aWebScope != null)
-        aRow.addCell (PDTToString.getAsString (PDTFactory.createLocalDateTime (aWebScope.getSession ()
-                                                                                        .getLastAccessedTime ()),
-                                               aDisplayLocale));
-      else
-        aRow.addCell ();
-
-      // Actions
-      aRow.addCell ();
+      aRow.addCell (StringHelper.getNotNull (aMetadata.getUserLoginName ()));
+      aRow.addCell (Integer.toString (aMetadata.getAttributeCount ()));
+      aRow.addCell (PDTToString.getAsString (PDTFactory.createLocalDateTime (aMetadata.getLastAccessMillis ()),
+                                             aDisplayLocale));
+      aRow.addCell (_getDurationString (aMetadata.getIdleMillis (nNow)));
     }
-
     aNodeList.addChild (aTable);
 
-    final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
-    aNodeList.addChild (aDataTables);
+    // Pagination
+    if (nPageCount > 1)
+    {
+      final IntFunction <ISimpleURL> aPageURL = nTargetPage -> _createListURL (aWPEC,
+                                                                               sFilterUser,
+                                                                               nFilterMinIdle,
+                                                                               nFilterMinAttrs,
+                                                                               eSortField,
+                                                                               bAscending,
+                                                                               nTargetPage);
+      aNodeList.addChild (BootstrapPagination.create (nPage,
+                                                      nPageCount,
+                                                      aPageURL,
+                                                      EText.MSG_PREV_PAGE.getDisplayText (aDisplayLocale),
+                                                      EText.MSG_NEXT_PAGE.getDisplayText (aDisplayLocale)));
+    }
   }
 }
@@ -30,15 +30,26 @@ import com.helger.annotation.misc.Translatable;
 import com.helger.base.CGlobal;
 import com.helger.base.compare.ESortOrder;
 import com.helger.base.numeric.BigHelper;
+import com.helger.css.ECSSUnit;
+import com.helger.css.property.CCSSProperties;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.datetime.web.PDTWebDateHelper;
+import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.html.tabular.HCTable;
+import com.helger.html.hc.html.textlevel.HCA;
 import com.helger.html.hc.impl.HCNodeList;
 import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
 import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.nav.BootstrapTabBox;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistogram.Snapshot;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistorySampler.EType;
+import com.helger.photon.bootstrap5.pages.monitoring.StatisticsHistorySampler.History;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
+import com.helger.photon.bootstrap5.uictrls.ext.BootstrapSparkline;
 import com.helger.photon.core.EPhotonCoreText;
 import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageText;
@@ -56,7 +67,7 @@ import com.helger.statistics.api.IStatisticsHandlerTimer;
 import com.helger.statistics.visit.IStatisticsVisitorCallback;
 import com.helger.statistics.visit.StatisticsVisitor;
 import com.helger.text.IMultilingualText;
-import com.helger.text.display.IHasDisplayText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 import com.helger.web.scope.IRequestWebScopeWithoutResponse;
@@ -74,7 +85,7 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
                                           AbstractBootstrapWebPage <WPECTYPE>
 {
   @Translatable
-  protected enum EText implements IHasDisplayText
+  protected enum EText implements IHasDisplayTextWithArgs
   {
     MSG_TAB_TIMER ("Zeiten", "Timer"),
     MSG_TAB_SIZE ("Größe", "Size"),
@@ -95,7 +106,20 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
     MSG_CACHE_HIT ("Cache hit", "Cache hit"),
     MSG_CACHE_HIT_PERC ("Cache hit %", "Cache hit %"),
     MSG_CACHE_MISS ("Cache miss", "Cache miss"),
-    MSG_CACHE_MISS_PERC ("Cache miss %", "Cache miss %");
+    MSG_CACHE_MISS_PERC ("Cache miss %", "Cache miss %"),
+    MSG_LAST_INTERVAL ("Letztes Intervall", "Last interval"),
+    MSG_TREND ("Verlauf", "Trend"),
+    MSG_TAB_PERCENTILES ("Perzentile", "Percentiles"),
+    MSG_P50 ("p50 (ms)", "p50 (ms)"),
+    MSG_P90 ("p90 (ms)", "p90 (ms)"),
+    MSG_P99 ("p99 (ms)", "p99 (ms)"),
+    MSG_P999 ("p99.9 (ms)", "p99.9 (ms)"),
+    MSG_DISTRIBUTION ("Verteilung", "Distribution"),
+    MSG_DISTRIBUTION_OF ("Verteilung von ''{0}'' / ''{1}''", "Distribution of ''{0}'' / ''{1}''"),
+    MSG_RANGE_FROM ("Von (ms)", "From (ms)"),
+    MSG_RANGE_TO ("Bis (ms)", "To (ms)"),
+    MSG_SHARE ("Anteil", "Share"),
+    MSG_CUMULATIVE ("Kumuliert", "Cumulative");
 
     private final IMultilingualText m_aTP;
 
@@ -111,6 +135,9 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
     }
   }
 
+  public static final String PARAM_HISTOGRAM_NAME = "histname";
+  public static final String PARAM_HISTOGRAM_KEY = "histkey";
+
   private static final Logger LOGGER = LoggerFactory.getLogger (BasePageMonitoringStatistics.class);
 
   private static final AjaxFunctionDeclaration AJAX_SAVE_STATS = addAjax ( (aRequestScope, aAjaxResponse) -> {
@@ -146,12 +173,151 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
     super (sID, aName, aDescription);
   }
 
+  /**
+   * @param aHistory
+   *        The history of a single series. May be <code>null</code>.
+   * @param bInvocations
+   *        <code>true</code> to use the invocation count, <code>false</code> to
+   *        use the value.
+   * @return The delta of the last complete interval as a string.
+   */
+  @NonNull
+  protected static String getLastInterval (@Nullable final History aHistory, final boolean bInvocations)
+  {
+    if (aHistory == null)
+      return "";
+    return Long.toString (bInvocations ? aHistory.getLastInvocations () : aHistory.getLastValue ());
+  }
+
+  /**
+   * @param aHistory
+   *        The history of a single series. May be <code>null</code>.
+   * @param bAverages
+   *        <code>true</code> to show the average value per interval,
+   *        <code>false</code> to show the value delta per interval.
+   * @return The sparkline to show. May be <code>null</code>.
+   */
+  @Nullable
+  protected static IHCNode getTrend (@Nullable final History aHistory, final boolean bAverages)
+  {
+    if (aHistory == null || aHistory.getSampleCount () < 2)
+      return null;
+    final BootstrapSparkline ret = bAverages ? new BootstrapSparkline (aHistory.getAverages ())
+                                             : new BootstrapSparkline (aHistory.getValues ());
+    ret.setTitle (aHistory.getSampleCount () + " x " + aHistory.getInterval ().toSeconds () + "s");
+    return ret;
+  }
+
+  /**
+   * @param nMicros
+   *        Duration in microseconds
+   * @return The duration in milliseconds with 3 fraction digits.
+   */
+  @NonNull
+  protected static String getMillisString (final long nMicros)
+  {
+    return BigDecimal.valueOf (nMicros, 3).toPlainString ();
+  }
+
+  /**
+   * Show the bucket distribution of a single histogram.
+   *
+   * @param aWPEC
+   *        Web page execution context. Never <code>null</code>.
+   * @param sName
+   *        The histogram timer name. Never <code>null</code>.
+   * @param sKey
+   *        The histogram key. Never <code>null</code>.
+   * @param aSnapshot
+   *        The histogram snapshot to show. Never <code>null</code>.
+   */
+  protected void showHistogramDistribution (@NonNull final WPECTYPE aWPEC,
+                                            @NonNull final String sName,
+                                            @NonNull final String sKey,
+                                            @NonNull final Snapshot aSnapshot)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_BACK.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref (),
+                        EDefaultIcon.BACK);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ().add (PARAM_HISTOGRAM_NAME, sName).add (PARAM_HISTOGRAM_KEY, sKey),
+                        EDefaultIcon.REFRESH);
+    aNodeList.addChild (aToolbar);
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_DISTRIBUTION_OF.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                                 sName,
+                                                                                                                 sKey)));
+
+    final HCTable aTable = new HCTable (new DTCol (EText.MSG_RANGE_FROM.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                         aDisplayLocale)
+                                                                                                        .setInitialSorting (ESortOrder.ASCENDING),
+                                        new DTCol (EText.MSG_RANGE_TO.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                       aDisplayLocale),
+                                        new DTCol (EText.MSG_COUNT.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                    aDisplayLocale),
+                                        new DTCol (EText.MSG_CUMULATIVE.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                         aDisplayLocale),
+                                        new DTCol (EText.MSG_SHARE.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID () +
+                                                                                                                                 "distribution");
+    final long nTotal = aSnapshot.getTotalCount ();
+    final long [] aCounts = aSnapshot.getBucketCounts ();
+    long nCumulative = 0;
+    for (int i = 0; i < aCounts.length; ++i)
+    {
+      final long nCount = aCounts[i];
+      if (nCount > 0)
+      {
+        nCumulative += nCount;
+        final double dShare = nCount * 100d / nTotal;
+        final BigDecimal aCumulativePerc = BigHelper.getDividedBigDecimal (nCumulative * 100,
+                                                                           nTotal,
+                                                                           2,
+                                                                           RoundingMode.HALF_UP);
+
+        final HCRow aRow = aTable.addBodyRow ();
+        aRow.addCells (getMillisString (StatisticsHistogram.getBucketLowerBound (i)),
+                       getMillisString (StatisticsHistogram.getBucketUpperBound (i)),
+                       Long.toString (nCount),
+                       aCumulativePerc.toPlainString () + "%");
+
+        final HCDiv aBar = new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR);
+        aBar.addStyle (CCSSProperties.WIDTH.newValue (ECSSUnit.perc (dShare)));
+        aRow.addCell (new HCDiv ().addClass (CBootstrapCSS.PROGRESS)
+                                  .setTitle (BigDecimal.valueOf (dShare).setScale (2, RoundingMode.HALF_UP).toPlainString () +
+                                             "%")
+                                  .addChild (aBar));
+      }
+    }
+    aNodeList.addChild (aTable);
+
+    final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
+    aNodeList.addChild (aDataTables);
+  }
+
   @Override
   protected void fillContent (@NonNull final WPECTYPE aWPEC)
   {
     final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
     final HCNodeList aNodeList = aWPEC.getNodeList ();
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final StatisticsHistorySampler aSampler = StatisticsHistorySampler.getInstance ();
+
+    {
+      // Drill down into a single histogram
+      final String sHistName = aWPEC.params ().getAsString (PARAM_HISTOGRAM_NAME);
+      final String sHistKey = aWPEC.params ().getAsString (PARAM_HISTOGRAM_KEY);
+      final StatisticsKeyedHistogramTimer aHistTimer = StatisticsHistogramManager.getKeyedHistogramTimerIfExisting (sHistName);
+      final StatisticsHistogram aHistogram = aHistTimer == null ? null : aHistTimer.getHistogram (sHistKey);
+      if (aHistogram != null)
+      {
+        showHistogramDistribution (aWPEC, sHistName, sHistKey, aHistogram.getSnapshot ());
+        return;
+      }
+    }
 
     // Refresh button
     final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
@@ -177,7 +343,10 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
                                                                                                                              aDisplayLocale),
                                              new DTCol (EText.MSG_TIMER_SUM.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
                                                                                                                              aDisplayLocale)
-                                                                                                            .setInitialSorting (ESortOrder.DESCENDING)).setID (getID () +
+                                                                                                            .setInitialSorting (ESortOrder.DESCENDING),
+                                             new DTCol (EText.MSG_LAST_INTERVAL.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                                aDisplayLocale),
+                                             new DTCol (EText.MSG_TREND.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID () +
                                                                                                                                                                "timer");
 
     // Table for size
@@ -194,7 +363,10 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
                                             new DTCol (EText.MSG_AVG.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
                                                                                                                       aDisplayLocale),
                                             new DTCol (EText.MSG_SUM.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
-                                                                                                                      aDisplayLocale)).setID (getID () +
+                                                                                                                      aDisplayLocale),
+                                            new DTCol (EText.MSG_LAST_INTERVAL.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                               aDisplayLocale),
+                                            new DTCol (EText.MSG_TREND.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID () +
                                                                                                                                               "size");
 
     // Table for counter
@@ -205,7 +377,10 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
                                                                                                                                 aDisplayLocale)
                                                                                                                .setInitialSorting (ESortOrder.ASCENDING),
                                                new DTCol (EText.MSG_COUNT.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
-                                                                                                                           aDisplayLocale)).setID (getID () +
+                                                                                                                           aDisplayLocale),
+                                               new DTCol (EText.MSG_LAST_INTERVAL.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                                  aDisplayLocale),
+                                               new DTCol (EText.MSG_TREND.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID () +
                                                                                                                                                    "counter");
 
     // Table for cache
@@ -223,6 +398,46 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
                                                                                                                                    aDisplayLocale)).setID (getID () +
                                                                                                                                                            "cache");
 
+    // Table for percentiles
+    final HCTable aTablePercentiles = new HCTable (new DTCol (EText.MSG_NAME.getDisplayText (aDisplayLocale)).setDataSort (0,
+                                                                                                                           1),
+                                                   new DTCol (EText.MSG_KEY.getDisplayText (aDisplayLocale)),
+                                                   new DTCol (EText.MSG_INVOCATION.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                                    aDisplayLocale),
+                                                   new DTCol (EText.MSG_P50.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                             aDisplayLocale),
+                                                   new DTCol (EText.MSG_P90.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                             aDisplayLocale),
+                                                   new DTCol (EText.MSG_P99.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                             aDisplayLocale)
+                                                                                                            .setInitialSorting (ESortOrder.DESCENDING),
+                                                   new DTCol (EText.MSG_P999.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                              aDisplayLocale),
+                                                   new DTCol (EText.MSG_TIMER_MAX.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DOUBLE,
+                                                                                                                                   aDisplayLocale),
+                                                   new DTCol (EText.MSG_DISTRIBUTION.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID () +
+                                                                                                                                                   "percentiles");
+    for (final StatisticsKeyedHistogramTimer aHistTimer : StatisticsHistogramManager.getAllKeyedHistogramTimers ())
+      for (final String sKey : aHistTimer.getAllKeys ())
+      {
+        final Snapshot aSnapshot = aHistTimer.getHistogram (sKey).getSnapshot ();
+        if (aSnapshot.getTotalCount () > 0)
+        {
+          final HCRow aRow = aTablePercentiles.addBodyRow ();
+          aRow.addCells (aHistTimer.getName (),
+                         sKey,
+                         Long.toString (aSnapshot.getTotalCount ()),
+                         getMillisString (aSnapshot.getValueAtPercentile (50)),
+                         getMillisString (aSnapshot.getValueAtPercentile (90)),
+                         getMillisString (aSnapshot.getValueAtPercentile (99)),
+                         getMillisString (aSnapshot.getValueAtPercentile (99.9)),
+                         getMillisString (aSnapshot.getMaxMicros ()));
+          aRow.addCell (new HCA (aWPEC.getSelfHref ()
+                                      .add (PARAM_HISTOGRAM_NAME, aHistTimer.getName ())
+                                      .add (PARAM_HISTOGRAM_KEY, sKey)).addChild (EText.MSG_DISTRIBUTION.getDisplayText (aDisplayLocale)));
+        }
+      }
+
     // Third party modules
     StatisticsVisitor.visitStatistics (new IStatisticsVisitorCallback ()
     {
@@ -230,39 +445,54 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
       public void onTimer (@NonNull final String sName, @NonNull final IStatisticsHandlerTimer aHandler)
       {
         if (aHandler.getInvocationCount () > 0)
-          aTableTimer.addBodyRow ()
-                     .addCells (sName,
-                                "",
-                                Integer.toString (aHandler.getInvocationCount ()),
-                                Long.toString (aHandler.getMin ()),
-                                Long.toString (aHandler.getMax ()),
-                                Long.toString (aHandler.getAverage ()),
-                                aHandler.getSum ().toString ());
+        {
+          final History aHistory = aSampler.getHistory (EType.TIMER, sName, null);
+          final HCRow aRow = aTableTimer.addBodyRow ();
+          aRow.addCells (sName,
+                         "",
+                         Integer.toString (aHandler.getInvocationCount ()),
+                         Long.toString (aHandler.getMin ()),
+                         Long.toString (aHandler.getMax ()),
+                         Long.toString (aHandler.getAverage ()),
+                         aHandler.getSum ().toString (),
+                         getLastInterval (aHistory, true));
+          aRow.addCell (getTrend (aHistory, true));
+        }
       }
 
       @Override
       public void onSize (@NonNull final String sName, @NonNull final IStatisticsHandlerSize aHandler)
       {
         if (aHandler.getInvocationCount () > 0)
-          aTableSize.addBodyRow ()
-                    .addCells (sName,
-                               "",
-                               Integer.toString (aHandler.getInvocationCount ()),
-                               Long.toString (aHandler.getMin ()),
-                               Long.toString (aHandler.getMax ()),
-                               Long.toString (aHandler.getAverage ()),
-                               aHandler.getSum ().toString ());
+        {
+          final History aHistory = aSampler.getHistory (EType.SIZE, sName, null);
+          final HCRow aRow = aTableSize.addBodyRow ();
+          aRow.addCells (sName,
+                         "",
+                         Integer.toString (aHandler.getInvocationCount ()),
+                         Long.toString (aHandler.getMin ()),
+                         Long.toString (aHandler.getMax ()),
+                         Long.toString (aHandler.getAverage ()),
+                         aHandler.getSum ().toString (),
+                         getLastInterval (aHistory, true));
+          aRow.addCell (getTrend (aHistory, true));
+        }
       }
 
       @Override
       public void onCounter (@NonNull final String sName, @NonNull final IStatisticsHandlerCounter aHandler)
       {
         if (aHandler.getInvocationCount () > 0)
-          aTableCounter.addBodyRow ()
-                       .addCells (sName,
-                                  "",
-                                  Integer.toString (aHandler.getInvocationCount ()),
-                                  Long.toString (aHandler.getCount ()));
+        {
+          final History aHistory = aSampler.getHistory (EType.COUNTER, sName, null);
+          final HCRow aRow = aTableCounter.addBodyRow ();
+          aRow.addCells (sName,
+                         "",
+                         Integer.toString (aHandler.getInvocationCount ()),
+                         Long.toString (aHandler.getCount ()),
+                         getLastInterval (aHistory, false));
+          aRow.addCell (getTrend (aHistory, false));
+        }
       }
 
       @Override
@@ -295,14 +525,19 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
         {
           final int nInvocationCount = aHandler.getInvocationCount (sKey);
           if (nInvocationCount > 0)
-            aTableTimer.addBodyRow ()
-                       .addCells (sName,
-                                  sKey,
-                                  Integer.toString (nInvocationCount),
-                                  Long.toString (aHandler.getMin (sKey)),
-                                  Long.toString (aHandler.getMax (sKey)),
-                                  Long.toString (aHandler.getAverage (sKey)),
-                                  aHandler.getSum (sKey).toString ());
+          {
+            final History aHistory = aSampler.getHistory (EType.TIMER, sName, sKey);
+            final HCRow aRow = aTableTimer.addBodyRow ();
+            aRow.addCells (sName,
+                           sKey,
+                           Integer.toString (nInvocationCount),
+                           Long.toString (aHandler.getMin (sKey)),
+                           Long.toString (aHandler.getMax (sKey)),
+                           Long.toString (aHandler.getAverage (sKey)),
+                           aHandler.getSum (sKey).toString (),
+                           getLastInterval (aHistory, true));
+            aRow.addCell (getTrend (aHistory, true));
+          }
         }
       }
 
@@ -313,14 +548,19 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
         {
           final int nInvocationCount = aHandler.getInvocationCount (sKey);
           if (nInvocationCount > 0)
-            aTableSize.addBodyRow ()
-                      .addCells (sName,
-                                 sKey,
-                                 Integer.toString (nInvocationCount),
-                                 Long.toString (aHandler.getMin (sKey)),
-                                 Long.toString (aHandler.getMax (sKey)),
-                                 Long.toString (aHandler.getAverage (sKey)),
-                                 aHandler.getSum (sKey).toString ());
+          {
+            final History aHistory = aSampler.getHistory (EType.SIZE, sName, sKey);
+            final HCRow aRow = aTableSize.addBodyRow ();
+            aRow.addCells (sName,
+                           sKey,
+                           Integer.toString (nInvocationCount),
+                           Long.toString (aHandler.getMin (sKey)),
+                           Long.toString (aHandler.getMax (sKey)),
+                           Long.toString (aHandler.getAverage (sKey)),
+                           aHandler.getSum (sKey).toString (),
+                           getLastInterval (aHistory, true));
+            aRow.addCell (getTrend (aHistory, true));
+          }
         }
       }
 
@@ -331,11 +571,16 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
         {
           final int nInvocationCount = aHandler.getInvocationCount (sKey);
           if (nInvocationCount > 0)
-            aTableCounter.addBodyRow ()
-                         .addCells (sName,
-                                    sKey,
-                                    Integer.toString (nInvocationCount),
-                                    Long.toString (aHandler.getCount (sKey)));
+          {
+            final History aHistory = aSampler.getHistory (EType.COUNTER, sName, sKey);
+            final HCRow aRow = aTableCounter.addBodyRow ();
+            aRow.addCells (sName,
+                           sKey,
+                           Integer.toString (nInvocationCount),
+                           Long.toString (aHandler.getCount (sKey)),
+                           getLastInterval (aHistory, false));
+            aRow.addCell (getTrend (aHistory, false));
+          }
         }
       }
     });
@@ -378,6 +623,16 @@ public class BasePageMonitoringStatistics <WPECTYPE extends IWebPageExecutionCon
 
       aTabBox.addTab ("cache", EText.MSG_TAB_CACHE.getDisplayText (aDisplayLocale), aNL);
     }
+    if (aTablePercentiles.hasBodyRows ())
+    {
+      final HCNodeList aNL = new HCNodeList ();
+      aNL.addChild (aTablePercentiles);
+
+      final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTablePercentiles);
+      aNL.addChild (aDataTables);
+
+      aTabBox.addTab ("percentiles", EText.MSG_TAB_PERCENTILES.getDisplayText (aDisplayLocale), aNL);
+    }
 
     aNodeList.addChild (aTabBox);
   }
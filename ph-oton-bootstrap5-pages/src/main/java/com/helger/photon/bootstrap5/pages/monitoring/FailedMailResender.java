@@ -0,0 +1,477 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+import com.helger.smtp.data.IEmailData;
+import com.helger.smtp.failed.FailedMailData;
+import com.helger.smtp.failed.FailedMailQueue;
+import com.helger.smtp.scope.ScopedMailAPI;
+import com.helger.smtp.settings.ISMTPSettings;
+
+/**
+ * Resends failed mails in the background. The mails are taken from the
+ * {@link FailedMailQueue} in batches and handed to the {@link ScopedMailAPI}
+ * with a maximum rate, so that a long list of failed mails does not flood the
+ * mail queue after an SMTP outage. Mails that fail again end up in the failed
+ * mail queue again and are retried with an exponential backoff until
+ * {@link #MAX_ATTEMPTS} is reached. Only one resend job can run at a time.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class FailedMailResender extends AbstractGlobalSingleton
+{
+  /** The default number of mails per second */
+  public static final int DEFAULT_MAILS_PER_SECOND = 5;
+  /** The maximum number of mails per second */
+  public static final int MAX_MAILS_PER_SECOND = 100;
+  /** The default number of mails taken from the queue at once */
+  public static final int DEFAULT_BATCH_SIZE = 50;
+  /** The maximum number of mails taken from the queue at once */
+  public static final int MAX_BATCH_SIZE = 1_000;
+  /** The maximum number of resend attempts per mail within one job */
+  public static final int MAX_ATTEMPTS = 5;
+  /** The backoff after the first failed resend. Doubled for every attempt. */
+  public static final Duration BACKOFF_BASE = Duration.ofMinutes (1);
+  /** The maximum backoff between two resend attempts */
+  public static final Duration BACKOFF_MAX = Duration.ofHours (1);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (FailedMailResender.class);
+  // Time to wait after the last resend, so that mails failing again are noticed
+  private static final Duration SETTLE_DURATION = Duration.ofSeconds (30);
+  private static final long IDLE_SLEEP_MILLIS = 500;
+
+  /**
+   * Get the backoff after the provided number of resend attempts.
+   *
+   * @param nAttempts
+   *        The number of resend attempts so far. Must be &ge; 0.
+   * @return The duration to wait after the last error. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public static Duration getBackoff (@Nonnegative final int nAttempts)
+  {
+    ValueEnforcer.isGE0 (nAttempts, "Attempts");
+    if (nAttempts == 0)
+      return Duration.ZERO;
+    // Avoid overflows for large attempt counts
+    final Duration ret = BACKOFF_BASE.multipliedBy (1L << Math.min (nAttempts - 1, 20));
+    return ret.compareTo (BACKOFF_MAX) > 0 ? BACKOFF_MAX : ret;
+  }
+
+  /**
+   * A single resend run.
+   *
+   * @author Philip Helger
+   */
+  @ThreadSafe
+  public static final class Job
+  {
+    private final FailedMailQueue m_aQueue;
+    private final ISMTPSettings m_aSMTPSettings;
+    private final int m_nMailsPerSecond;
+    private final int m_nBatchSize;
+    private final int m_nInitialCount;
+    private final LocalDateTime m_aStartDateTime;
+    private final AtomicInteger m_aResent = new AtomicInteger (0);
+    private final AtomicInteger m_aBatches = new AtomicInteger (0);
+    // Only accessed by the worker thread
+    private final Map <IEmailData, Integer> m_aAttempts = new IdentityHashMap <> ();
+    private volatile int m_nWaiting = 0;
+    private volatile int m_nGivenUp = 0;
+    private volatile boolean m_bPaused = false;
+    private volatile boolean m_bCancelled = false;
+    private volatile boolean m_bFinished = false;
+    private volatile LocalDateTime m_aEndDateTime;
+
+    Job (@NonNull final FailedMailQueue aQueue,
+         @Nullable final ISMTPSettings aSMTPSettings,
+         final int nMailsPerSecond,
+         final int nBatchSize)
+    {
+      m_aQueue = aQueue;
+      m_aSMTPSettings = aSMTPSettings;
+      m_nMailsPerSecond = nMailsPerSecond;
+      m_nBatchSize = nBatchSize;
+      m_nInitialCount = aQueue.getAllFailedMails ().size ();
+      m_aStartDateTime = PDTFactory.getCurrentLocalDateTime ();
+    }
+
+    /**
+     * @return The SMTP settings used for all mails, or <code>null</code> if
+     *         the original settings of each mail are used.
+     */
+    @Nullable
+    public ISMTPSettings getSMTPSettings ()
+    {
+      return m_aSMTPSettings;
+    }
+
+    public int getMailsPerSecond ()
+    {
+      return m_nMailsPerSecond;
+    }
+
+    public int getBatchSize ()
+    {
+      return m_nBatchSize;
+    }
+
+    /**
+     * @return The number of failed mails when the job was started.
+     */
+    @Nonnegative
+    public int getInitialCount ()
+    {
+      return m_nInitialCount;
+    }
+
+    @NonNull
+    public LocalDateTime getStartDateTime ()
+    {
+      return m_aStartDateTime;
+    }
+
+    /**
+     * @return The date time when the job finished or was cancelled.
+     *         <code>null</code> while it is running.
+     */
+    @Nullable
+    public LocalDateTime getEndDateTime ()
+    {
+      return m_aEndDateTime;
+    }
+
+    /**
+     * @return The number of mails handed to the mail API so far, including
+     *         repeated attempts of the same mail.
+     */
+    @Nonnegative
+    public int getResentCount ()
+    {
+      return m_aResent.get ();
+    }
+
+    @Nonnegative
+    public int getBatchCount ()
+    {
+      return m_aBatches.get ();
+    }
+
+    /**
+     * @return The number of mails that failed again and wait for their backoff
+     *         to expire, as of the last scan of the queue.
+     */
+    @Nonnegative
+    public int getWaitingCount ()
+    {
+      return m_nWaiting;
+    }
+
+    /**
+     * @return The number of mails that failed {@link #MAX_ATTEMPTS} times and
+     *         are left in the queue, as of the last scan of the queue.
+     */
+    @Nonnegative
+    public int getGivenUpCount ()
+    {
+      return m_nGivenUp;
+    }
+
+    public boolean isRunning ()
+    {
+      return !m_bFinished;
+    }
+
+    public boolean isPaused ()
+    {
+      return m_bPaused;
+    }
+
+    public boolean isCancelled ()
+    {
+      return m_bCancelled;
+    }
+
+    void setPaused (final boolean bPaused)
+    {
+      m_bPaused = bPaused;
+    }
+
+    void cancel ()
+    {
+      m_bCancelled = true;
+    }
+
+    /**
+     * Sleep until the provided point in time, while honouring pause and
+     * cancellation.
+     *
+     * @return <code>false</code> if the job was cancelled.
+     */
+    private boolean _sleepUntil (final long nUntilNanos) throws InterruptedException
+    {
+      while (!m_bCancelled)
+      {
+        final long nRemainingNanos = nUntilNanos - System.nanoTime ();
+        if (nRemainingNanos <= 0 && !m_bPaused)
+          return true;
+        Thread.sleep (m_bPaused ? IDLE_SLEEP_MILLIS
+                                : Math.max (1, Math.min (IDLE_SLEEP_MILLIS, TimeUnit.NANOSECONDS.toMillis (nRemainingNanos))));
+      }
+      return false;
+    }
+
+    @NonNull
+    private ICommonsList <FailedMailData> _getDueMails ()
+    {
+      final LocalDateTime aNow = PDTFactory.getCurrentLocalDateTime ();
+      final ICommonsList <FailedMailData> ret = new CommonsArrayList <> ();
+      int nWaiting = 0;
+      int nGivenUp = 0;
+      for (final FailedMailData aFailedMail : m_aQueue.getAllFailedMails ())
+      {
+        if (aFailedMail.getEmailData () == null)
+          continue;
+        final int nAttempts = m_aAttempts.getOrDefault (aFailedMail.getEmailData (), Integer.valueOf (0)).intValue ();
+        if (nAttempts >= MAX_ATTEMPTS)
+          ++nGivenUp;
+        else
+          if (aFailedMail.getErrorDateTime ().plus (getBackoff (nAttempts)).isAfter (aNow))
+            ++nWaiting;
+          else
+            if (ret.size () < m_nBatchSize)
+              ret.add (aFailedMail);
+      }
+      m_nWaiting = nWaiting;
+      m_nGivenUp = nGivenUp;
+      return ret;
+    }
+
+    private void _resend (@NonNull final FailedMailData aFailedMail)
+    {
+      final ISMTPSettings aSMTPSettings = m_aSMTPSettings != null ? m_aSMTPSettings : aFailedMail.getSMTPSettings ();
+      m_aAttempts.merge (aFailedMail.getEmailData (), Integer.valueOf (1), (a, b) -> Integer.valueOf (a.intValue () +
+                                                                                                       b.intValue ()));
+      if (ScopedMailAPI.getInstance ().queueMail (aSMTPSettings, aFailedMail.getEmailData ()).isSuccess ())
+        m_aResent.incrementAndGet ();
+      else
+      {
+        // Mail queue is not accepting mails - put it back
+        m_aQueue.add (aFailedMail);
+      }
+    }
+
+    void run ()
+    {
+      final long nIntervalNanos = TimeUnit.SECONDS.toNanos (1) / m_nMailsPerSecond;
+      // Upper bound, in case mails failing again are not recognized
+      final long nMaxResends = (long) m_nInitialCount * MAX_ATTEMPTS;
+      long nLastResendNanos = 0;
+      try
+      {
+        while (!m_bCancelled && m_aResent.get () < nMaxResends)
+        {
+          final ICommonsList <FailedMailData> aDueMails = m_bPaused ? new CommonsArrayList <> () : _getDueMails ();
+          if (aDueMails.isEmpty ())
+          {
+            // Finished if nothing is waiting for a backoff and the last
+            // resent mails had the chance to fail again
+            if (!m_bPaused &&
+                m_nWaiting == 0 &&
+                (nLastResendNanos == 0 || System.nanoTime () - nLastResendNanos >= SETTLE_DURATION.toNanos ()))
+              break;
+            Thread.sleep (IDLE_SLEEP_MILLIS);
+            continue;
+          }
+
+          m_aBatches.incrementAndGet ();
+          long nNextNanos = System.nanoTime ();
+          for (final FailedMailData aFailedMail : aDueMails)
+          {
+            if (!_sleepUntil (nNextNanos))
+              break;
+            // Another user may have deleted or resent it in the meantime
+            if (m_aQueue.remove (aFailedMail.getID ()) != null)
+            {
+              _resend (aFailedMail);
+              nLastResendNanos = System.nanoTime ();
+              nNextNanos = nLastResendNanos + nIntervalNanos;
+            }
+          }
+        }
+      }
+      catch (final InterruptedException ex)
+      {
+        m_bCancelled = true;
+        Thread.currentThread ().interrupt ();
+      }
+      catch (final RuntimeException ex)
+      {
+        LOGGER.error ("Error resending failed mails", ex);
+      }
+      finally
+      {
+        m_aEndDateTime = PDTFactory.getCurrentLocalDateTime ();
+        m_bFinished = true;
+        LOGGER.info ((m_bCancelled ? "Cancelled" : "Finished") +
+                     " resending failed mails after " +
+                     m_aResent.get () +
+                     " mails in " +
+                     m_aBatches.get () +
+                     " batches");
+      }
+    }
+  }
+
+  @GuardedBy ("m_aRWLock")
+  private Job m_aJob;
+  @GuardedBy ("m_aRWLock")
+  private Thread m_aThread;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private FailedMailResender ()
+  {}
+
+  @NonNull
+  public static FailedMailResender getInstance ()
+  {
+    return getGlobalSingleton (FailedMailResender.class);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    m_aRWLock.writeLocked ( () -> {
+      if (m_aJob != null)
+        m_aJob.cancel ();
+      if (m_aThread != null)
+        m_aThread.interrupt ();
+    });
+  }
+
+  /**
+   * Start resending all failed mails in the background.
+   *
+   * @param aQueue
+   *        The queue to take the failed mails from. May not be
+   *        <code>null</code>.
+   * @param aSMTPSettings
+   *        The SMTP settings to use for all mails. May be <code>null</code> to
+   *        use the original settings of each mail.
+   * @param nMailsPerSecond
+   *        The maximum number of mails handed to the mail API per second. Must
+   *        be between 1 and {@link #MAX_MAILS_PER_SECOND}.
+   * @param nBatchSize
+   *        The maximum number of mails taken from the queue at once. Must be
+   *        between 1 and {@link #MAX_BATCH_SIZE}.
+   * @return The new job or <code>null</code> if another job is still running.
+   */
+  @Nullable
+  public Job startJob (@NonNull final FailedMailQueue aQueue,
+                       @Nullable final ISMTPSettings aSMTPSettings,
+                       final int nMailsPerSecond,
+                       final int nBatchSize)
+  {
+    ValueEnforcer.notNull (aQueue, "Queue");
+    ValueEnforcer.isBetweenInclusive (nMailsPerSecond, "MailsPerSecond", 1, MAX_MAILS_PER_SECOND);
+    ValueEnforcer.isBetweenInclusive (nBatchSize, "BatchSize", 1, MAX_BATCH_SIZE);
+
+    return m_aRWLock.writeLockedGet ( () -> {
+      if (m_aJob != null && m_aJob.isRunning ())
+        return null;
+
+      final Job aJob = new Job (aQueue, aSMTPSettings, nMailsPerSecond, nBatchSize);
+      LOGGER.info ("Starting to resend " +
+                   aJob.getInitialCount () +
+                   " failed mails with " +
+                   nMailsPerSecond +
+                   " mails per second and a batch size of " +
+                   nBatchSize +
+                   (aSMTPSettings != null ? " with default settings" : ""));
+      final Thread aThread = new Thread (aJob::run, "ph-failed-mail-resend");
+      aThread.setDaemon (true);
+      aThread.start ();
+      m_aJob = aJob;
+      m_aThread = aThread;
+      return aJob;
+    });
+  }
+
+  /**
+   * @return The current or last resend job. May be <code>null</code>.
+   */
+  @Nullable
+  public Job getJob ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aJob);
+  }
+
+  /**
+   * Pause or resume the running job. Does nothing if no job is running.
+   *
+   * @param bPaused
+   *        <code>true</code> to pause, <code>false</code> to resume.
+   */
+  public void setJobPaused (final boolean bPaused)
+  {
+    final Job aJob = getJob ();
+    if (aJob != null && aJob.isRunning ())
+    {
+      LOGGER.info ((bPaused ? "Pausing" : "Resuming") + " resending failed mails");
+      aJob.setPaused (bPaused);
+    }
+  }
+
+  /**
+   * Cancel the running job. Mails not yet resent stay in the failed mail
+   * queue. Does nothing if no job is running.
+   */
+  public void cancelJob ()
+  {
+    final Job aJob = getJob ();
+    if (aJob != null && aJob.isRunning ())
+    {
+      LOGGER.info ("Cancelling resending failed mails");
+      aJob.cancel ();
+    }
+  }
+}
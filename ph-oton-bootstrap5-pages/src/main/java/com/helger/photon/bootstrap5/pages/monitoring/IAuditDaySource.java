@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.LocalDate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.collection.commons.ICommonsList;
+import com.helger.photon.audit.IAuditItem;
+
+/**
+ * Source of the audit items of a single day, used by {@link AuditIndex}.
+ *
+ * @author Philip Helger
+ */
+@FunctionalInterface
+public interface IAuditDaySource
+{
+  /**
+   * Read all audit items of the provided day.
+   *
+   * @param aDay
+   *        The day to read. Never <code>null</code>.
+   * @return <code>null</code> or an empty list if there are no audit items for
+   *         that day. The order of the items does not matter.
+   */
+  @Nullable
+  ICommonsList <IAuditItem> getAllAuditItemsOfDay (@NonNull LocalDate aDay);
+
+  /**
+   * Called by {@link AuditIndex} once at the beginning of each query, before
+   * any day is read. Sources that read more than a single day at once can use
+   * this to invalidate the data read for the previous query.
+   */
+  default void onBeginQuery ()
+  {}
+}
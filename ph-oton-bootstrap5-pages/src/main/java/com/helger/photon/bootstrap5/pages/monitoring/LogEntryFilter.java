@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.url.SimpleURL;
+
+/**
+ * Filter for {@link LogRingBuffer.Entry} objects by minimum level, logger name
+ * prefix and a regular expression. The same request parameters are used by
+ * the log page and the live tail servlet.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class LogEntryFilter implements Predicate <LogRingBuffer.Entry>
+{
+  public static final String PARAM_LEVEL = "level";
+  public static final String PARAM_LOGGER = "logger";
+  public static final String PARAM_REGEX = "regex";
+
+  // The standard Log4J levels and their numeric values
+  private static final String [] LEVEL_NAMES = { "FATAL", "ERROR", "WARN", "INFO", "DEBUG", "TRACE" };
+  private static final int [] INT_LEVELS = { 100, 200, 300, 400, 500, 600 };
+
+  private final String m_sLevel;
+  private final int m_nMaxIntLevel;
+  private final String m_sLoggerPrefix;
+  private final Pattern m_aPattern;
+
+  private LogEntryFilter (@Nullable final String sLevel,
+                          final int nMaxIntLevel,
+                          @Nullable final String sLoggerPrefix,
+                          @Nullable final Pattern aPattern)
+  {
+    m_sLevel = sLevel;
+    m_nMaxIntLevel = nMaxIntLevel;
+    m_sLoggerPrefix = sLoggerPrefix;
+    m_aPattern = aPattern;
+  }
+
+  /**
+   * @return The names of the levels that can be used as the minimum level,
+   *         most severe first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <String> getAllLevelNames ()
+  {
+    return new CommonsArrayList <> (LEVEL_NAMES);
+  }
+
+  public boolean test (@NonNull final LogRingBuffer.Entry aEntry)
+  {
+    if (aEntry.getIntLevel () > m_nMaxIntLevel)
+      return false;
+    if (m_sLoggerPrefix != null && !aEntry.getLoggerName ().startsWith (m_sLoggerPrefix))
+      return false;
+    if (m_aPattern != null &&
+        !m_aPattern.matcher (aEntry.getMessage ()).find () &&
+        !m_aPattern.matcher (aEntry.getLoggerName ()).find ())
+      return false;
+    return true;
+  }
+
+  /**
+   * Add the filter criteria as request parameters to the provided URL.
+   *
+   * @param aURL
+   *        The URL to modify. May not be <code>null</code>.
+   * @return The passed URL. Never <code>null</code>.
+   */
+  @NonNull
+  public SimpleURL addToURL (@NonNull final SimpleURL aURL)
+  {
+    if (m_sLevel != null)
+      aURL.add (PARAM_LEVEL, m_sLevel);
+    if (m_sLoggerPrefix != null)
+      aURL.add (PARAM_LOGGER, m_sLoggerPrefix);
+    if (m_aPattern != null)
+      aURL.add (PARAM_REGEX, m_aPattern.pattern ());
+    return aURL;
+  }
+
+  /**
+   * Create a new filter.
+   *
+   * @param sLevel
+   *        The name of the least severe level to include. May be
+   *        <code>null</code> or unknown to include all levels.
+   * @param sLoggerPrefix
+   *        The prefix of the logger names to include. May be <code>null</code>
+   *        or empty to include all loggers.
+   * @param sRegex
+   *        The regular expression that must be found in the message or the
+   *        logger name. May be <code>null</code> or empty.
+   * @return The new filter. Never <code>null</code>.
+   * @throws PatternSyntaxException
+   *         If the regular expression is invalid
+   */
+  @NonNull
+  public static LogEntryFilter create (@Nullable final String sLevel,
+                                       @Nullable final String sLoggerPrefix,
+                                       @Nullable final String sRegex)
+  {
+    String sUsedLevel = null;
+    int nMaxIntLevel = Integer.MAX_VALUE;
+    for (int i = 0; i < LEVEL_NAMES.length; ++i)
+      if (LEVEL_NAMES[i].equals (sLevel))
+      {
+        sUsedLevel = sLevel;
+        nMaxIntLevel = INT_LEVELS[i];
+      }
+    return new LogEntryFilter (sUsedLevel,
+                               nMaxIntLevel,
+                               StringHelper.isEmpty (sLoggerPrefix) ? null : sLoggerPrefix,
+                               StringHelper.isEmpty (sRegex) ? null : Pattern.compile (sRegex));
+  }
+}
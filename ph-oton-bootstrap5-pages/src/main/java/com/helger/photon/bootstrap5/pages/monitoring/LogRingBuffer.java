@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonObject;
+
+/**
+ * A fixed size ring buffer of the most recent log events. Adding an entry is
+ * lock-free: each writer reserves a sequence number with a single atomic
+ * increment and publishes its entry into the slot of that sequence number, so
+ * logging threads never wait for each other or for readers. Readers detect
+ * slots that were overwritten or not yet published via the sequence number
+ * stored in each entry.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class LogRingBuffer
+{
+  /** The default number of entries kept. Must be a power of 2. */
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern ("yyyy-MM-dd HH:mm:ss.SSS")
+                                                                        .withZone (ZoneId.systemDefault ());
+
+  /**
+   * A single log event in a compact, pre-formatted form.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Entry
+  {
+    private final long m_nSequence;
+    private final long m_nTimeMillis;
+    private final String m_sLevel;
+    private final int m_nIntLevel;
+    private final String m_sLoggerName;
+    private final String m_sThreadName;
+    private final String m_sMessage;
+
+    Entry (final long nSequence,
+           final long nTimeMillis,
+           @NonNull final String sLevel,
+           final int nIntLevel,
+           @NonNull final String sLoggerName,
+           @NonNull final String sThreadName,
+           @NonNull final String sMessage)
+    {
+      m_nSequence = nSequence;
+      m_nTimeMillis = nTimeMillis;
+      m_sLevel = sLevel;
+      m_nIntLevel = nIntLevel;
+      m_sLoggerName = sLoggerName;
+      m_sThreadName = sThreadName;
+      m_sMessage = sMessage;
+    }
+
+    /**
+     * @return The unique, ascending sequence number of this entry.
+     */
+    @Nonnegative
+    public long getSequence ()
+    {
+      return m_nSequence;
+    }
+
+    public long getTimeMillis ()
+    {
+      return m_nTimeMillis;
+    }
+
+    /**
+     * @return The event time in the system time zone, formatted like in a log
+     *         file. Never <code>null</code>.
+     */
+    @NonNull
+    public String getTimeString ()
+    {
+      return TIME_FORMAT.format (Instant.ofEpochMilli (m_nTimeMillis));
+    }
+
+    /**
+     * @return The level name, e.g. "WARN". Never <code>null</code>.
+     */
+    @NonNull
+    public String getLevel ()
+    {
+      return m_sLevel;
+    }
+
+    /**
+     * @return The numeric level. The smaller the value, the more severe the
+     *         event.
+     */
+    public int getIntLevel ()
+    {
+      return m_nIntLevel;
+    }
+
+    @NonNull
+    public String getLoggerName ()
+    {
+      return m_sLoggerName;
+    }
+
+    @NonNull
+    public String getThreadName ()
+    {
+      return m_sThreadName;
+    }
+
+    /**
+     * @return The formatted message, including a shortened stack trace if an
+     *         exception was logged. Never <code>null</code>.
+     */
+    @NonNull
+    public String getMessage ()
+    {
+      return m_sMessage;
+    }
+
+    @NonNull
+    public IJsonObject getAsJson ()
+    {
+      return new JsonObject ().add ("seq", m_nSequence)
+                              .add ("time", getTimeString ())
+                              .add ("level", m_sLevel)
+                              .add ("intLevel", m_nIntLevel)
+                              .add ("logger", m_sLoggerName)
+                              .add ("thread", m_sThreadName)
+                              .add ("message", m_sMessage);
+    }
+  }
+
+  private static final LogRingBuffer INSTANCE = new LogRingBuffer (DEFAULT_CAPACITY);
+
+  private final int m_nMask;
+  private final AtomicReferenceArray <Entry> m_aSlots;
+  private final AtomicLong m_aNextSequence = new AtomicLong (0);
+
+  LogRingBuffer (@Nonnegative final int nCapacity)
+  {
+    ValueEnforcer.isTrue (nCapacity > 0 && Integer.bitCount (nCapacity) == 1, "Capacity must be a power of 2");
+    m_nMask = nCapacity - 1;
+    m_aSlots = new AtomicReferenceArray <> (nCapacity);
+  }
+
+  /**
+   * @return The global instance that is filled by
+   *         {@link LogRingBufferAppender}. Never <code>null</code>.
+   */
+  @NonNull
+  public static LogRingBuffer getInstance ()
+  {
+    return INSTANCE;
+  }
+
+  @Nonnegative
+  public int getCapacity ()
+  {
+    return m_aSlots.length ();
+  }
+
+  /**
+   * @return The total number of entries ever added. This is also the sequence
+   *         number of the next entry.
+   */
+  @Nonnegative
+  public long getTotalCount ()
+  {
+    return m_aNextSequence.get ();
+  }
+
+  void add (final long nTimeMillis,
+            @NonNull final String sLevel,
+            final int nIntLevel,
+            @NonNull final String sLoggerName,
+            @NonNull final String sThreadName,
+            @NonNull final String sMessage)
+  {
+    final long nSequence = m_aNextSequence.getAndIncrement ();
+    m_aSlots.set ((int) (nSequence & m_nMask),
+                  new Entry (nSequence, nTimeMillis, sLevel, nIntLevel, sLoggerName, sThreadName, sMessage));
+  }
+
+  /**
+   * Get the entries following the provided sequence number, oldest first. The
+   * result stops at the first entry that is reserved but not yet published,
+   * so that it is not skipped by the next call.
+   *
+   * @param nLastSequence
+   *        The sequence number of the last entry already known. Use -1 to start
+   *        with the oldest entry.
+   * @param nMaxEntries
+   *        The maximum number of entries to return. Must be &gt; 0.
+   * @return The entries, oldest first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getAllEntriesAfter (final long nLastSequence, @Nonnegative final int nMaxEntries)
+  {
+    ValueEnforcer.isGT0 (nMaxEntries, "MaxEntries");
+
+    final long nNext = m_aNextSequence.get ();
+    final ICommonsList <Entry> ret = new CommonsArrayList <> ();
+    for (long i = Math.max (nLastSequence + 1, nNext - getCapacity ()); i < nNext && ret.size () < nMaxEntries; ++i)
+    {
+      final Entry aEntry = m_aSlots.get ((int) (i & m_nMask));
+      if (aEntry == null || aEntry.m_nSequence < i)
+      {
+        // Not yet published
+        break;
+      }
+      // Skip entries that were already overwritten
+      if (aEntry.m_nSequence == i)
+        ret.add (aEntry);
+    }
+    return ret;
+  }
+
+  /**
+   * Get the most recent entries matching the provided filter.
+   *
+   * @param aFilter
+   *        The filter to apply. May be <code>null</code> to match all entries.
+   * @param nMaxEntries
+   *        The maximum number of entries to return. Must be &gt; 0.
+   * @return The matching entries, newest first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getLatestEntries (@Nullable final Predicate <? super Entry> aFilter,
+                                                @Nonnegative final int nMaxEntries)
+  {
+    ValueEnforcer.isGT0 (nMaxEntries, "MaxEntries");
+
+    final long nNext = m_aNextSequence.get ();
+    final long nFirst = Math.max (0, nNext - getCapacity ());
+    final ICommonsList <Entry> ret = new CommonsArrayList <> ();
+    for (long i = nNext - 1; i >= nFirst && ret.size () < nMaxEntries; --i)
+    {
+      final Entry aEntry = m_aSlots.get ((int) (i & m_nMask));
+      // Ignore entries not yet published or already overwritten
+      if (aEntry != null && aEntry.m_nSequence == i && (aFilter == null || aFilter.test (aEntry)))
+        ret.add (aEntry);
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.message.Message;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log4J 2.x appender that copies all events reaching the root logger into the
+ * {@link LogRingBuffer}. The message is formatted on the logging thread, so
+ * that the buffer only contains immutable strings and the event object can be
+ * reused by Log4J. Keep in separate class, so that the stuff is only loaded
+ * once we checked Log4J is present.
+ *
+ * @author Philip Helger
+ */
+public final class LogRingBufferAppender extends AbstractAppender
+{
+  public static final String APPENDER_NAME = "ph-oton-log-ring-buffer";
+  /** The maximum length of a single formatted message */
+  public static final int MAX_MESSAGE_LENGTH = 4096;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (LogRingBufferAppender.class);
+  private static final int MAX_STACK_FRAMES = 8;
+  private static final int MAX_CAUSES = 3;
+  private static final AtomicBoolean INSTALLED = new AtomicBoolean (false);
+
+  private final LogRingBuffer m_aBuffer;
+
+  private LogRingBufferAppender (@NonNull final LogRingBuffer aBuffer)
+  {
+    super (APPENDER_NAME, null, null, true, Property.EMPTY_ARRAY);
+    m_aBuffer = aBuffer;
+  }
+
+  @NonNull
+  private static String _getText (@NonNull final LogEvent aEvent)
+  {
+    final Message aMsg = aEvent.getMessage ();
+    final String sMsg = aMsg == null ? null : aMsg.getFormattedMessage ();
+    final StringBuilder aSB = new StringBuilder (sMsg == null ? "" : sMsg);
+
+    // Shortened stack trace
+    Throwable t = aEvent.getThrown ();
+    int nCause = 0;
+    while (t != null && nCause < MAX_CAUSES && aSB.length () < MAX_MESSAGE_LENGTH)
+    {
+      aSB.append (nCause == 0 ? "\n" : "\nCaused by: ").append (t.toString ());
+      final StackTraceElement [] aFrames = t.getStackTrace ();
+      final int nFrames = Math.min (aFrames.length, MAX_STACK_FRAMES);
+      for (int i = 0; i < nFrames; ++i)
+        aSB.append ("\n\tat ").append (aFrames[i]);
+      if (aFrames.length > nFrames)
+        aSB.append ("\n\t... ").append (aFrames.length - nFrames).append (" more");
+      t = t.getCause () == t ? null : t.getCause ();
+      ++nCause;
+    }
+
+    if (aSB.length () > MAX_MESSAGE_LENGTH)
+    {
+      aSB.setLength (MAX_MESSAGE_LENGTH);
+      aSB.append ('…');
+    }
+    return aSB.toString ();
+  }
+
+  @Override
+  public void append (@NonNull final LogEvent aEvent)
+  {
+    final String sLoggerName = aEvent.getLoggerName ();
+    final String sThreadName = aEvent.getThreadName ();
+    m_aBuffer.add (aEvent.getTimeMillis (),
+                   aEvent.getLevel ().name (),
+                   aEvent.getLevel ().intLevel (),
+                   sLoggerName == null ? "" : sLoggerName,
+                   sThreadName == null ? "" : sThreadName,
+                   _getText (aEvent));
+  }
+
+  private static void _addToConfiguration (@NonNull final Configuration aConfig)
+  {
+    if (aConfig.getAppender (APPENDER_NAME) == null)
+    {
+      // A stopped configuration stops its appenders - so each configuration
+      // gets its own instance
+      final LogRingBufferAppender aAppender = new LogRingBufferAppender (LogRingBuffer.getInstance ());
+      aAppender.start ();
+      aConfig.addAppender (aAppender);
+      aConfig.getRootLogger ().addAppender (aAppender, null, null);
+    }
+  }
+
+  /**
+   * Install the appender on the root logger of the current Log4J 2.x logger
+   * context. It is automatically installed again after a reconfiguration.
+   * Calling this method more than once has no effect.
+   *
+   * @return <code>true</code> if the appender is installed,
+   *         <code>false</code> if Log4J core is not the logging backend.
+   */
+  public static boolean install ()
+  {
+    if (!(LogManager.getContext (false) instanceof final LoggerContext aLoggerContext))
+      return false;
+
+    if (INSTALLED.compareAndSet (false, true))
+    {
+      _addToConfiguration (aLoggerContext.getConfiguration ());
+      aLoggerContext.updateLoggers ();
+      aLoggerContext.addPropertyChangeListener (aEvent -> {
+        if (LoggerContext.PROPERTY_CONFIG.equals (aEvent.getPropertyName ()) &&
+            aEvent.getNewValue () instanceof final Configuration aNewConfig)
+          _addToConfiguration (aNewConfig);
+      });
+      LOGGER.info ("Installed log ring buffer with " + LogRingBuffer.getInstance ().getCapacity () + " entries");
+    }
+    return true;
+  }
+}
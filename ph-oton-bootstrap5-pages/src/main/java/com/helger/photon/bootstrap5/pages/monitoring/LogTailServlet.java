@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import com.helger.http.EHttpMethod;
+import com.helger.xservlet.AbstractXServlet;
+
+/**
+ * Servlet that streams new entries of the {@link LogRingBuffer} as Server-Sent
+ * Events. It must be mapped below the same protected path as the
+ * administration pages. Used by the live tail view of
+ * {@link BasePageMonitoringLogs}.
+ *
+ * @author Philip Helger
+ */
+public class LogTailServlet extends AbstractXServlet
+{
+  public static final String SERVLET_DEFAULT_NAME = "logtail";
+  public static final String SERVLET_DEFAULT_PATH = '/' + SERVLET_DEFAULT_NAME;
+
+  public LogTailServlet ()
+  {
+    handlerRegistry ().registerHandler (EHttpMethod.GET, new LogTailXServletHandler (), false);
+  }
+}
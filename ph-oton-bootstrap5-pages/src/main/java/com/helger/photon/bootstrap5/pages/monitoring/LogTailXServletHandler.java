@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.PatternSyntaxException;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.base.string.StringParser;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.http.EHttpMethod;
+import com.helger.http.EHttpVersion;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.web.scope.IRequestWebScope;
+import com.helger.xservlet.handler.IXServletHandler;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Streams the entries of the {@link LogRingBuffer} as Server-Sent Events. The
+ * following request parameters are supported:
+ * <ul>
+ * <li>{@value #PARAM_AFTER} - the sequence number of the last entry the client
+ * already has. Overwritten by the <code>Last-Event-ID</code> header when the
+ * browser reconnects.</li>
+ * <li>The filter parameters of {@link LogEntryFilter}</li>
+ * </ul>
+ * Each connection blocks a request thread, so the number of connections and
+ * their duration are limited. Browsers reconnect automatically and continue
+ * after the last received entry. Only administrators may access the log.
+ *
+ * @author Philip Helger
+ */
+public class LogTailXServletHandler implements IXServletHandler
+{
+  public static final String PARAM_AFTER = "after";
+  /** The maximum number of concurrent connections */
+  public static final int MAX_CONNECTIONS = 10;
+  /** The maximum duration of a single connection */
+  public static final Duration MAX_CONNECTION_DURATION = Duration.ofMinutes (5);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (LogTailXServletHandler.class);
+  private static final String HEADER_LAST_EVENT_ID = "Last-Event-ID";
+  private static final long POLL_MILLIS = 500;
+  private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds (15);
+  private static final int MAX_ENTRIES_PER_POLL = 500;
+  private static final long RECONNECT_MILLIS = 2_000;
+  private static final AtomicInteger CONNECTIONS = new AtomicInteger (0);
+
+  private static void _writeEvent (@NonNull final PrintWriter aPW, @NonNull final LogRingBuffer.Entry aEntry)
+  {
+    // The JSON string never contains line breaks
+    aPW.write ("id: " + aEntry.getSequence () + "\nevent: log\ndata: " + aEntry.getAsJson ().getAsJsonString () + "\n\n");
+  }
+
+  public void onRequest (@NonNull final HttpServletRequest aHttpRequest,
+                         @NonNull final HttpServletResponse aHttpResponse,
+                         @NonNull final EHttpVersion eHttpVersion,
+                         @NonNull final EHttpMethod eHttpMethod,
+                         @NonNull final IRequestWebScope aRequestScope) throws ServletException, IOException
+  {
+    final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+    if (aUser == null || !aUser.isAdministrator ())
+    {
+      aHttpResponse.sendError (HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+
+    final LogEntryFilter aFilter;
+    try
+    {
+      aFilter = LogEntryFilter.create (aRequestScope.params ().getAsString (LogEntryFilter.PARAM_LEVEL),
+                                       aRequestScope.params ().getAsString (LogEntryFilter.PARAM_LOGGER),
+                                       aRequestScope.params ().getAsString (LogEntryFilter.PARAM_REGEX));
+    }
+    catch (final PatternSyntaxException ex)
+    {
+      aHttpResponse.sendError (HttpServletResponse.SC_BAD_REQUEST, "Invalid regular expression");
+      return;
+    }
+
+    final LogRingBuffer aBuffer = LogRingBuffer.getInstance ();
+    long nLastSequence = StringParser.parseLong (aHttpRequest.getHeader (HEADER_LAST_EVENT_ID),
+                                                 aRequestScope.params ()
+                                                              .getAsLong (PARAM_AFTER, aBuffer.getTotalCount () - 1));
+
+    if (CONNECTIONS.incrementAndGet () > MAX_CONNECTIONS)
+    {
+      CONNECTIONS.decrementAndGet ();
+      aHttpResponse.sendError (HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many log tail connections");
+      return;
+    }
+
+    try
+    {
+      aHttpResponse.setContentType ("text/event-stream");
+      aHttpResponse.setCharacterEncoding (StandardCharsets.UTF_8.name ());
+      aHttpResponse.setHeader ("Cache-Control", "no-cache");
+      // Disable buffering in nginx
+      aHttpResponse.setHeader ("X-Accel-Buffering", "no");
+
+      final PrintWriter aPW = aHttpResponse.getWriter ();
+      aPW.write ("retry: " + RECONNECT_MILLIS + "\n\n");
+      aPW.flush ();
+
+      final long nEndNanos = System.nanoTime () + MAX_CONNECTION_DURATION.toNanos ();
+      long nLastWriteNanos = System.nanoTime ();
+      while (System.nanoTime () < nEndNanos)
+      {
+        final ICommonsList <LogRingBuffer.Entry> aEntries = aBuffer.getAllEntriesAfter (nLastSequence,
+                                                                                        MAX_ENTRIES_PER_POLL);
+        boolean bWritten = false;
+        for (final LogRingBuffer.Entry aEntry : aEntries)
+        {
+          nLastSequence = aEntry.getSequence ();
+          if (aFilter.test (aEntry))
+          {
+            _writeEvent (aPW, aEntry);
+            bWritten = true;
+          }
+        }
+        if (!bWritten && System.nanoTime () - nLastWriteNanos >= HEARTBEAT_INTERVAL.toNanos ())
+        {
+          // Comment line - detects closed connections
+          aPW.write (": keep-alive\n\n");
+          bWritten = true;
+        }
+        if (bWritten)
+        {
+          // Flushes and reports if the client went away
+          if (aPW.checkError ())
+            break;
+          nLastWriteNanos = System.nanoTime ();
+        }
+        if (aEntries.size () < MAX_ENTRIES_PER_POLL)
+          TimeUnit.MILLISECONDS.sleep (POLL_MILLIS);
+      }
+    }
+    catch (final InterruptedException ex)
+    {
+      LOGGER.warn ("Log tail was interrupted");
+      Thread.currentThread ().interrupt ();
+    }
+    finally
+    {
+      CONNECTIONS.decrementAndGet ();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.IHasID;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The lightweight metadata of a single session as maintained by the
+ * {@link SessionMetadataIndex}. Reading it never touches the underlying
+ * session scope.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class SessionMetadata implements IHasID <String>
+{
+  private final String m_sSessionID;
+  private final long m_nCreationMillis;
+  private volatile long m_nLastAccessMillis;
+  private volatile int m_nAttributeCount;
+  private volatile String m_sUserID;
+  private volatile String m_sUserLoginName;
+
+  SessionMetadata (@NonNull @Nonempty final String sSessionID, final long nCreationMillis)
+  {
+    ValueEnforcer.notEmpty (sSessionID, "SessionID");
+    m_sSessionID = sSessionID;
+    m_nCreationMillis = nCreationMillis;
+    m_nLastAccessMillis = nCreationMillis;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sSessionID;
+  }
+
+  public long getCreationMillis ()
+  {
+    return m_nCreationMillis;
+  }
+
+  public long getLastAccessMillis ()
+  {
+    return m_nLastAccessMillis;
+  }
+
+  /**
+   * @param nNowMillis
+   *        The current time in milliseconds.
+   * @return The idle time in milliseconds. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getIdleMillis (final long nNowMillis)
+  {
+    return Math.max (0, nNowMillis - m_nLastAccessMillis);
+  }
+
+  @Nonnegative
+  public int getAttributeCount ()
+  {
+    return m_nAttributeCount;
+  }
+
+  @Nullable
+  public String getUserID ()
+  {
+    return m_sUserID;
+  }
+
+  @Nullable
+  public String getUserLoginName ()
+  {
+    return m_sUserLoginName;
+  }
+
+  void onAccess (final long nAccessMillis, @Nonnegative final int nAttributeCount)
+  {
+    m_nLastAccessMillis = nAccessMillis;
+    m_nAttributeCount = nAttributeCount;
+  }
+
+  void setUser (@Nullable final String sUserID, @Nullable final String sUserLoginName)
+  {
+    m_sUserID = sUserID;
+    m_sUserLoginName = sUserLoginName;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("SessionID", m_sSessionID)
+                                       .append ("CreationMillis", m_nCreationMillis)
+                                       .append ("LastAccessMillis", m_nLastAccessMillis)
+                                       .append ("AttributeCount", m_nAttributeCount)
+                                       .appendIfNotNull ("UserID", m_sUserID)
+                                       .appendIfNotNull ("UserLoginName", m_sUserLoginName)
+                                       .getToString ();
+  }
+}
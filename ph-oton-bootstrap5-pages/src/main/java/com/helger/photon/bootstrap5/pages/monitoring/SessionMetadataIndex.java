@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.scope.ISessionScope;
+import com.helger.web.scope.ISessionWebScope;
+
+/**
+ * An incrementally maintained index of the metadata of all active sessions.
+ * It is updated by {@link SessionMetadataScopeSPI} when sessions begin and end
+ * and at the end of each request, so that monitoring pages can filter, sort and
+ * page through the sessions without iterating the session scopes.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class SessionMetadataIndex
+{
+  private static final ConcurrentHashMap <String, SessionMetadata> MAP = new ConcurrentHashMap <> ();
+
+  private SessionMetadataIndex ()
+  {}
+
+  private static long _getCreationMillis (@NonNull final ISessionScope aSessionScope)
+  {
+    if (aSessionScope instanceof final ISessionWebScope aWebScope)
+    {
+      try
+      {
+        return aWebScope.getSession ().getCreationTime ();
+      }
+      catch (final IllegalStateException ex)
+      {
+        // Session already invalidated
+      }
+    }
+    return System.currentTimeMillis ();
+  }
+
+  @NonNull
+  private static SessionMetadata _getOrCreate (@NonNull final ISessionScope aSessionScope)
+  {
+    return MAP.computeIfAbsent (aSessionScope.getID (),
+                                k -> new SessionMetadata (k, _getCreationMillis (aSessionScope)));
+  }
+
+  static void onSessionBegin (@NonNull final ISessionScope aSessionScope)
+  {
+    _getOrCreate (aSessionScope);
+  }
+
+  static void onSessionEnd (@NonNull final ISessionScope aSessionScope)
+  {
+    MAP.remove (aSessionScope.getID ());
+  }
+
+  static void onSessionAccess (@NonNull final ISessionScope aSessionScope,
+                               @Nullable final String sUserID,
+                               @Nullable final String sUserLoginName)
+  {
+    // Ignore sessions that are already being destroyed
+    if (aSessionScope.isValid ())
+    {
+      final SessionMetadata aMetadata = _getOrCreate (aSessionScope);
+      aMetadata.onAccess (System.currentTimeMillis (), aSessionScope.attrs ().size ());
+      aMetadata.setUser (sUserID, sUserLoginName);
+    }
+  }
+
+  /**
+   * @return The number of indexed sessions.
+   */
+  @Nonnegative
+  public static int getSessionCount ()
+  {
+    return MAP.size ();
+  }
+
+  /**
+   * @param sSessionID
+   *        The session ID to search. May be <code>null</code>.
+   * @return The metadata of the session or <code>null</code>.
+   */
+  @Nullable
+  public static SessionMetadata getSessionMetadata (@Nullable final String sSessionID)
+  {
+    return sSessionID == null ? null : MAP.get (sSessionID);
+  }
+
+  /**
+   * Get the count of all sessions matching the filter.
+   *
+   * @param aFilter
+   *        The filter to apply. May be <code>null</code>.
+   * @return The number of matching sessions.
+   */
+  @Nonnegative
+  public static int getMatchingCount (@Nullable final Predicate <? super SessionMetadata> aFilter)
+  {
+    if (aFilter == null)
+      return MAP.size ();
+    int ret = 0;
+    for (final SessionMetadata aMetadata : MAP.values ())
+      if (aFilter.test (aMetadata))
+        ret++;
+    return ret;
+  }
+
+  /**
+   * Get a single page of the sorted and filtered sessions. Only
+   * <code>nOffset + nCount</code> elements are kept in a bounded heap, so the
+   * complete list of sessions is never sorted.
+   *
+   * @param aFilter
+   *        The filter to apply. May be <code>null</code>.
+   * @param aComparator
+   *        The sort order. May not be <code>null</code>.
+   * @param nOffset
+   *        The 0-based index of the first element to return.
+   * @param nCount
+   *        The maximum number of elements to return.
+   * @return The list of matching sessions in sort order. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <SessionMetadata> getPage (@Nullable final Predicate <? super SessionMetadata> aFilter,
+                                                        @NonNull final Comparator <? super SessionMetadata> aComparator,
+                                                        @Nonnegative final int nOffset,
+                                                        @Nonnegative final int nCount)
+  {
+    ValueEnforcer.notNull (aComparator, "Comparator");
+    ValueEnforcer.isGE0 (nOffset, "Offset");
+    ValueEnforcer.isGE0 (nCount, "Count");
+
+    final int nLimit = nOffset + nCount;
+    if (nCount == 0)
+      return new CommonsArrayList <> ();
+
+    // Max-heap according to the comparator - the head is the largest element
+    // that is currently on the page
+    final Comparator <SessionMetadata> aReversed = (a, b) -> aComparator.compare (b, a);
+    final PriorityQueue <SessionMetadata> aHeap = new PriorityQueue <> (Math.min (nLimit, 1024) + 1, aReversed);
+    for (final SessionMetadata aMetadata : MAP.values ())
+      if (aFilter == null || aFilter.test (aMetadata))
+      {
+        if (aHeap.size () < nLimit)
+          aHeap.add (aMetadata);
+        else
+          if (aComparator.compare (aMetadata, aHeap.peek ()) < 0)
+          {
+            aHeap.poll ();
+            aHeap.add (aMetadata);
+          }
+      }
+
+    final ICommonsList <SessionMetadata> aSorted = new CommonsArrayList <> (aHeap);
+    aSorted.sort (aComparator);
+    if (nOffset >= aSorted.size ())
+      return new CommonsArrayList <> ();
+    return new CommonsArrayList <> (aSorted.subList (nOffset, aSorted.size ()));
+  }
+
+  /**
+   * Create a histogram of the sessions by idle time.
+   *
+   * @param aUpperBoundsMillis
+   *        The exclusive upper bounds of the buckets in milliseconds in
+   *        ascending order. May not be <code>null</code>.
+   * @return An array with one more element than the provided bounds. The last
+   *         element contains all sessions that are idle for longer than the
+   *         last bound.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static int [] getIdleTimeHistogram (@NonNull final long [] aUpperBoundsMillis)
+  {
+    ValueEnforcer.notNull (aUpperBoundsMillis, "UpperBoundsMillis");
+
+    final int [] ret = new int [aUpperBoundsMillis.length + 1];
+    final long nNow = System.currentTimeMillis ();
+    for (final SessionMetadata aMetadata : MAP.values ())
+    {
+      final long nIdle = aMetadata.getIdleMillis (nNow);
+      int nIndex = 0;
+      while (nIndex < aUpperBoundsMillis.length && nIdle >= aUpperBoundsMillis[nIndex])
+        nIndex++;
+      ret[nIndex]++;
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.style.IsSPIImplementation;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.scope.IRequestScope;
+import com.helger.scope.ISessionScope;
+import com.helger.scope.mgr.ScopeManager;
+import com.helger.scope.spi.IRequestScopeSPI;
+import com.helger.scope.spi.ISessionScopeSPI;
+
+/**
+ * Scope SPI implementation that keeps the {@link SessionMetadataIndex} up to
+ * date.
+ *
+ * @author Philip Helger
+ */
+@IsSPIImplementation
+public final class SessionMetadataScopeSPI implements ISessionScopeSPI, IRequestScopeSPI
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (SessionMetadataScopeSPI.class);
+
+  public void onSessionScopeBegin (@NonNull final ISessionScope aSessionScope)
+  {
+    SessionMetadataIndex.onSessionBegin (aSessionScope);
+  }
+
+  public void onSessionScopeEnd (@NonNull final ISessionScope aSessionScope)
+  {
+    SessionMetadataIndex.onSessionEnd (aSessionScope);
+  }
+
+  public void onRequestScopeBegin (@NonNull final IRequestScope aRequestScope)
+  {}
+
+  public void onRequestScopeEnd (@NonNull final IRequestScope aRequestScope)
+  {
+    try
+    {
+      // Don't create a new session
+      final ISessionScope aSessionScope = ScopeManager.getSessionScope (false);
+      if (aSessionScope != null)
+      {
+        final String sUserID = LoggedInUserManager.getInstance ().getCurrentUserID ();
+        final SessionMetadata aMetadata = SessionMetadataIndex.getSessionMetadata (aSessionScope.getID ());
+        String sUserLoginName = aMetadata == null ? null : aMetadata.getUserLoginName ();
+        if (aMetadata == null || !EqualsHelper.equals (sUserID, aMetadata.getUserID ()))
+        {
+          // Resolve the user only if it changed
+          final IUser aUser = sUserID == null ? null : LoggedInUserManager.getInstance ().getCurrentUser ();
+          sUserLoginName = aUser == null ? null : aUser.getLoginName ();
+        }
+        SessionMetadataIndex.onSessionAccess (aSessionScope, sUserID, sUserLoginName);
+      }
+    }
+    catch (final RuntimeException ex)
+    {
+      // Monitoring must never break a request
+      LOGGER.warn ("Failed to update session metadata index", ex);
+    }
+  }
+}
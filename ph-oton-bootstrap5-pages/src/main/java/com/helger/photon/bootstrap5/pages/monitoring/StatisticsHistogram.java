@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * A lock-free latency histogram with logarithmic buckets (similar to an HDR
+ * histogram). Every power of two is divided into {@link #SUB_BUCKET_COUNT}
+ * linear sub-buckets, so the relative error of a reported value is below
+ * <code>1/SUB_BUCKET_COUNT</code>. Values are recorded in microseconds.
+ * <p>
+ * To avoid contention between threads, the buckets are striped and each thread
+ * updates the stripe selected by its ID. A {@link Snapshot} merges all
+ * stripes.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class StatisticsHistogram
+{
+  /** Number of bits for the sub-buckets of each power of two */
+  public static final int SUB_BUCKET_BITS = 4;
+  public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  /** The highest trackable value is 2^MAX_VALUE_BITS - 1 microseconds (~19h) */
+  public static final int MAX_VALUE_BITS = 36;
+  public static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+  public static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+  private static final int STRIPE_COUNT;
+  static
+  {
+    // Power of two, at most 4 to keep the memory low
+    final int nCPUs = Runtime.getRuntime ().availableProcessors ();
+    STRIPE_COUNT = nCPUs >= 4 ? 4 : nCPUs >= 2 ? 2 : 1;
+  }
+
+  private final AtomicLongArray [] m_aStripes = new AtomicLongArray [STRIPE_COUNT];
+  private final LongAdder m_aCount = new LongAdder ();
+  private final LongAdder m_aSum = new LongAdder ();
+  private final LongAccumulator m_aMin = new LongAccumulator (Math::min, Long.MAX_VALUE);
+  private final LongAccumulator m_aMax = new LongAccumulator (Math::max, Long.MIN_VALUE);
+
+  public StatisticsHistogram ()
+  {
+    for (int i = 0; i < STRIPE_COUNT; ++i)
+      m_aStripes[i] = new AtomicLongArray (BUCKET_COUNT);
+  }
+
+  /**
+   * Get the bucket index of the provided value.
+   *
+   * @param nValue
+   *        Value in microseconds. Must be &ge; 0.
+   * @return The bucket index.
+   */
+  static int getBucketIndex (final long nValue)
+  {
+    final long nRealValue = Math.min (nValue, MAX_VALUE);
+    if (nRealValue < SUB_BUCKET_COUNT)
+      return (int) nRealValue;
+    // Position of the highest bit
+    final int nExp = 63 - Long.numberOfLeadingZeros (nRealValue);
+    final int nShift = nExp - SUB_BUCKET_BITS;
+    final int nSub = (int) (nRealValue >>> nShift) - SUB_BUCKET_COUNT;
+    return (nShift + 1) * SUB_BUCKET_COUNT + nSub;
+  }
+
+  /**
+   * @param nIndex
+   *        Bucket index
+   * @return The smallest value (inclusive) of the bucket in microseconds.
+   */
+  public static long getBucketLowerBound (final int nIndex)
+  {
+    if (nIndex < SUB_BUCKET_COUNT)
+      return nIndex;
+    final int nShift = nIndex / SUB_BUCKET_COUNT - 1;
+    final int nSub = nIndex % SUB_BUCKET_COUNT;
+    return (long) (SUB_BUCKET_COUNT + nSub) << nShift;
+  }
+
+  /**
+   * @param nIndex
+   *        Bucket index
+   * @return The largest value (inclusive) of the bucket in microseconds.
+   */
+  public static long getBucketUpperBound (final int nIndex)
+  {
+    if (nIndex < SUB_BUCKET_COUNT)
+      return nIndex;
+    final int nShift = nIndex / SUB_BUCKET_COUNT - 1;
+    return getBucketLowerBound (nIndex) + (1L << nShift) - 1;
+  }
+
+  /**
+   * Record a single value.
+   *
+   * @param nMicros
+   *        The duration in microseconds. Negative values are ignored.
+   */
+  public void addMicros (final long nMicros)
+  {
+    if (nMicros < 0)
+      return;
+    final int nStripe = (int) (Thread.currentThread ().getId () & (STRIPE_COUNT - 1));
+    m_aStripes[nStripe].incrementAndGet (getBucketIndex (nMicros));
+    m_aCount.increment ();
+    m_aSum.add (nMicros);
+    m_aMin.accumulate (nMicros);
+    m_aMax.accumulate (nMicros);
+  }
+
+  public void addNanos (final long nNanos)
+  {
+    addMicros (nNanos / 1_000);
+  }
+
+  public void addMillis (final long nMillis)
+  {
+    addMicros (nMillis * 1_000);
+  }
+
+  @Nonnegative
+  public long getCount ()
+  {
+    return m_aCount.sum ();
+  }
+
+  /**
+   * @return A consistent enough copy of the current state. Concurrent updates
+   *         during the snapshot creation may or may not be contained.
+   */
+  @NonNull
+  public Snapshot getSnapshot ()
+  {
+    final long [] aCounts = new long [BUCKET_COUNT];
+    for (final AtomicLongArray aStripe : m_aStripes)
+      for (int i = 0; i < BUCKET_COUNT; ++i)
+        aCounts[i] += aStripe.get (i);
+    long nTotal = 0;
+    for (final long n : aCounts)
+      nTotal += n;
+    final long nMin = m_aMin.get ();
+    final long nMax = m_aMax.get ();
+    return new Snapshot (aCounts,
+                         nTotal,
+                         m_aSum.sum (),
+                         nTotal == 0 ? 0 : nMin,
+                         nTotal == 0 ? 0 : nMax);
+  }
+
+  /**
+   * Immutable merged state of a histogram.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Snapshot
+  {
+    private final long [] m_aCounts;
+    private final long m_nTotal;
+    private final long m_nSum;
+    private final long m_nMin;
+    private final long m_nMax;
+
+    Snapshot (@NonNull final long [] aCounts, final long nTotal, final long nSum, final long nMin, final long nMax)
+    {
+      m_aCounts = aCounts;
+      m_nTotal = nTotal;
+      m_nSum = nSum;
+      m_nMin = nMin;
+      m_nMax = nMax;
+    }
+
+    @Nonnegative
+    public long getTotalCount ()
+    {
+      return m_nTotal;
+    }
+
+    public long getMinMicros ()
+    {
+      return m_nMin;
+    }
+
+    public long getMaxMicros ()
+    {
+      return m_nMax;
+    }
+
+    public long getAverageMicros ()
+    {
+      return m_nTotal == 0 ? 0 : m_nSum / m_nTotal;
+    }
+
+    /**
+     * Get the value at the provided percentile. The upper bound of the
+     * matching bucket is returned, limited by the maximum recorded value.
+     *
+     * @param dPercentile
+     *        Percentile between 0 and 100.
+     * @return The value in microseconds.
+     */
+    public long getValueAtPercentile (final double dPercentile)
+    {
+      ValueEnforcer.isBetweenInclusive (dPercentile, "Percentile", 0, 100);
+      if (m_nTotal == 0)
+        return 0;
+      final long nRank = Math.max (1, (long) Math.ceil (dPercentile / 100.0 * m_nTotal));
+      long nSeen = 0;
+      for (int i = 0; i < m_aCounts.length; ++i)
+      {
+        nSeen += m_aCounts[i];
+        if (nSeen >= nRank)
+          return Math.min (getBucketUpperBound (i), m_nMax);
+      }
+      return m_nMax;
+    }
+
+    /**
+     * @return A copy of the merged bucket counts. Use
+     *         {@link StatisticsHistogram#getBucketLowerBound(int)} and
+     *         {@link StatisticsHistogram#getBucketUpperBound(int)} to get the
+     *         ranges.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getBucketCounts ()
+    {
+      return m_aCounts.clone ();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsTreeMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsSortedMap;
+
+/**
+ * Registry for all {@link StatisticsKeyedHistogramTimer} objects. The
+ * histogram timers are registered with the same names as the keyed timers of
+ * the <code>StatisticsManager</code> they forward to.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class StatisticsHistogramManager
+{
+  private static final SimpleReadWriteLock RW_LOCK = new SimpleReadWriteLock ();
+  @GuardedBy ("RW_LOCK")
+  private static final ICommonsSortedMap <String, StatisticsKeyedHistogramTimer> KEYED_TIMERS = new CommonsTreeMap <> ();
+
+  private StatisticsHistogramManager ()
+  {}
+
+  /**
+   * Get or create the keyed histogram timer with the provided name.
+   *
+   * @param sName
+   *        The name of the timer. May neither be <code>null</code> nor empty.
+   * @return The non-<code>null</code> histogram timer.
+   */
+  @NonNull
+  public static StatisticsKeyedHistogramTimer getKeyedHistogramTimer (@NonNull @Nonempty final String sName)
+  {
+    ValueEnforcer.notEmpty (sName, "Name");
+
+    StatisticsKeyedHistogramTimer ret = RW_LOCK.readLockedGet ( () -> KEYED_TIMERS.get (sName));
+    if (ret == null)
+      ret = RW_LOCK.writeLockedGet ( () -> KEYED_TIMERS.computeIfAbsent (sName, StatisticsKeyedHistogramTimer::new));
+    return ret;
+  }
+
+  /**
+   * @param sName
+   *        The name of the timer. May be <code>null</code>.
+   * @return <code>null</code> if no such histogram timer is registered.
+   */
+  @Nullable
+  public static StatisticsKeyedHistogramTimer getKeyedHistogramTimerIfExisting (@Nullable final String sName)
+  {
+    if (sName == null)
+      return null;
+    return RW_LOCK.readLockedGet ( () -> KEYED_TIMERS.get (sName));
+  }
+
+  /**
+   * @return All registered histogram timers ordered by name. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <StatisticsKeyedHistogramTimer> getAllKeyedHistogramTimers ()
+  {
+    return RW_LOCK.readLockedGet (KEYED_TIMERS::copyOfValues);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+import com.helger.xservlet.filter.IXServletHighLevelFilter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * High level XServlet filter that records the duration of each request in the
+ * {@link StatisticsKeyedHistogramTimer} named {@value #DEFAULT_TIMER_NAME}, so
+ * that the percentiles are shown on the statistics page. The key is the
+ * servlet path plus the first segment of the path info, so for the AJAX
+ * servlet the key contains the AJAX function name. Add it to the
+ * <code>filterHighLevelList ()</code> of the application and AJAX servlets.
+ *
+ * @author Philip Helger
+ */
+public class StatisticsHistogramXServletFilter implements IXServletHighLevelFilter
+{
+  public static final String DEFAULT_TIMER_NAME = "xservlet.requests";
+
+  private static final String REQUEST_ATTR_START = StatisticsHistogramXServletFilter.class.getName () + "$start";
+
+  private final String m_sTimerName;
+
+  public StatisticsHistogramXServletFilter ()
+  {
+    this (DEFAULT_TIMER_NAME);
+  }
+
+  public StatisticsHistogramXServletFilter (@NonNull @Nonempty final String sTimerName)
+  {
+    ValueEnforcer.notEmpty (sTimerName, "TimerName");
+    m_sTimerName = sTimerName;
+  }
+
+  @NonNull
+  @Nonempty
+  public final String getTimerName ()
+  {
+    return m_sTimerName;
+  }
+
+  @NonNull
+  private static String _getKey (@NonNull final HttpServletRequest aHttpRequest)
+  {
+    final String sServletPath = StringHelper.getNotNull (aHttpRequest.getServletPath ());
+    final String sPathInfo = aHttpRequest.getPathInfo ();
+    if (StringHelper.isEmpty (sPathInfo) || sPathInfo.length () == 1)
+      return sServletPath;
+    // Only the first segment, to limit the number of keys
+    final int nSlash = sPathInfo.indexOf ('/', 1);
+    return sServletPath + (nSlash < 0 ? sPathInfo : sPathInfo.substring (0, nSlash));
+  }
+
+  public void beforeRequest (@NonNull final IRequestWebScopeWithoutResponse aRequestScope)
+  {
+    aRequestScope.attrs ().putIn (REQUEST_ATTR_START, Long.valueOf (System.nanoTime ()));
+  }
+
+  public void afterRequest (@NonNull final IRequestWebScopeWithoutResponse aRequestScope)
+  {
+    // System.nanoTime may be negative, so no sentinel value can be used
+    if (aRequestScope.attrs ().get (REQUEST_ATTR_START) instanceof final Long aStart)
+      StatisticsHistogramManager.getKeyedHistogramTimer (m_sTimerName)
+                                .addNanos (_getKey (aRequestScope.getRequest ()), System.nanoTime () - aStart.longValue ());
+  }
+}
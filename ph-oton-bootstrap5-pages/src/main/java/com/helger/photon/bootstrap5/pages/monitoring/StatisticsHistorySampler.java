@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+import com.helger.statistics.api.IStatisticsHandlerCounter;
+import com.helger.statistics.api.IStatisticsHandlerKeyedCounter;
+import com.helger.statistics.api.IStatisticsHandlerKeyedSize;
+import com.helger.statistics.api.IStatisticsHandlerKeyedTimer;
+import com.helger.statistics.api.IStatisticsHandlerSize;
+import com.helger.statistics.api.IStatisticsHandlerTimer;
+import com.helger.statistics.visit.IStatisticsVisitorCallback;
+import com.helger.statistics.visit.StatisticsVisitor;
+
+/**
+ * Background sampler that periodically takes a snapshot of all timer, size and
+ * counter statistics handlers and keeps the per-interval deltas in fixed-size
+ * primitive ring buffers. By default one sample per minute is kept for 24
+ * hours. The statistics handlers are only read by the sampler thread, so
+ * nothing is added to the code path that records the statistics.
+ * <p>
+ * Each series needs two <code>long</code> arrays with {@link #getCapacity()}
+ * elements, so with the defaults a series takes 23 KiB and all
+ * {@link #MAX_SERIES} series together take at most about 11 MiB. Statistics
+ * handlers exceeding that limit are not sampled.
+ * <p>
+ * Sampling starts when the instance is created. This happens during
+ * application startup in
+ * {@link com.helger.photon.bootstrap5.pages.BootstrapPagesMenuConfigurator#startBackgroundSamplers()}.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class StatisticsHistorySampler extends AbstractGlobalSingleton
+{
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes (1);
+  /** 24 hours with the default interval */
+  public static final int DEFAULT_CAPACITY = 24 * 60;
+  /**
+   * The maximum number of series, to keep the memory bounded: 500 series
+   * &times; 1440 samples &times; 2 longs &asymp; 11 MiB with the default
+   * capacity
+   */
+  public static final int MAX_SERIES = 500;
+
+  public enum EType
+  {
+    TIMER,
+    SIZE,
+    COUNTER
+  }
+
+  /**
+   * Immutable snapshot of the history of a single series in chronological
+   * order.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class History
+  {
+    private final Duration m_aInterval;
+    private final long [] m_aInvocations;
+    private final long [] m_aValues;
+
+    History (@NonNull final Duration aInterval, @NonNull final long [] aInvocations, @NonNull final long [] aValues)
+    {
+      m_aInterval = aInterval;
+      m_aInvocations = aInvocations;
+      m_aValues = aValues;
+    }
+
+    @NonNull
+    public Duration getInterval ()
+    {
+      return m_aInterval;
+    }
+
+    @Nonnegative
+    public int getSampleCount ()
+    {
+      return m_aInvocations.length;
+    }
+
+    /**
+     * @return The number of invocations per interval. Never <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getInvocations ()
+    {
+      return m_aInvocations.clone ();
+    }
+
+    /**
+     * @return The value delta per interval. For timers and sizes this is the
+     *         sum, for counters it is the count. Never <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getValues ()
+    {
+      return m_aValues.clone ();
+    }
+
+    /**
+     * @return The average value per interval (value delta divided by
+     *         invocation delta), with 0 for intervals without invocations.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public double [] getAverages ()
+    {
+      final double [] ret = new double [m_aValues.length];
+      for (int i = 0; i < ret.length; ++i)
+        ret[i] = m_aInvocations[i] == 0 ? 0 : (double) m_aValues[i] / m_aInvocations[i];
+      return ret;
+    }
+
+    public long getLastInvocations ()
+    {
+      return m_aInvocations.length == 0 ? 0 : m_aInvocations[m_aInvocations.length - 1];
+    }
+
+    public long getLastValue ()
+    {
+      return m_aValues.length == 0 ? 0 : m_aValues[m_aValues.length - 1];
+    }
+  }
+
+  private static final class Series
+  {
+    private final long [] m_aInvocations;
+    private final long [] m_aValues;
+    private long m_nLastInvocations;
+    private long m_nLastValue;
+
+    Series (@Nonnegative final int nCapacity, final long nInvocations, final long nValue)
+    {
+      m_aInvocations = new long [nCapacity];
+      m_aValues = new long [nCapacity];
+      // The first sample is the base line
+      m_nLastInvocations = nInvocations;
+      m_nLastValue = nValue;
+    }
+
+    void clearSlot (final int nSlot)
+    {
+      m_aInvocations[nSlot] = 0;
+      m_aValues[nSlot] = 0;
+    }
+
+    void record (final int nSlot, final long nInvocations, final long nValue)
+    {
+      // A negative delta means the handler was reset
+      m_aInvocations[nSlot] = Math.max (0, nInvocations - m_nLastInvocations);
+      m_aValues[nSlot] = nInvocations < m_nLastInvocations ? 0 : nValue - m_nLastValue;
+      m_nLastInvocations = nInvocations;
+      m_nLastValue = nValue;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (StatisticsHistorySampler.class);
+
+  private Duration m_aInterval = DEFAULT_INTERVAL;
+  private int m_nCapacity = DEFAULT_CAPACITY;
+  private ScheduledExecutorService m_aExecutor;
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <String, Series> m_aSeries = new CommonsHashMap <> ();
+  @GuardedBy ("m_aRWLock")
+  private long m_nSampleCount = 0;
+  @GuardedBy ("m_aRWLock")
+  private boolean m_bMaxSeriesWarned = false;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private StatisticsHistorySampler ()
+  {}
+
+  @NonNull
+  public static StatisticsHistorySampler getInstance ()
+  {
+    return getGlobalSingleton (StatisticsHistorySampler.class);
+  }
+
+  @Override
+  protected void onAfterInstantiation (@NonNull final IScope aScope)
+  {
+    m_aExecutor = Executors.newSingleThreadScheduledExecutor (r -> {
+      final Thread t = new Thread (r, "ph-statistics-history");
+      t.setDaemon (true);
+      return t;
+    });
+    final long nMillis = m_aInterval.toMillis ();
+    m_aExecutor.scheduleAtFixedRate (this::sample, nMillis, nMillis, TimeUnit.MILLISECONDS);
+    // Take the base line
+    m_aExecutor.execute (this::sample);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    if (m_aExecutor != null)
+      m_aExecutor.shutdownNow ();
+  }
+
+  @NonNull
+  public Duration getInterval ()
+  {
+    return m_aInterval;
+  }
+
+  @Nonnegative
+  public int getCapacity ()
+  {
+    return m_nCapacity;
+  }
+
+  @NonNull
+  private static String _getSeriesKey (@NonNull final EType eType, @NonNull final String sName, @Nullable final String sKey)
+  {
+    return eType.name () + '\u0000' + sName + '\u0000' + (sKey == null ? "" : sKey);
+  }
+
+  /**
+   * Take a single sample of all statistics handlers. Called periodically by
+   * the background thread.
+   */
+  void sample ()
+  {
+    try
+    {
+      m_aRWLock.writeLocked ( () -> {
+        final int nSlot = (int) (m_nSampleCount % m_nCapacity);
+        for (final Series aSeries : m_aSeries.values ())
+          aSeries.clearSlot (nSlot);
+
+        StatisticsVisitor.visitStatistics (new IStatisticsVisitorCallback ()
+        {
+          private void _record (@NonNull final EType eType,
+                                @NonNull final String sName,
+                                @Nullable final String sKey,
+                                final long nInvocations,
+                                final long nValue)
+          {
+            final String sSeriesKey = _getSeriesKey (eType, sName, sKey);
+            final Series aSeries = m_aSeries.get (sSeriesKey);
+            if (aSeries != null)
+              aSeries.record (nSlot, nInvocations, nValue);
+            else
+              if (m_aSeries.size () < MAX_SERIES)
+                m_aSeries.put (sSeriesKey, new Series (m_nCapacity, nInvocations, nValue));
+              else
+                if (!m_bMaxSeriesWarned)
+                {
+                  m_bMaxSeriesWarned = true;
+                  LOGGER.warn ("The maximum number of " + MAX_SERIES + " statistics history series is reached - ignoring new series");
+                }
+          }
+
+          @Override
+          public void onTimer (@NonNull final String sName, @NonNull final IStatisticsHandlerTimer aHandler)
+          {
+            _record (EType.TIMER, sName, null, aHandler.getInvocationCount (), aHandler.getSum ().longValue ());
+          }
+
+          @Override
+          public void onKeyedTimer (@NonNull final String sName, @NonNull final IStatisticsHandlerKeyedTimer aHandler)
+          {
+            for (final String sKey : aHandler.getAllKeys ())
+              _record (EType.TIMER, sName, sKey, aHandler.getInvocationCount (sKey), aHandler.getSum (sKey).longValue ());
+          }
+
+          @Override
+          public void onSize (@NonNull final String sName, @NonNull final IStatisticsHandlerSize aHandler)
+          {
+            _record (EType.SIZE, sName, null, aHandler.getInvocationCount (), aHandler.getSum ().longValue ());
+          }
+
+          @Override
+          public void onKeyedSize (@NonNull final String sName, @NonNull final IStatisticsHandlerKeyedSize aHandler)
+          {
+            for (final String sKey : aHandler.getAllKeys ())
+              _record (EType.SIZE, sName, sKey, aHandler.getInvocationCount (sKey), aHandler.getSum (sKey).longValue ());
+          }
+
+          @Override
+          public void onCounter (@NonNull final String sName, @NonNull final IStatisticsHandlerCounter aHandler)
+          {
+            _record (EType.COUNTER, sName, null, aHandler.getInvocationCount (), aHandler.getCount ());
+          }
+
+          @Override
+          public void onKeyedCounter (@NonNull final String sName, @NonNull final IStatisticsHandlerKeyedCounter aHandler)
+          {
+            for (final String sKey : aHandler.getAllKeys ())
+              _record (EType.COUNTER, sName, sKey, aHandler.getInvocationCount (sKey), aHandler.getCount (sKey));
+          }
+        });
+        m_nSampleCount++;
+      });
+    }
+    catch (final RuntimeException ex)
+    {
+      // Never kill the scheduler thread
+      LOGGER.error ("Failed to sample statistics history", ex);
+    }
+  }
+
+  /**
+   * @return The number of samples taken so far, including the base line.
+   */
+  @Nonnegative
+  public long getSampleCount ()
+  {
+    return m_aRWLock.readLockedLong ( () -> m_nSampleCount);
+  }
+
+  /**
+   * Get the history of a single series.
+   *
+   * @param eType
+   *        Statistics type. May not be <code>null</code>.
+   * @param sName
+   *        Statistics handler name. May not be <code>null</code>.
+   * @param sKey
+   *        Key for keyed handlers. May be <code>null</code>.
+   * @return <code>null</code> if no such series exists yet.
+   */
+  @Nullable
+  public History getHistory (@NonNull final EType eType, @NonNull final String sName, @Nullable final String sKey)
+  {
+    final String sSeriesKey = _getSeriesKey (eType, sName, sKey);
+    return m_aRWLock.readLockedGet ( () -> {
+      final Series aSeries = m_aSeries.get (sSeriesKey);
+      if (aSeries == null)
+        return null;
+
+      // The first sample is only the base line
+      final int nCount = (int) Math.min (Math.max (0, m_nSampleCount - 1), m_nCapacity);
+      final long [] aInvocations = new long [nCount];
+      final long [] aValues = new long [nCount];
+      // Oldest first
+      final long nFirst = m_nSampleCount - nCount;
+      for (int i = 0; i < nCount; ++i)
+      {
+        final int nSlot = (int) ((nFirst + i) % m_nCapacity);
+        aInvocations[i] = aSeries.m_aInvocations[nSlot];
+        aValues[i] = aSeries.m_aValues[nSlot];
+      }
+      return new History (m_aInterval, aInvocations, aValues);
+    });
+  }
+}
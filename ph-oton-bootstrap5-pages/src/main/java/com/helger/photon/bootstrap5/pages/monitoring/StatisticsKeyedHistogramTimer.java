@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsTreeSet;
+import com.helger.collection.commons.ICommonsSortedSet;
+import com.helger.statistics.api.IMutableStatisticsHandlerKeyedTimer;
+import com.helger.statistics.impl.StatisticsManager;
+
+/**
+ * A keyed timer that records the durations in a {@link StatisticsHistogram}
+ * per key, so that percentiles can be determined. All durations are
+ * additionally forwarded to the keyed timer handler of the
+ * {@link StatisticsManager} with the same name, so the existing min/max/avg
+ * statistics stay complete. Use
+ * {@link StatisticsHistogramManager#getKeyedHistogramTimer(String)} to get an
+ * instance.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class StatisticsKeyedHistogramTimer
+{
+  /** The maximum number of keys with a histogram, to keep the memory bounded */
+  public static final int MAX_KEYS = 1_000;
+
+  private final String m_sName;
+  private final IMutableStatisticsHandlerKeyedTimer m_aTimerHdl;
+  private final ConcurrentHashMap <String, StatisticsHistogram> m_aHistograms = new ConcurrentHashMap <> ();
+
+  StatisticsKeyedHistogramTimer (@NonNull @Nonempty final String sName)
+  {
+    ValueEnforcer.notEmpty (sName, "Name");
+    m_sName = sName;
+    m_aTimerHdl = StatisticsManager.getKeyedTimerHandler (sName);
+  }
+
+  @NonNull
+  @Nonempty
+  public String getName ()
+  {
+    return m_sName;
+  }
+
+  /**
+   * Add a new duration in nanoseconds. This is the most precise version.
+   *
+   * @param sKey
+   *        The key to use. May not be <code>null</code>.
+   * @param nNanos
+   *        The duration in nanoseconds.
+   */
+  public void addNanos (@NonNull final String sKey, final long nNanos)
+  {
+    ValueEnforcer.notNull (sKey, "Key");
+    m_aTimerHdl.addTime (sKey, TimeUnit.NANOSECONDS.toMillis (nNanos));
+
+    StatisticsHistogram aHistogram = m_aHistograms.get (sKey);
+    if (aHistogram == null)
+    {
+      // Don't create new histograms if the limit is reached
+      if (m_aHistograms.size () >= MAX_KEYS)
+        return;
+      aHistogram = m_aHistograms.computeIfAbsent (sKey, k -> new StatisticsHistogram ());
+    }
+    aHistogram.addNanos (nNanos);
+  }
+
+  /**
+   * Add a new duration in milliseconds.
+   *
+   * @param sKey
+   *        The key to use. May not be <code>null</code>.
+   * @param nMillis
+   *        The duration in milliseconds.
+   */
+  public void addTime (@NonNull final String sKey, final long nMillis)
+  {
+    addNanos (sKey, TimeUnit.MILLISECONDS.toNanos (nMillis));
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsSortedSet <String> getAllKeys ()
+  {
+    return new CommonsTreeSet <> (m_aHistograms.keySet ());
+  }
+
+  @Nullable
+  public StatisticsHistogram getHistogram (@Nullable final String sKey)
+  {
+    return sKey == null ? null : m_aHistograms.get (sKey);
+  }
+}
@@ -16,6 +16,7 @@
  */
 package com.helger.photon.bootstrap5.pages.security;
 
+import java.util.Comparator;
 import java.util.Locale;
 import java.util.Map;
 
@@ -25,12 +26,14 @@ import org.jspecify.annotations.Nullable;
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
 import com.helger.annotation.style.OverrideOnDemand;
-import com.helger.base.compare.ESortOrder;
+import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.email.EmailAddressHelper;
 import com.helger.base.equals.EqualsHelper;
 import com.helger.base.name.IHasName;
 import com.helger.base.string.StringHelper;
 import com.helger.collection.CollectionHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
 import com.helger.collection.commons.ICommonsCollection;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.collection.commons.ICommonsMap;
@@ -45,11 +48,11 @@ import com.helger.html.hc.html.forms.HCEdit;
 import com.helger.html.hc.html.forms.HCEditPassword;
 import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCRow;
-import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.html.tabular.IHCCell;
 import com.helger.html.hc.html.textlevel.HCA;
 import com.helger.html.hc.impl.HCNodeList;
 import com.helger.html.hc.impl.HCTextNode;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
@@ -59,9 +62,8 @@ import com.helger.photon.bootstrap5.pages.BootstrapPagesMenuConfigurator;
 import com.helger.photon.bootstrap5.pages.handler.AbstractBootstrapWebPageActionHandler;
 import com.helger.photon.bootstrap5.pages.handler.AbstractBootstrapWebPageActionHandlerDelete;
 import com.helger.photon.bootstrap5.pages.handler.AbstractBootstrapWebPageActionHandlerUndelete;
+import com.helger.photon.bootstrap5.pagination.BootstrapPagination;
 import com.helger.photon.bootstrap5.table.BootstrapTable;
-import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDTColAction;
-import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
 import com.helger.photon.bootstrap5.uictrls.ext.BootstrapSecurityUI;
 import com.helger.photon.core.EPhotonCoreText;
 import com.helger.photon.core.form.FormErrorList;
@@ -84,9 +86,6 @@ import com.helger.photon.uicore.page.EWebPageFormAction;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.photon.uictrls.autosize.HCTextAreaAutosize;
-import com.helger.photon.uictrls.datatables.DataTables;
-import com.helger.photon.uictrls.datatables.column.DTCol;
-import com.helger.photon.uictrls.datatables.column.EDTColType;
 import com.helger.text.IMultilingualText;
 import com.helger.text.compare.ComparatorHelper;
 import com.helger.text.display.IHasDisplayTextWithArgs;
@@ -94,6 +93,7 @@ import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 import com.helger.typeconvert.collection.IStringMap;
 import com.helger.url.ISimpleURL;
+import com.helger.url.SimpleURL;
 
 public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionContext> extends
                                             AbstractWebPageSecurityObjectWithAttributes <IUser, WPECTYPE>
@@ -111,6 +111,10 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
     HEADER_USERGROUPS ("Benutzergruppen", "User groups"),
     HEADER_LAST_LOGIN ("Letzter Login", "Last login"),
     HEADER_VALUE ("Wert", "Value"),
+    LABEL_FILTER ("Name, Benutzername oder E-Mail enthält", "Name, user name or email contains"),
+    BUTTON_FILTER ("Filtern", "Filter"),
+    PREV_PAGE ("Zurück", "Previous"),
+    NEXT_PAGE ("Weiter", "Next"),
     TITLE_CREATE ("Neuen Benutzer anlegen", "Create new user"),
     TITLE_EDIT ("Benutzer ''{0}'' bearbeiten", "Edit user ''{0}''"),
     TITLE_RESET_PASSWORD ("Passwort von ''{0}'' zurücksetzen", "Reset password of user ''{0}''"),
@@ -195,9 +199,17 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
   public static final String FIELD_ENABLED = "enabled";
   public static final String FIELD_DESCRIPTION = "description";
   public static final String FIELD_USERGROUPS = "usergroups";
+  public static final String FIELD_FILTER = "filter";
 
   public static final String ACTION_RESET_PASSWORD = "resetpw";
 
+  public static final String PARAM_TAB = "tab";
+  public static final String PARAM_PAGE = "page";
+  public static final String TAB_ACTIVE = "active";
+  public static final String TAB_DISABLED = "disabled";
+  public static final String TAB_DELETED = "deleted";
+  public static final int DEFAULT_PAGE_SIZE = 50;
+
   private Locale m_aDefaultUserLocale;
 
   private void _init ()
@@ -890,36 +902,144 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
     return EDefaultIcon.KEY.getIcon ().getAsNode ();
   }
 
+  /**
+   * Create a reverse index from user ID to the user groups the user is
+   * assigned to. This is done once per rendering, instead of scanning all user
+   * groups for each user.
+   *
+   * @param aDisplayLocale
+   *        The display locale used to sort the user groups. May not be
+   *        <code>null</code>.
+   * @return The map from user ID to the user groups sorted by name. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  protected static ICommonsMap <String, ICommonsList <IUserGroup>> createUserGroupIndex (@NonNull final Locale aDisplayLocale)
+  {
+    final IUserGroupManager aUserGroupMgr = PhotonSecurityManager.getUserGroupMgr ();
+    final ICommonsList <IUserGroup> aUserGroups = aUserGroupMgr.getAllActiveUserGroups ();
+    aUserGroups.addAll (aUserGroupMgr.getAllDeletedUserGroups ());
+    // Sort once, so that the lists per user are already sorted
+    aUserGroups.sort (ComparatorHelper.getComparatorCollating (IHasName::getName, aDisplayLocale));
+
+    final ICommonsMap <String, ICommonsList <IUserGroup>> ret = new CommonsHashMap <> ();
+    for (final IUserGroup aUserGroup : aUserGroups)
+      for (final String sUserID : aUserGroup.getAllContainedUserIDs ())
+        ret.computeIfAbsent (sUserID, k -> new CommonsArrayList <> ()).add (aUserGroup);
+    return ret;
+  }
+
+  @NonNull
+  private static SimpleURL _createListURL (@NonNull final IWebPageExecutionContext aWPEC,
+                                           @Nullable final String sFilter,
+                                           @NonNull final String sTabID,
+                                           final int nPage)
+  {
+    final SimpleURL ret = aWPEC.getSelfHref ();
+    if (StringHelper.isNotEmpty (sFilter))
+      ret.add (FIELD_FILTER, sFilter);
+    ret.add (PARAM_TAB, sTabID);
+    if (nPage > 0)
+      ret.add (PARAM_PAGE, Integer.toString (nPage));
+    return ret;
+  }
+
+  private static boolean _containsIgnoreCase (@Nullable final String s, @NonNull final String sFilterLC)
+  {
+    return s != null && s.toLowerCase (Locale.ROOT).contains (sFilterLC);
+  }
+
+  /**
+   * Get the users of a single tab, filtered and sorted.
+   *
+   * @param aUsers
+   *        All users of the tab. May not be <code>null</code>.
+   * @param sFilter
+   *        The filter text to be contained in the login name, email address,
+   *        first name or last name. May be <code>null</code>.
+   * @param aComparator
+   *        The comparator to sort with. May not be <code>null</code>.
+   * @return The matching users. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  protected static ICommonsList <IUser> getFilteredAndSortedUsers (@NonNull final ICommonsList <IUser> aUsers,
+                                                                   @Nullable final String sFilter,
+                                                                   @NonNull final Comparator <? super IUser> aComparator)
+  {
+    final ICommonsList <IUser> ret;
+    if (StringHelper.isEmpty (sFilter))
+      ret = aUsers.getClone ();
+    else
+    {
+      final String sFilterLC = sFilter.toLowerCase (Locale.ROOT);
+      ret = aUsers.getAll (x -> _containsIgnoreCase (x.getLoginName (), sFilterLC) ||
+                                _containsIgnoreCase (x.getEmailAddress (), sFilterLC) ||
+                                _containsIgnoreCase (x.getFirstName (), sFilterLC) ||
+                                _containsIgnoreCase (x.getLastName (), sFilterLC));
+    }
+    ret.sort (aComparator);
+    return ret;
+  }
+
+  /**
+   * Create the paged list of users of a single tab.
+   *
+   * @param aWPEC
+   *        Web page execution context. May not be <code>null</code>.
+   * @param aUsers
+   *        The filtered and sorted users of the tab. May not be
+   *        <code>null</code>.
+   * @param aUserGroupIndex
+   *        The reverse index as created by
+   *        {@link #createUserGroupIndex(Locale)}. May not be <code>null</code>.
+   * @param sFilter
+   *        The current filter text. May be <code>null</code>.
+   * @param sTabID
+   *        The ID of the tab. May neither be <code>null</code> nor empty.
+   * @param nPage
+   *        The 0-based page to show. Out of range values are corrected.
+   * @return The created node. Never <code>null</code>.
+   */
   @NonNull
   protected IHCNode getTabWithUsers (@NonNull final WPECTYPE aWPEC,
                                      @NonNull final ICommonsList <IUser> aUsers,
-                                     @NonNull @Nonempty final String sTableID)
+                                     @NonNull final ICommonsMap <String, ICommonsList <IUserGroup>> aUserGroupIndex,
+                                     @Nullable final String sFilter,
+                                     @NonNull @Nonempty final String sTabID,
+                                     final int nPage)
   {
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
-
     final boolean bSeparateLoginName = !useEmailAddressAsLoginName ();
-    final IUserGroupManager aUserGroupMgr = PhotonSecurityManager.getUserGroupMgr ();
 
-    // List existing
-    final HCTable aTable = new HCTable (new DTCol ().setVisible (false),
-                                        new DTCol (EText.HEADER_NAME.getDisplayText (aDisplayLocale)),
-                                        bSeparateLoginName ? new DTCol (EText.HEADER_LOGINNAME.getDisplayText (aDisplayLocale))
-                                                           : null,
-                                        new DTCol (EText.HEADER_EMAIL.getDisplayText (aDisplayLocale)).setInitialSorting (ESortOrder.ASCENDING),
-                                        new DTCol (EText.HEADER_USERGROUPS.getDisplayText (aDisplayLocale)),
-                                        new DTCol (EText.HEADER_LAST_LOGIN.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.DATETIME,
-                                                                                                                            aDisplayLocale),
-                                        new BootstrapDTColAction (aDisplayLocale)).setID (sTableID);
-
-    for (final IUser aCurUser : aUsers)
+    final int nTotalCount = aUsers.size ();
+    final int nPageCount = Math.max (1, (nTotalCount + DEFAULT_PAGE_SIZE - 1) / DEFAULT_PAGE_SIZE);
+    final int nUsedPage = Math.min (Math.max (0, nPage), nPageCount - 1);
+    final int nFromIndex = nUsedPage * DEFAULT_PAGE_SIZE;
+
+    // List existing - only the current page is rendered
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                      bSeparateLoginName ? HCCol.star () : null,
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      new HCCol (170),
+                                                      new HCCol (110)).setStriped (true);
+    final HCRow aHeaderRow = aTable.addHeaderRow ();
+    aHeaderRow.addCell (EText.HEADER_NAME.getDisplayText (aDisplayLocale));
+    if (bSeparateLoginName)
+      aHeaderRow.addCell (EText.HEADER_LOGINNAME.getDisplayText (aDisplayLocale));
+    aHeaderRow.addCells (EText.HEADER_EMAIL.getDisplayText (aDisplayLocale),
+                         EText.HEADER_USERGROUPS.getDisplayText (aDisplayLocale),
+                         EText.HEADER_LAST_LOGIN.getDisplayText (aDisplayLocale),
+                         EPhotonCoreText.ACTIONS.getDisplayText (aDisplayLocale));
+
+    for (final IUser aCurUser : aUsers.subList (nFromIndex, Math.min (nFromIndex + DEFAULT_PAGE_SIZE, nTotalCount)))
     {
       final ISimpleURL aViewLink = createViewURL (aWPEC, aCurUser);
 
       final HCRow aRow = aTable.addBodyRow ();
 
-      // Hidden ID
-      aRow.addCell (aCurUser.getID ());
-
       // Name
       aRow.addCell (new HCA (aViewLink).addChild (SecurityHelper.getUserDisplayName (aCurUser, aDisplayLocale)));
 
@@ -930,22 +1050,22 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
       // Email address
       aRow.addCell (HCA_MailTo.createLinkedEmail (aCurUser.getEmailAddress ()));
 
-      // User groups
+      // User groups - already sorted in the index
       {
         final IHCCell <?> aUserGroupCell = aRow.addCell ();
-        aUserGroupMgr.getAllUserGroupsWithAssignedUser (aCurUser.getID ())
-                     .getSortedInline (ComparatorHelper.getComparatorCollating (IHasName::getName, aDisplayLocale))
-                     .forEach (aUG -> aUserGroupCell.addChild (div (new HCA (createViewURL (aWPEC,
-                                                                                            BootstrapPagesMenuConfigurator.MENU_ADMIN_SECURITY_USER_GROUP,
-                                                                                            aUG.getID (),
-                                                                                            null)).addChild (aUG.getName ()))));
+        final ICommonsList <IUserGroup> aUserGroups = aUserGroupIndex.get (aCurUser.getID ());
+        if (aUserGroups != null)
+          for (final IUserGroup aUG : aUserGroups)
+            aUserGroupCell.addChild (div (new HCA (createViewURL (aWPEC,
+                                                                  BootstrapPagesMenuConfigurator.MENU_ADMIN_SECURITY_USER_GROUP,
+                                                                  aUG.getID (),
+                                                                  null)).addChild (aUG.getName ())));
       }
 
       // Last login
       aRow.addCell (PDTToString.getAsString (aCurUser.getLastLoginDateTime (), aDisplayLocale));
 
       final IHCCell <?> aActionCell = aRow.addCell ();
-
       // Edit user
       if (isActionAllowed (aWPEC, EWebPageFormAction.EDIT, aCurUser))
         aActionCell.addChild (createEditLink (aWPEC, aCurUser));
@@ -989,9 +1109,18 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
         aActionCell.addChild (createEmptyAction ());
     }
 
-    final DataTables aDataTables = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
+    final HCNodeList ret = new HCNodeList ().addChild (aTable);
 
-    return new HCNodeList ().addChild (aTable).addChild (aDataTables);
+    // Pagination
+    if (nPageCount > 1)
+    {
+      ret.addChild (BootstrapPagination.create (nUsedPage,
+                                                nPageCount,
+                                                nTargetPage -> _createListURL (aWPEC, sFilter, sTabID, nTargetPage),
+                                                EText.PREV_PAGE.getDisplayText (aDisplayLocale),
+                                                EText.NEXT_PAGE.getDisplayText (aDisplayLocale)));
+    }
+    return ret;
   }
 
   @Override
@@ -1001,27 +1130,69 @@ public class BasePageSecurityUserManagement <WPECTYPE extends IWebPageExecutionC
     final HCNodeList aNodeList = aWPEC.getNodeList ();
     final IUserManager aUserMgr = PhotonSecurityManager.getUserMgr ();
 
+    // Read the list state from the request
+    final String sFilter = aWPEC.params ().getAsStringTrimmed (FIELD_FILTER);
+    final String sRequestedTabID = aWPEC.params ().getAsString (PARAM_TAB);
+    final String sActiveTabID = TAB_DISABLED.equals (sRequestedTabID) || TAB_DELETED.equals (sRequestedTabID) ? sRequestedTabID
+                                                                                                              : TAB_ACTIVE;
+    final int nPage = aWPEC.params ().getAsInt (PARAM_PAGE, 0);
+
     // Toolbar on top
     final BootstrapButtonToolbar aToolbar = aNodeList.addAndReturnChild (new BootstrapButtonToolbar (aWPEC));
     aToolbar.addButtonNew (EText.BUTTON_CREATE_NEW_USER.getDisplayText (aDisplayLocale), createCreateURL (aWPEC));
 
+    // Filter
+    final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.LABEL_FILTER.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_FILTER))));
+    aForm.addChild (new BootstrapSubmitButton ().addChild (EText.BUTTON_FILTER.getDisplayText (aDisplayLocale))
+                                                .setIcon (EDefaultIcon.MAGNIFIER));
+
+    // Created once per rendering and shared by all tabs
+    final ICommonsMap <String, ICommonsList <IUserGroup>> aUserGroupIndex = createUserGroupIndex (aDisplayLocale);
+    final Comparator <IUser> aComparator = ComparatorHelper.<IUser> getComparatorCollating (x -> StringHelper.getNotNull (x.getEmailAddress ()),
+                                                                                          aDisplayLocale)
+                                                           .thenComparing (IUser::getID);
+
     final BootstrapTabBox aTabBox = new BootstrapTabBox ();
 
-    final ICommonsList <IUser> aActiveUsers = aUserMgr.getAllActiveUsers ();
-    aTabBox.addTab ("active",
+    final ICommonsList <IUser> aActiveUsers = getFilteredAndSortedUsers (aUserMgr.getAllActiveUsers (),
+                                                                        sFilter,
+                                                                        aComparator);
+    aTabBox.addTab (TAB_ACTIVE,
                     EText.TAB_ACTIVE.getDisplayTextWithArgs (aDisplayLocale, Integer.toString (aActiveUsers.size ())),
-                    getTabWithUsers (aWPEC, aActiveUsers, getID () + "1"));
-
-    final ICommonsList <IUser> aDisabledUsers = aUserMgr.getAllDisabledUsers ();
-    aTabBox.addTab ("disabled",
+                    getTabWithUsers (aWPEC,
+                                     aActiveUsers,
+                                     aUserGroupIndex,
+                                     sFilter,
+                                     TAB_ACTIVE,
+                                     TAB_ACTIVE.equals (sActiveTabID) ? nPage : 0));
+
+    final ICommonsList <IUser> aDisabledUsers = getFilteredAndSortedUsers (aUserMgr.getAllDisabledUsers (),
+                                                                          sFilter,
+                                                                          aComparator);
+    aTabBox.addTab (TAB_DISABLED,
                     EText.TAB_DISABLED.getDisplayTextWithArgs (aDisplayLocale,
                                                                Integer.toString (aDisabledUsers.size ())),
-                    getTabWithUsers (aWPEC, aDisabledUsers, getID () + "2"));
-
-    final ICommonsList <IUser> aDeletedUsers = aUserMgr.getAllDeletedUsers ();
-    aTabBox.addTab ("deleted",
+                    getTabWithUsers (aWPEC,
+                                     aDisabledUsers,
+                                     aUserGroupIndex,
+                                     sFilter,
+                                     TAB_DISABLED,
+                                     TAB_DISABLED.equals (sActiveTabID) ? nPage : 0));
+
+    final ICommonsList <IUser> aDeletedUsers = getFilteredAndSortedUsers (aUserMgr.getAllDeletedUsers (),
+                                                                         sFilter,
+                                                                         aComparator);
+    aTabBox.addTab (TAB_DELETED,
                     EText.TAB_DELETED.getDisplayTextWithArgs (aDisplayLocale, Integer.toString (aDeletedUsers.size ())),
-                    getTabWithUsers (aWPEC, aDeletedUsers, getID () + "3"));
+                    getTabWithUsers (aWPEC,
+                                     aDeletedUsers,
+                                     aUserGroupIndex,
+                                     sFilter,
+                                     TAB_DELETED,
+                                     TAB_DELETED.equals (sActiveTabID) ? nPage : 0));
+    aTabBox.setActiveTabID (sActiveTabID);
     aNodeList.addChild (aTabBox);
   }
 }
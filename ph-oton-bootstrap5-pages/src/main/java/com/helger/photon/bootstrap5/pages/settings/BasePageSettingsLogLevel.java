@@ -34,7 +34,8 @@ import com.helger.text.util.TextHelper;
 
 /**
  * Base page to be able to change the log level for all logs during execution
- * time.
+ * time. Additionally the log level of single loggers or packages can be changed
+ * for a limited time.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -58,7 +59,30 @@ public class BasePageSettingsLogLevel <WPECTYPE extends IWebPageExecutionContext
     MSG_CHANGE_SUCCESS ("Das Log-Level wurde von ''{0}'' auf ''{1}'' geändert.", "The log level was changed from ''{0}'' to ''{1}''"),
     MSG_EXISTING_LEVEL ("Derzeitiges Log-Level", "Existing log level"),
     MSG_FIELD_LEVEL ("Neues Log-Level", "New log level"),
-    MSG_SUBMIT_BUTTON ("Log-Level ändern", "Change log level");
+    MSG_SUBMIT_BUTTON ("Log-Level ändern", "Change log level"),
+    MSG_OVERRIDES_HEADER ("Befristete Log-Levels für einzelne Logger", "Temporary log levels for single loggers"),
+    MSG_OVERRIDES_INFO ("Hier kann das Log-Level für einzelne Logger oder ganze Packages befristet geändert werden.\n" +
+                        "Nach Ablauf der Gültigkeit wird automatisch das ursprüngliche Log-Level wiederhergestellt.",
+                        "On this page you can temporarily change the log level of single loggers or whole packages.\n" +
+                                                                                                                         "After the validity period the original log level is restored automatically."),
+    MSG_FIELD_LOGGER ("Logger oder Package", "Logger or package"),
+    MSG_FIELD_OVERRIDE_LEVEL ("Log-Level", "Log level"),
+    MSG_FIELD_TTL ("Gültigkeit", "Valid for"),
+    MSG_TTL_MINUTES ("{0} Minuten", "{0} minutes"),
+    MSG_ERR_NO_LOGGER ("Es muss ein Logger oder Package angegeben werden", "A logger or package must be provided"),
+    MSG_ERR_INVALID_LOGGER ("Der angegebene Logger-Name ist ungültig", "The provided logger name is invalid"),
+    MSG_ERR_INVALID_TTL ("Die angegebene Gültigkeit ist ungültig", "The provided validity is invalid"),
+    MSG_ERR_TOO_MANY_OVERRIDES ("Es sind bereits zu viele befristete Log-Levels aktiv", "Too many temporary log levels are already active"),
+    MSG_OVERRIDE_SUCCESS ("Das Log-Level von ''{0}'' wurde bis {2} auf ''{1}'' gesetzt.", "The log level of ''{0}'' was set to ''{1}'' until {2}."),
+    MSG_REVERT_SUCCESS ("Das Log-Level von ''{0}'' wurde wiederhergestellt.", "The log level of ''{0}'' was restored."),
+    MSG_NO_OVERRIDES ("Derzeit sind keine befristeten Log-Levels aktiv.", "No temporary log levels are currently active."),
+    MSG_OVERRIDE_BUTTON ("Log-Level befristet setzen", "Set log level temporarily"),
+    MSG_LOGGER ("Logger", "Logger"),
+    MSG_ORIGINAL_LEVEL ("Ursprüngliches Log-Level", "Original log level"),
+    MSG_OVERRIDE_LEVEL ("Aktuelles Log-Level", "Current log level"),
+    MSG_SET_BY ("Gesetzt von", "Set by"),
+    MSG_EXPIRES ("Läuft ab", "Expires"),
+    MSG_REVERT ("Wiederherstellen", "Restore");
 
     private final IMultilingualText m_aTP;
 
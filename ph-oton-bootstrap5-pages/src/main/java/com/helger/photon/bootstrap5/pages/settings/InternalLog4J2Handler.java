@@ -16,7 +16,9 @@
  */
 package com.helger.photon.bootstrap5.pages.settings;
 
+import java.time.Duration;
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LoggerContext;
@@ -32,18 +34,27 @@ import com.helger.base.id.IHasID;
 import com.helger.base.lang.EnumHelper;
 import com.helger.base.name.IHasDisplayName;
 import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.format.PDTToString;
 import com.helger.html.hc.ext.HCExtHelper;
+import com.helger.html.hc.html.forms.HCEdit;
 import com.helger.html.hc.html.forms.HCHiddenField;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.impl.HCNodeList;
 import com.helger.html.request.IHCRequestField;
 import com.helger.photon.audit.AuditHelper;
+import com.helger.photon.bootstrap5.button.BootstrapButton;
 import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
+import com.helger.photon.bootstrap5.pages.BootstrapWebPageUIHandler;
 import com.helger.photon.bootstrap5.pages.settings.BasePageSettingsLogLevel.EText;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.bootstrap5.traits.IHCBootstrap5Trait;
 import com.helger.photon.core.form.FormErrorList;
 import com.helger.photon.core.form.RequestField;
+import com.helger.photon.security.util.SecurityHelper;
 import com.helger.photon.uicore.css.CPageParam;
 import com.helger.photon.uicore.html.select.HCExtSelect;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
@@ -154,6 +165,139 @@ final class InternalLog4J2Handler implements IHCBootstrap5Trait
 
   private static final Logger LOGGER = LoggerFactory.getLogger (InternalLog4J2Handler.class);
   private static final String FIELD_NEW_LEVEL = "level";
+  private static final String FIELD_OVERRIDE_LOGGER = "overridelogger";
+  private static final String FIELD_OVERRIDE_LEVEL = "overridelevel";
+  private static final String FIELD_OVERRIDE_TTL = "overridettl";
+  private static final String ACTION_SET_OVERRIDE = "setoverride";
+  private static final String ACTION_REVERT_OVERRIDE = "revertoverride";
+  /** The selectable time to live values in minutes */
+  private static final int [] OVERRIDE_TTL_MINUTES = { 5, 15, 60, 240, 1440 };
+  private static final int DEFAULT_OVERRIDE_TTL_MINUTES = 15;
+  private static final Pattern LOGGER_NAME_PATTERN = Pattern.compile ("[\\w$.\\-]+");
+
+  @NonNull
+  private static String _getLevelDisplayName (@NonNull final Level aLevel)
+  {
+    final ELevel eLevel = ELevel.getFromLevelOrNull (aLevel);
+    return eLevel != null ? eLevel.getDisplayName () : aLevel.name ();
+  }
+
+  private void _handleOverrides (@NonNull final IWebPageExecutionContext aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final Log4J2LevelOverrideManager aMgr = Log4J2LevelOverrideManager.getInstance ();
+    final FormErrorList aFormErrors = new FormErrorList ();
+
+    aNodeList.addChild (BootstrapWebPageUIHandler.INSTANCE.createDataGroupHeader (EText.MSG_OVERRIDES_HEADER.getDisplayText (aDisplayLocale)));
+    aNodeList.addChild (info (HCExtHelper.nl2divList (EText.MSG_OVERRIDES_INFO.getDisplayText (aDisplayLocale))));
+
+    if (aWPEC.hasAction (ACTION_REVERT_OVERRIDE))
+    {
+      final String sLoggerName = aWPEC.params ().getAsString (FIELD_OVERRIDE_LOGGER);
+      if (aMgr.revertOverride (sLoggerName).isChanged ())
+        aNodeList.addChild (success (EText.MSG_REVERT_SUCCESS.getDisplayTextWithArgs (aDisplayLocale, sLoggerName)));
+    }
+    else
+      if (aWPEC.hasAction (ACTION_SET_OVERRIDE))
+      {
+        final String sLoggerName = aWPEC.params ().getAsStringTrimmed (FIELD_OVERRIDE_LOGGER);
+        final String sLevel = aWPEC.params ().getAsStringTrimmed (FIELD_OVERRIDE_LEVEL);
+        final ELevel eLevel = ELevel.getFromIDOrNull (sLevel);
+        final int nTTLMinutes = aWPEC.params ().getAsInt (FIELD_OVERRIDE_TTL, -1);
+
+        if (StringHelper.isEmpty (sLoggerName))
+          aFormErrors.addFieldError (FIELD_OVERRIDE_LOGGER, EText.MSG_ERR_NO_LOGGER.getDisplayText (aDisplayLocale));
+        else
+          if (!LOGGER_NAME_PATTERN.matcher (sLoggerName).matches ())
+            aFormErrors.addFieldError (FIELD_OVERRIDE_LOGGER,
+                                       EText.MSG_ERR_INVALID_LOGGER.getDisplayText (aDisplayLocale));
+
+        if (StringHelper.isEmpty (sLevel))
+          aFormErrors.addFieldError (FIELD_OVERRIDE_LEVEL, EText.MSG_ERR_NO_LEVEL.getDisplayText (aDisplayLocale));
+        else
+          if (eLevel == null)
+            aFormErrors.addFieldError (FIELD_OVERRIDE_LEVEL,
+                                       EText.MSG_ERR_INVALID_LEVEL.getDisplayText (aDisplayLocale));
+
+        final Duration aTTL = Duration.ofMinutes (nTTLMinutes);
+        if (aTTL.compareTo (Log4J2LevelOverrideManager.MIN_TTL) < 0 ||
+            aTTL.compareTo (Log4J2LevelOverrideManager.MAX_TTL) > 0)
+          aFormErrors.addFieldError (FIELD_OVERRIDE_TTL, EText.MSG_ERR_INVALID_TTL.getDisplayText (aDisplayLocale));
+
+        if (aFormErrors.isEmpty ())
+        {
+          final Log4J2LevelOverrideManager.LevelOverride aOverride = aMgr.setOverride (sLoggerName,
+                                                                                      eLevel.getLevel (),
+                                                                                      aTTL);
+          if (aOverride == null)
+            aNodeList.addChild (error (EText.MSG_ERR_TOO_MANY_OVERRIDES.getDisplayText (aDisplayLocale)));
+          else
+            aNodeList.addChild (success (EText.MSG_OVERRIDE_SUCCESS.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                           sLoggerName,
+                                                                                           eLevel.getDisplayName (),
+                                                                                           PDTToString.getAsString (aOverride.getExpirationDateTime (),
+                                                                                                                    aDisplayLocale))));
+        }
+      }
+
+    // Active overrides
+    final ICommonsList <Log4J2LevelOverrideManager.LevelOverride> aOverrides = aMgr.getAllOverrides ();
+    if (aOverrides.isEmpty ())
+      aNodeList.addChild (info (EText.MSG_NO_OVERRIDES.getDisplayText (aDisplayLocale)));
+    else
+    {
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        new HCCol (170),
+                                                        HCCol.star ()).setStriped (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_LOGGER.getDisplayText (aDisplayLocale),
+                       EText.MSG_OVERRIDE_LEVEL.getDisplayText (aDisplayLocale),
+                       EText.MSG_ORIGINAL_LEVEL.getDisplayText (aDisplayLocale),
+                       EText.MSG_SET_BY.getDisplayText (aDisplayLocale),
+                       EText.MSG_EXPIRES.getDisplayText (aDisplayLocale),
+                       "");
+      for (final Log4J2LevelOverrideManager.LevelOverride aOverride : aOverrides)
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+        aRow.addCell (aOverride.getLoggerName ());
+        aRow.addCell (_getLevelDisplayName (aOverride.getLevel ()));
+        aRow.addCell (_getLevelDisplayName (aOverride.getOriginalLevel ()));
+        aRow.addCell (SecurityHelper.getUserDisplayName (aOverride.getUserID (), aDisplayLocale));
+        aRow.addCell (PDTToString.getAsString (aOverride.getExpirationDateTime (), aDisplayLocale));
+        aRow.addCell (new BootstrapButton ().addChild (EText.MSG_REVERT.getDisplayText (aDisplayLocale))
+                                            .setOnClick (aWPEC.getSelfHref ()
+                                                              .add (CPageParam.PARAM_ACTION, ACTION_REVERT_OVERRIDE)
+                                                              .add (FIELD_OVERRIDE_LOGGER, aOverride.getLoggerName ())));
+      }
+      aNodeList.addChild (aTable);
+    }
+
+    // Form to add an override
+    final BootstrapForm aForm = aNodeList.addAndReturnChild (new BootstrapForm (aWPEC));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabelMandatory (EText.MSG_FIELD_LOGGER.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_OVERRIDE_LOGGER)))
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_OVERRIDE_LOGGER)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabelMandatory (EText.MSG_FIELD_OVERRIDE_LEVEL.getDisplayText (aDisplayLocale))
+                                                 .setCtrl (new LevelSelect (new RequestField (FIELD_OVERRIDE_LEVEL),
+                                                                            aDisplayLocale))
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_OVERRIDE_LEVEL)));
+    {
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (FIELD_OVERRIDE_TTL,
+                                                                     Integer.toString (DEFAULT_OVERRIDE_TTL_MINUTES)));
+      for (final int nMinutes : OVERRIDE_TTL_MINUTES)
+        aSelect.addOption (Integer.toString (nMinutes),
+                           EText.MSG_TTL_MINUTES.getDisplayTextWithArgs (aDisplayLocale, Integer.toString (nMinutes)));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabelMandatory (EText.MSG_FIELD_TTL.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (aSelect)
+                                                   .setErrorList (aFormErrors.getListOfField (FIELD_OVERRIDE_TTL)));
+    }
+    aForm.addChild (new HCHiddenField (CPageParam.PARAM_ACTION, ACTION_SET_OVERRIDE));
+    aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_OVERRIDE_BUTTON.getDisplayText (aDisplayLocale)));
+  }
 
   public void handle (@NonNull final IWebPageExecutionContext aWPEC)
   {
@@ -226,5 +370,7 @@ final class InternalLog4J2Handler implements IHCBootstrap5Trait
                                                  .setErrorList (aFormErrors.getListOfField (FIELD_NEW_LEVEL)));
     aForm.addChild (new HCHiddenField (CPageParam.PARAM_ACTION, CPageParam.ACTION_PERFORM));
     aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_SUBMIT_BUTTON.getDisplayText (aDisplayLocale)));
+
+    _handleOverrides (aWPEC);
   }
 }
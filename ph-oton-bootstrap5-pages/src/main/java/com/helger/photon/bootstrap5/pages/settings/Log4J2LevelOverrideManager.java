@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.settings;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.state.EChange;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.photon.audit.AuditHelper;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * Manages temporary Log4J 2.x log level overrides for single loggers or whole
+ * packages. Each override has a time to live, after which the original level
+ * is restored automatically. All changes are audited. Keep in separate class,
+ * so that the stuff is only loaded once we checked Log4J is present.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class Log4J2LevelOverrideManager extends AbstractGlobalSingleton
+{
+  public static final Duration MIN_TTL = Duration.ofMinutes (1);
+  public static final Duration MAX_TTL = Duration.ofDays (1);
+  /** The maximum number of concurrently active overrides */
+  public static final int MAX_OVERRIDES = 100;
+
+  /**
+   * A single active override.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class LevelOverride
+  {
+    private final String m_sLoggerName;
+    private final Level m_aOriginalLevel;
+    private final boolean m_bHadOwnConfig;
+    private final Level m_aLevel;
+    private final LocalDateTime m_aCreationDT;
+    private final LocalDateTime m_aExpirationDT;
+    private final String m_sUserID;
+    private final Configuration m_aConfiguration;
+
+    LevelOverride (@NonNull final String sLoggerName,
+                   @NonNull final Level aOriginalLevel,
+                   final boolean bHadOwnConfig,
+                   @NonNull final Level aLevel,
+                   @NonNull final LocalDateTime aCreationDT,
+                   @NonNull final LocalDateTime aExpirationDT,
+                   @Nullable final String sUserID,
+                   @NonNull final Configuration aConfiguration)
+    {
+      m_sLoggerName = sLoggerName;
+      m_aOriginalLevel = aOriginalLevel;
+      m_bHadOwnConfig = bHadOwnConfig;
+      m_aLevel = aLevel;
+      m_aCreationDT = aCreationDT;
+      m_aExpirationDT = aExpirationDT;
+      m_sUserID = sUserID;
+      m_aConfiguration = aConfiguration;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getLoggerName ()
+    {
+      return m_sLoggerName;
+    }
+
+    /**
+     * @return The effective level before the first override. Never
+     *         <code>null</code>.
+     */
+    @NonNull
+    public Level getOriginalLevel ()
+    {
+      return m_aOriginalLevel;
+    }
+
+    /**
+     * @return <code>true</code> if the logger had its own configuration
+     *         before the first override, <code>false</code> if the level was
+     *         inherited.
+     */
+    public boolean hadOwnConfig ()
+    {
+      return m_bHadOwnConfig;
+    }
+
+    @NonNull
+    public Level getLevel ()
+    {
+      return m_aLevel;
+    }
+
+    @NonNull
+    public LocalDateTime getCreationDateTime ()
+    {
+      return m_aCreationDT;
+    }
+
+    @NonNull
+    public LocalDateTime getExpirationDateTime ()
+    {
+      return m_aExpirationDT;
+    }
+
+    /**
+     * @return The ID of the user who created the override. May be
+     *         <code>null</code>.
+     */
+    @Nullable
+    public String getUserID ()
+    {
+      return m_sUserID;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (Log4J2LevelOverrideManager.class);
+
+  private ScheduledExecutorService m_aExecutor;
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <String, LevelOverride> m_aOverrides = new CommonsHashMap <> ();
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <String, ScheduledFuture <?>> m_aRevertTasks = new CommonsHashMap <> ();
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private Log4J2LevelOverrideManager ()
+  {}
+
+  @NonNull
+  public static Log4J2LevelOverrideManager getInstance ()
+  {
+    return getGlobalSingleton (Log4J2LevelOverrideManager.class);
+  }
+
+  @Override
+  protected void onAfterInstantiation (@NonNull final IScope aScope)
+  {
+    m_aExecutor = Executors.newSingleThreadScheduledExecutor (r -> {
+      final Thread t = new Thread (r, "ph-log-level-revert");
+      t.setDaemon (true);
+      return t;
+    });
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    if (m_aExecutor != null)
+      m_aExecutor.shutdownNow ();
+
+    // The Log4J configuration may outlive the application
+    for (final LevelOverride aOverride : getAllOverrides ())
+      _revert (aOverride, "shutdown");
+  }
+
+  /**
+   * @return All active overrides sorted by logger name. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <LevelOverride> getAllOverrides ()
+  {
+    final ICommonsList <LevelOverride> ret = m_aRWLock.readLockedGet (m_aOverrides::copyOfValues);
+    ret.sort (Comparator.comparing (LevelOverride::getLoggerName));
+    return ret;
+  }
+
+  @Nullable
+  public LevelOverride getOverride (@Nullable final String sLoggerName)
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aOverrides.get (sLoggerName));
+  }
+
+  /**
+   * Override the level of a logger for a limited time. If the logger is
+   * already overridden, the level and the time to live are replaced, but the
+   * original level is kept.
+   *
+   * @param sLoggerName
+   *        The name of the logger or package. May neither be
+   *        <code>null</code> nor empty - the root level is changed elsewhere.
+   * @param aLevel
+   *        The level to use. May not be <code>null</code>.
+   * @param aTTL
+   *        The time after which the original level is restored. Must be
+   *        between {@link #MIN_TTL} and {@link #MAX_TTL}.
+   * @return The new override or <code>null</code> if
+   *         {@link #MAX_OVERRIDES} overrides are already active.
+   */
+  @Nullable
+  public LevelOverride setOverride (@NonNull @Nonempty final String sLoggerName,
+                                    @NonNull final Level aLevel,
+                                    @NonNull final Duration aTTL)
+  {
+    ValueEnforcer.notEmpty (sLoggerName, "LoggerName");
+    ValueEnforcer.notNull (aLevel, "Level");
+    ValueEnforcer.notNull (aTTL, "TTL");
+    ValueEnforcer.isTrue (aTTL.compareTo (MIN_TTL) >= 0 && aTTL.compareTo (MAX_TTL) <= 0, "TTL is out of range");
+
+    final String sUserID = LoggedInUserManager.getInstance ().getCurrentUserID ();
+    final LevelOverride aOverride = m_aRWLock.writeLockedGet ( () -> {
+      final LevelOverride aOld = m_aOverrides.get (sLoggerName);
+      if (aOld == null && m_aOverrides.size () >= MAX_OVERRIDES)
+        return null;
+
+      final LoggerContext aLoggerContext = LoggerContext.getContext (false);
+      final Configuration aConfig = aLoggerContext.getConfiguration ();
+      final LocalDateTime aNow = PDTFactory.getCurrentLocalDateTime ();
+      final LevelOverride ret;
+      if (aOld != null && aOld.m_aConfiguration == aConfig)
+      {
+        // Keep what was there before the first override
+        ret = new LevelOverride (sLoggerName,
+                                 aOld.getOriginalLevel (),
+                                 aOld.hadOwnConfig (),
+                                 aLevel,
+                                 aNow,
+                                 aNow.plus (aTTL),
+                                 sUserID,
+                                 aConfig);
+      }
+      else
+      {
+        // The effective level may be inherited from a parent logger
+        ret = new LevelOverride (sLoggerName,
+                                 aConfig.getLoggerConfig (sLoggerName).getLevel (),
+                                 aConfig.getLoggers ().containsKey (sLoggerName),
+                                 aLevel,
+                                 aNow,
+                                 aNow.plus (aTTL),
+                                 sUserID,
+                                 aConfig);
+      }
+
+      Configurator.setLevel (sLoggerName, aLevel);
+      m_aOverrides.put (sLoggerName, ret);
+
+      final ScheduledFuture <?> aOldTask = m_aRevertTasks.put (sLoggerName,
+                                                               m_aExecutor.schedule ( () -> _revert (ret,
+                                                                                                     "expired"),
+                                                                                      aTTL.toMillis (),
+                                                                                      TimeUnit.MILLISECONDS));
+      if (aOldTask != null)
+        aOldTask.cancel (false);
+      return ret;
+    });
+
+    if (aOverride != null)
+    {
+      LOGGER.info ("Overriding log level of '" +
+                   sLoggerName +
+                   "' with " +
+                   aLevel +
+                   " until " +
+                   aOverride.getExpirationDateTime ());
+      AuditHelper.onAuditExecuteSuccess ("set-log-level-override",
+                                         sLoggerName,
+                                         aLevel.name (),
+                                         aOverride.getOriginalLevel ().name (),
+                                         aTTL.toString ());
+    }
+    return aOverride;
+  }
+
+  private void _revert (@NonNull final LevelOverride aOverride, @NonNull final String sReason)
+  {
+    final String sLoggerName = aOverride.getLoggerName ();
+    final boolean bReverted = m_aRWLock.writeLockedGet ( () -> {
+      // Ignore outdated revert tasks
+      if (m_aOverrides.get (sLoggerName) != aOverride)
+        return Boolean.FALSE;
+      m_aOverrides.remove (sLoggerName);
+      m_aRevertTasks.remove (sLoggerName);
+
+      final LoggerContext aLoggerContext = LoggerContext.getContext (false);
+      final Configuration aConfig = aLoggerContext.getConfiguration ();
+      // After a reconfiguration the override is already gone
+      if (aConfig == aOverride.m_aConfiguration)
+      {
+        if (aOverride.hadOwnConfig ())
+          Configurator.setLevel (sLoggerName, aOverride.getOriginalLevel ());
+        else
+        {
+          // Inherit from the parent again
+          aConfig.removeLogger (sLoggerName);
+          aLoggerContext.updateLoggers ();
+        }
+      }
+      return Boolean.TRUE;
+    }).booleanValue ();
+
+    if (bReverted)
+    {
+      LOGGER.info ("Reverted log level of '" +
+                   sLoggerName +
+                   "' to " +
+                   aOverride.getOriginalLevel () +
+                   " (" +
+                   sReason +
+                   ")");
+      AuditHelper.onAuditExecuteSuccess ("revert-log-level-override",
+                                         sLoggerName,
+                                         aOverride.getOriginalLevel ().name (),
+                                         sReason);
+    }
+  }
+
+  /**
+   * Revert an override before it expires.
+   *
+   * @param sLoggerName
+   *        The logger name to revert. May be <code>null</code>.
+   * @return {@link EChange#CHANGED} if an override was reverted.
+   */
+  @NonNull
+  public EChange revertOverride (@Nullable final String sLoggerName)
+  {
+    final LevelOverride aOverride = m_aRWLock.writeLockedGet ( () -> {
+      final ScheduledFuture <?> aTask = m_aRevertTasks.get (sLoggerName);
+      if (aTask != null)
+        aTask.cancel (false);
+      return m_aOverrides.get (sLoggerName);
+    });
+    if (aOverride == null)
+      return EChange.UNCHANGED;
+    _revert (aOverride, "manual");
+    return EChange.CHANGED;
+  }
+}
@@ -17,11 +17,6 @@
 package com.helger.photon.bootstrap5.pages.sysinfo;
 
 import java.io.File;
-import java.security.GeneralSecurityException;
-import java.security.KeyStore;
-import java.security.KeyStore.TrustedCertificateEntry;
-import java.security.cert.Certificate;
-import java.security.cert.X509Certificate;
 import java.time.LocalDateTime;
 import java.util.Locale;
 
@@ -31,37 +26,46 @@ import org.jspecify.annotations.Nullable;
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
 import com.helger.base.compare.ESortOrder;
-import com.helger.base.lang.clazz.ClassHelper;
-import com.helger.base.string.StringHelper;
-import com.helger.base.system.SystemProperties;
-import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.datetime.format.PDTToString;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.html.hc.html.IHCElementWithChildren;
 import com.helger.html.hc.html.grouping.HCOL;
 import com.helger.html.hc.html.grouping.IHCLI;
+import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.impl.HCNodeList;
+import com.helger.json.IJsonArray;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonArray;
+import com.helger.json.JsonObject;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.badge.BootstrapBadge;
+import com.helger.photon.bootstrap5.badge.EBootstrapBadgeType;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
-import com.helger.photon.bootstrap5.uictrls.ext.BootstrapTechnicalUI;
 import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.photon.uictrls.datatables.column.DTCol;
 import com.helger.photon.uictrls.datatables.column.EDTColType;
-import com.helger.security.keystore.EKeyStoreType;
-import com.helger.security.keystore.KeyStoreHelper;
 import com.helger.security.keystore.LoadedKeyStore;
 import com.helger.text.IMultilingualText;
 import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
- * Page showing "cacerts" file
+ * Page showing "cacerts" file. The parsed trust stores are cached in
+ * {@link TrustStoreCache}.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -103,7 +107,13 @@ public class BasePageSysInfoCACerts <WPECTYPE extends IWebPageExecutionContext>
     MSG_EXT_DIR ("Extension Verzeichnis", "Extension directory"),
     MSG_DIR_NOT_EXISTING ("Das Verzeichnis existiert nicht", "The directory does not exist"),
     MSG_DIR_EMPTY ("Das Verzeichnis ist leer", "The directory is empty"),
-    MSG_DIR_FILE_ENTRY ("{0} ({1} Bytes - {2})", "{0} ({1} bytes - {2})");
+    MSG_DIR_FILE_ENTRY ("{0} ({1} Bytes - {2})", "{0} ({1} bytes - {2})"),
+    MSG_PARSED_AT ("Eingelesen am {0}", "Parsed at {0}"),
+    MSG_HEADER_EXPIRING ("Zertifikate, die innerhalb von {0} Tagen ablaufen", "Certificates expiring within {0} days"),
+    MSG_DAYS ("{0} Tage", "{0} days"),
+    MSG_JSON_FEED ("JSON Feed", "JSON feed"),
+    MSG_NONE_EXPIRING ("Keine Zertifikate laufen in diesem Zeitraum ab.", "No certificates expire in this period."),
+    MSG_EXPIRED ("Abgelaufen", "Expired");
 
     private final IMultilingualText m_aTP;
 
@@ -119,6 +129,74 @@ public class BasePageSysInfoCACerts <WPECTYPE extends IWebPageExecutionContext>
     }
   }
 
+  /** The default number of days for the expiry index */
+  public static final int DEFAULT_EXPIRY_DAYS = 30;
+  /** The maximum number of days for the expiry index */
+  public static final int MAX_EXPIRY_DAYS = 3650;
+
+  private static final String PARAM_DAYS = "days";
+  private static final int [] EXPIRY_DAY_OPTIONS = { 30, 90, 365 };
+
+  /**
+   * Provides the certificates expiring within the requested number of days as
+   * JSON, e.g. for external alerting. Because the response contains file system
+   * paths and load errors, it is only provided to a logged in administrator and
+   * all other requests receive HTTP 403. An external monitor must therefore log
+   * in with an administrator account and send the resulting session cookie.
+   */
+  public static final AjaxFunctionDeclaration AJAX_EXPIRY_JSON;
+
+  static
+  {
+    AJAX_EXPIRY_JSON = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final int nDays = _getDays (aRequestScope.params ().getAsInt (PARAM_DAYS, DEFAULT_EXPIRY_DAYS));
+      final LocalDateTime aNow = PDTFactory.getCurrentLocalDateTime ();
+      final TrustStoreCache aCache = TrustStoreCache.getInstance ();
+
+      final IJsonArray aStores = new JsonArray ();
+      for (final TrustStoreCache.TrustStore aTS : aCache.getAllTrustStores ())
+      {
+        final IJsonObject aStore = new JsonObject ().add ("path", aTS.getPath ());
+        if (aTS.getLoadError () != null)
+          aStore.add ("error", aTS.getLoadError ().getErrorText (Locale.US));
+        else
+          if (aTS.getTraverseError () != null)
+            aStore.add ("error", aTS.getTraverseError ());
+          else
+            aStore.add ("entries", aTS.getAllEntries ().size ());
+        aStores.add (aStore);
+      }
+
+      final IJsonArray aCerts = new JsonArray ();
+      for (final TrustStoreCache.Entry aEntry : aCache.getAllExpiringEntries (nDays))
+      {
+        final long nDaysLeft = aEntry.getDaysLeft (aNow);
+        aCerts.add (new JsonObject ().add ("store", aEntry.getStorePath ())
+                                     .add ("alias", aEntry.getAlias ())
+                                     .add ("subject", aEntry.getSubject ())
+                                     .add ("issuer", aEntry.getIssuer ())
+                                     .add ("notAfter", aEntry.getNotAfter ().toString ())
+                                     .add ("daysLeft", nDaysLeft)
+                                     .add ("expired", aEntry.isExpired (aNow)));
+      }
+
+      aAjaxResponse.json (new JsonObject ().add ("generated", aNow.toString ())
+                                           .add ("days", nDays)
+                                           .add ("stores", aStores)
+                                           .add ("count", aCerts.size ())
+                                           .add ("certificates", aCerts));
+      aAjaxResponse.disableCaching ();
+    });
+  }
+
   public BasePageSysInfoCACerts (@NonNull @Nonempty final String sID)
   {
     super (sID, EWebPageText.PAGE_NAME_SYSINFO_CACERTS.getAsMLT ());
@@ -143,81 +221,103 @@ public class BasePageSysInfoCACerts <WPECTYPE extends IWebPageExecutionContext>
     super (sID, aName, aDescription);
   }
 
+  private static int _getDays (final int nDays)
+  {
+    return Math.max (0, Math.min (nDays, MAX_EXPIRY_DAYS));
+  }
+
   private void _showKeyStore (@NonNull final WPECTYPE aWPEC,
                               final int nFileIndex,
                               @NonNull final IHCElementWithChildren <?> aTarget,
-                              @NonNull final KeyStore aKS)
+                              @NonNull final TrustStoreCache.TrustStore aTS)
   {
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
 
-    try
+    if (aTS.getTraverseError () != null)
+    {
+      aTarget.addChild (error (div ("Error traversing trust store.")).addChild (div (aTS.getTraverseError ())));
+      return;
+    }
+
+    final HCTable aTable = new HCTable (new DTCol ("Alias"),
+                                        new DTCol ("Subject").setInitialSorting (ESortOrder.ASCENDING),
+                                        new DTCol ("Root cert?"),
+                                        new DTCol ("Valid from").setWidth (170)
+                                                                .setDisplayType (EDTColType.DATETIME, aDisplayLocale),
+                                        new DTCol ("Valid to").setWidth (170)
+                                                              .setDisplayType (EDTColType.DATETIME, aDisplayLocale))
+                                                                                                                    .setID (getID () +
+                                                                                                                            nFileIndex);
+    for (final TrustStoreCache.Entry aEntry : aTS.getAllEntries ())
     {
-      final ICommonsList <String> aAliases = new CommonsArrayList <> (aKS.aliases ());
-      final HCTable aTable = new HCTable (new DTCol ("Alias"),
-                                          new DTCol ("Subject").setInitialSorting (ESortOrder.ASCENDING),
-                                          new DTCol ("Root cert?"),
-                                          new DTCol ("Valid from").setWidth (170)
-                                                                  .setDisplayType (EDTColType.DATETIME, aDisplayLocale),
-                                          new DTCol ("Valid to").setWidth (170)
-                                                                .setDisplayType (EDTColType.DATETIME, aDisplayLocale))
-                                                                                                                      .setID (getID () +
-                                                                                                                              nFileIndex);
-      for (final String sAlias : aAliases)
+      final HCRow aRow = aTable.addBodyRow ();
+      aRow.addCell (aEntry.getAlias ());
+      if (aEntry.isCertificate ())
       {
-        final HCRow aRow = aTable.addBodyRow ();
-        aRow.addCell (sAlias);
-        try
-        {
-          final KeyStore.Entry aEntry = aKS.getEntry (sAlias, null);
-          if (aEntry instanceof KeyStore.TrustedCertificateEntry)
-          {
-            final KeyStore.TrustedCertificateEntry aTCEntry = (TrustedCertificateEntry) aEntry;
-            final Certificate aCert = aTCEntry.getTrustedCertificate ();
-            if (aCert instanceof X509Certificate)
-            {
-              final X509Certificate aX509Cert = (X509Certificate) aCert;
-              final String sSubject = aX509Cert.getSubjectX500Principal ().getName ();
-              final String sIssuer = aX509Cert.getIssuerX500Principal ().getName ();
-              final boolean bIsRoot = sSubject.equals (sIssuer);
-              aRow.addCell (sSubject);
-              // Show the issuer only if it is not root
-              aRow.addCell (EPhotonCoreText.getYesOrNo (bIsRoot, aDisplayLocale), bIsRoot ? null : sIssuer);
-              final LocalDateTime aNotBefore = PDTFactory.createLocalDateTime (aX509Cert.getNotBefore ());
-              aRow.addCell (PDTToString.getAsString (aNotBefore, aDisplayLocale));
-              final LocalDateTime aNotAfter = PDTFactory.createLocalDateTime (aX509Cert.getNotAfter ());
-              aRow.addCell (PDTToString.getAsString (aNotAfter, aDisplayLocale));
-            }
-            else
-            {
-              aRow.addCell (em ("Not an X509 certificate"));
-              aRow.addCell ();
-              aRow.addCell ();
-              aRow.addCell ();
-            }
-          }
-          else
-          {
-            aRow.addCell (em ("Unsupported type: " + ClassHelper.getClassLocalName (aEntry)));
-            aRow.addCell ();
-            aRow.addCell ();
-            aRow.addCell ();
-          }
-        }
-        catch (final GeneralSecurityException ex)
-        {
-          aRow.addCell (em ("password required?"));
-          aRow.addCell ();
-          aRow.addCell ();
-          aRow.addCell ();
-        }
+        final boolean bIsRoot = aEntry.isRoot ();
+        aRow.addCell (aEntry.getSubject ());
+        // Show the issuer only if it is not root
+        aRow.addCell (EPhotonCoreText.getYesOrNo (bIsRoot, aDisplayLocale), bIsRoot ? null : aEntry.getIssuer ());
+        aRow.addCell (PDTToString.getAsString (aEntry.getNotBefore (), aDisplayLocale));
+        aRow.addCell (PDTToString.getAsString (aEntry.getNotAfter (), aDisplayLocale));
+      }
+      else
+      {
+        aRow.addCell (em (aEntry.getErrorText ()));
+        aRow.addCell ();
+        aRow.addCell ();
+        aRow.addCell ();
       }
-      aTarget.addChild (aTable).addChild (BootstrapDataTables.createDefaultDataTables (aWPEC, aTable));
     }
-    catch (final GeneralSecurityException ex)
+    aTarget.addChild (aTable).addChild (BootstrapDataTables.createDefaultDataTables (aWPEC, aTable));
+  }
+
+  private void _showExpiring (@NonNull final WPECTYPE aWPEC, final int nDays)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final LocalDateTime aNow = PDTFactory.getCurrentLocalDateTime ();
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_HEADER_EXPIRING.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                                   Integer.toString (nDays))));
+
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    for (final int nOption : EXPIRY_DAY_OPTIONS)
+      aToolbar.addButton (EText.MSG_DAYS.getDisplayTextWithArgs (aDisplayLocale, Integer.toString (nOption)),
+                          aWPEC.getSelfHref ().add (PARAM_DAYS, Integer.toString (nOption)),
+                          nOption == nDays ? EDefaultIcon.YES : null);
+    aToolbar.addButton (EText.MSG_JSON_FEED.getDisplayText (aDisplayLocale),
+                        AJAX_EXPIRY_JSON.getInvocationURL (aWPEC.getRequestScope ()).add (PARAM_DAYS, Integer.toString (nDays)),
+                        EDefaultIcon.MAGNIFIER);
+    aNodeList.addChild (aToolbar);
+
+    final ICommonsList <TrustStoreCache.Entry> aExpiring = TrustStoreCache.getInstance ()
+                                                                          .getAllExpiringEntries (nDays);
+    if (aExpiring.isEmpty ())
+    {
+      aNodeList.addChild (success (EText.MSG_NONE_EXPIRING.getDisplayText (aDisplayLocale)));
+      return;
+    }
+
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                      HCCol.star (),
+                                                      HCCol.star (),
+                                                      new HCCol (170),
+                                                      new HCCol (100));
+    aTable.setStriped (true).setCondensed (true);
+    aTable.addHeaderRow ().addCells ("Trust store", "Alias", "Subject", "Valid to", "Days left");
+    for (final TrustStoreCache.Entry aEntry : aExpiring)
     {
-      aTarget.addChild (error (div ("Error traversing trust store.")).addChild (BootstrapTechnicalUI.getTechnicalDetailsNode (ex,
-                                                                                                                              aDisplayLocale)));
+      final long nDaysLeft = aEntry.getDaysLeft (aNow);
+      final HCRow aRow = aTable.addBodyRow ();
+      aRow.addCell (code (aEntry.getStorePath ()));
+      aRow.addCell (aEntry.getAlias ());
+      aRow.addCell (aEntry.getSubject ());
+      aRow.addCell (PDTToString.getAsString (aEntry.getNotAfter (), aDisplayLocale));
+      aRow.addCell (aEntry.isExpired (aNow) ? new BootstrapBadge (EBootstrapBadgeType.DANGER).addChild (EText.MSG_EXPIRED.getDisplayText (aDisplayLocale))
+                                  : new BootstrapBadge (EBootstrapBadgeType.WARNING).addChild (Long.toString (nDaysLeft)));
     }
+    aNodeList.addChild (aTable);
   }
 
   @Override
@@ -225,41 +325,39 @@ public class BasePageSysInfoCACerts <WPECTYPE extends IWebPageExecutionContext>
   {
     final HCNodeList aNodeList = aWPEC.getNodeList ();
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
-
-    final ICommonsList <String> aPossiblePaths = new CommonsArrayList <> ();
-    aPossiblePaths.add (SystemProperties.getPropertyValueOrNull ("javax.net.ssl.trustStore"));
-    aPossiblePaths.add (SystemProperties.getJavaHome () + "/lib/security/cacerts");
-    aPossiblePaths.add (SystemProperties.getJavaHome () + "/jre/lib/security/cacerts");
+    final TrustStoreCache aCache = TrustStoreCache.getInstance ();
 
     final HCOL aOL = new HCOL ();
     int nFileIndex = 0;
-    for (final String sPath : aPossiblePaths)
-      if (StringHelper.isNotEmpty (sPath))
+    for (final String sPath : TrustStoreCache.getAllPossiblePaths ())
+    {
+      final File aFile = new File (sPath);
+      final IHCLI <?> aLI = aOL.addAndReturnItem (div ("Checking file ").addChild (code (aFile.getAbsolutePath ())));
+      if (aFile.exists ())
       {
-        final File aFile = new File (sPath);
-        final IHCLI <?> aLI = aOL.addAndReturnItem (div ("Checking file ").addChild (code (aFile.getAbsolutePath ())));
-        if (aFile.exists ())
+        if (aFile.canRead ())
         {
-          if (aFile.canRead ())
+          final TrustStoreCache.TrustStore aTS = aCache.getTrustStore (aFile);
+          final LoadedKeyStore aLoadError = aTS.getLoadError ();
+          if (aLoadError == null)
           {
-            final LoadedKeyStore aLKS = KeyStoreHelper.loadKeyStore (EKeyStoreType.JKS,
-                                                                     sPath,
-                                                                     "changeit".toCharArray ());
-            if (aLKS.isSuccess ())
-            {
-              final KeyStore aKS = aLKS.getKeyStore ();
-              _showKeyStore (aWPEC, nFileIndex, aLI, aKS);
-            }
-            else
-              aLI.addChild (error ("Failed to load the keystore - " + aLKS.getErrorText (aDisplayLocale)));
+            aLI.addChild (div (EText.MSG_PARSED_AT.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                   PDTToString.getAsString (aTS.getParseDateTime (),
+                                                                                                            aDisplayLocale))));
+            _showKeyStore (aWPEC, nFileIndex, aLI, aTS);
           }
           else
-            aLI.addChild (error ("File exist but cannot be read"));
+            aLI.addChild (error ("Failed to load the keystore - " + aLoadError.getErrorText (aDisplayLocale)));
         }
         else
-          aLI.addChild (badgeWarn ("File does not exist"));
-        ++nFileIndex;
+          aLI.addChild (error ("File exist but cannot be read"));
       }
+      else
+        aLI.addChild (badgeWarn ("File does not exist"));
+      ++nFileIndex;
+    }
     aNodeList.addChild (aOL);
+
+    _showExpiring (aWPEC, _getDays (aWPEC.params ().getAsInt (PARAM_DAYS, DEFAULT_EXPIRY_DAYS)));
   }
 }
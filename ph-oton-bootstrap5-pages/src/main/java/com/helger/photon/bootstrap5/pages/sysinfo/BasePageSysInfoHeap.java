@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Locale;
+
+import javax.management.JMException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.misc.Translatable;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.format.PDTToString;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
+import com.helger.html.hc.html.textlevel.HCA;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.io.misc.SizeHelper;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
+import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.photon.uicore.css.CPageParam;
+import com.helger.photon.uicore.icon.EDefaultIcon;
+import com.helger.photon.uicore.page.IWebPageExecutionContext;
+import com.helger.servlet.response.EContentDispositionType;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.url.SimpleURL;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Page for memory leak triage without shell access: it shows the class
+ * histogram of the live objects, compares two histogram snapshots to find the
+ * growing classes and creates compressed heap dumps in the background that can
+ * be downloaded.
+ *
+ * @author Philip Helger
+ * @param <WPECTYPE>
+ *        Web Page Execution Context type
+ */
+public class BasePageSysInfoHeap <WPECTYPE extends IWebPageExecutionContext> extends AbstractBootstrapWebPage <WPECTYPE>
+{
+  @Translatable
+  protected enum EText implements IHasDisplayTextWithArgs
+  {
+    MSG_NOTE ("Ein Klassenhistogramm und ein Heap-Dump lösen eine vollständige Garbage Collection aus und halten die Anwendung kurz an.",
+              "A class histogram and a heap dump trigger a full garbage collection and pause the application briefly."),
+    MSG_BUTTON_SNAPSHOT ("Histogramm erstellen", "Create histogram"),
+    MSG_BUTTON_CLEAR ("Histogramme verwerfen", "Discard histograms"),
+    MSG_BUTTON_HEAP_DUMP ("Heap-Dump erstellen", "Create heap dump"),
+    MSG_ERR_DIAGNOSTIC ("Der Diagnosebefehl ist fehlgeschlagen: {0}", "The diagnostic command failed: {0}"),
+    MSG_HEAP_DUMP_CREATED ("Der Heap-Dump ''{0}'' mit {1} wurde erstellt.",
+                           "The heap dump ''{0}'' with {1} was created."),
+    MSG_HEAP_DUMP_RUNNING ("Der Heap-Dump ''{0}'' wird seit {1} im Hintergrund erstellt. Bitte die Seite später aktualisieren.",
+                           "The heap dump ''{0}'' is being created in the background since {1}. Please refresh the page later."),
+    MSG_HEAP_DUMP_ALREADY_RUNNING ("Es wird bereits ein Heap-Dump erstellt.", "A heap dump is already being created."),
+    MSG_NO_SNAPSHOTS ("Es wurde noch kein Histogramm erstellt.", "No histogram was created yet."),
+    MSG_SNAPSHOTS ("Histogramme", "Histograms"),
+    MSG_ID ("ID", "ID"),
+    MSG_TIME ("Zeitpunkt", "Time"),
+    MSG_CLASSES ("Klassen", "Classes"),
+    MSG_INSTANCES ("Instanzen", "Instances"),
+    MSG_BYTES ("Größe", "Size"),
+    MSG_ACTIONS ("Aktionen", "Actions"),
+    MSG_SHOW ("Anzeigen", "Show"),
+    MSG_COMPARE ("Als Basis verwenden", "Use as baseline"),
+    MSG_TOP ("Top {0} Klassen von Histogramm {1}", "Top {0} classes of histogram {1}"),
+    MSG_SORT_BY ("Sortieren nach:", "Sort by:"),
+    MSG_CLASS ("Klasse", "Class"),
+    MSG_GROWTH ("Wachstum von Histogramm {0} zu {1}", "Growth from histogram {0} to {1}"),
+    MSG_NO_GROWTH ("Keine Klasse ist gewachsen.", "No class grew."),
+    MSG_INSTANCE_DELTA ("+ Instanzen", "+ Instances"),
+    MSG_BYTE_DELTA ("+ Größe", "+ Size"),
+    MSG_HEAP_DUMPS ("Heap-Dumps", "Heap dumps"),
+    MSG_NO_HEAP_DUMPS ("Es gibt keine Heap-Dumps.", "There are no heap dumps."),
+    MSG_FILENAME ("Dateiname", "Filename"),
+    MSG_DOWNLOAD ("Herunterladen", "Download"),
+    MSG_DELETE ("Löschen", "Delete");
+
+    private final IMultilingualText m_aTP;
+
+    EText (final String sDE, final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  private static final String PARAM_SNAPSHOT = "snapshot";
+  private static final String PARAM_BASELINE = "baseline";
+  private static final String PARAM_SORT = "sort";
+  private static final String PARAM_FILE = "file";
+  private static final String SORT_INSTANCES = "instances";
+  private static final String ACTION_SNAPSHOT = "snapshot";
+  private static final String ACTION_CLEAR = "clear";
+  private static final String ACTION_HEAP_DUMP = "heapdump";
+  private static final String ACTION_DELETE_HEAP_DUMP = "deleteheapdump";
+  private static final int TOP_N = 50;
+  private static final AjaxFunctionDeclaration AJAX_DOWNLOAD;
+
+  static
+  {
+    AJAX_DOWNLOAD = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final File aFile = DiagnosticCommandHelper.getHeapDumpFile (aRequestScope.params ().getAsString (PARAM_FILE));
+      if (aFile != null && !HeapDumpJob.getInstance ().isFileInProgress (aFile))
+      {
+        // Stream from disk - heap dumps are large
+        aAjaxResponse.setContent (new FileSystemResource (aFile));
+        aAjaxResponse.setMimeType (CMimeType.APPLICATION_OCTET_STREAM);
+        aAjaxResponse.setContentDispositionType (EContentDispositionType.ATTACHMENT);
+        aAjaxResponse.setContentDispositionFilename (aFile.getName ());
+        aAjaxResponse.disableCaching ();
+      }
+      else
+        aAjaxResponse.createBadRequest ();
+    });
+  }
+
+  public BasePageSysInfoHeap (@NonNull @Nonempty final String sID)
+  {
+    super (sID, TextHelper.create_DE_EN ("Heap-Analyse", "Heap analysis"));
+  }
+
+  public BasePageSysInfoHeap (@NonNull @Nonempty final String sID, @NonNull final String sName)
+  {
+    super (sID, sName);
+  }
+
+  public BasePageSysInfoHeap (@NonNull @Nonempty final String sID,
+                              @NonNull final String sName,
+                              @Nullable final String sDescription)
+  {
+    super (sID, sName, sDescription);
+  }
+
+  public BasePageSysInfoHeap (@NonNull @Nonempty final String sID,
+                              @NonNull final IMultilingualText aName,
+                              @Nullable final IMultilingualText aDescription)
+  {
+    super (sID, aName, aDescription);
+  }
+
+  @NonNull
+  private static SimpleURL _getViewURL (@NonNull final IWebPageExecutionContext aWPEC,
+                                        @Nullable final ClassHistogram aSnapshot,
+                                        @Nullable final ClassHistogram aBaseline,
+                                        @Nullable final String sSort)
+  {
+    final SimpleURL ret = aWPEC.getSelfHref ();
+    if (aSnapshot != null)
+      ret.add (PARAM_SNAPSHOT, Integer.toString (aSnapshot.getID ()));
+    if (aBaseline != null)
+      ret.add (PARAM_BASELINE, Integer.toString (aBaseline.getID ()));
+    if (sSort != null)
+      ret.add (PARAM_SORT, sSort);
+    return ret;
+  }
+
+  private void _showHistograms (@NonNull final WPECTYPE aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+    final ClassHistogramManager aMgr = ClassHistogramManager.getInstance ();
+
+    final ICommonsList <ClassHistogram> aSnapshots = aMgr.getAllSnapshots ();
+    if (aSnapshots.isEmpty ())
+    {
+      aNodeList.addChild (info (EText.MSG_NO_SNAPSHOTS.getDisplayText (aDisplayLocale)));
+      return;
+    }
+
+    // Default to the latest snapshot compared to the one before
+    ClassHistogram aSelected = aMgr.getSnapshotOfID (aWPEC.params ().getAsInt (PARAM_SNAPSHOT, -1));
+    if (aSelected == null)
+      aSelected = aSnapshots.getLastOrNull ();
+    ClassHistogram aBaseline = aMgr.getSnapshotOfID (aWPEC.params ().getAsInt (PARAM_BASELINE, -1));
+    if (aBaseline == null)
+    {
+      final int nIndex = aSnapshots.indexOf (aSelected);
+      aBaseline = nIndex > 0 ? aSnapshots.get (nIndex - 1) : null;
+    }
+    if (aBaseline == aSelected)
+      aBaseline = null;
+    final String sSort = SORT_INSTANCES.equals (aWPEC.params ().getAsString (PARAM_SORT)) ? SORT_INSTANCES : null;
+
+    // Snapshot list
+    {
+      aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_SNAPSHOTS.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_ID.getDisplayText (aDisplayLocale),
+                       EText.MSG_TIME.getDisplayText (aDisplayLocale),
+                       EText.MSG_CLASSES.getDisplayText (aDisplayLocale),
+                       EText.MSG_INSTANCES.getDisplayText (aDisplayLocale),
+                       EText.MSG_BYTES.getDisplayText (aDisplayLocale),
+                       EText.MSG_ACTIONS.getDisplayText (aDisplayLocale));
+      for (final ClassHistogram aSnapshot : aSnapshots)
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+        if (aSnapshot == aSelected)
+          aRow.addClass (CBootstrapCSS.TABLE_ACTIVE);
+        aRow.addCell (Integer.toString (aSnapshot.getID ()));
+        aRow.addCell (PDTToString.getAsString (aSnapshot.getDateTime (), aDisplayLocale));
+        aRow.addCell (Integer.toString (aSnapshot.getClassCount ()));
+        aRow.addCell (Long.toString (aSnapshot.getTotalInstances ()));
+        aRow.addCell (aSH.getAsMatching (aSnapshot.getTotalBytes (), 1));
+
+        final HCNodeList aActions = new HCNodeList ();
+        aActions.addChild (new HCA (_getViewURL (aWPEC, aSnapshot, null, sSort)).addChild (EText.MSG_SHOW.getDisplayText (aDisplayLocale)));
+        if (aSnapshot != aSelected)
+        {
+          aActions.addChild (" | ");
+          aActions.addChild (new HCA (_getViewURL (aWPEC, aSelected, aSnapshot, sSort)).addChild (EText.MSG_COMPARE.getDisplayText (aDisplayLocale)));
+        }
+        aRow.addCell (aActions);
+      }
+      aNodeList.addChild (aTable);
+    }
+
+    // Growth
+    if (aBaseline != null)
+    {
+      aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_GROWTH.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                         Integer.valueOf (aBaseline.getID ()),
+                                                                                                         Integer.valueOf (aSelected.getID ()))));
+      final ICommonsList <ClassHistogram.Growth> aGrowth = aSelected.getGrowthSince (aBaseline, TOP_N);
+      if (aGrowth.isEmpty ())
+        aNodeList.addChild (info (EText.MSG_NO_GROWTH.getDisplayText (aDisplayLocale)));
+      else
+      {
+        final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                          HCCol.star (),
+                                                          HCCol.star (),
+                                                          HCCol.star (),
+                                                          HCCol.star ());
+        aTable.setStriped (true).setCondensed (true);
+        aTable.addHeaderRow ()
+              .addCells (EText.MSG_CLASS.getDisplayText (aDisplayLocale),
+                         EText.MSG_BYTE_DELTA.getDisplayText (aDisplayLocale),
+                         EText.MSG_INSTANCE_DELTA.getDisplayText (aDisplayLocale),
+                         EText.MSG_BYTES.getDisplayText (aDisplayLocale),
+                         EText.MSG_INSTANCES.getDisplayText (aDisplayLocale));
+        for (final ClassHistogram.Growth aItem : aGrowth)
+        {
+          final ClassHistogram.Entry aEntry = aItem.getCurrent ();
+          aTable.addBodyRow ()
+                .addCell (span (aEntry.getClassName ()).addClass (CBootstrapCSS.FONT_MONOSPACE))
+                .addCell (aSH.getAsMatching (aItem.getByteDelta (), 1))
+                .addCell (Long.toString (aItem.getInstanceDelta ()))
+                .addCell (aSH.getAsMatching (aEntry.getBytes (), 1))
+                .addCell (Long.toString (aEntry.getInstances ()));
+        }
+        aNodeList.addChild (aTable);
+      }
+    }
+
+    // Top N of the selected snapshot
+    {
+      aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_TOP.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                      Integer.valueOf (TOP_N),
+                                                                                                      Integer.valueOf (aSelected.getID ()))));
+      final HCDiv aSortBy = div (EText.MSG_SORT_BY.getDisplayText (aDisplayLocale) + " ").addClass (CBootstrapCSS.MB_2);
+      aSortBy.addChild (new HCA (_getViewURL (aWPEC, aSelected, aBaseline, null)).addChild (EText.MSG_BYTES.getDisplayText (aDisplayLocale)));
+      aSortBy.addChild (" | ");
+      aSortBy.addChild (new HCA (_getViewURL (aWPEC,
+                                              aSelected,
+                                              aBaseline,
+                                              SORT_INSTANCES)).addChild (EText.MSG_INSTANCES.getDisplayText (aDisplayLocale)));
+      aNodeList.addChild (aSortBy);
+
+      final Comparator <ClassHistogram.Entry> aComparator = sSort != null ? Comparator.comparingLong (ClassHistogram.Entry::getInstances)
+                                                                          : Comparator.comparingLong (ClassHistogram.Entry::getBytes);
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_CLASS.getDisplayText (aDisplayLocale),
+                       EText.MSG_INSTANCES.getDisplayText (aDisplayLocale),
+                       EText.MSG_BYTES.getDisplayText (aDisplayLocale));
+      for (final ClassHistogram.Entry aEntry : aSelected.getTopEntries (TOP_N, aComparator))
+        aTable.addBodyRow ()
+              .addCell (span (aEntry.getClassName ()).addClass (CBootstrapCSS.FONT_MONOSPACE))
+              .addCell (Long.toString (aEntry.getInstances ()))
+              .addCell (aSH.getAsMatching (aEntry.getBytes (), 1));
+      aNodeList.addChild (aTable);
+    }
+  }
+
+  private void _showHeapDumps (@NonNull final WPECTYPE aWPEC)
+  {
+    final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_HEAP_DUMPS.getDisplayText (aDisplayLocale)));
+
+    // State of the current or last background heap dump
+    final HeapDumpJob aJob = HeapDumpJob.getInstance ();
+    final HeapDumpJob.Run aRun = aJob.getLastRun ();
+    if (aRun != null)
+    {
+      if (aRun.isRunning ())
+        aNodeList.addChild (info (EText.MSG_HEAP_DUMP_RUNNING.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                      aRun.getFile ().getName (),
+                                                                                      PDTToString.getAsString (aRun.getStartDateTime (),
+                                                                                                               aDisplayLocale))));
+      else
+        if (aRun.isFailed ())
+          aNodeList.addChild (error (EText.MSG_ERR_DIAGNOSTIC.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                      aRun.getErrorMessage ())));
+        else
+          aNodeList.addChild (success (EText.MSG_HEAP_DUMP_CREATED.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                           aRun.getFile ().getName (),
+                                                                                           aSH.getAsMatching (aRun.getFile ()
+                                                                                                                  .length (),
+                                                                                                              1))));
+    }
+
+    final ICommonsList <File> aFiles = DiagnosticCommandHelper.getAllHeapDumpFiles ();
+    if (aFiles.isEmpty ())
+    {
+      aNodeList.addChild (info (EText.MSG_NO_HEAP_DUMPS.getDisplayText (aDisplayLocale)));
+      return;
+    }
+
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setStriped (true).setCondensed (true);
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_FILENAME.getDisplayText (aDisplayLocale),
+                     EText.MSG_TIME.getDisplayText (aDisplayLocale),
+                     EText.MSG_BYTES.getDisplayText (aDisplayLocale),
+                     EText.MSG_ACTIONS.getDisplayText (aDisplayLocale));
+    for (final File aFile : aFiles)
+    {
+      final HCNodeList aActions = new HCNodeList ();
+      // The file currently being written is incomplete
+      if (!aJob.isFileInProgress (aFile))
+      {
+        aActions.addChild (new HCA (AJAX_DOWNLOAD.getInvocationURL (aRequestScope)
+                                                 .add (PARAM_FILE, aFile.getName ())).addChild (EText.MSG_DOWNLOAD.getDisplayText (aDisplayLocale)));
+        aActions.addChild (" | ");
+        aActions.addChild (new HCA (aWPEC.getSelfHref ()
+                                         .add (CPageParam.PARAM_ACTION, ACTION_DELETE_HEAP_DUMP)
+                                         .add (PARAM_FILE, aFile.getName ())).addChild (EText.MSG_DELETE.getDisplayText (aDisplayLocale)));
+      }
+      aTable.addBodyRow ()
+            .addCell (aFile.getName ())
+            .addCell (PDTToString.getAsString (LocalDateTime.ofInstant (Instant.ofEpochMilli (aFile.lastModified ()),
+                                                                        ZoneId.systemDefault ()),
+                                               aDisplayLocale))
+            .addCell (aSH.getAsMatching (aFile.length (), 1))
+            .addCell (aActions);
+    }
+    aNodeList.addChild (aTable);
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    final String sAction = aWPEC.params ().getAsString (CPageParam.PARAM_ACTION);
+    try
+    {
+      if (ACTION_SNAPSHOT.equals (sAction))
+        ClassHistogramManager.getInstance ().createSnapshot ();
+      else
+        if (ACTION_CLEAR.equals (sAction))
+          ClassHistogramManager.getInstance ().removeAllSnapshots ();
+        else
+          if (ACTION_HEAP_DUMP.equals (sAction))
+          {
+            // The dump may take minutes for large heaps
+            if (HeapDumpJob.getInstance ().start () == null)
+              aNodeList.addChild (warn (EText.MSG_HEAP_DUMP_ALREADY_RUNNING.getDisplayText (aDisplayLocale)));
+          }
+          else
+            if (ACTION_DELETE_HEAP_DUMP.equals (sAction))
+            {
+              final String sFilename = aWPEC.params ().getAsString (PARAM_FILE);
+              if (!HeapDumpJob.getInstance ().isFileInProgress (DiagnosticCommandHelper.getHeapDumpFile (sFilename)))
+                DiagnosticCommandHelper.deleteHeapDump (sFilename);
+            }
+    }
+    catch (final JMException ex)
+    {
+      aNodeList.addChild (error (EText.MSG_ERR_DIAGNOSTIC.getDisplayTextWithArgs (aDisplayLocale, ex.getMessage ())));
+    }
+
+    aNodeList.addChild (info (EText.MSG_NOTE.getDisplayText (aDisplayLocale)));
+
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref (),
+                        EDefaultIcon.REFRESH);
+    aToolbar.addButton (EText.MSG_BUTTON_SNAPSHOT.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_SNAPSHOT),
+                        EDefaultIcon.NEW);
+    aToolbar.addButton (EText.MSG_BUTTON_CLEAR.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_CLEAR),
+                        EDefaultIcon.DELETE);
+    aToolbar.addButton (EText.MSG_BUTTON_HEAP_DUMP.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_HEAP_DUMP),
+                        EDefaultIcon.SAVE);
+    aNodeList.addChild (aToolbar);
+
+    _showHistograms (aWPEC);
+    _showHeapDumps (aWPEC);
+  }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.misc.Translatable;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.format.PDTToString;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.io.misc.SizeHelper;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.button.BootstrapButton;
+import com.helger.photon.bootstrap5.button.EBootstrapButtonSize;
+import com.helger.photon.bootstrap5.button.EBootstrapButtonType;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
+import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.photon.uicore.css.CPageParam;
+import com.helger.photon.uicore.icon.EDefaultIcon;
+import com.helger.photon.uicore.page.IWebPageExecutionContext;
+import com.helger.servlet.response.EContentDispositionType;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.management.jfr.RecordingInfo;
+
+/**
+ * Page to control Java Flight Recorder recordings of the running JVM: start
+ * recordings with predefined profiles, stop them, take snapshots, download the
+ * recorded data and show a short summary of it.
+ *
+ * @author Philip Helger
+ * @param <WPECTYPE>
+ *        Web Page Execution Context type
+ */
+public class BasePageSysInfoJFR <WPECTYPE extends IWebPageExecutionContext> extends AbstractBootstrapWebPage <WPECTYPE>
+{
+  @Translatable
+  protected enum EText implements IHasDisplayTextWithArgs
+  {
+    MSG_NOT_AVAILABLE ("Java Flight Recorder ist in dieser JVM nicht verfügbar.",
+                       "Java Flight Recorder is not available in this JVM."),
+    MSG_BUTTON_START_CONTINUOUS ("Dauerhafte Aufzeichnung starten", "Start continuous recording"),
+    MSG_BUTTON_START_DETAILED ("Detaillierte Aufzeichnung starten (60 s)", "Start detailed recording (60 s)"),
+    MSG_BUTTON_SNAPSHOT ("Snapshot erstellen", "Take snapshot"),
+    MSG_STARTED ("Die Aufzeichnung {0} wurde gestartet.", "Recording {0} was started."),
+    MSG_START_FAILED ("Die Aufzeichnung konnte nicht gestartet werden: {0}", "Failed to start the recording: {0}"),
+    MSG_SNAPSHOT ("Der Snapshot {0} wurde erstellt.", "Snapshot {0} was created."),
+    MSG_NO_RECORDINGS ("Es gibt keine Aufzeichnungen.", "There are no recordings."),
+    MSG_ID ("ID", "ID"),
+    MSG_NAME ("Name", "Name"),
+    MSG_STATE ("Status", "State"),
+    MSG_START ("Start", "Start"),
+    MSG_DURATION ("Dauer (s)", "Duration (s)"),
+    MSG_SIZE ("Größe", "Size"),
+    MSG_ACTIONS ("Aktionen", "Actions"),
+    MSG_STOP ("Stoppen", "Stop"),
+    MSG_DOWNLOAD ("Herunterladen", "Download"),
+    MSG_SUMMARY ("Zusammenfassung", "Summary"),
+    MSG_CLOSE ("Schließen", "Close"),
+    MSG_SUMMARY_HEADER ("Zusammenfassung von Aufzeichnung {0} ({1} Ereignisse)",
+                        "Summary of recording {0} ({1} events)"),
+    MSG_SUMMARY_FAILED ("Die Aufzeichnung konnte nicht ausgewertet werden: {0}",
+                        "Failed to evaluate the recording: {0}"),
+    MSG_ALLOCATIONS ("Allokationsorte", "Allocation sites"),
+    MSG_HOT_METHODS ("Heiße Methoden", "Hot methods"),
+    MSG_CONTENTION ("Sperrkonflikte", "Lock contention"),
+    MSG_FRAME ("Stelle", "Location"),
+    MSG_COUNT ("Anzahl", "Count"),
+    MSG_BYTES ("Allokiert", "Allocated"),
+    MSG_BLOCKED ("Blockiert", "Blocked"),
+    MSG_NONE ("Keine Ereignisse aufgezeichnet.", "No events were recorded.");
+
+    private final IMultilingualText m_aTP;
+
+    EText (final String sDE, final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  private static final String PARAM_RECORDING_ID = "recording";
+  private static final String PARAM_PROFILE = "profile";
+  private static final String ACTION_START = "start";
+  private static final String ACTION_STOP = "stop";
+  private static final String ACTION_SNAPSHOT = "snapshot";
+  private static final String ACTION_CLOSE = "close";
+  private static final String ACTION_SUMMARY = "summary";
+  private static final AjaxFunctionDeclaration AJAX_DOWNLOAD;
+
+  static
+  {
+    AJAX_DOWNLOAD = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final long nID = aRequestScope.params ().getAsLong (PARAM_RECORDING_ID, -1);
+      final RecordingInfo aInfo = JFRHelper.getRecordingOfID (nID);
+      final File aFile = aInfo == null ? null : JFRHelper.dumpRecording (nID);
+      if (aFile != null)
+      {
+        // Stream from disk - recordings may be large
+        aAjaxResponse.setContent (new FileSystemResource (aFile));
+        aAjaxResponse.setMimeType (CMimeType.APPLICATION_OCTET_STREAM);
+        aAjaxResponse.setContentDispositionType (EContentDispositionType.ATTACHMENT);
+        aAjaxResponse.setContentDispositionFilename (JFRHelper.getDownloadFilename (aInfo));
+        aAjaxResponse.disableCaching ();
+      }
+      else
+        aAjaxResponse.createBadRequest ();
+    });
+  }
+
+  public BasePageSysInfoJFR (@NonNull @Nonempty final String sID)
+  {
+    super (sID, TextHelper.create_DE_EN ("Flight Recorder", "Flight Recorder"));
+  }
+
+  public BasePageSysInfoJFR (@NonNull @Nonempty final String sID, @NonNull final String sName)
+  {
+    super (sID, sName);
+  }
+
+  public BasePageSysInfoJFR (@NonNull @Nonempty final String sID,
+                             @NonNull final String sName,
+                             @Nullable final String sDescription)
+  {
+    super (sID, sName, sDescription);
+  }
+
+  public BasePageSysInfoJFR (@NonNull @Nonempty final String sID,
+                             @NonNull final IMultilingualText aName,
+                             @Nullable final IMultilingualText aDescription)
+  {
+    super (sID, aName, aDescription);
+  }
+
+  @NonNull
+  private BootstrapButton _createActionButton (@NonNull final WPECTYPE aWPEC,
+                                               @NonNull final String sText,
+                                               @NonNull final String sAction,
+                                               final long nID)
+  {
+    return new BootstrapButton (EBootstrapButtonType.LINK, EBootstrapButtonSize.SMALL).addChild (sText)
+                                                                                      .setOnClick (aWPEC.getSelfHref ()
+                                                                                                        .add (CPageParam.PARAM_ACTION,
+                                                                                                              sAction)
+                                                                                                        .add (PARAM_RECORDING_ID,
+                                                                                                              Long.toString (nID)));
+  }
+
+  @NonNull
+  private static BootstrapTable _createSummaryTable (@NonNull final ICommonsList <JFRSummary.Entry> aEntries,
+                                                     @NonNull final String sValueHeader,
+                                                     @Nullable final SizeHelper aSH,
+                                                     @NonNull final Locale aDisplayLocale)
+  {
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setStriped (true).setCondensed (true);
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_FRAME.getDisplayText (aDisplayLocale),
+                     EText.MSG_COUNT.getDisplayText (aDisplayLocale),
+                     sValueHeader);
+    for (final JFRSummary.Entry aEntry : aEntries)
+    {
+      final HCRow aRow = aTable.addBodyRow ();
+      aRow.addCell (span (aEntry.getKey ()).addClass (CBootstrapCSS.FONT_MONOSPACE));
+      aRow.addCell (Long.toString (aEntry.getCount ()));
+      if (aSH != null)
+        aRow.addCell (aSH.getAsMatching (aEntry.getValue (), 1));
+      else
+        aRow.addCell (sValueHeader.isEmpty () ? "" : JFRSummary.getDurationString (aEntry.getValue ()));
+    }
+    return aTable;
+  }
+
+  private void _showSummary (@NonNull final WPECTYPE aWPEC, final long nID)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final File aFile = JFRHelper.dumpRecording (nID);
+    if (aFile == null)
+      return;
+
+    final JFRSummary aSummary;
+    try
+    {
+      aSummary = JFRSummary.createFromFile (aFile.toPath (), JFRSummary.DEFAULT_TOP_N);
+    }
+    catch (final IOException ex)
+    {
+      aNodeList.addChild (error (EText.MSG_SUMMARY_FAILED.getDisplayTextWithArgs (aDisplayLocale, ex.getMessage ())));
+      return;
+    }
+
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+    aNodeList.addChild (getUIHandler ().createActionHeader (EText.MSG_SUMMARY_HEADER.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                             Long.valueOf (nID),
+                                                                                                             Long.valueOf (aSummary.getEventCount ()))));
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_ALLOCATIONS.getDisplayText (aDisplayLocale)));
+    if (aSummary.getTopAllocationSites ().isEmpty ())
+      aNodeList.addChild (info (EText.MSG_NONE.getDisplayText (aDisplayLocale)));
+    else
+      aNodeList.addChild (_createSummaryTable (aSummary.getTopAllocationSites (),
+                                               EText.MSG_BYTES.getDisplayText (aDisplayLocale),
+                                               aSH,
+                                               aDisplayLocale));
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_HOT_METHODS.getDisplayText (aDisplayLocale)));
+    if (aSummary.getTopHotMethods ().isEmpty ())
+      aNodeList.addChild (info (EText.MSG_NONE.getDisplayText (aDisplayLocale)));
+    else
+      aNodeList.addChild (_createSummaryTable (aSummary.getTopHotMethods (), "", null, aDisplayLocale));
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_CONTENTION.getDisplayText (aDisplayLocale)));
+    if (aSummary.getTopContention ().isEmpty ())
+      aNodeList.addChild (info (EText.MSG_NONE.getDisplayText (aDisplayLocale)));
+    else
+      aNodeList.addChild (_createSummaryTable (aSummary.getTopContention (),
+                                               EText.MSG_BLOCKED.getDisplayText (aDisplayLocale),
+                                               null,
+                                               aDisplayLocale));
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    if (JFRHelper.getMXBean () == null)
+    {
+      aNodeList.addChild (warn (EText.MSG_NOT_AVAILABLE.getDisplayText (aDisplayLocale)));
+      return;
+    }
+
+    final String sAction = aWPEC.params ().getAsString (CPageParam.PARAM_ACTION);
+    final long nSelectedID = aWPEC.params ().getAsLong (PARAM_RECORDING_ID, -1);
+    boolean bShowSummary = false;
+    if (ACTION_START.equals (sAction))
+    {
+      final JFRHelper.EProfile eProfile = JFRHelper.EProfile.getFromIDOrNull (aWPEC.params ()
+                                                                                 .getAsString (PARAM_PROFILE));
+      if (eProfile != null)
+        try
+        {
+          final long nID = JFRHelper.startRecording (eProfile);
+          aNodeList.addChild (success (EText.MSG_STARTED.getDisplayTextWithArgs (aDisplayLocale, Long.valueOf (nID))));
+        }
+        catch (final RuntimeException ex)
+        {
+          aNodeList.addChild (error (EText.MSG_START_FAILED.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                    ex.getMessage ())));
+        }
+    }
+    else
+      if (ACTION_SNAPSHOT.equals (sAction))
+      {
+        final long nID = JFRHelper.takeSnapshot ();
+        if (nID >= 0)
+          aNodeList.addChild (success (EText.MSG_SNAPSHOT.getDisplayTextWithArgs (aDisplayLocale, Long.valueOf (nID))));
+      }
+      else
+        if (JFRHelper.getRecordingOfID (nSelectedID) != null)
+        {
+          if (ACTION_STOP.equals (sAction))
+            JFRHelper.stopRecording (nSelectedID);
+          else
+            if (ACTION_CLOSE.equals (sAction))
+              JFRHelper.closeRecording (nSelectedID);
+            else
+              if (ACTION_SUMMARY.equals (sAction))
+                bShowSummary = true;
+        }
+
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref (),
+                        EDefaultIcon.REFRESH);
+    aToolbar.addButton (EText.MSG_BUTTON_START_CONTINUOUS.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ()
+                             .add (CPageParam.PARAM_ACTION, ACTION_START)
+                             .add (PARAM_PROFILE, JFRHelper.EProfile.CONTINUOUS.getID ()),
+                        EDefaultIcon.NEXT);
+    aToolbar.addButton (EText.MSG_BUTTON_START_DETAILED.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ()
+                             .add (CPageParam.PARAM_ACTION, ACTION_START)
+                             .add (PARAM_PROFILE, JFRHelper.EProfile.DETAILED_60S.getID ()),
+                        EDefaultIcon.NEXT);
+    aToolbar.addButton (EText.MSG_BUTTON_SNAPSHOT.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_SNAPSHOT),
+                        EDefaultIcon.SAVE);
+    aNodeList.addChild (aToolbar);
+
+    final ICommonsList <RecordingInfo> aRecordings = JFRHelper.getAllRecordings ();
+    if (aRecordings.isEmpty ())
+      aNodeList.addChild (info (EText.MSG_NO_RECORDINGS.getDisplayText (aDisplayLocale)));
+    else
+    {
+      final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_ID.getDisplayText (aDisplayLocale),
+                       EText.MSG_NAME.getDisplayText (aDisplayLocale),
+                       EText.MSG_STATE.getDisplayText (aDisplayLocale),
+                       EText.MSG_START.getDisplayText (aDisplayLocale),
+                       EText.MSG_DURATION.getDisplayText (aDisplayLocale),
+                       EText.MSG_SIZE.getDisplayText (aDisplayLocale),
+                       EText.MSG_ACTIONS.getDisplayText (aDisplayLocale));
+      for (final RecordingInfo aInfo : aRecordings)
+      {
+        final long nID = aInfo.getId ();
+        final HCRow aRow = aTable.addBodyRow ();
+        aRow.addCell (Long.toString (nID));
+        aRow.addCell (aInfo.getName ());
+        aRow.addCell (aInfo.getState ());
+        aRow.addCell (aInfo.getStartTime () <= 0 ? ""
+                                                 : PDTToString.getAsString (LocalDateTime.ofInstant (Instant.ofEpochMilli (aInfo.getStartTime ()),
+                                                                                                     ZoneId.systemDefault ()),
+                                                                            aDisplayLocale));
+        aRow.addCell (aInfo.getDuration () <= 0 ? "" : Long.toString (aInfo.getDuration ()));
+        aRow.addCell (aSH.getAsMatching (aInfo.getSize (), 1));
+
+        final HCNodeList aActions = new HCNodeList ();
+        if ("RUNNING".equals (aInfo.getState ()))
+          aActions.addChild (_createActionButton (aWPEC, EText.MSG_STOP.getDisplayText (aDisplayLocale), ACTION_STOP, nID));
+        if (!"NEW".equals (aInfo.getState ()))
+        {
+          aActions.addChild (new BootstrapButton (EBootstrapButtonType.LINK,
+                                                  EBootstrapButtonSize.SMALL).addChild (EText.MSG_DOWNLOAD.getDisplayText (aDisplayLocale))
+                                                                             .setOnClick (AJAX_DOWNLOAD.getInvocationURL (aRequestScope)
+                                                                                                       .add (PARAM_RECORDING_ID,
+                                                                                                             Long.toString (nID))));
+          aActions.addChild (_createActionButton (aWPEC,
+                                                  EText.MSG_SUMMARY.getDisplayText (aDisplayLocale),
+                                                  ACTION_SUMMARY,
+                                                  nID));
+        }
+        aActions.addChild (_createActionButton (aWPEC, EText.MSG_CLOSE.getDisplayText (aDisplayLocale), ACTION_CLOSE, nID));
+        aRow.addCell (aActions);
+      }
+      aNodeList.addChild (aTable);
+    }
+
+    if (bShowSummary)
+      _showSummary (aWPEC, nSelectedID);
+  }
+}
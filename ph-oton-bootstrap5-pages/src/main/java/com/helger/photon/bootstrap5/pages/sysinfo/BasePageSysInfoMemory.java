@@ -0,0 +1,627 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.misc.Translatable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.css.ECSSUnit;
+import com.helger.css.property.CCSSProperties;
+import com.helger.datetime.format.PDTToString;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.html.IHCElement;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.html.hc.render.HCRenderer;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.io.misc.SizeHelper;
+import com.helger.json.IJsonArray;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonArray;
+import com.helger.json.JsonObject;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.app.html.PhotonJS;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.alert.BootstrapInfoBox;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.pages.BootstrapWebPageUIHandler;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
+import com.helger.photon.bootstrap5.uictrls.EBootstrapUICtrlsJSPathProvider;
+import com.helger.photon.bootstrap5.uictrls.ext.BootstrapSparkline;
+import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.uicore.icon.EDefaultIcon;
+import com.helger.photon.uicore.page.IWebPageExecutionContext;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+/**
+ * Dashboard page with the JVM memory occupancy, the allocation and promotion
+ * rates and the GC pauses over time. The data is collected by
+ * {@link JvmMemoryMonitor}. The dashboard part of the page refreshes itself
+ * periodically via AJAX, fetching only the samples and GC events that were not
+ * yet shown.
+ *
+ * @author Philip Helger
+ * @param <WPECTYPE>
+ *        Web Page Execution Context type
+ */
+public class BasePageSysInfoMemory <WPECTYPE extends IWebPageExecutionContext> extends
+                                   AbstractBootstrapWebPage <WPECTYPE>
+{
+  @Translatable
+  protected enum EText implements IHasDisplayTextWithArgs
+  {
+    MSG_NO_DATA ("Es wurden noch keine Daten gesammelt.", "No data was collected yet."),
+    MSG_HEADER ("Stand: {0}; Intervall: {1} Sekunden; {2} Messwerte",
+                "As of: {0}; interval: {1} seconds; {2} samples"),
+    MSG_CURRENT ("Aktuell", "Current"),
+    MSG_HEAP ("Heap", "Heap"),
+    MSG_NON_HEAP ("Non-Heap", "Non-heap"),
+    MSG_HEAP_COMMITTED ("Heap reserviert", "Heap committed"),
+    MSG_USED_OF ("{0} von {1} ({2}%)", "{0} of {1} ({2}%)"),
+    MSG_ALLOCATION_RATE ("Allokationsrate pro Sekunde", "Allocation rate per second"),
+    MSG_PROMOTION_RATE ("Promotionsrate pro Sekunde", "Promotion rate per second"),
+    MSG_GC_TIME ("GC-Zeit pro Intervall (ms)", "GC time per interval (ms)"),
+    MSG_GC_SHARE ("GC-Anteil", "GC share"),
+    MSG_HISTORY ("Verlauf", "History"),
+    MSG_METRIC ("Messgröße", "Metric"),
+    MSG_MIN ("Min", "Min"),
+    MSG_MAX ("Max", "Max"),
+    MSG_AVG ("Durchschnitt", "Average"),
+    MSG_POOL ("Pool {0}", "Pool {0}"),
+    MSG_PAUSES ("GC-Pausen", "GC pauses"),
+    MSG_NO_PAUSES ("Es wurden noch keine GC-Pausen aufgezeichnet.", "No GC pauses were recorded yet."),
+    MSG_PAUSE_SUMMARY ("{0} Pausen - p50: {1} ms; p90: {2} ms; p99: {3} ms; max: {4} ms",
+                       "{0} pauses - p50: {1} ms; p90: {2} ms; p99: {3} ms; max: {4} ms"),
+    MSG_RANGE ("Dauer (ms)", "Duration (ms)"),
+    MSG_COUNT ("Anzahl", "Count"),
+    MSG_SHARE ("Anteil", "Share"),
+    MSG_RECENT_EVENTS ("Letzte GC-Ereignisse", "Recent GC events"),
+    MSG_TIME ("Zeitpunkt", "Time"),
+    MSG_COLLECTOR ("Collector", "Collector"),
+    MSG_ACTION ("Aktion", "Action"),
+    MSG_CAUSE ("Ursache", "Cause"),
+    MSG_DURATION ("Dauer (ms)", "Duration (ms)"),
+    MSG_COLLECTED ("Freigegeben", "Collected"),
+    MSG_PROMOTED ("Promoted", "Promoted");
+
+    private final IMultilingualText m_aTP;
+
+    EText (final String sDE, final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  /** Upper bounds of the pause buckets in milliseconds */
+  private static final long [] PAUSE_BUCKETS_MS = { 1, 5, 10, 20, 50, 100, 200, 500, 1_000, Long.MAX_VALUE };
+  private static final int MAX_RECENT_EVENTS = 50;
+  private static final String PARAM_SAMPLE = "sample";
+  private static final String PARAM_GC_SEQUENCE = "gcseq";
+  private static final AjaxFunctionDeclaration AJAX_DASHBOARD;
+  private static final AjaxFunctionDeclaration AJAX_UPDATE;
+
+  static
+  {
+    AJAX_DASHBOARD = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      final IHCNode aNode = createDashboard (aRequestScope.getRequest ().getLocale ());
+      aAjaxResponse.setContentAndCharset (HCRenderer.getAsHTMLStringWithoutNamespaces (aNode), StandardCharsets.UTF_8);
+      aAjaxResponse.setMimeType (CMimeType.TEXT_HTML);
+      aAjaxResponse.disableCaching ();
+    });
+    AJAX_UPDATE = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      final long nMinSample = Math.max (0, aRequestScope.params ().getAsLong (PARAM_SAMPLE, 0));
+      final long nMinGCSequence = Math.max (0, aRequestScope.params ().getAsLong (PARAM_GC_SEQUENCE, 0));
+      aAjaxResponse.json (createDashboardUpdate (aRequestScope.getRequest ().getLocale (), nMinSample, nMinGCSequence));
+      aAjaxResponse.disableCaching ();
+    });
+  }
+
+  public BasePageSysInfoMemory (@NonNull @Nonempty final String sID)
+  {
+    super (sID, TextHelper.create_DE_EN ("JVM-Speicher", "JVM memory"));
+  }
+
+  public BasePageSysInfoMemory (@NonNull @Nonempty final String sID, @NonNull final String sName)
+  {
+    super (sID, sName);
+  }
+
+  public BasePageSysInfoMemory (@NonNull @Nonempty final String sID,
+                                @NonNull final String sName,
+                                @Nullable final String sDescription)
+  {
+    super (sID, sName, sDescription);
+  }
+
+  public BasePageSysInfoMemory (@NonNull @Nonempty final String sID,
+                                @NonNull final IMultilingualText aName,
+                                @Nullable final IMultilingualText aDescription)
+  {
+    super (sID, aName, aDescription);
+  }
+
+  @NonNull
+  private static String _getPercent (final long nPart, final long nTotal)
+  {
+    return nTotal <= 0 ? "0" : String.format (Locale.ROOT, "%.1f", nPart * 100d / nTotal);
+  }
+
+  @NonNull
+  private static IHCNode _createProgress (final long nPart, final long nTotal)
+  {
+    final double dShare = nTotal <= 0 ? 0 : Math.min (100d, nPart * 100d / nTotal);
+    final HCDiv aBar = new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR);
+    aBar.addStyle (CCSSProperties.WIDTH.newValue (ECSSUnit.perc (dShare)));
+    return new HCDiv ().addClass (CBootstrapCSS.PROGRESS).setTitle (_getPercent (nPart, nTotal) + "%").addChild (aBar);
+  }
+
+  private static long _getPercentile (@NonNull final long [] aSorted, final double dPercentile)
+  {
+    if (aSorted.length == 0)
+      return 0;
+    final int nIndex = (int) Math.ceil (dPercentile / 100d * aSorted.length) - 1;
+    return aSorted[Math.max (0, Math.min (aSorted.length - 1, nIndex))];
+  }
+
+  private static void _addUsageRow (@NonNull final BootstrapTable aTable,
+                                    @NonNull final String sName,
+                                    @NonNull final MemoryUsage aUsage,
+                                    @NonNull final Locale aDisplayLocale,
+                                    @NonNull final SizeHelper aSH)
+  {
+    // Max is -1 if undefined
+    final long nLimit = aUsage.getMax () > 0 ? aUsage.getMax () : aUsage.getCommitted ();
+    aTable.addBodyRow ()
+          .addCell (sName)
+          .addCell (EText.MSG_USED_OF.getDisplayTextWithArgs (aDisplayLocale,
+                                                              aSH.getAsMatching (aUsage.getUsed (), 1),
+                                                              aSH.getAsMatching (nLimit, 1),
+                                                              _getPercent (aUsage.getUsed (), nLimit)))
+          .addCell (_createProgress (aUsage.getUsed (), nLimit));
+  }
+  /**
+   * A single history series with its display name.
+   */
+  private static final class HistorySeries
+  {
+    private final String m_sName;
+    private final long [] m_aValues;
+    private final boolean m_bBytes;
+
+    HistorySeries (@NonNull final String sName, @NonNull final long [] aValues, final boolean bBytes)
+    {
+      m_sName = sName;
+      m_aValues = aValues;
+      m_bBytes = bBytes;
+    }
+  }
+
+  @NonNull
+  private static long [] _getPerSecond (@NonNull final long [] aPerInterval, final long nIntervalMillis)
+  {
+    final long [] ret = new long [aPerInterval.length];
+    for (int i = 0; i < ret.length; ++i)
+      ret[i] = nIntervalMillis <= 0 ? 0 : aPerInterval[i] * 1000 / nIntervalMillis;
+    return ret;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  private static ICommonsList <HistorySeries> _getAllHistorySeries (@NonNull final JvmMemoryMonitor.Snapshot aSnapshot,
+                                                                    @NonNull final Locale aDisplayLocale)
+  {
+    final long nIntervalMillis = aSnapshot.getInterval ().toMillis ();
+    final ICommonsList <HistorySeries> ret = new CommonsArrayList <> ();
+    ret.add (new HistorySeries (EText.MSG_HEAP.getDisplayText (aDisplayLocale), aSnapshot.getHeapUsed (), true));
+    ret.add (new HistorySeries (EText.MSG_HEAP_COMMITTED.getDisplayText (aDisplayLocale),
+                                aSnapshot.getHeapCommitted (),
+                                true));
+    ret.add (new HistorySeries (EText.MSG_NON_HEAP.getDisplayText (aDisplayLocale), aSnapshot.getNonHeapUsed (), true));
+    ret.add (new HistorySeries (EText.MSG_ALLOCATION_RATE.getDisplayText (aDisplayLocale),
+                                _getPerSecond (aSnapshot.getAllocated (), nIntervalMillis),
+                                true));
+    ret.add (new HistorySeries (EText.MSG_PROMOTION_RATE.getDisplayText (aDisplayLocale),
+                                _getPerSecond (aSnapshot.getPromoted (), nIntervalMillis),
+                                true));
+    ret.add (new HistorySeries (EText.MSG_GC_TIME.getDisplayText (aDisplayLocale), aSnapshot.getGCMillis (), false));
+    for (final Map.Entry <String, long []> aEntry : aSnapshot.getPoolUsed ().entrySet ())
+      ret.add (new HistorySeries (EText.MSG_POOL.getDisplayTextWithArgs (aDisplayLocale, aEntry.getKey ()),
+                                  aEntry.getValue (),
+                                  true));
+    return ret;
+  }
+
+  /**
+   * @return The current, min, max and average value of the series as display
+   *         strings.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  private static ICommonsList <String> _getHistoryCells (@NonNull final HistorySeries aSeries,
+                                                         @NonNull final SizeHelper aSH)
+  {
+    final long [] aValues = aSeries.m_aValues;
+    long nMin = Long.MAX_VALUE;
+    long nMax = Long.MIN_VALUE;
+    long nSum = 0;
+    for (final long n : aValues)
+    {
+      nMin = Math.min (nMin, n);
+      nMax = Math.max (nMax, n);
+      nSum += n;
+    }
+    final long nAvg = aValues.length == 0 ? 0 : nSum / aValues.length;
+    final long nCurrent = aValues.length == 0 ? 0 : aValues[aValues.length - 1];
+
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final long n : new long [] { nCurrent, nMin, nMax, nAvg })
+      ret.add (aSeries.m_bBytes ? aSH.getAsMatching (n, 1) : Long.toString (n));
+    return ret;
+  }
+
+  @NonNull
+  private static String _getHeaderText (@NonNull final JvmMemoryMonitor.Snapshot aSnapshot,
+                                        @NonNull final Locale aDisplayLocale)
+  {
+    return EText.MSG_HEADER.getDisplayTextWithArgs (aDisplayLocale,
+                                                    PDTToString.getAsString (PDTFactory.getCurrentLocalDateTime (),
+                                                                             aDisplayLocale),
+                                                    Long.valueOf (aSnapshot.getInterval ().toSeconds ()),
+                                                    Integer.valueOf (aSnapshot.getSampleCount ()));
+  }
+
+  @NonNull
+  private static IHCNode _createCurrent (@NonNull final JvmMemoryMonitor.Snapshot aSnapshot,
+                                        @NonNull final Locale aDisplayLocale,
+                                        @NonNull final SizeHelper aSH)
+  {
+    final long nIntervalMillis = aSnapshot.getInterval ().toMillis ();
+    final MemoryUsage aHeap = ManagementFactory.getMemoryMXBean ().getHeapMemoryUsage ();
+    final MemoryUsage aNonHeap = ManagementFactory.getMemoryMXBean ().getNonHeapMemoryUsage ();
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setCondensed (true);
+    _addUsageRow (aTable, EText.MSG_HEAP.getDisplayText (aDisplayLocale), aHeap, aDisplayLocale, aSH);
+    _addUsageRow (aTable, EText.MSG_NON_HEAP.getDisplayText (aDisplayLocale), aNonHeap, aDisplayLocale, aSH);
+    final long [] aGCMillis = aSnapshot.getGCMillis ();
+    long nGCMillis = 0;
+    for (final long n : aGCMillis)
+      nGCMillis += n;
+    aTable.addBodyRow ()
+          .addCell (EText.MSG_GC_SHARE.getDisplayText (aDisplayLocale))
+          .addCell (_getPercent (nGCMillis, aGCMillis.length * nIntervalMillis) + "%")
+          .addCell (_createProgress (nGCMillis, aGCMillis.length * nIntervalMillis));
+    return aTable;
+  }
+
+  @NonNull
+  private static IHCNode _createPauses (@NonNull final ICommonsList <JvmMemoryMonitor.GCEvent> aEvents,
+                                       @NonNull final Locale aDisplayLocale)
+  {
+    final HCNodeList ret = new HCNodeList ();
+    final long [] aPauses = aEvents.getAll (x -> !x.isConcurrent ())
+                                   .stream ()
+                                   .mapToLong (JvmMemoryMonitor.GCEvent::getDurationMillis)
+                                   .toArray ();
+    if (aPauses.length == 0)
+    {
+      ret.addChild (new BootstrapInfoBox ().addChild (EText.MSG_NO_PAUSES.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    Arrays.sort (aPauses);
+    ret.addChild (new HCDiv ().addClass (CBootstrapCSS.MB_2)
+                              .addChild (EText.MSG_PAUSE_SUMMARY.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                         Integer.valueOf (aPauses.length),
+                                                                                         Long.valueOf (_getPercentile (aPauses,
+                                                                                                                       50)),
+                                                                                         Long.valueOf (_getPercentile (aPauses,
+                                                                                                                       90)),
+                                                                                         Long.valueOf (_getPercentile (aPauses,
+                                                                                                                       99)),
+                                                                                         Long.valueOf (aPauses[aPauses.length -
+                                                                                                               1]))));
+
+    final long [] aCounts = new long [PAUSE_BUCKETS_MS.length];
+    for (final long nPause : aPauses)
+    {
+      int nBucket = 0;
+      while (nPause >= PAUSE_BUCKETS_MS[nBucket])
+        nBucket++;
+      aCounts[nBucket]++;
+    }
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setCondensed (true);
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_RANGE.getDisplayText (aDisplayLocale),
+                     EText.MSG_COUNT.getDisplayText (aDisplayLocale),
+                     EText.MSG_SHARE.getDisplayText (aDisplayLocale));
+    for (int i = 0; i < aCounts.length; ++i)
+      if (aCounts[i] > 0)
+      {
+        final long nLower = i == 0 ? 0 : PAUSE_BUCKETS_MS[i - 1];
+        final String sRange = PAUSE_BUCKETS_MS[i] == Long.MAX_VALUE ? "≥ " + nLower : nLower + " - " + PAUSE_BUCKETS_MS[i];
+        aTable.addBodyRow ()
+              .addCell (sRange)
+              .addCell (Long.toString (aCounts[i]))
+              .addCell (_createProgress (aCounts[i], aPauses.length));
+      }
+    ret.addChild (aTable);
+    return ret;
+  }
+
+  /**
+   * @return The cells of a single GC event in the order of the recent events
+   *         table.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  private static ICommonsList <String> _getEventCells (@NonNull final JvmMemoryMonitor.GCEvent aEvent,
+                                                       @NonNull final Locale aDisplayLocale,
+                                                       @NonNull final SizeHelper aSH)
+  {
+    return new CommonsArrayList <> (PDTToString.getAsString (PDTFactory.createLocalDateTime (aEvent.getEpochMillis ()),
+                                                             aDisplayLocale),
+                                    aEvent.getGCName (),
+                                    aEvent.getAction (),
+                                    aEvent.getCause (),
+                                    Long.toString (aEvent.getDurationMillis ()),
+                                    aSH.getAsMatching (aEvent.getCollectedBytes (), 1),
+                                    aSH.getAsMatching (aEvent.getPromotedBytes (), 1));
+  }
+
+  @NonNull
+  private static <T extends IHCElement <?>> T _setPart (@NonNull final T aElement, @NonNull final String sPart)
+  {
+    // Used by the client side script to find the parts to update
+    aElement.customAttrs ().setDataAttr ("memory", sPart);
+    return aElement;
+  }
+
+  /**
+   * Create the complete dashboard content. This is the part that is refreshed
+   * periodically.
+   *
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @return The created node. Never <code>null</code>.
+   * @see #createDashboardUpdate(Locale, long, long)
+   */
+  @NonNull
+  public static IHCNode createDashboard (@NonNull final Locale aDisplayLocale)
+  {
+    final BootstrapWebPageUIHandler aUIHandler = BootstrapWebPageUIHandler.INSTANCE;
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+    final JvmMemoryMonitor aMonitor = JvmMemoryMonitor.getInstance ();
+    final JvmMemoryMonitor.Snapshot aSnapshot = aMonitor.getSnapshot ();
+    final HCNodeList ret = new HCNodeList ();
+
+    ret.addChild (_setPart (new HCDiv ().addClass (CBootstrapCSS.MB_2)
+                                        .addChild (_getHeaderText (aSnapshot, aDisplayLocale)),
+                            "header"));
+
+    // Current occupancy
+    ret.addChild (aUIHandler.createDataGroupHeader (EText.MSG_CURRENT.getDisplayText (aDisplayLocale)));
+    ret.addChild (_setPart (new HCDiv ().addChild (_createCurrent (aSnapshot, aDisplayLocale, aSH)), "current"));
+
+    if (aSnapshot.getSampleCount () == 0)
+    {
+      ret.addChild (new BootstrapInfoBox ().addChild (EText.MSG_NO_DATA.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    // History
+    {
+      ret.addChild (aUIHandler.createDataGroupHeader (EText.MSG_HISTORY.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_METRIC.getDisplayText (aDisplayLocale),
+                       EText.MSG_CURRENT.getDisplayText (aDisplayLocale),
+                       EText.MSG_MIN.getDisplayText (aDisplayLocale),
+                       EText.MSG_MAX.getDisplayText (aDisplayLocale),
+                       EText.MSG_AVG.getDisplayText (aDisplayLocale),
+                       "");
+      for (final HistorySeries aSeries : _getAllHistorySeries (aSnapshot, aDisplayLocale))
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+        aRow.addCell (aSeries.m_sName);
+        for (final String sCell : _getHistoryCells (aSeries, aSH))
+          aRow.addCell (sCell);
+        aRow.addCell (new BootstrapSparkline (aSeries.m_aValues).setSize (240, 24));
+      }
+      ret.addChild (_setPart (aTable, "history"));
+    }
+
+    // Pause distribution
+    final ICommonsList <JvmMemoryMonitor.GCEvent> aEvents = aMonitor.getAllGCEvents (0);
+    ret.addChild (aUIHandler.createDataGroupHeader (EText.MSG_PAUSES.getDisplayText (aDisplayLocale)));
+    ret.addChild (_setPart (new HCDiv ().addChild (_createPauses (aEvents, aDisplayLocale)), "pauses"));
+
+    // Recent events
+    if (aEvents.isNotEmpty ())
+    {
+      ret.addChild (aUIHandler.createDataGroupHeader (EText.MSG_RECENT_EVENTS.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star (),
+                                                        HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_TIME.getDisplayText (aDisplayLocale),
+                       EText.MSG_COLLECTOR.getDisplayText (aDisplayLocale),
+                       EText.MSG_ACTION.getDisplayText (aDisplayLocale),
+                       EText.MSG_CAUSE.getDisplayText (aDisplayLocale),
+                       EText.MSG_DURATION.getDisplayText (aDisplayLocale),
+                       EText.MSG_COLLECTED.getDisplayText (aDisplayLocale),
+                       EText.MSG_PROMOTED.getDisplayText (aDisplayLocale));
+      for (final JvmMemoryMonitor.GCEvent aEvent : aEvents.subList (0, Math.min (MAX_RECENT_EVENTS, aEvents.size ())))
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+        for (final String sCell : _getEventCells (aEvent, aDisplayLocale, aSH))
+          aRow.addCell (sCell);
+      }
+      ret.addChild (_setPart (aTable, "events"));
+    }
+    return ret;
+  }
+
+  /**
+   * Create the incremental update of the dashboard. Only the samples and GC
+   * events the client does not know yet are contained, together with the
+   * values derived from the complete history.
+   *
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @param nMinSample
+   *        The index of the first sample the client does not know yet. 0 to
+   *        get all retained samples.
+   * @param nMinGCSequence
+   *        The sequence number of the first GC event the client does not know
+   *        yet.
+   * @return The JSON object for the client side script. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public static IJsonObject createDashboardUpdate (@NonNull final Locale aDisplayLocale,
+                                                   @Nonnegative final long nMinSample,
+                                                   @Nonnegative final long nMinGCSequence)
+  {
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+    final JvmMemoryMonitor aMonitor = JvmMemoryMonitor.getInstance ();
+    final JvmMemoryMonitor.Snapshot aSnapshot = aMonitor.getSnapshot ();
+
+    // The statistics are based on the complete history, but only the new
+    // values are sent for the sparklines
+    final int nNewSamples = (int) Math.max (0,
+                                            Math.min (aSnapshot.getSampleCount (),
+                                                      aSnapshot.getNextSampleIndex () - nMinSample));
+    final IJsonArray aSeries = new JsonArray ();
+    if (nNewSamples > 0)
+      for (final HistorySeries aHS : _getAllHistorySeries (aSnapshot, aDisplayLocale))
+      {
+        final IJsonArray aValues = new JsonArray ();
+        for (int i = aHS.m_aValues.length - nNewSamples; i < aHS.m_aValues.length; ++i)
+          aValues.add (aHS.m_aValues[i]);
+        final IJsonArray aCells = new JsonArray ();
+        for (final String sCell : _getHistoryCells (aHS, aSH))
+          aCells.add (sCell);
+        aSeries.add (new JsonObject ().add ("values", aValues).add ("cells", aCells));
+      }
+
+    final ICommonsList <JvmMemoryMonitor.GCEvent> aNewEvents = aMonitor.getAllGCEvents (nMinGCSequence);
+    final long nNextGCSequence = aNewEvents.isEmpty () ? nMinGCSequence : aNewEvents.getFirst ().getSequence () + 1;
+    final IJsonArray aEvents = new JsonArray ();
+    for (final JvmMemoryMonitor.GCEvent aEvent : aNewEvents.subList (0, Math.min (MAX_RECENT_EVENTS, aNewEvents.size ())))
+    {
+      final ICommonsList <String> aCells = _getEventCells (aEvent, aDisplayLocale, aSH);
+      aEvents.add (new JsonObject ().add ("time", aCells.get (0))
+                                    .add ("gc", aCells.get (1))
+                                    .add ("action", aCells.get (2))
+                                    .add ("cause", aCells.get (3))
+                                    .add ("duration", aCells.get (4))
+                                    .add ("collected", aCells.get (5))
+                                    .add ("promoted", aCells.get (6)));
+    }
+
+    final IJsonObject ret = new JsonObject ().add ("sample", aSnapshot.getNextSampleIndex ())
+                                             .add ("gcseq", nNextGCSequence)
+                                             .add ("header", _getHeaderText (aSnapshot, aDisplayLocale))
+                                             .add ("current",
+                                                   HCRenderer.getAsHTMLStringWithoutNamespaces (_createCurrent (aSnapshot,
+                                                                                                                aDisplayLocale,
+                                                                                                                aSH)))
+                                             .add ("series", aSeries)
+                                             .add ("events", aEvents);
+    // The pause distribution only changes with new GC events
+    if (aNewEvents.isNotEmpty ())
+      ret.add ("pauses",
+               HCRenderer.getAsHTMLStringWithoutNamespaces (_createPauses (aMonitor.getAllGCEvents (0), aDisplayLocale)));
+    return ret;
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
+    final JvmMemoryMonitor aMonitor = JvmMemoryMonitor.getInstance ();
+
+    final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+    aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                        aWPEC.getSelfHref (),
+                        EDefaultIcon.REFRESH);
+    aNodeList.addChild (aToolbar);
+
+    // Remember the GC events already contained in the dashboard
+    final long nGCSequence = aMonitor.getGCEventCount ();
+    final HCDiv aDashboard = aNodeList.addAndReturnChild (new HCDiv ().addChild (createDashboard (aDisplayLocale)));
+    aDashboard.ensureID ();
+
+    // Only fetch the new samples and GC events with each poll
+    PhotonJS.registerJSIncludeForThisRequest (EBootstrapUICtrlsJSPathProvider.MEMORY_MONITOR);
+    final JSPackage aPkg = new JSPackage ();
+    aPkg.add (JSExpr.ref ("phMemoryMonitor")
+                    .invoke ("bind")
+                    .arg (aDashboard.getID ())
+                    .arg (AJAX_UPDATE.getInvocationURL (aRequestScope).getAsString ())
+                    .arg (AJAX_DASHBOARD.getInvocationURL (aRequestScope).getAsString ())
+                    .arg (aMonitor.getInterval ().toMillis ())
+                    .arg (aMonitor.getCapacity ())
+                    .arg (MAX_RECENT_EVENTS)
+                    .arg (nGCSequence));
+    aNodeList.addChild (new HCScriptInline (aPkg));
+  }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringImplode;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.css.property.CCSSProperties;
+import com.helger.datetime.format.PDTToString;
+import com.helger.html.hc.html.forms.HCEdit;
+import com.helger.html.hc.html.forms.HCHiddenField;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.tabular.HCRow;
+import com.helger.html.hc.html.textlevel.HCA;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
+import com.helger.photon.bootstrap5.form.BootstrapForm;
+import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
+import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
+import com.helger.photon.core.EPhotonCoreText;
+import com.helger.photon.core.form.FormErrorList;
+import com.helger.photon.core.form.RequestField;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.photon.uicore.css.CPageParam;
+import com.helger.photon.uicore.html.select.HCExtSelect;
+import com.helger.photon.uicore.icon.EDefaultIcon;
+import com.helger.photon.uicore.page.IWebPageExecutionContext;
+import com.helger.servlet.response.EContentDispositionType;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.url.SimpleURL;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Page with a built-in sampling profiler. The result is shown as a flame
+ * graph and can be exported in the collapsed stacks format.
+ *
+ * @author Philip Helger
+ * @param <WPECTYPE>
+ *        Web Page Execution Context type
+ */
+public class BasePageSysInfoProfiler <WPECTYPE extends IWebPageExecutionContext> extends
+                                     AbstractBootstrapWebPage <WPECTYPE>
+{
+  @Translatable
+  protected enum EText implements IHasDisplayTextWithArgs
+  {
+    MSG_NOTE ("Der Profiler nimmt in regelmäßigen Abständen die Stacks aller passenden Threads auf. Jede Aufnahme hält die JVM kurz an - für den Produktivbetrieb sollte das Intervall nicht zu klein gewählt werden.",
+              "The profiler periodically captures the stacks of all matching threads. Each capture briefly pauses the JVM - for production use the interval should not be too small."),
+    MSG_MODE ("Modus", "Mode"),
+    MSG_MODE_WALL ("Wall-Clock (alle Threads)", "Wall clock (all threads)"),
+    MSG_MODE_CPU ("CPU (nur rechnende Threads)", "CPU (only running threads)"),
+    MSG_INTERVAL ("Intervall (ms)", "Interval (ms)"),
+    MSG_DURATION ("Dauer (Sekunden)", "Duration (seconds)"),
+    MSG_THREAD_FILTER ("Thread-Filter", "Thread filter"),
+    MSG_THREAD_FILTER_HELP ("Optionaler regulärer Ausdruck, der im Thread-Namen gefunden werden muss.",
+                            "Optional regular expression that must be found in the thread name."),
+    MSG_ERR_INTERVAL ("Das Intervall muss zwischen {0} und {1} Millisekunden liegen.",
+                      "The interval must be between {0} and {1} milliseconds."),
+    MSG_ERR_DURATION ("Die Dauer muss zwischen 1 und {0} Sekunden liegen.",
+                      "The duration must be between 1 and {0} seconds."),
+    MSG_ERR_THREAD_FILTER ("Der reguläre Ausdruck ist ungültig: {0}", "The regular expression is invalid: {0}"),
+    MSG_BUTTON_START ("Profiling starten", "Start profiling"),
+    MSG_BUTTON_STOP ("Profiling stoppen", "Stop profiling"),
+    MSG_BUTTON_EXPORT ("Collapsed Stacks exportieren", "Export collapsed stacks"),
+    MSG_RUNNING ("Profiling läuft seit {0} - bisher {1} Aufnahmen.", "Profiling is running since {0} - {1} samples so far."),
+    MSG_FINISHED ("Profiling von {0} bis {1} - {2} Aufnahmen.", "Profiling from {0} to {1} - {2} samples."),
+    MSG_TRUNCATED ("Die maximale Anzahl von Knoten wurde erreicht - manche Stacks wurden gekürzt.",
+                   "The maximum number of nodes was reached - some stacks were truncated."),
+    MSG_NO_SAMPLES ("Es wurden noch keine Stacks aufgenommen.", "No stacks were captured yet."),
+    MSG_FLAME_GRAPH ("Flame Graph", "Flame graph"),
+    MSG_FLAME_GRAPH_HELP ("Ein Klick auf einen Frame zoomt auf diesen Frame.", "Click on a frame to zoom into it."),
+    MSG_RESET_ZOOM ("Alle anzeigen", "Show all"),
+    MSG_FRAME_TITLE ("{0} - {1} Aufnahmen ({2}%)", "{0} - {1} samples ({2}%)"),
+    MSG_TOP_FRAMES ("Frames mit den meisten eigenen Aufnahmen", "Frames with the most self samples"),
+    MSG_FRAME ("Frame", "Frame"),
+    MSG_SELF ("Eigene Aufnahmen", "Self samples"),
+    MSG_SHARE ("Anteil", "Share");
+
+    private final IMultilingualText m_aTP;
+
+    EText (final String sDE, final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  private static final String FIELD_MODE = "mode";
+  private static final String FIELD_INTERVAL = "interval";
+  private static final String FIELD_DURATION = "duration";
+  private static final String FIELD_THREAD_FILTER = "threadfilter";
+  private static final String PARAM_FOCUS = "focus";
+  private static final String ACTION_STOP = "stop";
+  /** Frames below this share of the displayed total (in per mille) are hidden */
+  private static final int MIN_FRAME_PERMILLE = 2;
+  private static final int MAX_FLAME_DEPTH = SamplingProfiler.MAX_STACK_DEPTH;
+  private static final int TOP_FRAME_COUNT = 25;
+  private static final AjaxFunctionDeclaration AJAX_EXPORT;
+
+  static
+  {
+    AJAX_EXPORT = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final SamplingProfiler.Session aSession = SamplingProfiler.getInstance ().getSession ();
+      if (aSession != null)
+      {
+        aAjaxResponse.setContentAndCharset (aSession.getAsCollapsedStacks (), StandardCharsets.UTF_8);
+        aAjaxResponse.setMimeType (CMimeType.TEXT_PLAIN);
+        aAjaxResponse.setContentDispositionType (EContentDispositionType.ATTACHMENT);
+        aAjaxResponse.setContentDispositionFilename ("profile-collapsed.txt");
+        aAjaxResponse.disableCaching ();
+      }
+      else
+        aAjaxResponse.createBadRequest ();
+    });
+  }
+
+  public BasePageSysInfoProfiler (@NonNull @Nonempty final String sID)
+  {
+    super (sID, TextHelper.create_DE_EN ("Profiler", "Profiler"));
+  }
+
+  public BasePageSysInfoProfiler (@NonNull @Nonempty final String sID, @NonNull final String sName)
+  {
+    super (sID, sName);
+  }
+
+  public BasePageSysInfoProfiler (@NonNull @Nonempty final String sID,
+                                  @NonNull final String sName,
+                                  @Nullable final String sDescription)
+  {
+    super (sID, sName, sDescription);
+  }
+
+  public BasePageSysInfoProfiler (@NonNull @Nonempty final String sID,
+                                  @NonNull final IMultilingualText aName,
+                                  @Nullable final IMultilingualText aDescription)
+  {
+    super (sID, aName, aDescription);
+  }
+
+  @NonNull
+  private static String _getPercent (final long nPart, final long nTotal)
+  {
+    return nTotal <= 0 ? "0" : String.format (Locale.ROOT, "%.1f", nPart * 100d / nTotal);
+  }
+
+  @NonNull
+  private static String _getFrameColor (@NonNull final String sFrame)
+  {
+    // Stable warm colours, so that the same frame always looks the same
+    final int nHash = sFrame.hashCode () & 0x7fffffff;
+    return "hsl(" + (nHash % 55) + ",85%," + (60 + (nHash / 55) % 20) + "%)";
+  }
+
+  private void _addFlameNode (@NonNull final WPECTYPE aWPEC,
+                              @NonNull final SamplingProfiler.CallTreeNode aNode,
+                              final long nParentTotal,
+                              final long nDisplayTotal,
+                              final int nDepth,
+                              @NonNull final HCDiv aTarget)
+  {
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    // Root at the bottom, children stacked above
+    final HCDiv aNodeDiv = aTarget.addAndReturnChild (new HCDiv ());
+    aNodeDiv.addClasses (CBootstrapCSS.D_FLEX,
+                         CBootstrapCSS.FLEX_COLUMN_REVERSE,
+                         CBootstrapCSS.FLEX_SHRINK_0,
+                         CBootstrapCSS.OVERFLOW_HIDDEN);
+    aNodeDiv.addStyle (CCSSProperties.WIDTH.newValue (_getPercent (aNode.getTotalSamples (), nParentTotal) + "%"));
+
+    final String sFrame = aNode.getFrame ();
+    final HCA aLabel = new HCA (aWPEC.getSelfHref ().add (PARAM_FOCUS, Integer.toString (aNode.getID ())));
+    aLabel.addChild (sFrame.isEmpty () ? "all" : sFrame);
+    aLabel.setTitle (EText.MSG_FRAME_TITLE.getDisplayTextWithArgs (aDisplayLocale,
+                                                                   sFrame.isEmpty () ? "all" : sFrame,
+                                                                   Long.valueOf (aNode.getTotalSamples ()),
+                                                                   _getPercent (aNode.getTotalSamples (), nDisplayTotal)));
+    aLabel.addClasses (CBootstrapCSS.D_BLOCK,
+                       CBootstrapCSS.TEXT_TRUNCATE,
+                       CBootstrapCSS.TEXT_DARK,
+                       CBootstrapCSS.TEXT_DECORATION_NONE,
+                       CBootstrapCSS.SMALL,
+                       CBootstrapCSS.BORDER,
+                       CBootstrapCSS.PX_1);
+    aLabel.addStyle (CCSSProperties.BACKGROUND_COLOR.newValue (_getFrameColor (sFrame)));
+    aNodeDiv.addChild (aLabel);
+
+    if (nDepth < MAX_FLAME_DEPTH)
+    {
+      final HCDiv aChildRow = new HCDiv ().addClasses (CBootstrapCSS.D_FLEX, CBootstrapCSS.ALIGN_ITEMS_END);
+      for (final SamplingProfiler.CallTreeNode aChild : aNode.getAllChildren ())
+      {
+        // Children are sorted descending, so all remaining ones are smaller
+        if (aChild.getTotalSamples () * 1000 < nDisplayTotal * MIN_FRAME_PERMILLE)
+          break;
+        _addFlameNode (aWPEC, aChild, aNode.getTotalSamples (), nDisplayTotal, nDepth + 1, aChildRow);
+      }
+      if (aChildRow.hasChildren ())
+        aNodeDiv.addChild (aChildRow);
+    }
+  }
+
+  private static void _collectSelfSamples (@NonNull final SamplingProfiler.CallTreeNode aNode,
+                                           @NonNull final ICommonsMap <String, long []> aTarget)
+  {
+    if (aNode.getSelfSamples () > 0)
+      aTarget.computeIfAbsent (aNode.getFrame (), k -> new long [1])[0] += aNode.getSelfSamples ();
+    for (final SamplingProfiler.CallTreeNode aChild : aNode.getAllChildren ())
+      _collectSelfSamples (aChild, aTarget);
+  }
+
+  private void _showResult (@NonNull final WPECTYPE aWPEC,
+                            @NonNull final SamplingProfiler.Session aSession,
+                            @NonNull final SamplingProfiler.CallTreeNode aRoot)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    if (aRoot.getTotalSamples () == 0)
+    {
+      aNodeList.addChild (info (EText.MSG_NO_SAMPLES.getDisplayText (aDisplayLocale)));
+      return;
+    }
+
+    // Flame graph, optionally zoomed into a single node
+    SamplingProfiler.CallTreeNode aFocus = aSession.getNodeOfID (aWPEC.params ().getAsInt (PARAM_FOCUS, 0));
+    if (aFocus == null)
+      aFocus = aRoot;
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_FLAME_GRAPH.getDisplayText (aDisplayLocale)));
+    {
+      final HCDiv aHelp = div (EText.MSG_FLAME_GRAPH_HELP.getDisplayText (aDisplayLocale));
+      if (aFocus != aRoot)
+      {
+        aHelp.addChild (" ");
+        aHelp.addChild (new HCA (aWPEC.getSelfHref ()).addChild (EText.MSG_RESET_ZOOM.getDisplayText (aDisplayLocale)));
+        aHelp.addChild (div (StringImplode.getImploded (" > ", aFocus.getPath ())).addClass (CBootstrapCSS.FONT_MONOSPACE));
+      }
+      aNodeList.addChild (aHelp.addClass (CBootstrapCSS.MB_2));
+    }
+    final HCDiv aGraph = new HCDiv ().addClasses (CBootstrapCSS.D_FLEX, CBootstrapCSS.ALIGN_ITEMS_END, CBootstrapCSS.MB_2);
+    _addFlameNode (aWPEC, aFocus, aFocus.getTotalSamples (), aFocus.getTotalSamples (), 0, aGraph);
+    aNodeList.addChild (aGraph);
+
+    // The frames where the time is actually spent
+    final ICommonsMap <String, long []> aSelfSamples = new CommonsHashMap <> ();
+    _collectSelfSamples (aFocus, aSelfSamples);
+    final ICommonsList <String> aFrames = new CommonsArrayList <> (aSelfSamples.keySet ());
+    aFrames.sort (Comparator.comparingLong ( (final String x) -> aSelfSamples.get (x)[0]).reversed ());
+
+    aNodeList.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_TOP_FRAMES.getDisplayText (aDisplayLocale)));
+    final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+    aTable.setStriped (true).setCondensed (true);
+    aTable.addHeaderRow ()
+          .addCells (EText.MSG_FRAME.getDisplayText (aDisplayLocale),
+                     EText.MSG_SELF.getDisplayText (aDisplayLocale),
+                     EText.MSG_SHARE.getDisplayText (aDisplayLocale));
+    for (final String sFrame : aFrames.subList (0, Math.min (TOP_FRAME_COUNT, aFrames.size ())))
+    {
+      final long nSelf = aSelfSamples.get (sFrame)[0];
+      final HCRow aRow = aTable.addBodyRow ();
+      aRow.addCell (span (sFrame).addClass (CBootstrapCSS.FONT_MONOSPACE));
+      aRow.addCell (Long.toString (nSelf));
+      aRow.addCell (_getPercent (nSelf, aFocus.getTotalSamples ()) + "%");
+    }
+    aNodeList.addChild (aTable);
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final SamplingProfiler aProfiler = SamplingProfiler.getInstance ();
+    final FormErrorList aFormErrors = new FormErrorList ();
+
+    final String sAction = aWPEC.params ().getAsString (CPageParam.PARAM_ACTION);
+    if (ACTION_STOP.equals (sAction))
+      aProfiler.stopSession ();
+    else
+      if (CPageParam.ACTION_PERFORM.equals (sAction))
+      {
+        final SamplingProfiler.EMode eMode = SamplingProfiler.EMode.getFromIDOrNull (aWPEC.params ()
+                                                                                          .getAsString (FIELD_MODE));
+        final int nIntervalMS = aWPEC.params ().getAsInt (FIELD_INTERVAL, -1);
+        final int nDurationSecs = aWPEC.params ().getAsInt (FIELD_DURATION, -1);
+        final String sThreadFilter = aWPEC.params ().getAsStringTrimmed (FIELD_THREAD_FILTER);
+
+        if (nIntervalMS < SamplingProfiler.MIN_INTERVAL.toMillis () ||
+            nIntervalMS > SamplingProfiler.MAX_INTERVAL.toMillis ())
+          aFormErrors.addFieldError (FIELD_INTERVAL,
+                                     EText.MSG_ERR_INTERVAL.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                    Long.valueOf (SamplingProfiler.MIN_INTERVAL.toMillis ()),
+                                                                                    Long.valueOf (SamplingProfiler.MAX_INTERVAL.toMillis ())));
+        if (nDurationSecs < 1 || nDurationSecs > SamplingProfiler.MAX_DURATION.toSeconds ())
+          aFormErrors.addFieldError (FIELD_DURATION,
+                                     EText.MSG_ERR_DURATION.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                    Long.valueOf (SamplingProfiler.MAX_DURATION.toSeconds ())));
+        Pattern aThreadFilter = null;
+        if (StringHelper.isNotEmpty (sThreadFilter))
+          try
+          {
+            aThreadFilter = Pattern.compile (sThreadFilter);
+          }
+          catch (final PatternSyntaxException ex)
+          {
+            aFormErrors.addFieldError (FIELD_THREAD_FILTER,
+                                       EText.MSG_ERR_THREAD_FILTER.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                           ex.getDescription ()));
+          }
+
+        if (aFormErrors.isEmpty ())
+          aProfiler.startSession (eMode != null ? eMode : SamplingProfiler.EMode.WALL,
+                                  Duration.ofMillis (nIntervalMS),
+                                  Duration.ofSeconds (nDurationSecs),
+                                  aThreadFilter);
+      }
+
+    aNodeList.addChild (info (EText.MSG_NOTE.getDisplayText (aDisplayLocale)));
+
+    final SamplingProfiler.Session aSession = aProfiler.getSession ();
+    if (aSession != null)
+    {
+      final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+      aToolbar.addButton (EPhotonCoreText.BUTTON_REFRESH.getDisplayText (aDisplayLocale),
+                          aWPEC.getSelfHref (),
+                          EDefaultIcon.REFRESH);
+      if (aSession.isRunning ())
+        aToolbar.addButton (EText.MSG_BUTTON_STOP.getDisplayText (aDisplayLocale),
+                            aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_STOP),
+                            EDefaultIcon.CANCEL);
+      aToolbar.addButton (EText.MSG_BUTTON_EXPORT.getDisplayText (aDisplayLocale),
+                          AJAX_EXPORT.getInvocationURL (aRequestScope),
+                          EDefaultIcon.SAVE);
+      aNodeList.addChild (aToolbar);
+
+      if (aSession.isRunning ())
+        aNodeList.addChild (info (EText.MSG_RUNNING.getDisplayTextWithArgs (aDisplayLocale,
+                                                                            PDTToString.getAsString (aSession.getStartDateTime (),
+                                                                                                     aDisplayLocale),
+                                                                            Long.valueOf (aSession.getSampleCount ()))));
+      else
+        aNodeList.addChild (success (EText.MSG_FINISHED.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                PDTToString.getAsString (aSession.getStartDateTime (),
+                                                                                                         aDisplayLocale),
+                                                                                PDTToString.getAsString (aSession.getEndDateTime (),
+                                                                                                         aDisplayLocale),
+                                                                                Long.valueOf (aSession.getSampleCount ()))));
+      if (aSession.isTruncated ())
+        aNodeList.addChild (warn (EText.MSG_TRUNCATED.getDisplayText (aDisplayLocale)));
+
+      // Render while no new samples are added
+      aSession.readCallTree (aRoot -> _showResult (aWPEC, aSession, aRoot));
+    }
+
+    // Start a new session
+    final boolean bRunning = aSession != null && aSession.isRunning ();
+    if (!bRunning)
+    {
+      final BootstrapForm aForm = aNodeList.addAndReturnChild (getUIHandler ().createFormSelf (aWPEC));
+      aForm.addChild (new HCHiddenField (CPageParam.PARAM_ACTION, CPageParam.ACTION_PERFORM));
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (FIELD_MODE,
+                                                                     aSession != null ? aSession.getMode ().getID ()
+                                                                                      : SamplingProfiler.EMode.WALL.getID ()));
+      aSelect.addOption (SamplingProfiler.EMode.WALL.getID (), EText.MSG_MODE_WALL.getDisplayText (aDisplayLocale));
+      aSelect.addOption (SamplingProfiler.EMode.CPU.getID (), EText.MSG_MODE_CPU.getDisplayText (aDisplayLocale));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_MODE.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (aSelect));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_INTERVAL.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCEdit (new RequestField (FIELD_INTERVAL,
+                                                                                           Long.toString (SamplingProfiler.DEFAULT_INTERVAL.toMillis ()))))
+                                                   .setErrorList (aFormErrors.getListOfField (FIELD_INTERVAL)));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_DURATION.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCEdit (new RequestField (FIELD_DURATION,
+                                                                                           Long.toString (SamplingProfiler.DEFAULT_DURATION.toSeconds ()))))
+                                                   .setErrorList (aFormErrors.getListOfField (FIELD_DURATION)));
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabel (EText.MSG_THREAD_FILTER.getDisplayText (aDisplayLocale))
+                                                   .setCtrl (new HCEdit (new RequestField (FIELD_THREAD_FILTER,
+                                                                                           aSession != null ? aSession.getThreadFilter ()
+                                                                                                            : null)))
+                                                   .setHelpText (EText.MSG_THREAD_FILTER_HELP.getDisplayText (aDisplayLocale))
+                                                   .setErrorList (aFormErrors.getListOfField (FIELD_THREAD_FILTER)));
+      aForm.addChild (new BootstrapSubmitButton ().addChild (EText.MSG_BUTTON_START.getDisplayText (aDisplayLocale))
+                                                  .setIcon (EDefaultIcon.NEXT));
+    }
+  }
+}
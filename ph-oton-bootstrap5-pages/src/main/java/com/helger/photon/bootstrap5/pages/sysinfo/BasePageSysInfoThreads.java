@@ -16,9 +16,15 @@
  */
 package com.helger.photon.bootstrap5.pages.sysinfo;
 
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -26,17 +32,41 @@ import org.jspecify.annotations.Nullable;
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
 import com.helger.base.compare.ESortOrder;
-import com.helger.base.rt.StackTraceHelper;
+import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringParser;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.collection.commons.ICommonsMap;
-import com.helger.collection.helper.CollectionSort;
+import com.helger.css.property.CCSSProperties;
 import com.helger.datetime.format.PDTToString;
 import com.helger.datetime.helper.PDTFactory;
+import com.helger.html.hc.IHCNode;
 import com.helger.html.hc.ext.HCExtHelper;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCRow;
 import com.helger.html.hc.html.tabular.HCTable;
 import com.helger.html.hc.impl.HCNodeList;
+import com.helger.html.hc.render.HCRenderer;
+import com.helger.html.jquery.JQuery;
+import com.helger.html.js.EJSEvent;
+import com.helger.html.jscode.JSPackage;
+import com.helger.io.misc.SizeHelper;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.button.BootstrapButton;
+import com.helger.photon.bootstrap5.button.EBootstrapButtonSize;
+import com.helger.photon.bootstrap5.button.EBootstrapButtonType;
+import com.helger.photon.bootstrap5.nav.BootstrapTabBox;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
+import com.helger.photon.uicore.css.CPageParam;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.photon.uictrls.datatables.DataTables;
@@ -47,9 +77,19 @@ import com.helger.text.IMultilingualText;
 import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * Page with all threads
+ * Page with all threads. Besides the list of all threads, an analysis of the
+ * current thread dump is shown: threads with identical stacks are grouped,
+ * deadlocks and lock holder chains are highlighted and the monitors most
+ * threads are waiting for are listed. The stack traces of the single threads
+ * and of the stack groups are only loaded on demand and are restricted to
+ * administrators. On Java 21 and later, virtual threads and their thread
+ * containers are shown based on the structured JSON thread dump, which
+ * is only created on request.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -80,7 +120,49 @@ public class BasePageSysInfoThreads <WPECTYPE extends IWebPageExecutionContext>
     MSG_NAME ("Name", "Name"),
     MSG_PRIORITY ("Prio", "Prio"),
     MSG_STATE ("Status", "State"),
-    MSG_STACKTRACE ("Stacktrace", "Stacktrace");
+    MSG_STACKTRACE ("Stacktrace", "Stacktrace"),
+    MSG_CPU_TIME ("CPU-Zeit (ms)", "CPU time (ms)"),
+    MSG_ALLOCATED ("Allokiert", "Allocated"),
+    MSG_LOCK ("Wartet auf", "Waiting for"),
+    MSG_SHOW_STACK ("Anzeigen", "Show"),
+    MSG_TAB_ANALYSIS ("Analyse", "Analysis"),
+    MSG_TAB_THREADS ("Threads", "Threads"),
+    MSG_STATES ("Threads nach Status", "Threads by state"),
+    MSG_COUNT ("Anzahl", "Count"),
+    MSG_DEADLOCK ("{0} Threads befinden sich in einem Deadlock!", "{0} threads are deadlocked!"),
+    MSG_NO_DEADLOCK ("Es wurde kein Deadlock gefunden.", "No deadlock was found."),
+    MSG_BLOCKING_MONITORS ("Blockierende Monitore", "Blocking monitors"),
+    MSG_MONITOR ("Monitor", "Monitor"),
+    MSG_OWNER ("Besitzer", "Owner"),
+    MSG_WAITERS ("Wartende Threads", "Waiting threads"),
+    MSG_NO_BLOCKING_MONITORS ("Kein Thread wartet auf einen Monitor.", "No thread is waiting for a monitor."),
+    MSG_LOCK_CHAINS ("Lock-Ketten", "Lock holder chains"),
+    MSG_STACK_GROUPS ("Threads mit identischem Stack", "Threads with identical stacks"),
+    MSG_STACK_GROUP ("{0} Threads im Status {1}", "{0} threads in state {1}"),
+    MSG_FRAMES ("{0} Stack-Elemente", "{0} stack frames"),
+    MSG_TAB_VIRTUAL ("Virtuelle Threads", "Virtual threads"),
+    MSG_VIRTUAL_NOT_SUPPORTED ("Für virtuelle Threads wird mindestens Java 21 benötigt.",
+                               "At least Java 21 is required for virtual threads."),
+    MSG_VIRTUAL_ON_DEMAND ("Der strukturierte Thread-Dump ist aufwändig und wird daher nur auf Anforderung erstellt.",
+                           "The structured thread dump is expensive and is therefore only created on request."),
+    MSG_VIRTUAL_LOAD ("Virtuelle Threads anzeigen", "Show virtual threads"),
+    MSG_VIRTUAL_FAILED ("Der strukturierte Thread-Dump konnte nicht erstellt werden. Details stehen im Log.",
+                        "The structured thread dump could not be created. See the log for details."),
+    MSG_VIRTUAL_SUMMARY ("{0} Plattform-Threads, {1} virtuelle Threads, {2} davon gepinnt",
+                         "{0} platform threads, {1} virtual threads, {2} of them pinned"),
+    MSG_PINNED ("Gepinnte virtuelle Threads", "Pinned virtual threads"),
+    MSG_PINNED_HELP ("Diese virtuellen Threads blockieren vermutlich ihren Carrier-Thread.",
+                     "These virtual threads most likely block their carrier thread."),
+    MSG_CONTAINERS ("Thread-Container", "Thread containers"),
+    MSG_CONTAINER ("Container", "Container"),
+    MSG_PARENT ("Übergeordnet", "Parent"),
+    MSG_VIRTUAL_COUNT ("Virtuell", "Virtual"),
+    MSG_CARRIERS ("Carrier-Threads", "Carrier threads"),
+    MSG_VIRTUAL_THREAD ("Virtueller Thread", "Virtual thread"),
+    MSG_CARRIER ("Carrier", "Carrier"),
+    MSG_VIRTUAL_STACK_GROUPS ("Virtuelle Threads mit identischem Stack", "Virtual threads with identical stacks"),
+    MSG_VIRTUAL_STACK_GROUP ("{0} virtuelle Threads", "{0} virtual threads"),
+    MSG_THREAD_NOT_FOUND ("Der Thread existiert nicht mehr.", "The thread does no longer exist.");
 
     private final IMultilingualText m_aTP;
 
@@ -96,6 +178,42 @@ public class BasePageSysInfoThreads <WPECTYPE extends IWebPageExecutionContext>
     }
   }
 
+  private static final String ACTION_VIRTUAL = "virtual";
+  private static final String TAB_VIRTUAL = "virtual";
+  /** Maximum number of virtual thread stack groups to display */
+  private static final int MAX_VIRTUAL_STACK_GROUPS = 200;
+  private static final String PARAM_THREAD_ID = "threadid";
+  private static final AjaxFunctionDeclaration AJAX_STACK;
+
+  static
+  {
+    AJAX_STACK = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final long nThreadID = StringParser.parseLong (aRequestScope.params ().getAsString (PARAM_THREAD_ID), -1);
+      final ThreadInfo aInfo = nThreadID < 0 ? null : ManagementFactory.getThreadMXBean ()
+                                                                       .getThreadInfo (new long [] { nThreadID },
+                                                                                       true,
+                                                                                       true)[0];
+      final IHCNode aNode;
+      if (aInfo == null)
+        aNode = new HCDiv ().addChild (EText.MSG_THREAD_NOT_FOUND.getDisplayText (aRequestScope.getRequest ().getLocale ()));
+      else
+        aNode = new HCDiv ().addClass (CBootstrapCSS.FONT_MONOSPACE)
+                            .addChildren (HCExtHelper.nl2brList (getStackAsString (aInfo.getStackTrace (),
+                                                                                   aInfo.getLockedMonitors ())));
+      aAjaxResponse.setContentAndCharset (HCRenderer.getAsHTMLStringWithoutNamespaces (aNode), StandardCharsets.UTF_8);
+      aAjaxResponse.setMimeType (CMimeType.TEXT_HTML);
+      aAjaxResponse.disableCaching ();
+    });
+  }
+
   public BasePageSysInfoThreads (@NonNull @Nonempty final String sID)
   {
     super (sID, EWebPageText.PAGE_NAME_SYSINFO_THREADS.getAsMLT ());
@@ -120,37 +238,212 @@ public class BasePageSysInfoThreads <WPECTYPE extends IWebPageExecutionContext>
     super (sID, aName, aDescription);
   }
 
+  /**
+   * Get the stack trace as a string, including the monitors locked in the
+   * respective frames.
+   *
+   * @param aStack
+   *        The stack to format. May not be <code>null</code>.
+   * @param aLockedMonitors
+   *        The locked monitors. May be <code>null</code>.
+   * @return The multi line stack trace. Never <code>null</code>.
+   */
   @NonNull
-  private static String _getThreadGroupName (@Nullable final ThreadGroup aParamTG)
+  protected static String getStackAsString (@NonNull final StackTraceElement [] aStack,
+                                            @Nullable final MonitorInfo [] aLockedMonitors)
   {
-    ThreadGroup aThreadGroup = aParamTG;
-    final StringBuilder ret = new StringBuilder ();
-    while (aThreadGroup != null)
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < aStack.length; ++i)
     {
-      if (ret.length () > 0)
-        ret.insert (0, '/');
-      ret.insert (0, aThreadGroup.getName ());
-
-      // Descend
-      aThreadGroup = aThreadGroup.getParent ();
+      aSB.append (aStack[i].toString ()).append ('\n');
+      if (aLockedMonitors != null)
+        for (final MonitorInfo aMonitor : aLockedMonitors)
+          if (aMonitor.getLockedStackDepth () == i)
+            aSB.append ("  - locked ").append (aMonitor.toString ()).append ('\n');
     }
-    return ret.toString ();
+    return aSB.toString ();
   }
 
-  @Override
-  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  @NonNull
+  private static String _getThreadDisplayName (@NonNull final ThreadDumpAnalysis.ThreadEntry aEntry)
+  {
+    return aEntry.getName () + " [" + aEntry.getID () + "]";
+  }
+
+  @NonNull
+  private static String _getMonitorDisplayName (@Nullable final LockInfo aLockInfo, @Nullable final String sLockName)
+  {
+    return aLockInfo != null ? aLockInfo.toString () : String.valueOf (sLockName);
+  }
+
+  /**
+   * Create an empty, hidden container that is filled with the current stack of
+   * the provided thread when the provided button is clicked.
+   *
+   * @param aRequestScope
+   *        The current request scope. May not be <code>null</code>.
+   * @param aButton
+   *        The button that toggles the stack. May not be <code>null</code>.
+   * @param nThreadID
+   *        The ID of the thread whose stack should be loaded.
+   * @return The container to be added to the page. Never <code>null</code>.
+   */
+  @NonNull
+  private static HCDiv _createOnDemandStack (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                                             @NonNull final BootstrapButton aButton,
+                                             final long nThreadID)
+  {
+    final HCDiv aStackDiv = new HCDiv ();
+    aStackDiv.ensureID ();
+    aStackDiv.addStyle (CCSSProperties.DISPLAY_NONE);
+    final JSPackage aJSLoad = new JSPackage ();
+    aJSLoad.add (JQuery.idRef (aStackDiv)
+                       .load (AJAX_STACK.getInvocationURL (aRequestScope)
+                                        .add (PARAM_THREAD_ID, Long.toString (nThreadID))
+                                        .getAsString ()));
+    aJSLoad.add (JQuery.idRef (aStackDiv).toggle ());
+    aButton.addEventHandler (EJSEvent.CLICK, aJSLoad);
+    return aStackDiv;
+  }
+
+  @NonNull
+  private IHCNode _createAnalysis (@NonNull final WPECTYPE aWPEC, @NonNull final ThreadDumpAnalysis aAnalysis)
   {
-    final HCNodeList aNodeList = aWPEC.getNodeList ();
     final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final HCNodeList ret = new HCNodeList ();
+    final ICommonsList <ThreadDumpAnalysis.ThreadEntry> aAllThreads = aAnalysis.getAllThreads ();
 
-    // get all threads and sort them by thread ID
-    final ICommonsMap <Thread, StackTraceElement []> aThreads = CollectionSort.getSortedByKey (Thread.getAllStackTraces (),
-                                                                                               Comparator.comparing (Thread::getId));
+    // Deadlocks first
+    final ICommonsList <ThreadDumpAnalysis.ThreadEntry> aDeadlocked = aAnalysis.getAllDeadlockedThreads ();
+    if (aDeadlocked.isNotEmpty ())
+    {
+      final HCNodeList aDeadlockNodes = new HCNodeList ();
+      aDeadlockNodes.addChild (div (EText.MSG_DEADLOCK.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                Integer.valueOf (aDeadlocked.size ()))));
+      for (final ThreadDumpAnalysis.ThreadEntry aEntry : aDeadlocked)
+        aDeadlockNodes.addChild (div (_getThreadDisplayName (aEntry) +
+                                      " -> " +
+                                      _getMonitorDisplayName (aEntry.getInfo ().getLockInfo (),
+                                                              aEntry.getInfo ().getLockName ()) +
+                                      " <- " +
+                                      aEntry.getInfo ().getLockOwnerName ()));
+      ret.addChild (error (aDeadlockNodes));
+    }
+    else
+      ret.addChild (success (EText.MSG_NO_DEADLOCK.getDisplayText (aDisplayLocale)));
+
+    // Summary by state
+    {
+      ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_STATES.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+      aTable.setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_STATE.getDisplayText (aDisplayLocale), EText.MSG_COUNT.getDisplayText (aDisplayLocale));
+      for (final Thread.State eState : Thread.State.values ())
+      {
+        final int nCount = aAllThreads.getAll (x -> x.getState () == eState).size ();
+        if (nCount > 0)
+          aTable.addBodyRow ().addCells (eState.name (), Integer.toString (nCount));
+      }
+      ret.addChild (aTable);
+    }
+
+    // Top blocking monitors
+    {
+      ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_BLOCKING_MONITORS.getDisplayText (aDisplayLocale)));
+      final ICommonsList <ThreadDumpAnalysis.BlockingMonitor> aMonitors = aAnalysis.getAllBlockingMonitors ();
+      if (aMonitors.isEmpty ())
+        ret.addChild (info (EText.MSG_NO_BLOCKING_MONITORS.getDisplayText (aDisplayLocale)));
+      else
+      {
+        final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star (), HCCol.star ());
+        aTable.setStriped (true).setCondensed (true);
+        aTable.addHeaderRow ()
+              .addCells (EText.MSG_MONITOR.getDisplayText (aDisplayLocale),
+                         EText.MSG_OWNER.getDisplayText (aDisplayLocale),
+                         EText.MSG_COUNT.getDisplayText (aDisplayLocale),
+                         EText.MSG_WAITERS.getDisplayText (aDisplayLocale));
+        for (final ThreadDumpAnalysis.BlockingMonitor aMonitor : aMonitors)
+        {
+          final HCRow aRow = aTable.addBodyRow ();
+          aRow.addCell (aMonitor.getLockName ());
+          aRow.addCell (aMonitor.getOwner () == null ? "" : _getThreadDisplayName (aMonitor.getOwner ()));
+          aRow.addCell (Integer.toString (aMonitor.getWaiterCount ()));
+          aRow.addCell (HCExtHelper.list2divList (aMonitor.getAllWaiters ()
+                                                          .getAllMapped (BasePageSysInfoThreads::_getThreadDisplayName)));
+        }
+        ret.addChild (aTable);
+      }
+    }
+
+    // Lock holder chains of at least two hops
+    {
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star ());
+      aTable.setCondensed (true);
+      for (final ThreadDumpAnalysis.ThreadEntry aEntry : aAllThreads)
+      {
+        final ICommonsList <ThreadDumpAnalysis.ThreadEntry> aChain = aAnalysis.getLockHolderChain (aEntry);
+        if (aChain.size () > 1)
+        {
+          final StringBuilder aSB = new StringBuilder (_getThreadDisplayName (aEntry));
+          for (final ThreadDumpAnalysis.ThreadEntry aHolder : aChain)
+            aSB.append (" -> ").append (_getThreadDisplayName (aHolder));
+          final HCRow aRow = aTable.addBodyRow ().addCell (aSB.toString ());
+          if (aAnalysis.isDeadlocked (aEntry.getID ()))
+            aRow.addClass (CBootstrapCSS.TABLE_DANGER);
+        }
+      }
+      if (aTable.hasBodyRows ())
+      {
+        ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_LOCK_CHAINS.getDisplayText (aDisplayLocale)));
+        ret.addChild (aTable);
+      }
+    }
+
+    // Threads grouped by identical stacks
+    {
+      ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_STACK_GROUPS.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      for (final ThreadDumpAnalysis.StackGroup aGroup : aAnalysis.getAllStackGroups ())
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+
+        final HCNodeList aDescr = new HCNodeList ();
+        aDescr.addChild (div (EText.MSG_STACK_GROUP.getDisplayTextWithArgs (aDisplayLocale,
+                                                                            Integer.valueOf (aGroup.getThreadCount ()),
+                                                                            aGroup.getState ().name ())));
+        aDescr.addChild (HCExtHelper.list2divList (aGroup.getAllThreads ()
+                                                         .getAllMapped (BasePageSysInfoThreads::_getThreadDisplayName)));
+        aRow.addCell (aDescr);
+
+        // Collapsed stack, loaded on click via a representative thread
+        final StackTraceElement [] aStack = aGroup.getStack ();
+        final StackTraceElement aTopFrame = aGroup.getTopFrame ();
+        final HCNodeList aStackNodes = new HCNodeList ();
+        final BootstrapButton aToggle = new BootstrapButton (EBootstrapButtonType.LINK, EBootstrapButtonSize.SMALL);
+        aToggle.addChild (EText.MSG_FRAMES.getDisplayTextWithArgs (aDisplayLocale, Integer.valueOf (aStack.length)));
+        aStackNodes.addChild (aToggle);
+        if (aTopFrame != null)
+          aStackNodes.addChild (span (aTopFrame.toString ()).addClass (CBootstrapCSS.FONT_MONOSPACE));
+        final ThreadDumpAnalysis.ThreadEntry aFirstThread = aGroup.getAllThreads ().getFirstOrNull ();
+        if (aStack.length > 0 && aFirstThread != null)
+          aStackNodes.addChild (_createOnDemandStack (aWPEC.getRequestScope (), aToggle, aFirstThread.getID ()));
+        aRow.addCell (aStackNodes);
+      }
+      ret.addChild (aTable);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private IHCNode _createThreadList (@NonNull final WPECTYPE aWPEC, @NonNull final ThreadDumpAnalysis aAnalysis)
+  {
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final IRequestWebScopeWithoutResponse aRequestScope = aWPEC.getRequestScope ();
+    final SizeHelper aSH = SizeHelper.getSizeHelperOfLocale (aDisplayLocale);
+    final HCNodeList ret = new HCNodeList ();
 
-    aNodeList.addChild (getUIHandler ().createActionHeader (EText.MSG_HEADER.getDisplayTextWithArgs (aDisplayLocale,
-                                                                                                     Integer.valueOf (aThreads.size ()),
-                                                                                                     PDTToString.getAsString (PDTFactory.getCurrentLocalDateTime (),
-                                                                                                                              aDisplayLocale))));
     final HCTable aTable = new HCTable (new DTCol (EText.MSG_ID.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
                                                                                                                  aDisplayLocale)
                                                                                                 .setInitialSorting (ESortOrder.ASCENDING),
@@ -159,33 +452,55 @@ public class BasePageSysInfoThreads <WPECTYPE extends IWebPageExecutionContext>
                                         new DTCol (EText.MSG_PRIORITY.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
                                                                                                                        aDisplayLocale),
                                         new DTCol (EText.MSG_STATE.getDisplayText (aDisplayLocale)),
-                                        new DTCol (EText.MSG_STACKTRACE.getDisplayText (aDisplayLocale)).setOrderable (false)).setID (getID ());
-    // For all system properties
-    for (final Map.Entry <Thread, StackTraceElement []> aEntry : aThreads.entrySet ())
+                                        new DTCol (EText.MSG_CPU_TIME.getDisplayText (aDisplayLocale)).setDisplayType (EDTColType.INT,
+                                                                                                                       aDisplayLocale),
+                                        new DTCol (EText.MSG_ALLOCATED.getDisplayText (aDisplayLocale)).setDataSort (9),
+                                        new DTCol (EText.MSG_LOCK.getDisplayText (aDisplayLocale)),
+                                        new DTCol (EText.MSG_STACKTRACE.getDisplayText (aDisplayLocale)).setOrderable (false),
+                                        new DTCol ().setDisplayType (EDTColType.INT, aDisplayLocale).setVisible (false)).setID (getID ());
+    for (final ThreadDumpAnalysis.ThreadEntry aEntry : aAnalysis.getAllThreads ())
     {
+      final ThreadInfo aInfo = aEntry.getInfo ();
       final HCRow aRow = aTable.addBodyRow ();
+      if (aAnalysis.isDeadlocked (aEntry.getID ()))
+        aRow.addClass (CBootstrapCSS.TABLE_DANGER);
 
       // Thread ID (long)
-      final Thread aThread = aEntry.getKey ();
-      aRow.addCell (Long.toString (aThread.getId ()));
+      aRow.addCell (Long.toString (aEntry.getID ()));
 
       // Thread group
-      final ThreadGroup aThreadGroup = aThread.getThreadGroup ();
-      aRow.addCell (_getThreadGroupName (aThreadGroup));
+      aRow.addCell (aEntry.getGroupName ());
 
       // Thread name
-      aRow.addCell (aThread.getName ());
+      aRow.addCell (aEntry.getName ());
 
       // Priority (int)
-      aRow.addCell (Integer.toString (aThread.getPriority ()));
+      aRow.addCell (Integer.toString (aInfo.getPriority ()));
 
       // State
-      aRow.addCell (String.valueOf (aThread.getState ()));
+      aRow.addCell (String.valueOf (aEntry.getState ()));
+
+      // CPU time
+      aRow.addCell (aEntry.getCPUNanos () < 0 ? "" : Long.toString (TimeUnit.NANOSECONDS.toMillis (aEntry.getCPUNanos ())));
+
+      // Allocated bytes
+      aRow.addCell (aEntry.getAllocatedBytes () < 0 ? "" : aSH.getAsMatching (aEntry.getAllocatedBytes (), 2));
 
-      // Stack trace
-      aRow.addCell (HCExtHelper.nl2brList (StackTraceHelper.getStackAsString (aEntry.getValue ())));
+      // Lock waiting for
+      if (aInfo.getLockName () != null)
+        aRow.addCell (_getMonitorDisplayName (aInfo.getLockInfo (), aInfo.getLockName ()) +
+                      (aInfo.getLockOwnerName () == null ? "" : " <- " + aInfo.getLockOwnerName ()));
+      else
+        aRow.addCell ();
+
+      // Stack trace - loaded on demand
+      final BootstrapButton aButton = new BootstrapButton (EBootstrapButtonSize.SMALL).addChild (EText.MSG_SHOW_STACK.getDisplayText (aDisplayLocale));
+      aRow.addCell (aButton, _createOnDemandStack (aRequestScope, aButton, aEntry.getID ()));
+
+      // Allocated bytes (raw, for sorting)
+      aRow.addCell (Long.toString (aEntry.getAllocatedBytes ()));
     }
-    aNodeList.addChild (aTable);
+    ret.addChild (aTable);
 
     // Use a client side DataTables since this page is mostly called in
     // situations where the machine is very busy
@@ -193,6 +508,205 @@ public class BasePageSysInfoThreads <WPECTYPE extends IWebPageExecutionContext>
     aDT.setLengthMenu (DataTablesLengthMenu.INSTANCE_ALL);
     aDT.setAjaxBuilder (null);
     aDT.setNoTextLoadingURL ();
-    aNodeList.addChild (aDT);
+    ret.addChild (aDT);
+    return ret;
+  }
+
+  @NonNull
+  private static String _getVirtualThreadDisplayName (@NonNull final VirtualThreadDump.ThreadEntry aEntry)
+  {
+    return StringHelper.getNotNull (aEntry.getName (), "") + " [" + aEntry.getID () + "]";
+  }
+
+  @NonNull
+  private static IHCNode _createCollapsibleStack (@NonNull final String sToggleText, @NonNull final ICommonsList <String> aStack)
+  {
+    final HCNodeList ret = new HCNodeList ();
+    final BootstrapButton aToggle = new BootstrapButton (EBootstrapButtonType.LINK, EBootstrapButtonSize.SMALL);
+    aToggle.addChild (sToggleText);
+    ret.addChild (aToggle);
+    if (aStack.isNotEmpty ())
+    {
+      ret.addChild (span (aStack.getFirstOrNull ()).addClass (CBootstrapCSS.FONT_MONOSPACE));
+      final HCDiv aStackDiv = new HCDiv ().addClass (CBootstrapCSS.FONT_MONOSPACE)
+                                          .addChildren (HCExtHelper.list2divList (aStack));
+      aStackDiv.ensureID ();
+      aStackDiv.addStyle (CCSSProperties.DISPLAY_NONE);
+      aToggle.addEventHandler (EJSEvent.CLICK, JQuery.idRef (aStackDiv).toggle ());
+      ret.addChild (aStackDiv);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private IHCNode _createVirtualThreads (@NonNull final WPECTYPE aWPEC, final boolean bCreateDump)
+  {
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+    final HCNodeList ret = new HCNodeList ();
+
+    if (!VirtualThreadDump.isSupported ())
+    {
+      ret.addChild (info (EText.MSG_VIRTUAL_NOT_SUPPORTED.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    if (!bCreateDump)
+    {
+      // Don't create the dump on every page view
+      ret.addChild (info (EText.MSG_VIRTUAL_ON_DEMAND.getDisplayText (aDisplayLocale)));
+      ret.addChild (new BootstrapButton ().addChild (EText.MSG_VIRTUAL_LOAD.getDisplayText (aDisplayLocale))
+                                          .setOnClick (aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_VIRTUAL)));
+      return ret;
+    }
+
+    final VirtualThreadDump aDump = VirtualThreadDump.createOrNull ();
+    if (aDump == null)
+    {
+      ret.addChild (error (EText.MSG_VIRTUAL_FAILED.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    final ICommonsList <VirtualThreadDump.ThreadEntry> aAllThreads = aDump.getAllThreads ();
+    final ICommonsList <VirtualThreadDump.ThreadEntry> aVirtualThreads = aAllThreads.getAll (VirtualThreadDump.ThreadEntry::isVirtual);
+    final ICommonsList <VirtualThreadDump.ThreadEntry> aPinnedThreads = aVirtualThreads.getAll (VirtualThreadDump.ThreadEntry::isPinned);
+    final ICommonsMap <Long, VirtualThreadDump.ThreadEntry> aPlatformThreads = new CommonsHashMap <> ();
+    for (final VirtualThreadDump.ThreadEntry aEntry : aAllThreads)
+      if (!aEntry.isVirtual ())
+        aPlatformThreads.put (Long.valueOf (aEntry.getID ()), aEntry);
+
+    ret.addChild (div (EText.MSG_VIRTUAL_SUMMARY.getDisplayTextWithArgs (aDisplayLocale,
+                                                                         Integer.valueOf (aPlatformThreads.size ()),
+                                                                         Integer.valueOf (aVirtualThreads.size ()),
+                                                                         Integer.valueOf (aPinnedThreads.size ()))).addClass (CBootstrapCSS.MB_2));
+
+    // Pinned virtual threads first
+    if (aPinnedThreads.isNotEmpty ())
+    {
+      ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_PINNED.getDisplayText (aDisplayLocale)));
+      ret.addChild (warn (EText.MSG_PINNED_HELP.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      for (final VirtualThreadDump.ThreadEntry aEntry : aPinnedThreads)
+      {
+        final ICommonsList <String> aStack = aEntry.getStack ();
+        aTable.addBodyRow ()
+              .addClass (CBootstrapCSS.TABLE_WARNING)
+              .addCell (_getVirtualThreadDisplayName (aEntry))
+              .addCell (_createCollapsibleStack (EText.MSG_FRAMES.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                          Integer.valueOf (aStack.size ())),
+                                                 aStack));
+      }
+      ret.addChild (aTable);
+    }
+
+    // Thread containers
+    {
+      ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_CONTAINERS.getDisplayText (aDisplayLocale)));
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star (), HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_CONTAINER.getDisplayText (aDisplayLocale),
+                       EText.MSG_PARENT.getDisplayText (aDisplayLocale),
+                       EText.MSG_OWNER.getDisplayText (aDisplayLocale),
+                       EText.MSG_COUNT.getDisplayText (aDisplayLocale),
+                       EText.MSG_VIRTUAL_COUNT.getDisplayText (aDisplayLocale));
+      for (final VirtualThreadDump.ThreadContainer aContainer : aDump.getAllContainers ())
+      {
+        final HCRow aRow = aTable.addBodyRow ();
+        aRow.addCell (aContainer.getName ());
+        aRow.addCell (aContainer.getParent ());
+        aRow.addCell (aContainer.getOwnerID () < 0 ? "" : Long.toString (aContainer.getOwnerID ()));
+        aRow.addCell (Integer.toString (aContainer.getThreadCount ()));
+        aRow.addCell (Integer.toString (aContainer.getVirtualThreadCount ()));
+      }
+      ret.addChild (aTable);
+    }
+
+    // Carrier relationships - only contained in the dumps of newer Java versions
+    {
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_VIRTUAL_THREAD.getDisplayText (aDisplayLocale),
+                       EText.MSG_STATE.getDisplayText (aDisplayLocale),
+                       EText.MSG_CARRIER.getDisplayText (aDisplayLocale));
+      for (final VirtualThreadDump.ThreadEntry aEntry : aVirtualThreads)
+        if (aEntry.getCarrierID () >= 0)
+        {
+          final VirtualThreadDump.ThreadEntry aCarrier = aPlatformThreads.get (Long.valueOf (aEntry.getCarrierID ()));
+          final HCRow aRow = aTable.addBodyRow ();
+          if (aEntry.isPinned ())
+            aRow.addClass (CBootstrapCSS.TABLE_WARNING);
+          aRow.addCell (_getVirtualThreadDisplayName (aEntry));
+          aRow.addCell (aEntry.getState ());
+          aRow.addCell (aCarrier != null ? _getVirtualThreadDisplayName (aCarrier) : Long.toString (aEntry.getCarrierID ()));
+        }
+      if (aTable.hasBodyRows ())
+      {
+        ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_CARRIERS.getDisplayText (aDisplayLocale)));
+        ret.addChild (aTable);
+      }
+    }
+
+    // Virtual threads grouped by identical stacks, as there may be many of them
+    {
+      final ICommonsMap <ICommonsList <String>, ICommonsList <VirtualThreadDump.ThreadEntry>> aGroups = new CommonsLinkedHashMap <> ();
+      for (final VirtualThreadDump.ThreadEntry aEntry : aVirtualThreads)
+        aGroups.computeIfAbsent (aEntry.getStack (), k -> new CommonsArrayList <> ()).add (aEntry);
+      final ICommonsList <Map.Entry <ICommonsList <String>, ICommonsList <VirtualThreadDump.ThreadEntry>>> aSortedGroups = new CommonsArrayList <> (aGroups.entrySet ());
+      aSortedGroups.sort (Comparator.comparingInt ( (final Map.Entry <ICommonsList <String>, ICommonsList <VirtualThreadDump.ThreadEntry>> x) -> x.getValue ()
+                                                                                                                                                   .size ())
+                                    .reversed ());
+
+      if (aSortedGroups.isNotEmpty ())
+      {
+        ret.addChild (getUIHandler ().createDataGroupHeader (EText.MSG_VIRTUAL_STACK_GROUPS.getDisplayText (aDisplayLocale)));
+        final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+        aTable.setStriped (true).setCondensed (true);
+        for (final Map.Entry <ICommonsList <String>, ICommonsList <VirtualThreadDump.ThreadEntry>> aGroup : aSortedGroups.subList (0,
+                                                                                                                                   Math.min (MAX_VIRTUAL_STACK_GROUPS,
+                                                                                                                                             aSortedGroups.size ())))
+        {
+          final ICommonsList <String> aStack = aGroup.getKey ();
+          final HCRow aRow = aTable.addBodyRow ();
+          aRow.addCell (EText.MSG_VIRTUAL_STACK_GROUP.getDisplayTextWithArgs (aDisplayLocale,
+                                                                              Integer.valueOf (aGroup.getValue ().size ())));
+          aRow.addCell (_createCollapsibleStack (EText.MSG_FRAMES.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                          Integer.valueOf (aStack.size ())),
+                                                 aStack));
+        }
+        ret.addChild (aTable);
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  protected void fillContent (@NonNull final WPECTYPE aWPEC)
+  {
+    final HCNodeList aNodeList = aWPEC.getNodeList ();
+    final Locale aDisplayLocale = aWPEC.getDisplayLocale ();
+
+    // Take a single dump with monitor and synchronizer information
+    final ThreadDumpAnalysis aAnalysis = ThreadDumpAnalysis.createForAllThreads ();
+
+    aNodeList.addChild (getUIHandler ().createActionHeader (EText.MSG_HEADER.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                     Integer.valueOf (aAnalysis.getAllThreads ()
+                                                                                                                               .size ()),
+                                                                                                     PDTToString.getAsString (PDTFactory.getCurrentLocalDateTime (),
+                                                                                                                              aDisplayLocale))));
+
+    // The virtual thread dump is only created when explicitly requested
+    final boolean bCreateVirtualDump = ACTION_VIRTUAL.equals (aWPEC.params ().getAsString (CPageParam.PARAM_ACTION));
+
+    final BootstrapTabBox aTabBox = new BootstrapTabBox ();
+    aTabBox.addTab ("analysis", EText.MSG_TAB_ANALYSIS.getDisplayText (aDisplayLocale), _createAnalysis (aWPEC, aAnalysis));
+    aTabBox.addTab ("threads", EText.MSG_TAB_THREADS.getDisplayText (aDisplayLocale), _createThreadList (aWPEC, aAnalysis));
+    aTabBox.addTab (TAB_VIRTUAL,
+                    EText.MSG_TAB_VIRTUAL.getDisplayText (aDisplayLocale),
+                    _createVirtualThreads (aWPEC, bCreateVirtualDump));
+    if (bCreateVirtualDump)
+      aTabBox.setActiveTabID (TAB_VIRTUAL);
+    aNodeList.addChild (aTabBox);
   }
 }
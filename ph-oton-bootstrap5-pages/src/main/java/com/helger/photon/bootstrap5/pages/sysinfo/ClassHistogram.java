@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringParser;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.datetime.helper.PDTFactory;
+
+/**
+ * A single snapshot of the <code>GC.class_histogram</code> output, with the
+ * number of live instances and their shallow size per class.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ClassHistogram
+{
+  /**
+   * A single class of the histogram.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Entry
+  {
+    private final String m_sClassName;
+    private final long m_nInstances;
+    private final long m_nBytes;
+
+    Entry (@NonNull final String sClassName, final long nInstances, final long nBytes)
+    {
+      m_sClassName = sClassName;
+      m_nInstances = nInstances;
+      m_nBytes = nBytes;
+    }
+
+    @NonNull
+    public String getClassName ()
+    {
+      return m_sClassName;
+    }
+
+    public long getInstances ()
+    {
+      return m_nInstances;
+    }
+
+    /**
+     * @return The shallow size of all instances in bytes.
+     */
+    public long getBytes ()
+    {
+      return m_nBytes;
+    }
+  }
+
+  /**
+   * The growth of a single class between two snapshots.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Growth
+  {
+    private final Entry m_aCurrent;
+    private final long m_nInstanceDelta;
+    private final long m_nByteDelta;
+
+    Growth (@NonNull final Entry aCurrent, final long nInstanceDelta, final long nByteDelta)
+    {
+      m_aCurrent = aCurrent;
+      m_nInstanceDelta = nInstanceDelta;
+      m_nByteDelta = nByteDelta;
+    }
+
+    @NonNull
+    public Entry getCurrent ()
+    {
+      return m_aCurrent;
+    }
+
+    public long getInstanceDelta ()
+    {
+      return m_nInstanceDelta;
+    }
+
+    public long getByteDelta ()
+    {
+      return m_nByteDelta;
+    }
+  }
+
+  // E.g. "   1:         12345        1234567  [B (java.base@17.0.2)"
+  private static final Pattern LINE = Pattern.compile ("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+).*$");
+
+  private final int m_nID;
+  private final LocalDateTime m_aDateTime;
+  // Sorted by bytes descending, as emitted by the JVM
+  private final ICommonsList <Entry> m_aEntries;
+  private final long m_nTotalInstances;
+  private final long m_nTotalBytes;
+
+  ClassHistogram (final int nID, @NonNull final LocalDateTime aDateTime, @NonNull final ICommonsList <Entry> aEntries)
+  {
+    m_nID = nID;
+    m_aDateTime = aDateTime;
+    m_aEntries = aEntries;
+    long nInstances = 0;
+    long nBytes = 0;
+    for (final Entry aEntry : aEntries)
+    {
+      nInstances += aEntry.getInstances ();
+      nBytes += aEntry.getBytes ();
+    }
+    m_nTotalInstances = nInstances;
+    m_nTotalBytes = nBytes;
+  }
+
+  /**
+   * @return The ID of the snapshot, unique within the
+   *         {@link ClassHistogramManager}.
+   */
+  public int getID ()
+  {
+    return m_nID;
+  }
+
+  @NonNull
+  public LocalDateTime getDateTime ()
+  {
+    return m_aDateTime;
+  }
+
+  @Nonnegative
+  public int getClassCount ()
+  {
+    return m_aEntries.size ();
+  }
+
+  public long getTotalInstances ()
+  {
+    return m_nTotalInstances;
+  }
+
+  public long getTotalBytes ()
+  {
+    return m_nTotalBytes;
+  }
+
+  /**
+   * @param nTopN
+   *        The maximum number of entries to return.
+   * @param aComparator
+   *        The sort order. The largest elements according to this comparator
+   *        are returned. May not be <code>null</code>.
+   * @return The top N entries. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getTopEntries (@Nonnegative final int nTopN, @NonNull final Comparator <Entry> aComparator)
+  {
+    final ICommonsList <Entry> ret = m_aEntries.getClone ();
+    ret.sort (aComparator.reversed ());
+    return ret.size () <= nTopN ? ret : new CommonsArrayList <> (ret.subList (0, nTopN));
+  }
+
+  /**
+   * Determine the classes that grew the most compared to an older snapshot.
+   *
+   * @param aOlder
+   *        The older snapshot to compare to. May not be <code>null</code>.
+   * @param nTopN
+   *        The maximum number of entries to return.
+   * @return The classes with a positive byte growth, largest growth first.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Growth> getGrowthSince (@NonNull final ClassHistogram aOlder, @Nonnegative final int nTopN)
+  {
+    ValueEnforcer.notNull (aOlder, "Older");
+
+    final ICommonsMap <String, Entry> aOldMap = new CommonsHashMap <> (aOlder.m_aEntries.size ());
+    for (final Entry aEntry : aOlder.m_aEntries)
+      aOldMap.put (aEntry.getClassName (), aEntry);
+
+    final ICommonsList <Growth> ret = new CommonsArrayList <> ();
+    for (final Entry aEntry : m_aEntries)
+    {
+      final Entry aOld = aOldMap.get (aEntry.getClassName ());
+      final long nInstanceDelta = aEntry.getInstances () - (aOld == null ? 0 : aOld.getInstances ());
+      final long nByteDelta = aEntry.getBytes () - (aOld == null ? 0 : aOld.getBytes ());
+      if (nByteDelta > 0)
+        ret.add (new Growth (aEntry, nInstanceDelta, nByteDelta));
+    }
+    ret.sort (Comparator.comparingLong (Growth::getByteDelta).reversed ());
+    return ret.size () <= nTopN ? ret : new CommonsArrayList <> (ret.subList (0, nTopN));
+  }
+
+  /**
+   * Parse the textual output of <code>GC.class_histogram</code>.
+   *
+   * @param nID
+   *        The snapshot ID to use
+   * @param sOutput
+   *        The command output. May be <code>null</code>.
+   * @return The parsed histogram. Never <code>null</code>.
+   */
+  @NonNull
+  public static ClassHistogram parse (final int nID, @Nullable final String sOutput)
+  {
+    final ICommonsList <Entry> aEntries = new CommonsArrayList <> ();
+    if (sOutput != null)
+      for (final String sLine : sOutput.split ("\\R"))
+      {
+        final Matcher aMatcher = LINE.matcher (sLine);
+        if (aMatcher.matches ())
+          aEntries.add (new Entry (aMatcher.group (3),
+                                   StringParser.parseLong (aMatcher.group (1), 0),
+                                   StringParser.parseLong (aMatcher.group (2), 0)));
+      }
+    return new ClassHistogram (nID, PDTFactory.getCurrentLocalDateTime (), aEntries);
+  }
+}
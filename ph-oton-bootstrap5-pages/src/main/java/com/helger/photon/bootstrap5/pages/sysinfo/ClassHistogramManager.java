@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import javax.management.JMException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * Keeps the most recent {@link ClassHistogram} snapshots, so that they can be
+ * compared with each other.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ClassHistogramManager extends AbstractGlobalSingleton
+{
+  /** The maximum number of snapshots kept. The oldest one is dropped first. */
+  public static final int MAX_SNAPSHOTS = 10;
+
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsList <ClassHistogram> m_aSnapshots = new CommonsArrayList <> ();
+  @GuardedBy ("m_aRWLock")
+  private int m_nNextID = 1;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private ClassHistogramManager ()
+  {}
+
+  @NonNull
+  public static ClassHistogramManager getInstance ()
+  {
+    return getGlobalSingleton (ClassHistogramManager.class);
+  }
+
+  /**
+   * Create a new snapshot of the current class histogram and remember it.
+   *
+   * @return The new snapshot. Never <code>null</code>.
+   * @throws JMException
+   *         If the histogram could not be created
+   */
+  @NonNull
+  public ClassHistogram createSnapshot () throws JMException
+  {
+    // Run outside of the lock - this triggers a full GC
+    final String sOutput = DiagnosticCommandHelper.getClassHistogram ();
+    return m_aRWLock.writeLockedGet ( () -> {
+      final ClassHistogram ret = ClassHistogram.parse (m_nNextID++, sOutput);
+      m_aSnapshots.add (ret);
+      while (m_aSnapshots.size () > MAX_SNAPSHOTS)
+        m_aSnapshots.remove (0);
+      return ret;
+    });
+  }
+
+  /**
+   * @return All snapshots, oldest first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ClassHistogram> getAllSnapshots ()
+  {
+    return m_aRWLock.readLockedGet (m_aSnapshots::getClone);
+  }
+
+  @Nullable
+  public ClassHistogram getSnapshotOfID (final int nID)
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aSnapshots.findFirst (x -> x.getID () == nID));
+  }
+
+  public void removeAllSnapshots ()
+  {
+    m_aRWLock.writeLocked (m_aSnapshots::clear);
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.io.file.FileOperationManager;
+import com.helger.photon.io.WebFileIO;
+
+/**
+ * Utility methods around the HotSpot DiagnosticCommand MBean, which offers the
+ * same commands as <code>jcmd</code> without the need for shell access. Heap
+ * dumps are written gzip compressed into the data path and only the last
+ * {@link #MAX_HEAP_DUMP_FILES} are kept.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class DiagnosticCommandHelper
+{
+  /** The directory inside the data path where heap dumps are written to */
+  public static final String HEAP_DUMP_DIRECTORY_NAME = "heapdump";
+  /** The file extension of compressed heap dumps */
+  public static final String HEAP_DUMP_EXTENSION = ".hprof.gz";
+  /** The gzip compression level used for heap dumps (1-9) */
+  public static final int HEAP_DUMP_COMPRESSION_LEVEL = 1;
+  /** The maximum number of heap dump files to keep */
+  public static final int MAX_HEAP_DUMP_FILES = 5;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (DiagnosticCommandHelper.class);
+  private static final String OBJECT_NAME = "com.sun.management:type=DiagnosticCommand";
+  private static final Pattern HEAP_DUMP_NAME = Pattern.compile ("heap-[0-9\\-]+" + Pattern.quote (HEAP_DUMP_EXTENSION));
+  private static final DateTimeFormatter HEAP_DUMP_TIMESTAMP = DateTimeFormatter.ofPattern ("uuuuMMdd-HHmmss",
+                                                                                           Locale.ROOT);
+
+  @PresentForCodeCoverage
+  private static final DiagnosticCommandHelper INSTANCE = new DiagnosticCommandHelper ();
+
+  private DiagnosticCommandHelper ()
+  {}
+
+  /**
+   * Invoke a diagnostic command.
+   *
+   * @param sOperation
+   *        The MBean operation name, e.g. <code>gcClassHistogram</code> for
+   *        <code>GC.class_histogram</code>. May neither be <code>null</code>
+   *        nor empty.
+   * @param aArgs
+   *        The command arguments, as on the <code>jcmd</code> command line.
+   * @return The textual command output. Never <code>null</code>.
+   * @throws JMException
+   *         If the MBean is not present or the command failed
+   */
+  @NonNull
+  public static String invoke (@NonNull @Nonempty final String sOperation, @NonNull final String... aArgs) throws JMException
+  {
+    ValueEnforcer.notEmpty (sOperation, "Operation");
+    ValueEnforcer.notNull (aArgs, "Args");
+
+    final MBeanServer aServer = ManagementFactory.getPlatformMBeanServer ();
+    final Object aResult = aServer.invoke (new ObjectName (OBJECT_NAME),
+                                           sOperation,
+                                           new Object [] { aArgs },
+                                           new String [] { String [].class.getName () });
+    return aResult == null ? "" : aResult.toString ();
+  }
+
+  /**
+   * @return The output of <code>GC.class_histogram</code>. This triggers a
+   *         full GC, so that only live objects are counted.
+   * @throws JMException
+   *         If the MBean is not present or the command failed
+   */
+  @NonNull
+  public static String getClassHistogram () throws JMException
+  {
+    return invoke ("gcClassHistogram");
+  }
+
+  @NonNull
+  public static File getHeapDumpDirectory ()
+  {
+    return WebFileIO.getDataIO ().getFile (HEAP_DUMP_DIRECTORY_NAME);
+  }
+
+  /**
+   * Get an existing heap dump file by name. Only names created by
+   * {@link #createHeapDump()} are accepted, so this is safe for request
+   * parameters.
+   *
+   * @param sFilename
+   *        The file name without path. May be <code>null</code>.
+   * @return <code>null</code> if the name is invalid or no such file exists.
+   */
+  @Nullable
+  public static File getHeapDumpFile (@Nullable final String sFilename)
+  {
+    if (sFilename == null || !HEAP_DUMP_NAME.matcher (sFilename).matches ())
+      return null;
+    final File aFile = new File (getHeapDumpDirectory (), sFilename);
+    return aFile.isFile () ? aFile : null;
+  }
+
+  /**
+   * @return All existing heap dump files, newest first. Never
+   *         <code>null</code> but maybe empty.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <File> getAllHeapDumpFiles ()
+  {
+    final ICommonsList <File> ret = new CommonsArrayList <> ();
+    final File [] aFiles = getHeapDumpDirectory ().listFiles ();
+    if (aFiles != null)
+      for (final File aFile : aFiles)
+        if (aFile.isFile () && HEAP_DUMP_NAME.matcher (aFile.getName ()).matches ())
+          ret.add (aFile);
+    // The timestamp in the name sorts chronologically
+    ret.sort ( (x, y) -> y.getName ().compareTo (x.getName ()));
+    return ret;
+  }
+
+  /**
+   * @return A new, not yet existing heap dump file in
+   *         {@link #getHeapDumpDirectory()}. Never <code>null</code>.
+   */
+  @NonNull
+  public static File getNewHeapDumpFile ()
+  {
+    final File aDir = getHeapDumpDirectory ();
+    final LocalDateTime aNow = PDTFactory.getCurrentLocalDateTime ();
+    File aFile = new File (aDir, "heap-" + HEAP_DUMP_TIMESTAMP.format (aNow) + HEAP_DUMP_EXTENSION);
+    // The command refuses to overwrite files
+    int nIndex = 1;
+    while (aFile.exists ())
+      aFile = new File (aDir, "heap-" + HEAP_DUMP_TIMESTAMP.format (aNow) + "-" + nIndex++ + HEAP_DUMP_EXTENSION);
+    return aFile;
+  }
+
+  /**
+   * Delete the oldest heap dump files, so that at most
+   * {@link #MAX_HEAP_DUMP_FILES} are kept including the one about to be
+   * written. The file currently written by {@link HeapDumpJob} is never
+   * deleted.
+   */
+  private static void _deleteOldHeapDumpFiles (@NonNull final File aNewFile)
+  {
+    final HeapDumpJob aJob = HeapDumpJob.getInstance ();
+    // Newest first
+    final ICommonsList <File> aFiles = getAllHeapDumpFiles ().getAll (x -> !x.equals (aNewFile) &&
+                                                                          !aJob.isFileInProgress (x));
+    for (int i = MAX_HEAP_DUMP_FILES - 1; i < aFiles.size (); ++i)
+    {
+      LOGGER.info ("Deleting old heap dump " + aFiles.get (i).getAbsolutePath ());
+      FileOperationManager.INSTANCE.deleteFileIfExisting (aFiles.get (i));
+    }
+  }
+
+  /**
+   * Write a gzip compressed heap dump of the live objects into
+   * {@link #getHeapDumpDirectory()}. This may take a while and pauses the JVM.
+   * Older heap dumps are deleted, so that at most {@link #MAX_HEAP_DUMP_FILES}
+   * are kept.
+   *
+   * @return The created file. Never <code>null</code>.
+   * @throws JMException
+   *         If the MBean is not present or the dump failed
+   * @see HeapDumpJob
+   */
+  @NonNull
+  public static File createHeapDump () throws JMException
+  {
+    return createHeapDump (getNewHeapDumpFile ());
+  }
+
+  /**
+   * Write a gzip compressed heap dump of the live objects into the provided
+   * file. This may take a while and pauses the JVM. Older heap dumps are
+   * deleted, so that at most {@link #MAX_HEAP_DUMP_FILES} are kept.
+   *
+   * @param aFile
+   *        The file to write to. Must not exist yet. Use
+   *        {@link #getNewHeapDumpFile()} to get one.
+   * @return The created file. Never <code>null</code>.
+   * @throws JMException
+   *         If the MBean is not present or the dump failed
+   */
+  @NonNull
+  public static File createHeapDump (@NonNull final File aFile) throws JMException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+    FileOperationManager.INSTANCE.createDirRecursiveIfNotExisting (aFile.getParentFile ());
+    _deleteOldHeapDumpFiles (aFile);
+
+    LOGGER.info ("Creating heap dump " + aFile.getAbsolutePath ());
+    final String sOutput = invoke ("gcHeapDump", "-gz=" + HEAP_DUMP_COMPRESSION_LEVEL, aFile.getAbsolutePath ());
+    if (!aFile.isFile ())
+      throw new JMException ("Heap dump was not created: " + sOutput.trim ());
+    LOGGER.info ("Finished heap dump " + aFile.getAbsolutePath () + " with " + aFile.length () + " bytes");
+    return aFile;
+  }
+
+  public static void deleteHeapDump (@Nullable final String sFilename)
+  {
+    final File aFile = getHeapDumpFile (sFilename);
+    if (aFile != null)
+      FileOperationManager.INSTANCE.deleteFileIfExisting (aFile);
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.management.JMException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * Creates heap dumps via {@link DiagnosticCommandHelper} in a background
+ * thread, so that the request creating it does not block for the duration of
+ * the dump. Only one heap dump can be created at a time and the state of the
+ * last one is kept.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class HeapDumpJob extends AbstractGlobalSingleton
+{
+  /**
+   * The state of a single heap dump run.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Run
+  {
+    private final File m_aFile;
+    private final LocalDateTime m_aStartDT;
+    private final LocalDateTime m_aEndDT;
+    private final String m_sErrorMessage;
+
+    Run (@NonNull final File aFile,
+         @NonNull final LocalDateTime aStartDT,
+         @Nullable final LocalDateTime aEndDT,
+         @Nullable final String sErrorMessage)
+    {
+      m_aFile = aFile;
+      m_aStartDT = aStartDT;
+      m_aEndDT = aEndDT;
+      m_sErrorMessage = sErrorMessage;
+    }
+
+    /**
+     * @return The heap dump file. It is incomplete as long as the run is
+     *         running. Never <code>null</code>.
+     */
+    @NonNull
+    public File getFile ()
+    {
+      return m_aFile;
+    }
+
+    @NonNull
+    public LocalDateTime getStartDateTime ()
+    {
+      return m_aStartDT;
+    }
+
+    /**
+     * @return The end of the run or <code>null</code> if it is still running.
+     */
+    @Nullable
+    public LocalDateTime getEndDateTime ()
+    {
+      return m_aEndDT;
+    }
+
+    public boolean isRunning ()
+    {
+      return m_aEndDT == null;
+    }
+
+    /**
+     * @return The error message if the run failed, <code>null</code>
+     *         otherwise.
+     */
+    @Nullable
+    public String getErrorMessage ()
+    {
+      return m_sErrorMessage;
+    }
+
+    public boolean isFailed ()
+    {
+      return m_sErrorMessage != null;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (HeapDumpJob.class);
+
+  private ExecutorService m_aExecutor;
+  @GuardedBy ("m_aRWLock")
+  private Run m_aLastRun;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private HeapDumpJob ()
+  {}
+
+  @NonNull
+  public static HeapDumpJob getInstance ()
+  {
+    return getGlobalSingleton (HeapDumpJob.class);
+  }
+
+  @Override
+  protected void onAfterInstantiation (@NonNull final IScope aScope)
+  {
+    m_aExecutor = Executors.newSingleThreadExecutor (r -> {
+      final Thread t = new Thread (r, "ph-heap-dump");
+      t.setDaemon (true);
+      return t;
+    });
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    // A running dump cannot be interrupted
+    if (m_aExecutor != null)
+      m_aExecutor.shutdown ();
+  }
+
+  /**
+   * @return The current or last run. May be <code>null</code> if no heap dump
+   *         was started yet.
+   */
+  @Nullable
+  public Run getLastRun ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aLastRun);
+  }
+
+  /**
+   * @return <code>true</code> if a heap dump is currently being created.
+   */
+  public boolean isRunning ()
+  {
+    final Run aRun = getLastRun ();
+    return aRun != null && aRun.isRunning ();
+  }
+
+  /**
+   * Check if the provided file is the heap dump that is currently being
+   * written. Such a file must neither be downloaded nor deleted.
+   *
+   * @param aFile
+   *        The file to check. May be <code>null</code>.
+   * @return <code>true</code> if the file is currently being written.
+   */
+  public boolean isFileInProgress (@Nullable final File aFile)
+  {
+    final Run aRun = getLastRun ();
+    return aFile != null && aRun != null && aRun.isRunning () && aRun.getFile ().equals (aFile);
+  }
+
+  private void _finish (@NonNull final Run aRun, @Nullable final String sErrorMessage)
+  {
+    m_aRWLock.writeLocked ( () -> m_aLastRun = new Run (aRun.getFile (),
+                                                        aRun.getStartDateTime (),
+                                                        PDTFactory.getCurrentLocalDateTime (),
+                                                        sErrorMessage));
+  }
+
+  /**
+   * Start creating a new heap dump in the background.
+   *
+   * @return The new run or <code>null</code> if a heap dump is already being
+   *         created.
+   */
+  @Nullable
+  public Run start ()
+  {
+    final Run aRun = m_aRWLock.writeLockedGet ( () -> {
+      if (m_aLastRun != null && m_aLastRun.isRunning ())
+        return null;
+      m_aLastRun = new Run (DiagnosticCommandHelper.getNewHeapDumpFile (),
+                            PDTFactory.getCurrentLocalDateTime (),
+                            null,
+                            null);
+      return m_aLastRun;
+    });
+    if (aRun != null)
+      m_aExecutor.execute ( () -> {
+        try
+        {
+          DiagnosticCommandHelper.createHeapDump (aRun.getFile ());
+          _finish (aRun, null);
+        }
+        catch (final JMException | RuntimeException ex)
+        {
+          LOGGER.error ("Failed to create heap dump " + aRun.getFile ().getAbsolutePath (), ex);
+          _finish (aRun, ex.getMessage () != null ? ex.getMessage () : ex.getClass ().getName ());
+        }
+      });
+    return aRun;
+  }
+}
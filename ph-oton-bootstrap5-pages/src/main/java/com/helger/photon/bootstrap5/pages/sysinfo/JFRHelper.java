@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.io.file.FileOperationManager;
+import com.helger.photon.io.WebFileIO;
+
+import jdk.management.jfr.FlightRecorderMXBean;
+import jdk.management.jfr.RecordingInfo;
+
+/**
+ * Some utility methods to control Java Flight Recorder recordings of the
+ * running JVM via {@link FlightRecorderMXBean}.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class JFRHelper
+{
+  /** The directory inside the data path where recordings are dumped to */
+  public static final String DIRECTORY_NAME = "jfr";
+  /** The maximum number of dump files kept in {@link #DIRECTORY_NAME} */
+  public static final int MAX_DUMP_FILES = 5;
+  private static final Pattern DUMP_FILE_NAME = Pattern.compile ("recording-\\d+\\.jfr");
+
+  /**
+   * Predefined recording profiles.
+   *
+   * @author Philip Helger
+   */
+  public enum EProfile implements IHasID <String>
+  {
+    /** Low overhead, continuously running, keeping the last hour */
+    CONTINUOUS ("continuous", "default", null, "1 h", 256L * 1024 * 1024),
+    /** Detailed profiling for 60 seconds */
+    DETAILED_60S ("detailed60", "profile", "60 s", null, 0);
+
+    private final String m_sID;
+    private final String m_sConfiguration;
+    private final String m_sDuration;
+    private final String m_sMaxAge;
+    private final long m_nMaxSize;
+
+    EProfile (@NonNull @Nonempty final String sID,
+              @NonNull @Nonempty final String sConfiguration,
+              @Nullable final String sDuration,
+              @Nullable final String sMaxAge,
+              final long nMaxSize)
+    {
+      m_sID = sID;
+      m_sConfiguration = sConfiguration;
+      m_sDuration = sDuration;
+      m_sMaxAge = sMaxAge;
+      m_nMaxSize = nMaxSize;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getID ()
+    {
+      return m_sID;
+    }
+
+    /**
+     * @return The name of the predefined JFR configuration ("default" or
+     *         "profile").
+     */
+    @NonNull
+    @Nonempty
+    public String getConfiguration ()
+    {
+      return m_sConfiguration;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    ICommonsMap <String, String> getRecordingOptions ()
+    {
+      final ICommonsMap <String, String> ret = new CommonsHashMap <> ();
+      ret.put ("name", "ph-oton-" + m_sID);
+      ret.put ("disk", "true");
+      if (m_sDuration != null)
+        ret.put ("duration", m_sDuration);
+      if (m_sMaxAge != null)
+        ret.put ("maxAge", m_sMaxAge);
+      if (m_nMaxSize > 0)
+        ret.put ("maxSize", Long.toString (m_nMaxSize));
+      return ret;
+    }
+
+    @Nullable
+    public static EProfile getFromIDOrNull (@Nullable final String sID)
+    {
+      return EnumHelper.getFromIDOrNull (EProfile.class, sID);
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (JFRHelper.class);
+
+  @PresentForCodeCoverage
+  private static final JFRHelper INSTANCE = new JFRHelper ();
+
+  private JFRHelper ()
+  {}
+
+  /**
+   * @return The flight recorder MXBean or <code>null</code> if JFR is not
+   *         available in this JVM.
+   */
+  @Nullable
+  public static FlightRecorderMXBean getMXBean ()
+  {
+    try
+    {
+      return ManagementFactory.getPlatformMXBean (FlightRecorderMXBean.class);
+    }
+    catch (final IllegalArgumentException | LinkageError ex)
+    {
+      // Module jdk.management.jfr not present
+      LOGGER.warn ("Java Flight Recorder is not available: " + ex.getMessage ());
+      return null;
+    }
+  }
+
+  /**
+   * @return All recordings of the JVM. Never <code>null</code> but maybe
+   *         empty.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <RecordingInfo> getAllRecordings ()
+  {
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    return aMXBean == null ? new CommonsArrayList <> () : new CommonsArrayList <> (aMXBean.getRecordings ());
+  }
+
+  @Nullable
+  public static RecordingInfo getRecordingOfID (final long nRecordingID)
+  {
+    return getAllRecordings ().findFirst (x -> x.getId () == nRecordingID);
+  }
+
+  /**
+   * Start a new recording with the provided profile.
+   *
+   * @param eProfile
+   *        The profile to use. May not be <code>null</code>.
+   * @return The ID of the new recording
+   * @throws IllegalStateException
+   *         If JFR is not available
+   */
+  public static long startRecording (@NonNull final EProfile eProfile)
+  {
+    ValueEnforcer.notNull (eProfile, "Profile");
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    if (aMXBean == null)
+      throw new IllegalStateException ("Java Flight Recorder is not available");
+
+    final long nID = aMXBean.newRecording ();
+    aMXBean.setPredefinedConfiguration (nID, eProfile.getConfiguration ());
+    aMXBean.setRecordingOptions (nID, eProfile.getRecordingOptions ());
+    aMXBean.startRecording (nID);
+    LOGGER.info ("Started JFR recording " + nID + " with profile " + eProfile);
+    return nID;
+  }
+
+  public static void stopRecording (final long nRecordingID)
+  {
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    if (aMXBean != null)
+    {
+      aMXBean.stopRecording (nRecordingID);
+      LOGGER.info ("Stopped JFR recording " + nRecordingID);
+    }
+  }
+
+  /**
+   * Create a snapshot of all running recordings. The snapshot is a new,
+   * stopped recording.
+   *
+   * @return The ID of the snapshot recording or -1 if JFR is not available.
+   */
+  public static long takeSnapshot ()
+  {
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    if (aMXBean == null)
+      return -1;
+    final long nID = aMXBean.takeSnapshot ();
+    LOGGER.info ("Created JFR snapshot " + nID);
+    return nID;
+  }
+
+  /**
+   * Close a recording and delete the dump file, if any.
+   *
+   * @param nRecordingID
+   *        The recording to close.
+   */
+  public static void closeRecording (final long nRecordingID)
+  {
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    if (aMXBean != null)
+    {
+      aMXBean.closeRecording (nRecordingID);
+      FileOperationManager.INSTANCE.deleteFileIfExisting (getDumpFile (nRecordingID));
+      LOGGER.info ("Closed JFR recording " + nRecordingID);
+    }
+  }
+
+  @NonNull
+  public static File getDumpFile (final long nRecordingID)
+  {
+    return WebFileIO.getDataIO ().getFile (DIRECTORY_NAME + "/recording-" + nRecordingID + ".jfr");
+  }
+
+  /**
+   * Delete the oldest dump files, so that at most {@link #MAX_DUMP_FILES} are
+   * kept including the one about to be written.
+   */
+  private static void _deleteOldDumpFiles (@NonNull final File aNewFile)
+  {
+    final File [] aFiles = aNewFile.getParentFile ()
+                                   .listFiles ( (d, n) -> DUMP_FILE_NAME.matcher (n).matches () &&
+                                                          !n.equals (aNewFile.getName ()));
+    if (aFiles != null && aFiles.length >= MAX_DUMP_FILES)
+    {
+      Arrays.sort (aFiles, Comparator.comparingLong (File::lastModified));
+      for (int i = 0; i <= aFiles.length - MAX_DUMP_FILES; ++i)
+        FileOperationManager.INSTANCE.deleteFileIfExisting (aFiles[i]);
+    }
+  }
+
+  /**
+   * Write the current data of a recording to {@link #getDumpFile(long)}. This
+   * works for running and for stopped recordings. Older dump files are
+   * deleted, so that at most {@link #MAX_DUMP_FILES} are kept.
+   *
+   * @param nRecordingID
+   *        The recording to dump.
+   * @return The dump file or <code>null</code> if the recording could not be
+   *         dumped.
+   */
+  @Nullable
+  public static File dumpRecording (final long nRecordingID)
+  {
+    final FlightRecorderMXBean aMXBean = getMXBean ();
+    if (aMXBean == null)
+      return null;
+
+    final File aFile = getDumpFile (nRecordingID);
+    FileOperationManager.INSTANCE.createDirRecursiveIfNotExisting (aFile.getParentFile ());
+    _deleteOldDumpFiles (aFile);
+    try
+    {
+      aMXBean.copyTo (nRecordingID, aFile.getAbsolutePath ());
+      return aFile;
+    }
+    catch (final Exception ex)
+    {
+      LOGGER.error ("Failed to dump JFR recording " + nRecordingID + " to " + aFile.getAbsolutePath (), ex);
+      return null;
+    }
+  }
+
+  /**
+   * @param aInfo
+   *        The recording. May not be <code>null</code>.
+   * @return The file name offered for download. Never <code>null</code>.
+   */
+  @NonNull
+  public static String getDownloadFilename (@NonNull final RecordingInfo aInfo)
+  {
+    return "recording-" + aInfo.getId () + "-" + aInfo.getName ().replaceAll ("[^A-Za-z0-9_.-]", "_").toLowerCase (Locale.ROOT) + ".jfr";
+  }
+}
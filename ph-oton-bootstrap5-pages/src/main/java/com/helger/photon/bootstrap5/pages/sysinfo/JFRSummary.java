@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summary of a JFR recording file: the top allocation sites, the hottest
+ * methods and the most contended locks. The file is read once with
+ * {@link RecordingFile} and only aggregated values are kept.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class JFRSummary
+{
+  /** The default number of entries per category */
+  public static final int DEFAULT_TOP_N = 20;
+
+  /**
+   * A single aggregated entry.
+   *
+   * @author Philip Helger
+   */
+  public static final class Entry
+  {
+    private final String m_sKey;
+    private long m_nCount;
+    private long m_nValue;
+
+    Entry (@NonNull final String sKey)
+    {
+      m_sKey = sKey;
+    }
+
+    /**
+     * @return The frame (for allocations and hot methods) or the lock class
+     *         plus frame (for contention).
+     */
+    @NonNull
+    public String getKey ()
+    {
+      return m_sKey;
+    }
+
+    /**
+     * @return The number of events.
+     */
+    @Nonnegative
+    public long getCount ()
+    {
+      return m_nCount;
+    }
+
+    /**
+     * @return The summed value: allocated bytes for allocations, 0 for hot
+     *         methods and the summed blocking time in nanoseconds for
+     *         contention.
+     */
+    @Nonnegative
+    public long getValue ()
+    {
+      return m_nValue;
+    }
+  }
+
+  private final long m_nEventCount;
+  private final ICommonsList <Entry> m_aAllocations;
+  private final ICommonsList <Entry> m_aHotMethods;
+  private final ICommonsList <Entry> m_aContention;
+
+  private JFRSummary (final long nEventCount,
+                      @NonNull final ICommonsList <Entry> aAllocations,
+                      @NonNull final ICommonsList <Entry> aHotMethods,
+                      @NonNull final ICommonsList <Entry> aContention)
+  {
+    m_nEventCount = nEventCount;
+    m_aAllocations = aAllocations;
+    m_aHotMethods = aHotMethods;
+    m_aContention = aContention;
+  }
+
+  @Nonnegative
+  public long getEventCount ()
+  {
+    return m_nEventCount;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getTopAllocationSites ()
+  {
+    return m_aAllocations.getClone ();
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getTopHotMethods ()
+  {
+    return m_aHotMethods.getClone ();
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getTopContention ()
+  {
+    return m_aContention.getClone ();
+  }
+
+  @NonNull
+  private static String _getTopFrame (@Nullable final RecordedStackTrace aStackTrace)
+  {
+    if (aStackTrace != null)
+      for (final RecordedFrame aFrame : aStackTrace.getFrames ())
+        if (aFrame.isJavaFrame ())
+        {
+          final RecordedMethod aMethod = aFrame.getMethod ();
+          return aMethod.getType ().getName () + "." + aMethod.getName () + ":" + aFrame.getLineNumber ();
+        }
+    return "?";
+  }
+
+  private static void _add (@NonNull final ICommonsMap <String, Entry> aMap,
+                            @NonNull final String sKey,
+                            final long nValue)
+  {
+    final Entry aEntry = aMap.computeIfAbsent (sKey, Entry::new);
+    aEntry.m_nCount++;
+    aEntry.m_nValue += Math.max (0, nValue);
+  }
+
+  @NonNull
+  private static ICommonsList <Entry> _getTop (@NonNull final ICommonsMap <String, Entry> aMap,
+                                               @NonNull final Comparator <Entry> aComparator,
+                                               @Nonnegative final int nTopN)
+  {
+    final ICommonsList <Entry> ret = aMap.copyOfValues ();
+    ret.sort (aComparator.reversed ());
+    return ret.size () <= nTopN ? ret : new CommonsArrayList <> (ret.subList (0, nTopN));
+  }
+
+  @Nullable
+  private static String _getClassName (@NonNull final RecordedEvent aEvent, @NonNull final String sField)
+  {
+    if (!aEvent.hasField (sField))
+      return null;
+    final RecordedClass aClass = aEvent.getClass (sField);
+    return aClass == null ? null : aClass.getName ();
+  }
+
+  /**
+   * @return <code>true</code> if the parked class is a lock of
+   *         <code>java.util.concurrent.locks</code>, e.g.
+   *         <code>ReentrantLock$NonfairSync</code>.
+   */
+  private static boolean _isLockClass (@Nullable final String sClass)
+  {
+    return sClass != null && sClass.startsWith ("java.util.concurrent.locks.");
+  }
+
+  /**
+   * Read and summarize the provided recording file.
+   *
+   * @param aFile
+   *        The JFR file to read. May not be <code>null</code>.
+   * @param nTopN
+   *        The number of entries per category.
+   * @return The summary. Never <code>null</code>.
+   * @throws IOException
+   *         If the file cannot be read
+   */
+  @NonNull
+  public static JFRSummary createFromFile (@NonNull final Path aFile, @Nonnegative final int nTopN) throws IOException
+  {
+    final ICommonsMap <String, Entry> aAllocations = new CommonsHashMap <> ();
+    final ICommonsMap <String, Entry> aHotMethods = new CommonsHashMap <> ();
+    final ICommonsMap <String, Entry> aContention = new CommonsHashMap <> ();
+    long nEventCount = 0;
+
+    try (final RecordingFile aRecordingFile = new RecordingFile (aFile))
+    {
+      while (aRecordingFile.hasMoreEvents ())
+      {
+        final RecordedEvent aEvent = aRecordingFile.readEvent ();
+        nEventCount++;
+        switch (aEvent.getEventType ().getName ())
+        {
+          case "jdk.ObjectAllocationSample":
+            // Sampled, but weighted with the bytes allocated since the last
+            // sample
+            _add (aAllocations, _getTopFrame (aEvent.getStackTrace ()), aEvent.getLong ("weight"));
+            break;
+          case "jdk.ObjectAllocationInNewTLAB":
+            _add (aAllocations, _getTopFrame (aEvent.getStackTrace ()), aEvent.getLong ("tlabSize"));
+            break;
+          case "jdk.ObjectAllocationOutsideTLAB":
+            _add (aAllocations, _getTopFrame (aEvent.getStackTrace ()), aEvent.getLong ("allocationSize"));
+            break;
+          case "jdk.ExecutionSample":
+            _add (aHotMethods, _getTopFrame (aEvent.getStackTrace ()), 0);
+            break;
+          case "jdk.JavaMonitorEnter":
+          {
+            // Blocked on entering a synchronized block. Monitor waits are
+            // voluntary and therefore not contention.
+            final String sClass = _getClassName (aEvent, "monitorClass");
+            _add (aContention,
+                  (sClass == null ? "?" : sClass) + " @ " + _getTopFrame (aEvent.getStackTrace ()),
+                  aEvent.getDuration ().toNanos ());
+            break;
+          }
+          case "jdk.ThreadPark":
+          {
+            // Only parking on a lock is contention - idle pool threads park
+            // as well
+            final String sClass = _getClassName (aEvent, "parkedClass");
+            if (_isLockClass (sClass))
+              _add (aContention, sClass + " @ " + _getTopFrame (aEvent.getStackTrace ()), aEvent.getDuration ().toNanos ());
+            break;
+          }
+          default:
+            // Not summarized
+            break;
+        }
+      }
+    }
+
+    return new JFRSummary (nEventCount,
+                           _getTop (aAllocations, Comparator.comparingLong (Entry::getValue), nTopN),
+                           _getTop (aHotMethods, Comparator.comparingLong (Entry::getCount), nTopN),
+                           _getTop (aContention, Comparator.comparingLong (Entry::getValue), nTopN));
+  }
+
+  @NonNull
+  public static String getDurationString (final long nNanos)
+  {
+    return Duration.ofNanos (nNanos).toMillis () + " ms";
+  }
+}
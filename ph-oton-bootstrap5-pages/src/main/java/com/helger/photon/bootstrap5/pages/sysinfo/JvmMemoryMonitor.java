@@ -0,0 +1,654 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+/**
+ * Background monitor for the JVM memory. It periodically samples the heap,
+ * non-heap and memory pool occupancy into fixed-size ring buffers and listens
+ * to the garbage collector notifications to keep the most recent GC events.
+ * The allocation rate is derived from the growth of the young generation (or
+ * the whole heap if there is no separate young generation) plus what the
+ * collections freed from it in between. The promotion rate is the growth of
+ * the old generation caused by collections.
+ * <p>
+ * Sampling starts when the instance is created. This happens during
+ * application startup in
+ * {@link com.helger.photon.bootstrap5.pages.BootstrapPagesMenuConfigurator#startBackgroundSamplers()}.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class JvmMemoryMonitor extends AbstractGlobalSingleton
+{
+  public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds (5);
+  /** One hour with the default interval */
+  public static final int DEFAULT_CAPACITY = 720;
+  /** The number of GC events to keep */
+  public static final int DEFAULT_GC_EVENT_CAPACITY = 1_000;
+
+  /**
+   * A single garbage collection event.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class GCEvent
+  {
+    private final long m_nSequence;
+    private final long m_nEpochMillis;
+    private final String m_sGCName;
+    private final String m_sAction;
+    private final String m_sCause;
+    private final long m_nDurationMillis;
+    private final long m_nCollectedBytes;
+    private final long m_nPromotedBytes;
+
+    GCEvent (final long nSequence,
+             final long nEpochMillis,
+             @NonNull final String sGCName,
+             @NonNull final String sAction,
+             @NonNull final String sCause,
+             final long nDurationMillis,
+             final long nCollectedBytes,
+             final long nPromotedBytes)
+    {
+      m_nSequence = nSequence;
+      m_nEpochMillis = nEpochMillis;
+      m_sGCName = sGCName;
+      m_sAction = sAction;
+      m_sCause = sCause;
+      m_nDurationMillis = nDurationMillis;
+      m_nCollectedBytes = nCollectedBytes;
+      m_nPromotedBytes = nPromotedBytes;
+    }
+
+    /**
+     * @return The sequence number of the event, increasing by 1 for each
+     *         event.
+     */
+    public long getSequence ()
+    {
+      return m_nSequence;
+    }
+
+    public long getEpochMillis ()
+    {
+      return m_nEpochMillis;
+    }
+
+    @NonNull
+    public String getGCName ()
+    {
+      return m_sGCName;
+    }
+
+    @NonNull
+    public String getAction ()
+    {
+      return m_sAction;
+    }
+
+    @NonNull
+    public String getCause ()
+    {
+      return m_sCause;
+    }
+
+    @Nonnegative
+    public long getDurationMillis ()
+    {
+      return m_nDurationMillis;
+    }
+
+    /**
+     * @return <code>true</code> if the event describes a concurrent cycle, in
+     *         which case the duration is not a stop-the-world pause.
+     */
+    public boolean isConcurrent ()
+    {
+      return m_sGCName.contains ("Concurrent") || m_sGCName.contains ("Cycles");
+    }
+
+    /**
+     * @return The number of bytes freed in the whole heap.
+     */
+    public long getCollectedBytes ()
+    {
+      return m_nCollectedBytes;
+    }
+
+    /**
+     * @return The number of bytes the old generation grew by.
+     */
+    public long getPromotedBytes ()
+    {
+      return m_nPromotedBytes;
+    }
+  }
+
+  /**
+   * Immutable snapshot of the sampled history in chronological order.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Snapshot
+  {
+    private final Duration m_aInterval;
+    private final long m_nNextSampleIndex;
+    private final long [] m_aEpochMillis;
+    private final long [] m_aHeapUsed;
+    private final long [] m_aHeapCommitted;
+    private final long [] m_aNonHeapUsed;
+    private final long [] m_aAllocated;
+    private final long [] m_aPromoted;
+    private final long [] m_aGCMillis;
+    private final ICommonsOrderedMap <String, long []> m_aPoolUsed;
+
+    Snapshot (@NonNull final Duration aInterval,
+              final long nNextSampleIndex,
+              @NonNull final long [] aEpochMillis,
+              @NonNull final long [] aHeapUsed,
+              @NonNull final long [] aHeapCommitted,
+              @NonNull final long [] aNonHeapUsed,
+              @NonNull final long [] aAllocated,
+              @NonNull final long [] aPromoted,
+              @NonNull final long [] aGCMillis,
+              @NonNull final ICommonsOrderedMap <String, long []> aPoolUsed)
+    {
+      m_aInterval = aInterval;
+      m_nNextSampleIndex = nNextSampleIndex;
+      m_aEpochMillis = aEpochMillis;
+      m_aHeapUsed = aHeapUsed;
+      m_aHeapCommitted = aHeapCommitted;
+      m_aNonHeapUsed = aNonHeapUsed;
+      m_aAllocated = aAllocated;
+      m_aPromoted = aPromoted;
+      m_aGCMillis = aGCMillis;
+      m_aPoolUsed = aPoolUsed;
+    }
+
+    @NonNull
+    public Duration getInterval ()
+    {
+      return m_aInterval;
+    }
+
+    /**
+     * @return The total number of samples taken up to this snapshot. This is
+     *         the index of the next sample and can be passed to
+     *         {@link JvmMemoryMonitor#getSnapshot(long)} to only get newer
+     *         samples.
+     */
+    @Nonnegative
+    public long getNextSampleIndex ()
+    {
+      return m_nNextSampleIndex;
+    }
+
+    @Nonnegative
+    public int getSampleCount ()
+    {
+      return m_aEpochMillis.length;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getEpochMillis ()
+    {
+      return m_aEpochMillis.clone ();
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getHeapUsed ()
+    {
+      return m_aHeapUsed.clone ();
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getHeapCommitted ()
+    {
+      return m_aHeapCommitted.clone ();
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getNonHeapUsed ()
+    {
+      return m_aNonHeapUsed.clone ();
+    }
+
+    /**
+     * @return The number of bytes allocated per interval.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getAllocated ()
+    {
+      return m_aAllocated.clone ();
+    }
+
+    /**
+     * @return The number of bytes promoted to the old generation per interval.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getPromoted ()
+    {
+      return m_aPromoted.clone ();
+    }
+
+    /**
+     * @return The accumulated GC time of all collectors in milliseconds per
+     *         interval.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public long [] getGCMillis ()
+    {
+      return m_aGCMillis.clone ();
+    }
+
+    /**
+     * @return The used bytes per memory pool. The key is the pool name.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsOrderedMap <String, long []> getPoolUsed ()
+    {
+      return m_aPoolUsed.getClone ();
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (JvmMemoryMonitor.class);
+
+  private final Duration m_aInterval = DEFAULT_INTERVAL;
+  private final int m_nCapacity = DEFAULT_CAPACITY;
+  private ScheduledExecutorService m_aExecutor;
+  private final NotificationListener m_aGCListener = this::_onNotification;
+  private final ICommonsList <NotificationEmitter> m_aEmitters = new CommonsArrayList <> ();
+
+  // Ring buffers
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aEpochMillis = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aHeapUsed = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aHeapCommitted = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aNonHeapUsed = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aAllocated = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aPromoted = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final long [] m_aGCMillis = new long [m_nCapacity];
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsOrderedMap <String, long []> m_aPoolUsed = new CommonsLinkedHashMap <> ();
+  @GuardedBy ("m_aRWLock")
+  private long m_nSampleCount = 0;
+
+  // State between two samples
+  @GuardedBy ("m_aRWLock")
+  private long m_nLastYoungUsed = -1;
+  @GuardedBy ("m_aRWLock")
+  private long m_nLastGCMillis = -1;
+  @GuardedBy ("m_aRWLock")
+  private long m_nPendingYoungCollected = 0;
+  @GuardedBy ("m_aRWLock")
+  private long m_nPendingPromoted = 0;
+
+  @GuardedBy ("m_aRWLock")
+  private final GCEvent [] m_aGCEvents = new GCEvent [DEFAULT_GC_EVENT_CAPACITY];
+  @GuardedBy ("m_aRWLock")
+  private long m_nGCEventCount = 0;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private JvmMemoryMonitor ()
+  {}
+
+  @NonNull
+  public static JvmMemoryMonitor getInstance ()
+  {
+    return getGlobalSingleton (JvmMemoryMonitor.class);
+  }
+
+  @Override
+  protected void onAfterInstantiation (@NonNull final IScope aScope)
+  {
+    for (final GarbageCollectorMXBean aGC : ManagementFactory.getGarbageCollectorMXBeans ())
+      if (aGC instanceof final NotificationEmitter aEmitter)
+      {
+        aEmitter.addNotificationListener (m_aGCListener, null, null);
+        m_aEmitters.add (aEmitter);
+      }
+
+    m_aExecutor = Executors.newSingleThreadScheduledExecutor (r -> {
+      final Thread t = new Thread (r, "ph-jvm-memory-monitor");
+      t.setDaemon (true);
+      return t;
+    });
+    final long nMillis = m_aInterval.toMillis ();
+    m_aExecutor.scheduleAtFixedRate (this::sample, 0, nMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    if (m_aExecutor != null)
+      m_aExecutor.shutdownNow ();
+    for (final NotificationEmitter aEmitter : m_aEmitters)
+      try
+      {
+        aEmitter.removeNotificationListener (m_aGCListener);
+      }
+      catch (final ListenerNotFoundException ex)
+      {
+        // Ignore
+      }
+  }
+
+  @NonNull
+  public Duration getInterval ()
+  {
+    return m_aInterval;
+  }
+
+  @Nonnegative
+  public int getCapacity ()
+  {
+    return m_nCapacity;
+  }
+
+  private static boolean _isYoungPool (@NonNull final String sPoolName)
+  {
+    return sPoolName.contains ("Eden");
+  }
+
+  private static boolean _isOldPool (@NonNull final String sPoolName)
+  {
+    return sPoolName.contains ("Old Gen") || sPoolName.contains ("Tenured");
+  }
+
+  /**
+   * Get the used bytes of the young generation, falling back to the whole
+   * heap.
+   */
+  private static long _getYoungUsed (@NonNull final Map <String, MemoryUsage> aUsages,
+                                     @NonNull final Iterable <String> aHeapPoolNames)
+  {
+    long nHeap = 0;
+    for (final String sPoolName : aHeapPoolNames)
+    {
+      final MemoryUsage aUsage = aUsages.get (sPoolName);
+      if (aUsage != null)
+      {
+        if (_isYoungPool (sPoolName))
+          return aUsage.getUsed ();
+        nHeap += aUsage.getUsed ();
+      }
+    }
+    return nHeap;
+  }
+
+  private static long _getOldUsed (@NonNull final Map <String, MemoryUsage> aUsages)
+  {
+    for (final Map.Entry <String, MemoryUsage> aEntry : aUsages.entrySet ())
+      if (_isOldPool (aEntry.getKey ()))
+        return aEntry.getValue ().getUsed ();
+    return -1;
+  }
+
+  @NonNull
+  private static ICommonsList <String> _getAllHeapPoolNames ()
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final MemoryPoolMXBean aPool : ManagementFactory.getMemoryPoolMXBeans ())
+      if (aPool.getType () == MemoryType.HEAP)
+        ret.add (aPool.getName ());
+    return ret;
+  }
+
+  private void _onNotification (@NonNull final Notification aNotification, @Nullable final Object aHandback)
+  {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals (aNotification.getType ()))
+      return;
+
+    try
+    {
+      final GarbageCollectionNotificationInfo aInfo = GarbageCollectionNotificationInfo.from ((CompositeData) aNotification.getUserData ());
+      final GcInfo aGcInfo = aInfo.getGcInfo ();
+      final Map <String, MemoryUsage> aBefore = aGcInfo.getMemoryUsageBeforeGc ();
+      final Map <String, MemoryUsage> aAfter = aGcInfo.getMemoryUsageAfterGc ();
+      final ICommonsList <String> aHeapPoolNames = _getAllHeapPoolNames ();
+
+      final long nYoungCollected = Math.max (0,
+                                             _getYoungUsed (aBefore, aHeapPoolNames) -
+                                                _getYoungUsed (aAfter, aHeapPoolNames));
+      final long nOldBefore = _getOldUsed (aBefore);
+      final long nOldAfter = _getOldUsed (aAfter);
+      final long nPromoted = nOldBefore < 0 || nOldAfter < 0 ? 0 : Math.max (0, nOldAfter - nOldBefore);
+      long nHeapBefore = 0;
+      long nHeapAfter = 0;
+      for (final String sPoolName : aHeapPoolNames)
+      {
+        final MemoryUsage aUsageBefore = aBefore.get (sPoolName);
+        final MemoryUsage aUsageAfter = aAfter.get (sPoolName);
+        if (aUsageBefore != null && aUsageAfter != null)
+        {
+          nHeapBefore += aUsageBefore.getUsed ();
+          nHeapAfter += aUsageAfter.getUsed ();
+        }
+      }
+      final long nCollected = Math.max (0, nHeapBefore - nHeapAfter);
+
+      m_aRWLock.writeLocked ( () -> {
+        m_nPendingYoungCollected += nYoungCollected;
+        m_nPendingPromoted += nPromoted;
+        final long nSequence = m_nGCEventCount++;
+        m_aGCEvents[(int) (nSequence % m_aGCEvents.length)] = new GCEvent (nSequence,
+                                                                          System.currentTimeMillis (),
+                                                                          aInfo.getGcName (),
+                                                                          aInfo.getGcAction (),
+                                                                          aInfo.getGcCause (),
+                                                                          aGcInfo.getDuration (),
+                                                                          nCollected,
+                                                                          nPromoted);
+      });
+    }
+    catch (final RuntimeException ex)
+    {
+      LOGGER.warn ("Failed to handle GC notification", ex);
+    }
+  }
+
+  /**
+   * Take a single sample. Called periodically by the background thread.
+   */
+  void sample ()
+  {
+    try
+    {
+      final MemoryUsage aHeap = ManagementFactory.getMemoryMXBean ().getHeapMemoryUsage ();
+      final MemoryUsage aNonHeap = ManagementFactory.getMemoryMXBean ().getNonHeapMemoryUsage ();
+      final ICommonsOrderedMap <String, MemoryUsage> aPoolUsages = new CommonsLinkedHashMap <> ();
+      final ICommonsList <String> aHeapPoolNames = new CommonsArrayList <> ();
+      for (final MemoryPoolMXBean aPool : ManagementFactory.getMemoryPoolMXBeans ())
+        if (aPool.isValid ())
+        {
+          aPoolUsages.put (aPool.getName (), aPool.getUsage ());
+          if (aPool.getType () == MemoryType.HEAP)
+            aHeapPoolNames.add (aPool.getName ());
+        }
+      final long nYoungUsed = _getYoungUsed (aPoolUsages, aHeapPoolNames);
+      long nGCMillis = 0;
+      for (final GarbageCollectorMXBean aGC : ManagementFactory.getGarbageCollectorMXBeans ())
+        nGCMillis += Math.max (0, aGC.getCollectionTime ());
+      final long nFinalGCMillis = nGCMillis;
+
+      m_aRWLock.writeLocked ( () -> {
+        final int nSlot = (int) (m_nSampleCount % m_nCapacity);
+        m_aEpochMillis[nSlot] = System.currentTimeMillis ();
+        m_aHeapUsed[nSlot] = aHeap.getUsed ();
+        m_aHeapCommitted[nSlot] = aHeap.getCommitted ();
+        m_aNonHeapUsed[nSlot] = aNonHeap.getUsed ();
+        // The first sample is the base line
+        m_aAllocated[nSlot] = m_nLastYoungUsed < 0 ? 0
+                                                   : Math.max (0,
+                                                               nYoungUsed - m_nLastYoungUsed + m_nPendingYoungCollected);
+        m_aPromoted[nSlot] = m_nLastYoungUsed < 0 ? 0 : m_nPendingPromoted;
+        m_aGCMillis[nSlot] = m_nLastGCMillis < 0 ? 0 : Math.max (0, nFinalGCMillis - m_nLastGCMillis);
+        for (final Map.Entry <String, MemoryUsage> aEntry : aPoolUsages.entrySet ())
+          m_aPoolUsed.computeIfAbsent (aEntry.getKey (), k -> new long [m_nCapacity])[nSlot] = aEntry.getValue ()
+                                                                                                      .getUsed ();
+        m_nLastYoungUsed = nYoungUsed;
+        m_nLastGCMillis = nFinalGCMillis;
+        m_nPendingYoungCollected = 0;
+        m_nPendingPromoted = 0;
+        m_nSampleCount++;
+      });
+    }
+    catch (final RuntimeException ex)
+    {
+      LOGGER.warn ("Failed to sample the JVM memory", ex);
+    }
+  }
+
+  @NonNull
+  private long [] _getChronological (@NonNull final long [] aRing, @Nonnegative final int nCount)
+  {
+    // Requires the read lock
+    final long [] ret = new long [nCount];
+    final long nFirst = m_nSampleCount - nCount;
+    for (int i = 0; i < nCount; ++i)
+      ret[i] = aRing[(int) ((nFirst + i) % m_nCapacity)];
+    return ret;
+  }
+
+  /**
+   * @return The current content of the ring buffers in chronological order.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  public Snapshot getSnapshot ()
+  {
+    return getSnapshot (0);
+  }
+
+  /**
+   * Get only the samples taken since a previous snapshot.
+   *
+   * @param nMinSampleIndex
+   *        Only samples with an index &ge; this value are returned. Use
+   *        {@link Snapshot#getNextSampleIndex()} of the previous snapshot.
+   *        Pass 0 to get all retained samples.
+   * @return The matching content of the ring buffers in chronological order.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  public Snapshot getSnapshot (@Nonnegative final long nMinSampleIndex)
+  {
+    ValueEnforcer.isGE0 (nMinSampleIndex, "MinSampleIndex");
+    return m_aRWLock.readLockedGet ( () -> {
+      final int nCount = (int) Math.max (0, Math.min (m_nSampleCount - nMinSampleIndex, m_nCapacity));
+      final ICommonsOrderedMap <String, long []> aPoolUsed = new CommonsLinkedHashMap <> ();
+      for (final Map.Entry <String, long []> aEntry : m_aPoolUsed.entrySet ())
+        aPoolUsed.put (aEntry.getKey (), _getChronological (aEntry.getValue (), nCount));
+      return new Snapshot (m_aInterval,
+                           m_nSampleCount,
+                           _getChronological (m_aEpochMillis, nCount),
+                           _getChronological (m_aHeapUsed, nCount),
+                           _getChronological (m_aHeapCommitted, nCount),
+                           _getChronological (m_aNonHeapUsed, nCount),
+                           _getChronological (m_aAllocated, nCount),
+                           _getChronological (m_aPromoted, nCount),
+                           _getChronological (m_aGCMillis, nCount),
+                           aPoolUsed);
+    });
+  }
+
+  /**
+   * Get the most recent GC events.
+   *
+   * @param nMinSequence
+   *        Only events with a sequence number &ge; this value are returned.
+   *        Pass 0 to get all retained events.
+   * @return The events, the newest first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <GCEvent> getAllGCEvents (final long nMinSequence)
+  {
+    return m_aRWLock.readLockedGet ( () -> {
+      final ICommonsList <GCEvent> ret = new CommonsArrayList <> ();
+      final long nFirst = Math.max (nMinSequence, m_nGCEventCount - m_aGCEvents.length);
+      for (long n = m_nGCEventCount - 1; n >= nFirst && n >= 0; --n)
+        ret.add (m_aGCEvents[(int) (n % m_aGCEvents.length)]);
+      return ret;
+    });
+  }
+
+  /**
+   * @return The total number of GC events received so far. This is the
+   *         sequence number of the next event.
+   */
+  public long getGCEventCount ()
+  {
+    return m_aRWLock.readLockedGet ( () -> Long.valueOf (m_nGCEventCount)).longValue ();
+  }
+}
@@ -0,0 +1,559 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * A simple sampling profiler based on {@link ThreadMXBean}. A session
+ * periodically captures the stacks of all matching threads for a limited time
+ * and aggregates them into a call tree. Only one session can run at a time and
+ * the last session is kept until a new one is started.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class SamplingProfiler extends AbstractGlobalSingleton
+{
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMillis (20);
+  /**
+   * Each sample is a JVM wide safepoint, so intervals below this value would
+   * noticeably slow down the whole application.
+   */
+  public static final Duration MIN_INTERVAL = Duration.ofMillis (10);
+  public static final Duration MAX_INTERVAL = Duration.ofSeconds (1);
+  public static final Duration DEFAULT_DURATION = Duration.ofSeconds (10);
+  public static final Duration MAX_DURATION = Duration.ofMinutes (5);
+  /** The maximum number of frames captured per stack */
+  public static final int MAX_STACK_DEPTH = 256;
+  /** The maximum number of call tree nodes, to keep the memory bounded */
+  public static final int MAX_NODES = 100_000;
+
+  /**
+   * The sampling mode.
+   *
+   * @author Philip Helger
+   */
+  public enum EMode implements IHasID <String>
+  {
+    /** All matching threads, independent of their state */
+    WALL ("wall"),
+    /** Only threads that are runnable and consumed CPU since the last sample */
+    CPU ("cpu");
+
+    private final String m_sID;
+
+    EMode (@NonNull @Nonempty final String sID)
+    {
+      m_sID = sID;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getID ()
+    {
+      return m_sID;
+    }
+
+    @Nullable
+    public static EMode getFromIDOrNull (@Nullable final String sID)
+    {
+      return EnumHelper.getFromIDOrNull (EMode.class, sID);
+    }
+  }
+
+  /**
+   * A single node of the call tree. The root node has an empty frame.
+   *
+   * @author Philip Helger
+   */
+  public static final class CallTreeNode
+  {
+    private final int m_nID;
+    private final String m_sFrame;
+    private final CallTreeNode m_aParent;
+    private final ICommonsOrderedMap <String, CallTreeNode> m_aChildren = new CommonsLinkedHashMap <> ();
+    private long m_nTotalSamples;
+    private long m_nSelfSamples;
+
+    CallTreeNode (final int nID, @NonNull final String sFrame, @Nullable final CallTreeNode aParent)
+    {
+      m_nID = nID;
+      m_sFrame = sFrame;
+      m_aParent = aParent;
+    }
+
+    public int getID ()
+    {
+      return m_nID;
+    }
+
+    /**
+     * @return The frame in the form <code>class.method</code>. Empty for the
+     *         root node.
+     */
+    @NonNull
+    public String getFrame ()
+    {
+      return m_sFrame;
+    }
+
+    @Nullable
+    public CallTreeNode getParent ()
+    {
+      return m_aParent;
+    }
+
+    /**
+     * @return The number of samples containing this node.
+     */
+    @Nonnegative
+    public long getTotalSamples ()
+    {
+      return m_nTotalSamples;
+    }
+
+    /**
+     * @return The number of samples in which this node was the top frame.
+     */
+    @Nonnegative
+    public long getSelfSamples ()
+    {
+      return m_nSelfSamples;
+    }
+
+    /**
+     * @return All children, the child with the most samples first.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <CallTreeNode> getAllChildren ()
+    {
+      final ICommonsList <CallTreeNode> ret = m_aChildren.copyOfValues ();
+      ret.sort (Comparator.comparingLong (CallTreeNode::getTotalSamples).reversed ());
+      return ret;
+    }
+
+    /**
+     * @return The frames from the root (exclusive) to this node (inclusive).
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <String> getPath ()
+    {
+      final ICommonsList <String> ret = new CommonsArrayList <> ();
+      CallTreeNode aCur = this;
+      while (aCur.m_aParent != null)
+      {
+        ret.add (0, aCur.m_sFrame);
+        aCur = aCur.m_aParent;
+      }
+      return ret;
+    }
+  }
+
+  /**
+   * A single profiling session.
+   *
+   * @author Philip Helger
+   */
+  @ThreadSafe
+  public static final class Session
+  {
+    private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+    private final EMode m_eMode;
+    private final Duration m_aInterval;
+    private final Duration m_aDuration;
+    private final Pattern m_aThreadFilter;
+    private final LocalDateTime m_aStartDT;
+    private final ScheduledExecutorService m_aExecutor;
+    private volatile long m_nSamplerThreadID = -1;
+    private volatile LocalDateTime m_aEndDT;
+    @GuardedBy ("m_aRWLock")
+    private final ICommonsList <CallTreeNode> m_aNodes = new CommonsArrayList <> ();
+    @GuardedBy ("m_aRWLock")
+    private final CallTreeNode m_aRoot;
+    @GuardedBy ("m_aRWLock")
+    private long m_nSampleCount;
+    @GuardedBy ("m_aRWLock")
+    private boolean m_bTruncated;
+    // Only accessed by the sampler thread
+    private final ICommonsMap <Long, Long> m_aLastCPUNanos = new CommonsHashMap <> ();
+
+    Session (@NonNull final EMode eMode,
+             @NonNull final Duration aInterval,
+             @NonNull final Duration aDuration,
+             @Nullable final Pattern aThreadFilter)
+    {
+      m_eMode = eMode;
+      m_aInterval = aInterval;
+      m_aDuration = aDuration;
+      m_aThreadFilter = aThreadFilter;
+      m_aStartDT = PDTFactory.getCurrentLocalDateTime ();
+      m_aRoot = new CallTreeNode (0, "", null);
+      m_aNodes.add (m_aRoot);
+      m_aExecutor = Executors.newSingleThreadScheduledExecutor (r -> {
+        final Thread t = new Thread (r, "ph-sampling-profiler");
+        t.setDaemon (true);
+        return t;
+      });
+    }
+
+    void start ()
+    {
+      m_aExecutor.scheduleAtFixedRate (this::_sample, 0, m_aInterval.toNanos (), TimeUnit.NANOSECONDS);
+      m_aExecutor.schedule (this::stop, m_aDuration.toMillis (), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the session. Does nothing if the session is already stopped.
+     */
+    public void stop ()
+    {
+      final boolean bStopped = m_aRWLock.writeLockedGet ( () -> {
+        if (m_aEndDT != null)
+          return Boolean.FALSE;
+        m_aEndDT = PDTFactory.getCurrentLocalDateTime ();
+        m_aExecutor.shutdownNow ();
+        return Boolean.TRUE;
+      }).booleanValue ();
+      if (bStopped)
+        LOGGER.info ("Sampling profiler session stopped after " + getSampleCount () + " samples");
+    }
+
+    @NonNull
+    private static String _getFrame (@NonNull final StackTraceElement aElement)
+    {
+      return aElement.getClassName () + '.' + aElement.getMethodName ();
+    }
+
+    private void _sample ()
+    {
+      try
+      {
+        if (m_nSamplerThreadID < 0)
+          m_nSamplerThreadID = Thread.currentThread ().getId ();
+
+        final ThreadMXBean aMXBean = ManagementFactory.getThreadMXBean ();
+        final boolean bCPU = m_eMode == EMode.CPU &&
+                             aMXBean.isThreadCpuTimeSupported () &&
+                             aMXBean.isThreadCpuTimeEnabled ();
+        final ThreadInfo [] aInfos = aMXBean.dumpAllThreads (false, false, MAX_STACK_DEPTH);
+
+        // Filter outside of the lock
+        final ICommonsList <StackTraceElement []> aStacks = new CommonsArrayList <> (aInfos.length);
+        for (final ThreadInfo aInfo : aInfos)
+        {
+          if (aInfo == null || aInfo.getThreadId () == m_nSamplerThreadID)
+            continue;
+          if (m_aThreadFilter != null && !m_aThreadFilter.matcher (aInfo.getThreadName ()).find ())
+            continue;
+          if (m_eMode == EMode.CPU)
+          {
+            if (aInfo.getThreadState () != Thread.State.RUNNABLE)
+              continue;
+            if (bCPU)
+            {
+              // Runnable threads blocked in native I/O don't consume CPU
+              final Long aID = Long.valueOf (aInfo.getThreadId ());
+              final long nCPUNanos = aMXBean.getThreadCpuTime (aInfo.getThreadId ());
+              final Long aLast = m_aLastCPUNanos.put (aID, Long.valueOf (nCPUNanos));
+              if (aLast == null || nCPUNanos <= aLast.longValue ())
+                continue;
+            }
+          }
+          final StackTraceElement [] aStack = aInfo.getStackTrace ();
+          if (aStack.length > 0)
+            aStacks.add (aStack);
+        }
+
+        m_aRWLock.writeLocked ( () -> {
+          m_nSampleCount++;
+          for (final StackTraceElement [] aStack : aStacks)
+            _addStack (aStack);
+        });
+      }
+      catch (final RuntimeException ex)
+      {
+        LOGGER.warn ("Error taking profiler sample", ex);
+      }
+    }
+
+    @GuardedBy ("m_aRWLock")
+    private void _addStack (@NonNull final StackTraceElement [] aStack)
+    {
+      CallTreeNode aCur = m_aRoot;
+      aCur.m_nTotalSamples++;
+      // The outermost frame is the last element
+      for (int i = aStack.length - 1; i >= 0; --i)
+      {
+        final String sFrame = _getFrame (aStack[i]);
+        CallTreeNode aChild = aCur.m_aChildren.get (sFrame);
+        if (aChild == null)
+        {
+          if (m_aNodes.size () >= MAX_NODES)
+          {
+            // Attribute the rest of the stack to the current node
+            m_bTruncated = true;
+            break;
+          }
+          aChild = new CallTreeNode (m_aNodes.size (), sFrame, aCur);
+          aCur.m_aChildren.put (sFrame, aChild);
+          m_aNodes.add (aChild);
+        }
+        aChild.m_nTotalSamples++;
+        aCur = aChild;
+      }
+      aCur.m_nSelfSamples++;
+    }
+
+    @NonNull
+    public EMode getMode ()
+    {
+      return m_eMode;
+    }
+
+    @NonNull
+    public Duration getInterval ()
+    {
+      return m_aInterval;
+    }
+
+    @NonNull
+    public Duration getDuration ()
+    {
+      return m_aDuration;
+    }
+
+    @Nullable
+    public String getThreadFilter ()
+    {
+      return m_aThreadFilter == null ? null : m_aThreadFilter.pattern ();
+    }
+
+    @NonNull
+    public LocalDateTime getStartDateTime ()
+    {
+      return m_aStartDT;
+    }
+
+    @Nullable
+    public LocalDateTime getEndDateTime ()
+    {
+      return m_aEndDT;
+    }
+
+    public boolean isRunning ()
+    {
+      return m_aEndDT == null;
+    }
+
+    @Nonnegative
+    public long getSampleCount ()
+    {
+      return m_aRWLock.readLockedGet ( () -> Long.valueOf (m_nSampleCount)).longValue ();
+    }
+
+    /**
+     * @return <code>true</code> if {@link #MAX_NODES} was reached and some
+     *         stacks were truncated.
+     */
+    public boolean isTruncated ()
+    {
+      return m_aRWLock.readLockedGet ( () -> Boolean.valueOf (m_bTruncated)).booleanValue ();
+    }
+
+    /**
+     * Execute the provided callback with the call tree, while no sample is
+     * added. The tree must not be used outside of the callback.
+     *
+     * @param aCallback
+     *        The callback to be invoked with the root node. May not be
+     *        <code>null</code>.
+     */
+    public void readCallTree (@NonNull final Consumer <CallTreeNode> aCallback)
+    {
+      ValueEnforcer.notNull (aCallback, "Callback");
+      m_aRWLock.readLocked ( () -> aCallback.accept (m_aRoot));
+    }
+
+    /**
+     * Get the node with the provided ID. The node may only be read from within
+     * {@link #readCallTree(Consumer)}.
+     *
+     * @param nID
+     *        The node ID
+     * @return <code>null</code> if no such node exists
+     */
+    @Nullable
+    public CallTreeNode getNodeOfID (final int nID)
+    {
+      return m_aRWLock.readLockedGet ( () -> nID >= 0 && nID < m_aNodes.size () ? m_aNodes.get (nID) : null);
+    }
+
+    private static void _appendCollapsed (@NonNull final CallTreeNode aNode,
+                                          @NonNull final String sPrefix,
+                                          @NonNull final StringBuilder aSB)
+    {
+      final String sPath = sPrefix.isEmpty () ? aNode.m_sFrame : sPrefix + ';' + aNode.m_sFrame;
+      if (aNode.m_nSelfSamples > 0)
+        aSB.append (sPath).append (' ').append (aNode.m_nSelfSamples).append ('\n');
+      for (final CallTreeNode aChild : aNode.m_aChildren.values ())
+        _appendCollapsed (aChild, sPath, aSB);
+    }
+
+    /**
+     * @return The call tree in the "collapsed stacks" format, one line per
+     *         distinct stack with the frames separated by semicolons followed
+     *         by a space and the number of samples. This is the input format
+     *         of the common flame graph tools.
+     */
+    @NonNull
+    public String getAsCollapsedStacks ()
+    {
+      return m_aRWLock.readLockedGet ( () -> {
+        final StringBuilder aSB = new StringBuilder ();
+        for (final CallTreeNode aChild : m_aRoot.m_aChildren.values ())
+          _appendCollapsed (aChild, "", aSB);
+        return aSB.toString ();
+      });
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (SamplingProfiler.class);
+
+  @GuardedBy ("m_aRWLock")
+  private Session m_aSession;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private SamplingProfiler ()
+  {}
+
+  @NonNull
+  public static SamplingProfiler getInstance ()
+  {
+    return getGlobalSingleton (SamplingProfiler.class);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    final Session aSession = getSession ();
+    if (aSession != null)
+      aSession.stop ();
+  }
+
+  /**
+   * @return The current or last session. May be <code>null</code> if no
+   *         session was started yet.
+   */
+  @Nullable
+  public Session getSession ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aSession);
+  }
+
+  /**
+   * Start a new profiling session. A running session is stopped first.
+   *
+   * @param eMode
+   *        Sampling mode. May not be <code>null</code>.
+   * @param aInterval
+   *        Sampling interval. Must be between {@link #MIN_INTERVAL} and
+   *        {@link #MAX_INTERVAL}.
+   * @param aDuration
+   *        Total duration of the session. Must be positive and at most
+   *        {@link #MAX_DURATION}.
+   * @param aThreadFilter
+   *        Optional regular expression that must be found in the thread name.
+   * @return The new session. Never <code>null</code>.
+   */
+  @NonNull
+  public Session startSession (@NonNull final EMode eMode,
+                               @NonNull final Duration aInterval,
+                               @NonNull final Duration aDuration,
+                               @Nullable final Pattern aThreadFilter)
+  {
+    ValueEnforcer.notNull (eMode, "Mode");
+    ValueEnforcer.notNull (aInterval, "Interval");
+    ValueEnforcer.isTrue (aInterval.compareTo (MIN_INTERVAL) >= 0 && aInterval.compareTo (MAX_INTERVAL) <= 0,
+                          "Interval is out of range");
+    ValueEnforcer.notNull (aDuration, "Duration");
+    ValueEnforcer.isTrue (!aDuration.isNegative () && !aDuration.isZero () && aDuration.compareTo (MAX_DURATION) <= 0,
+                          "Duration is out of range");
+
+    return m_aRWLock.writeLockedGet ( () -> {
+      if (m_aSession != null)
+        m_aSession.stop ();
+      m_aSession = new Session (eMode, aInterval, aDuration, aThreadFilter);
+      m_aSession.start ();
+      LOGGER.info ("Started sampling profiler session in mode " +
+                   eMode +
+                   " with interval " +
+                   aInterval +
+                   " for " +
+                   aDuration);
+      return m_aSession;
+    });
+  }
+
+  /**
+   * Stop the current session, if one is running.
+   */
+  public void stopSession ()
+  {
+    final Session aSession = getSession ();
+    if (aSession != null)
+      aSession.stop ();
+  }
+}
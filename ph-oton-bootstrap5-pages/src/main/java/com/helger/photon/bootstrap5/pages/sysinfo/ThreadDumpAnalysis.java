@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.collection.commons.ICommonsSet;
+
+/**
+ * A single analysed thread dump. It is based on
+ * {@link ThreadMXBean#dumpAllThreads(boolean, boolean)} and groups the threads
+ * with identical stacks, determines the deadlocked threads, the lock holder
+ * chains and the monitors most threads are waiting for. If supported by the
+ * JVM, the CPU time and the allocated bytes of each thread are contained.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ThreadDumpAnalysis
+{
+  /**
+   * A single thread of the dump.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class ThreadEntry
+  {
+    private final ThreadInfo m_aInfo;
+    private final String m_sGroupName;
+    private final long m_nCPUNanos;
+    private final long m_nAllocatedBytes;
+
+    ThreadEntry (@NonNull final ThreadInfo aInfo,
+                 @Nullable final String sGroupName,
+                 final long nCPUNanos,
+                 final long nAllocatedBytes)
+    {
+      m_aInfo = aInfo;
+      m_sGroupName = sGroupName;
+      m_nCPUNanos = nCPUNanos;
+      m_nAllocatedBytes = nAllocatedBytes;
+    }
+
+    @NonNull
+    public ThreadInfo getInfo ()
+    {
+      return m_aInfo;
+    }
+
+    public long getID ()
+    {
+      return m_aInfo.getThreadId ();
+    }
+
+    @NonNull
+    public String getName ()
+    {
+      return m_aInfo.getThreadName ();
+    }
+
+    @Nullable
+    public String getGroupName ()
+    {
+      return m_sGroupName;
+    }
+
+    @NonNull
+    public Thread.State getState ()
+    {
+      return m_aInfo.getThreadState ();
+    }
+
+    /**
+     * @return The CPU time in nanoseconds or -1 if not available.
+     */
+    public long getCPUNanos ()
+    {
+      return m_nCPUNanos;
+    }
+
+    /**
+     * @return The allocated bytes or -1 if not available.
+     */
+    public long getAllocatedBytes ()
+    {
+      return m_nAllocatedBytes;
+    }
+  }
+
+  /**
+   * A group of threads with an identical state and stack.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class StackGroup
+  {
+    private final Thread.State m_eState;
+    private final StackTraceElement [] m_aStack;
+    private final ICommonsList <ThreadEntry> m_aThreads = new CommonsArrayList <> ();
+
+    StackGroup (@NonNull final Thread.State eState, @NonNull final StackTraceElement [] aStack)
+    {
+      m_eState = eState;
+      m_aStack = aStack;
+    }
+
+    @NonNull
+    public Thread.State getState ()
+    {
+      return m_eState;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public StackTraceElement [] getStack ()
+    {
+      return m_aStack.clone ();
+    }
+
+    @Nullable
+    public StackTraceElement getTopFrame ()
+    {
+      return m_aStack.length == 0 ? null : m_aStack[0];
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <ThreadEntry> getAllThreads ()
+    {
+      return m_aThreads.getClone ();
+    }
+
+    @Nonnegative
+    public int getThreadCount ()
+    {
+      return m_aThreads.size ();
+    }
+  }
+
+  /**
+   * A monitor or synchronizer at least one thread is waiting for.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class BlockingMonitor
+  {
+    private final String m_sLockName;
+    private final ThreadEntry m_aOwner;
+    private final ICommonsList <ThreadEntry> m_aWaiters = new CommonsArrayList <> ();
+
+    BlockingMonitor (@NonNull final String sLockName, @Nullable final ThreadEntry aOwner)
+    {
+      m_sLockName = sLockName;
+      m_aOwner = aOwner;
+    }
+
+    @NonNull
+    public String getLockName ()
+    {
+      return m_sLockName;
+    }
+
+    @Nullable
+    public ThreadEntry getOwner ()
+    {
+      return m_aOwner;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <ThreadEntry> getAllWaiters ()
+    {
+      return m_aWaiters.getClone ();
+    }
+
+    @Nonnegative
+    public int getWaiterCount ()
+    {
+      return m_aWaiters.size ();
+    }
+  }
+
+  private final ICommonsOrderedMap <Long, ThreadEntry> m_aThreads;
+  private final ICommonsList <StackGroup> m_aStackGroups;
+  private final ICommonsList <BlockingMonitor> m_aBlockingMonitors;
+  private final ICommonsSet <Long> m_aDeadlockedIDs;
+  private final boolean m_bCPUTimeSupported;
+  private final boolean m_bAllocatedBytesSupported;
+
+  private ThreadDumpAnalysis (@NonNull final ICommonsOrderedMap <Long, ThreadEntry> aThreads,
+                              @NonNull final ICommonsSet <Long> aDeadlockedIDs,
+                              final boolean bCPUTimeSupported,
+                              final boolean bAllocatedBytesSupported)
+  {
+    m_aThreads = aThreads;
+    m_aDeadlockedIDs = aDeadlockedIDs;
+    m_bCPUTimeSupported = bCPUTimeSupported;
+    m_bAllocatedBytesSupported = bAllocatedBytesSupported;
+
+    // Group by state and stack
+    final ICommonsMap <StackKey, StackGroup> aGroups = new CommonsLinkedHashMap <> ();
+    for (final ThreadEntry aEntry : aThreads.values ())
+    {
+      final StackTraceElement [] aStack = aEntry.getInfo ().getStackTrace ();
+      aGroups.computeIfAbsent (new StackKey (aEntry.getState (), aStack),
+                               k -> new StackGroup (aEntry.getState (), aStack)).m_aThreads.add (aEntry);
+    }
+    m_aStackGroups = aGroups.copyOfValues ();
+    m_aStackGroups.sort (Comparator.comparingInt (StackGroup::getThreadCount).reversed ());
+
+    // Determine the monitors that block other threads
+    final ICommonsMap <String, BlockingMonitor> aMonitors = new CommonsHashMap <> ();
+    for (final ThreadEntry aEntry : aThreads.values ())
+    {
+      final ThreadInfo aInfo = aEntry.getInfo ();
+      final String sLockName = aInfo.getLockName ();
+      if (sLockName != null && aInfo.getLockOwnerId () >= 0)
+        aMonitors.computeIfAbsent (sLockName,
+                                   k -> new BlockingMonitor (k,
+                                                             aThreads.get (Long.valueOf (aInfo.getLockOwnerId ())))).m_aWaiters.add (aEntry);
+    }
+    m_aBlockingMonitors = aMonitors.copyOfValues ();
+    m_aBlockingMonitors.sort (Comparator.comparingInt (BlockingMonitor::getWaiterCount).reversed ());
+  }
+
+  /**
+   * Key for grouping identical stacks.
+   */
+  private static final class StackKey
+  {
+    private final Thread.State m_eState;
+    private final StackTraceElement [] m_aStack;
+    private final int m_nHashCode;
+
+    StackKey (@NonNull final Thread.State eState, @NonNull final StackTraceElement [] aStack)
+    {
+      m_eState = eState;
+      m_aStack = aStack;
+      m_nHashCode = 31 * eState.hashCode () + Arrays.hashCode (aStack);
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (!(o instanceof final StackKey rhs))
+        return false;
+      return m_eState == rhs.m_eState && Arrays.equals (m_aStack, rhs.m_aStack);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return m_nHashCode;
+    }
+  }
+
+  @NonNull
+  private static ICommonsMap <Long, String> _getAllThreadGroupNames ()
+  {
+    ThreadGroup aRoot = Thread.currentThread ().getThreadGroup ();
+    while (aRoot.getParent () != null)
+      aRoot = aRoot.getParent ();
+
+    // Enumerate does not capture the stacks, so this is cheap
+    Thread [] aThreads = new Thread [aRoot.activeCount () + 16];
+    int nCount;
+    while ((nCount = aRoot.enumerate (aThreads, true)) == aThreads.length)
+      aThreads = new Thread [aThreads.length * 2];
+
+    final ICommonsMap <Long, String> ret = new CommonsHashMap <> (nCount);
+    for (int i = 0; i < nCount; ++i)
+    {
+      // Full path of the thread group, separated by slashes
+      ThreadGroup aGroup = aThreads[i].getThreadGroup ();
+      final StringBuilder aSB = new StringBuilder ();
+      while (aGroup != null)
+      {
+        if (aSB.length () > 0)
+          aSB.insert (0, '/');
+        aSB.insert (0, aGroup.getName ());
+        aGroup = aGroup.getParent ();
+      }
+      ret.put (Long.valueOf (aThreads[i].getId ()), aSB.toString ());
+    }
+    return ret;
+  }
+
+  /**
+   * @return A new analysis of the current threads. Never <code>null</code>.
+   */
+  @NonNull
+  public static ThreadDumpAnalysis createForAllThreads ()
+  {
+    final ThreadMXBean aMXBean = ManagementFactory.getThreadMXBean ();
+    final ThreadInfo [] aInfos = aMXBean.dumpAllThreads (aMXBean.isObjectMonitorUsageSupported (),
+                                                         aMXBean.isSynchronizerUsageSupported ());
+    final ICommonsMap <Long, String> aGroupNames = _getAllThreadGroupNames ();
+
+    final long [] aIDs = new long [aInfos.length];
+    for (int i = 0; i < aInfos.length; ++i)
+      aIDs[i] = aInfos[i].getThreadId ();
+
+    final boolean bCPUTimeSupported = aMXBean.isThreadCpuTimeSupported () && aMXBean.isThreadCpuTimeEnabled ();
+
+    // The bulk methods are only available in the com.sun.management extension
+    long [] aCPUNanos = null;
+    long [] aAllocatedBytes = null;
+    if (aMXBean instanceof final com.sun.management.ThreadMXBean aExtMXBean)
+    {
+      if (bCPUTimeSupported)
+        aCPUNanos = aExtMXBean.getThreadCpuTime (aIDs);
+      if (aExtMXBean.isThreadAllocatedMemorySupported () && aExtMXBean.isThreadAllocatedMemoryEnabled ())
+        aAllocatedBytes = aExtMXBean.getThreadAllocatedBytes (aIDs);
+    }
+
+    final ICommonsOrderedMap <Long, ThreadEntry> aThreads = new CommonsLinkedHashMap <> (aInfos.length);
+    for (int i = 0; i < aInfos.length; ++i)
+    {
+      final Long aID = Long.valueOf (aIDs[i]);
+      final long nCPUNanos;
+      if (aCPUNanos != null)
+        nCPUNanos = aCPUNanos[i];
+      else
+        nCPUNanos = bCPUTimeSupported ? aMXBean.getThreadCpuTime (aIDs[i]) : -1;
+      aThreads.put (aID,
+                    new ThreadEntry (aInfos[i],
+                                     aGroupNames.get (aID),
+                                     nCPUNanos,
+                                     aAllocatedBytes != null ? aAllocatedBytes[i] : -1));
+    }
+
+    final ICommonsSet <Long> aDeadlockedIDs = new CommonsHashSet <> ();
+    final long [] aDeadlocked = aMXBean.isSynchronizerUsageSupported () ? aMXBean.findDeadlockedThreads ()
+                                                                        : aMXBean.findMonitorDeadlockedThreads ();
+    if (aDeadlocked != null)
+      for (final long nID : aDeadlocked)
+        aDeadlockedIDs.add (Long.valueOf (nID));
+
+    return new ThreadDumpAnalysis (aThreads, aDeadlockedIDs, bCPUTimeSupported, aAllocatedBytes != null);
+  }
+
+  /**
+   * @return All threads ordered by the dump order. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ThreadEntry> getAllThreads ()
+  {
+    return m_aThreads.copyOfValues ();
+  }
+
+  @Nullable
+  public ThreadEntry getThreadOfID (final long nThreadID)
+  {
+    return m_aThreads.get (Long.valueOf (nThreadID));
+  }
+
+  /**
+   * @return All groups of identical stacks, the largest group first. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <StackGroup> getAllStackGroups ()
+  {
+    return m_aStackGroups.getClone ();
+  }
+
+  /**
+   * @return All monitors other threads are waiting for, the monitor with the
+   *         most waiting threads first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <BlockingMonitor> getAllBlockingMonitors ()
+  {
+    return m_aBlockingMonitors.getClone ();
+  }
+
+  /**
+   * @return All deadlocked threads. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ThreadEntry> getAllDeadlockedThreads ()
+  {
+    return m_aThreads.copyOfValues (x -> m_aDeadlockedIDs.contains (Long.valueOf (x.getID ())));
+  }
+
+  public boolean isDeadlocked (final long nThreadID)
+  {
+    return m_aDeadlockedIDs.contains (Long.valueOf (nThreadID));
+  }
+
+  /**
+   * Get the chain of lock holders starting at the provided thread: the thread
+   * holding the lock the provided thread waits for, the thread holding the
+   * lock that thread waits for etc. Cycles (deadlocks) end the chain.
+   *
+   * @param aStart
+   *        The thread to start with. May not be <code>null</code>.
+   * @return The chain excluding the start thread. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ThreadEntry> getLockHolderChain (@NonNull final ThreadEntry aStart)
+  {
+    final ICommonsList <ThreadEntry> ret = new CommonsArrayList <> ();
+    final ICommonsSet <Long> aSeen = new CommonsHashSet <> ();
+    aSeen.add (Long.valueOf (aStart.getID ()));
+    ThreadEntry aCur = aStart;
+    while (aCur.getInfo ().getLockOwnerId () >= 0)
+    {
+      final Long aOwnerID = Long.valueOf (aCur.getInfo ().getLockOwnerId ());
+      final ThreadEntry aOwner = m_aThreads.get (aOwnerID);
+      if (aOwner == null)
+        break;
+      ret.add (aOwner);
+      if (!aSeen.add (aOwnerID))
+        break;
+      aCur = aOwner;
+    }
+    return ret;
+  }
+
+  public boolean isCPUTimeSupported ()
+  {
+    return m_bCPUTimeSupported;
+  }
+
+  public boolean isAllocatedBytesSupported ()
+  {
+    return m_bAllocatedBytesSupported;
+  }
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.lang.clazz.ClassHelper;
+import com.helger.base.string.StringHelper;
+import com.helger.base.system.SystemProperties;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+import com.helger.security.keystore.EKeyStoreType;
+import com.helger.security.keystore.KeyStoreHelper;
+import com.helger.security.keystore.LoadedKeyStore;
+
+/**
+ * Caches the parsed content of the trust stores shown on the "cacerts" page.
+ * A trust store is only parsed again if its last modification time or its
+ * size changed.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class TrustStoreCache extends AbstractGlobalSingleton
+{
+  /** The password used to open the trust stores */
+  public static final String TRUST_STORE_PASSWORD = "changeit";
+
+  /**
+   * A single parsed trust store entry.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Entry
+  {
+    private final String m_sStorePath;
+    private final String m_sAlias;
+    private final String m_sErrorText;
+    private final String m_sSubject;
+    private final String m_sIssuer;
+    private final LocalDateTime m_aNotBefore;
+    private final LocalDateTime m_aNotAfter;
+
+    private Entry (@NonNull final String sStorePath,
+                   @NonNull final String sAlias,
+                   @Nullable final String sErrorText,
+                   @Nullable final String sSubject,
+                   @Nullable final String sIssuer,
+                   @Nullable final LocalDateTime aNotBefore,
+                   @Nullable final LocalDateTime aNotAfter)
+    {
+      m_sStorePath = sStorePath;
+      m_sAlias = sAlias;
+      m_sErrorText = sErrorText;
+      m_sSubject = sSubject;
+      m_sIssuer = sIssuer;
+      m_aNotBefore = aNotBefore;
+      m_aNotAfter = aNotAfter;
+    }
+
+    /**
+     * @return The absolute path of the trust store this entry belongs to.
+     */
+    @NonNull
+    public String getStorePath ()
+    {
+      return m_sStorePath;
+    }
+
+    @NonNull
+    public String getAlias ()
+    {
+      return m_sAlias;
+    }
+
+    /**
+     * @return <code>true</code> if this entry is an X.509 certificate and all
+     *         other getters return non-<code>null</code> values.
+     */
+    public boolean isCertificate ()
+    {
+      return m_sErrorText == null;
+    }
+
+    /**
+     * @return The reason why the entry could not be parsed as an X.509
+     *         certificate. <code>null</code> if it is a certificate.
+     */
+    @Nullable
+    public String getErrorText ()
+    {
+      return m_sErrorText;
+    }
+
+    @Nullable
+    public String getSubject ()
+    {
+      return m_sSubject;
+    }
+
+    @Nullable
+    public String getIssuer ()
+    {
+      return m_sIssuer;
+    }
+
+    public boolean isRoot ()
+    {
+      return m_sSubject != null && m_sSubject.equals (m_sIssuer);
+    }
+
+    @Nullable
+    public LocalDateTime getNotBefore ()
+    {
+      return m_aNotBefore;
+    }
+
+    @Nullable
+    public LocalDateTime getNotAfter ()
+    {
+      return m_aNotAfter;
+    }
+
+    /**
+     * @param aNow
+     *        The reference date time. May not be <code>null</code>.
+     * @return The number of full days until the certificate expires. Negative
+     *         if it is already expired.
+     */
+    public long getDaysLeft (@NonNull final LocalDateTime aNow)
+    {
+      return m_aNotAfter == null ? Long.MAX_VALUE : ChronoUnit.DAYS.between (aNow, m_aNotAfter);
+    }
+
+    /**
+     * @param aNow
+     *        The reference date time. May not be <code>null</code>.
+     * @return <code>true</code> if the certificate is no longer valid at the
+     *         provided date time. This is also the case, if less than a full
+     *         day passed since the expiration.
+     */
+    public boolean isExpired (@NonNull final LocalDateTime aNow)
+    {
+      return m_aNotAfter != null && m_aNotAfter.isBefore (aNow);
+    }
+  }
+
+  /**
+   * The parsed content of a single trust store file.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class TrustStore
+  {
+    private final String m_sPath;
+    private final long m_nLastModified;
+    private final long m_nSize;
+    private final LocalDateTime m_aParseDT;
+    private final LoadedKeyStore m_aLoadError;
+    private final String m_sTraverseError;
+    private final ICommonsList <Entry> m_aEntries;
+
+    private TrustStore (@NonNull final String sPath,
+                        final long nLastModified,
+                        final long nSize,
+                        @Nullable final LoadedKeyStore aLoadError,
+                        @Nullable final String sTraverseError,
+                        @NonNull final ICommonsList <Entry> aEntries)
+    {
+      m_sPath = sPath;
+      m_nLastModified = nLastModified;
+      m_nSize = nSize;
+      m_aParseDT = PDTFactory.getCurrentLocalDateTime ();
+      m_aLoadError = aLoadError;
+      m_sTraverseError = sTraverseError;
+      m_aEntries = aEntries;
+    }
+
+    @NonNull
+    public String getPath ()
+    {
+      return m_sPath;
+    }
+
+    boolean isUpToDate (@NonNull final File aFile)
+    {
+      return aFile.lastModified () == m_nLastModified && aFile.length () == m_nSize;
+    }
+
+    /**
+     * @return The date time when the file was parsed. Never <code>null</code>.
+     */
+    @NonNull
+    public LocalDateTime getParseDateTime ()
+    {
+      return m_aParseDT;
+    }
+
+    /**
+     * @return The failed load result, if the key store could not be loaded.
+     *         <code>null</code> if loading succeeded.
+     */
+    @Nullable
+    public LoadedKeyStore getLoadError ()
+    {
+      return m_aLoadError;
+    }
+
+    /**
+     * @return The error message if the aliases could not be traversed.
+     *         <code>null</code> if traversing succeeded.
+     */
+    @Nullable
+    public String getTraverseError ()
+    {
+      return m_sTraverseError;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <Entry> getAllEntries ()
+    {
+      return m_aEntries.getClone ();
+    }
+  }
+
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <String, TrustStore> m_aMap = new CommonsHashMap <> ();
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private TrustStoreCache ()
+  {}
+
+  @NonNull
+  public static TrustStoreCache getInstance ()
+  {
+    return getGlobalSingleton (TrustStoreCache.class);
+  }
+
+  @NonNull
+  private static String _getCanonicalPath (@NonNull final String sPath)
+  {
+    final File aFile = new File (sPath);
+    try
+    {
+      return aFile.getCanonicalPath ();
+    }
+    catch (final IOException ex)
+    {
+      return aFile.getAbsolutePath ();
+    }
+  }
+
+  /**
+   * @return The canonical paths of all trust stores that are checked. Contains
+   *         only non-empty and unique paths, but the files may not exist.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <String> getAllPossiblePaths ()
+  {
+    final ICommonsList <String> aPaths = new CommonsArrayList <> ();
+    aPaths.add (SystemProperties.getPropertyValueOrNull ("javax.net.ssl.trustStore"));
+    aPaths.add (SystemProperties.getJavaHome () + "/lib/security/cacerts");
+    aPaths.add (SystemProperties.getJavaHome () + "/jre/lib/security/cacerts");
+
+    // The system property usually points to the default trust store
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final String sPath : aPaths)
+      if (StringHelper.isNotEmpty (sPath))
+      {
+        final String sCanonicalPath = _getCanonicalPath (sPath);
+        if (!ret.contains (sCanonicalPath))
+          ret.add (sCanonicalPath);
+      }
+    return ret;
+  }
+
+  @NonNull
+  private static Entry _createEntry (@NonNull final String sStorePath,
+                                     @NonNull final KeyStore aKS,
+                                     @NonNull final String sAlias)
+  {
+    try
+    {
+      final KeyStore.Entry aEntry = aKS.getEntry (sAlias, null);
+      if (aEntry instanceof final KeyStore.TrustedCertificateEntry aTCEntry)
+      {
+        final Certificate aCert = aTCEntry.getTrustedCertificate ();
+        if (aCert instanceof final X509Certificate aX509Cert)
+          return new Entry (sStorePath,
+                            sAlias,
+                            null,
+                            aX509Cert.getSubjectX500Principal ().getName (),
+                            aX509Cert.getIssuerX500Principal ().getName (),
+                            PDTFactory.createLocalDateTime (aX509Cert.getNotBefore ()),
+                            PDTFactory.createLocalDateTime (aX509Cert.getNotAfter ()));
+        return new Entry (sStorePath, sAlias, "Not an X509 certificate", null, null, null, null);
+      }
+      return new Entry (sStorePath,
+                        sAlias,
+                        "Unsupported type: " + ClassHelper.getClassLocalName (aEntry),
+                        null,
+                        null,
+                        null,
+                        null);
+    }
+    catch (final GeneralSecurityException ex)
+    {
+      return new Entry (sStorePath, sAlias, "password required?", null, null, null, null);
+    }
+  }
+
+  @NonNull
+  private static TrustStore _parse (@NonNull final File aFile)
+  {
+    final String sPath = aFile.getAbsolutePath ();
+    // Determine the key before reading, so that a concurrent modification
+    // leads to a reload on the next access
+    final long nLastModified = aFile.lastModified ();
+    final long nSize = aFile.length ();
+
+    final LoadedKeyStore aLKS = KeyStoreHelper.loadKeyStore (EKeyStoreType.JKS,
+                                                             sPath,
+                                                             TRUST_STORE_PASSWORD.toCharArray ());
+    if (aLKS.isFailure ())
+      return new TrustStore (sPath, nLastModified, nSize, aLKS, null, new CommonsArrayList <> ());
+
+    final KeyStore aKS = aLKS.getKeyStore ();
+    final ICommonsList <Entry> aEntries = new CommonsArrayList <> ();
+    String sTraverseError = null;
+    try
+    {
+      for (final String sAlias : new CommonsArrayList <> (aKS.aliases ()))
+        aEntries.add (_createEntry (sPath, aKS, sAlias));
+    }
+    catch (final GeneralSecurityException ex)
+    {
+      sTraverseError = ex.getMessage ();
+    }
+    return new TrustStore (sPath, nLastModified, nSize, null, sTraverseError, aEntries);
+  }
+
+  /**
+   * Get the parsed trust store of the provided file. The file is only parsed
+   * again, if the last modification date or the size changed since the last
+   * call.
+   *
+   * @param aFile
+   *        The trust store file. May not be <code>null</code> and must be
+   *        readable.
+   * @return The parsed trust store. Never <code>null</code>.
+   */
+  @NonNull
+  public TrustStore getTrustStore (@NonNull final File aFile)
+  {
+    ValueEnforcer.notNull (aFile, "File");
+
+    final String sPath = aFile.getAbsolutePath ();
+    final TrustStore aCached = m_aRWLock.readLockedGet ( () -> m_aMap.get (sPath));
+    if (aCached != null && aCached.isUpToDate (aFile))
+      return aCached;
+
+    // Parse outside of the lock - in the worst case a file is parsed twice
+    final TrustStore ret = _parse (aFile);
+    m_aRWLock.writeLocked ( () -> m_aMap.put (sPath, ret));
+    return ret;
+  }
+
+  /**
+   * @return All existing and readable trust stores out of
+   *         {@link #getAllPossiblePaths()}. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <TrustStore> getAllTrustStores ()
+  {
+    final ICommonsList <TrustStore> ret = new CommonsArrayList <> ();
+    for (final String sPath : getAllPossiblePaths ())
+    {
+      final File aFile = new File (sPath);
+      if (aFile.isFile () && aFile.canRead ())
+        ret.add (getTrustStore (aFile));
+    }
+    return ret;
+  }
+
+  /**
+   * Get all certificates of all trust stores that expire within the provided
+   * number of days. Already expired certificates are contained as well.
+   *
+   * @param nDays
+   *        The number of days to look ahead. Must be &ge; 0.
+   * @return The matching certificates, sorted by expiration date with the
+   *         earliest first. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Entry> getAllExpiringEntries (@Nonnegative final int nDays)
+  {
+    ValueEnforcer.isGE0 (nDays, "Days");
+
+    final LocalDateTime aLimit = PDTFactory.getCurrentLocalDateTime ().plusDays (nDays);
+    final ICommonsList <Entry> ret = new CommonsArrayList <> ();
+    for (final TrustStore aTS : getAllTrustStores ())
+      for (final Entry aEntry : aTS.m_aEntries)
+        if (aEntry.isCertificate () && !aEntry.getNotAfter ().isAfter (aLimit))
+          ret.add (aEntry);
+    ret.sort (Comparator.comparing (Entry::getNotAfter));
+    return ret;
+  }
+
+  /**
+   * Remove all cached trust stores.
+   */
+  public void clearCache ()
+  {
+    m_aRWLock.writeLocked (m_aMap::clear);
+  }
+}
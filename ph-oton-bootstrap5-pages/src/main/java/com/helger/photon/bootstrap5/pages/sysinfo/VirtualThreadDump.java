@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.sysinfo;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringParser;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsSet;
+import com.helger.json.IJson;
+import com.helger.json.IJsonArray;
+import com.helger.json.IJsonObject;
+import com.helger.json.IJsonValue;
+import com.helger.json.serialize.JsonReader;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * A thread dump including virtual threads, based on the structured JSON thread
+ * dump of <code>HotSpotDiagnosticMXBean.dumpThreads</code>. That method is only
+ * available from Java 21 onwards and is therefore invoked via reflection. The
+ * dump is organized in thread containers (e.g. the root container and one
+ * container per executor service) that form a tree.
+ * <p>
+ * Pinned virtual threads are detected heuristically: a virtual thread that
+ * parks while pinned to its carrier runs through
+ * <code>VirtualThread.parkOnCarrierThread</code>, and <code>Object.wait</code>
+ * always pins the carrier before Java 24.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class VirtualThreadDump
+{
+  /**
+   * A single thread in the dump.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class ThreadEntry
+  {
+    private final long m_nID;
+    private final String m_sName;
+    private final boolean m_bVirtual;
+    private final long m_nCarrierID;
+    private final String m_sState;
+    private final ICommonsList <String> m_aStack;
+    private final boolean m_bPinned;
+
+    ThreadEntry (final long nID,
+                 @Nullable final String sName,
+                 final boolean bVirtual,
+                 final long nCarrierID,
+                 @Nullable final String sState,
+                 @NonNull final ICommonsList <String> aStack)
+    {
+      m_nID = nID;
+      m_sName = sName;
+      m_bVirtual = bVirtual;
+      m_nCarrierID = nCarrierID;
+      m_sState = sState;
+      m_aStack = aStack;
+      m_bPinned = bVirtual && aStack.containsAny (x -> {
+        final String sFrame = _getWithoutModule (x);
+        return sFrame.startsWith ("java.lang.VirtualThread.parkOnCarrierThread") ||
+               sFrame.startsWith ("java.lang.Object.wait");
+      });
+    }
+
+    /**
+     * Frames in the JSON dump are prefixed with the module, e.g.
+     * <code>java.base/java.lang.Object.wait0(Native Method)</code>.
+     */
+    @NonNull
+    private static String _getWithoutModule (@NonNull final String sFrame)
+    {
+      // Only look before the first parenthesis, as the source part may
+      // contain slashes as well
+      final int nParen = sFrame.indexOf ('(');
+      final int nSlash = nParen < 0 ? sFrame.lastIndexOf ('/') : sFrame.lastIndexOf ('/', nParen);
+      return nSlash < 0 ? sFrame : sFrame.substring (nSlash + 1);
+    }
+
+    public long getID ()
+    {
+      return m_nID;
+    }
+
+    /**
+     * @return The thread name. Virtual threads are often unnamed. May be
+     *         <code>null</code>.
+     */
+    @Nullable
+    public String getName ()
+    {
+      return m_sName;
+    }
+
+    public boolean isVirtual ()
+    {
+      return m_bVirtual;
+    }
+
+    /**
+     * @return The ID of the carrier thread a virtual thread is mounted on, or
+     *         -1 if unknown or not mounted. The carrier is only contained in
+     *         the dumps of newer Java versions.
+     */
+    public long getCarrierID ()
+    {
+      return m_nCarrierID;
+    }
+
+    /**
+     * @return The thread state if contained in the dump. May be
+     *         <code>null</code>.
+     */
+    @Nullable
+    public String getState ()
+    {
+      return m_sState;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <String> getStack ()
+    {
+      return m_aStack.getClone ();
+    }
+
+    @Nullable
+    public String getTopFrame ()
+    {
+      return m_aStack.getFirstOrNull ();
+    }
+
+    /**
+     * @return <code>true</code> if this is a virtual thread that is most likely
+     *         pinned to its carrier thread.
+     */
+    public boolean isPinned ()
+    {
+      return m_bPinned;
+    }
+  }
+
+  /**
+   * A single thread container.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class ThreadContainer
+  {
+    private final String m_sName;
+    private final String m_sParent;
+    private final long m_nOwnerID;
+    private final ICommonsList <ThreadEntry> m_aThreads;
+
+    ThreadContainer (@NonNull final String sName,
+                     @Nullable final String sParent,
+                     final long nOwnerID,
+                     @NonNull final ICommonsList <ThreadEntry> aThreads)
+    {
+      m_sName = sName;
+      m_sParent = sParent;
+      m_nOwnerID = nOwnerID;
+      m_aThreads = aThreads;
+    }
+
+    @NonNull
+    public String getName ()
+    {
+      return m_sName;
+    }
+
+    @Nullable
+    public String getParent ()
+    {
+      return m_sParent;
+    }
+
+    /**
+     * @return The ID of the thread owning this container (e.g. the thread that
+     *         opened a structured task scope) or -1 if there is no owner.
+     */
+    public long getOwnerID ()
+    {
+      return m_nOwnerID;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <ThreadEntry> getAllThreads ()
+    {
+      return m_aThreads.getClone ();
+    }
+
+    @Nonnegative
+    public int getThreadCount ()
+    {
+      return m_aThreads.size ();
+    }
+
+    @Nonnegative
+    public int getVirtualThreadCount ()
+    {
+      return m_aThreads.getAll (ThreadEntry::isVirtual).size ();
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (VirtualThreadDump.class);
+
+  private final ICommonsList <ThreadContainer> m_aContainers;
+
+  private VirtualThreadDump (@NonNull final ICommonsList <ThreadContainer> aContainers)
+  {
+    m_aContainers = aContainers;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ThreadContainer> getAllContainers ()
+  {
+    return m_aContainers.getClone ();
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ThreadEntry> getAllThreads ()
+  {
+    final ICommonsList <ThreadEntry> ret = new CommonsArrayList <> ();
+    for (final ThreadContainer aContainer : m_aContainers)
+      ret.addAll (aContainer.m_aThreads);
+    return ret;
+  }
+
+  @Nullable
+  private static String _getString (@NonNull final IJsonObject aObj, @NonNull final String sKey)
+  {
+    final IJsonValue aValue = aObj.getAsValue (sKey);
+    return aValue == null || aValue.isNull () ? null : aValue.getAsString ();
+  }
+
+  private static long _getLong (@NonNull final IJsonObject aObj, @NonNull final String sKey)
+  {
+    // Numbers are emitted as strings
+    return StringParser.parseLong (_getString (aObj, sKey), -1);
+  }
+
+  @Nullable
+  static VirtualThreadDump parse (@NonNull final IJsonObject aRoot, @NonNull final ICommonsSet <Long> aPlatformIDs)
+  {
+    final IJsonObject aDump = aRoot.getAsObject ("threadDump");
+    if (aDump == null)
+      return null;
+
+    final ICommonsList <ThreadContainer> aContainers = new CommonsArrayList <> ();
+    final IJsonArray aJsonContainers = aDump.getAsArray ("threadContainers");
+    if (aJsonContainers != null)
+      for (final IJson aJsonContainer : aJsonContainers)
+        if (aJsonContainer.isObject ())
+        {
+          final IJsonObject aContainer = aJsonContainer.getAsObject ();
+          final ICommonsList <ThreadEntry> aThreads = new CommonsArrayList <> ();
+          final IJsonArray aJsonThreads = aContainer.getAsArray ("threads");
+          if (aJsonThreads != null)
+            for (final IJson aJsonThread : aJsonThreads)
+              if (aJsonThread.isObject ())
+              {
+                final IJsonObject aThread = aJsonThread.getAsObject ();
+                final long nID = _getLong (aThread, "tid");
+                final ICommonsList <String> aStack = new CommonsArrayList <> ();
+                final IJsonArray aJsonStack = aThread.getAsArray ("stack");
+                if (aJsonStack != null)
+                  for (final IJson aFrame : aJsonStack)
+                    if (aFrame.isValue ())
+                      aStack.add (aFrame.getAsValue ().getAsString ());
+
+                // Newer versions contain an explicit flag, otherwise everything
+                // not known to the ThreadMXBean is virtual
+                final String sVirtual = _getString (aThread, "virtual");
+                final boolean bVirtual = sVirtual != null ? StringParser.parseBool (sVirtual)
+                                                          : !aPlatformIDs.contains (Long.valueOf (nID));
+                aThreads.add (new ThreadEntry (nID,
+                                               StringHelper.getNotEmpty (_getString (aThread, "name"), null),
+                                               bVirtual,
+                                               _getLong (aThread, "carrier"),
+                                               _getString (aThread, "state"),
+                                               aStack));
+              }
+          aContainers.add (new ThreadContainer (StringHelper.getNotNull (_getString (aContainer, "container"), "?"),
+                                                _getString (aContainer, "parent"),
+                                                _getLong (aContainer, "owner"),
+                                                aThreads));
+        }
+    return new VirtualThreadDump (aContainers);
+  }
+
+  /**
+   * @return <code>true</code> if the structured thread dump is available in
+   *         this JVM.
+   */
+  public static boolean isSupported ()
+  {
+    return _getDumpThreadsMethod () != null;
+  }
+
+  @Nullable
+  private static Method _getDumpThreadsMethod ()
+  {
+    try
+    {
+      final Class <?> aFormatClass = Class.forName ("com.sun.management.HotSpotDiagnosticMXBean$ThreadDumpFormat");
+      return HotSpotDiagnosticMXBean.class.getMethod ("dumpThreads", String.class, aFormatClass);
+    }
+    catch (final ClassNotFoundException | NoSuchMethodException ex)
+    {
+      // Java < 21
+      return null;
+    }
+  }
+
+  /**
+   * Create a new structured thread dump.
+   *
+   * @return <code>null</code> if the JVM does not support structured thread
+   *         dumps or if creating the dump failed.
+   */
+  @Nullable
+  public static VirtualThreadDump createOrNull ()
+  {
+    final Method aMethod = _getDumpThreadsMethod ();
+    if (aMethod == null)
+      return null;
+
+    final HotSpotDiagnosticMXBean aMXBean = ManagementFactory.getPlatformMXBean (HotSpotDiagnosticMXBean.class);
+    if (aMXBean == null)
+      return null;
+
+    // Determine all platform threads
+    final ICommonsSet <Long> aPlatformIDs = new CommonsHashSet <> ();
+    for (final long nID : ManagementFactory.getThreadMXBean ().getAllThreadIds ())
+      aPlatformIDs.add (Long.valueOf (nID));
+
+    Path aFile = null;
+    try
+    {
+      // The target file must not exist
+      aFile = Files.createTempFile ("ph-threaddump", ".json");
+      Files.delete (aFile);
+
+      @SuppressWarnings ({ "unchecked", "rawtypes" })
+      final Object aJSONFormat = Enum.valueOf ((Class <? extends Enum>) aMethod.getParameterTypes ()[1], "JSON");
+      aMethod.invoke (aMXBean, aFile.toAbsolutePath ().toString (), aJSONFormat);
+
+      final IJson aJson = JsonReader.builder ().source (aFile.toFile ()).read ();
+      if (aJson == null || !aJson.isObject ())
+      {
+        LOGGER.warn ("Failed to parse the JSON thread dump");
+        return null;
+      }
+      return parse (aJson.getAsObject (), aPlatformIDs);
+    }
+    catch (final IOException | IllegalAccessException | InvocationTargetException | RuntimeException ex)
+    {
+      LOGGER.error ("Failed to create the JSON thread dump", ex);
+      return null;
+    }
+    finally
+    {
+      if (aFile != null)
+        try
+        {
+          Files.deleteIfExists (aFile);
+        }
+        catch (final IOException ex)
+        {
+          LOGGER.warn ("Failed to delete temporary thread dump file " + aFile);
+        }
+    }
+  }
+}
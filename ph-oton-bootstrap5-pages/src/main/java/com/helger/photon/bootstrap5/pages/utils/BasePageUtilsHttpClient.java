@@ -16,10 +16,25 @@
  */
 package com.helger.photon.bootstrap5.pages.utils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -28,6 +43,7 @@ import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.message.StatusLine;
+import org.apache.hc.core5.util.Timeout;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -42,42 +58,79 @@ import com.helger.base.name.IHasDisplayName;
 import com.helger.base.state.EChange;
 import com.helger.base.string.StringCount;
 import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringParser;
 import com.helger.base.timing.StopWatch;
 import com.helger.collection.commons.CommonsHashMap;
 import com.helger.collection.commons.ICommonsMap;
+import com.helger.collection.commons.ICommonsSortedMap;
+import com.helger.css.ECSSUnit;
+import com.helger.css.property.CCSSProperties;
+import com.helger.datetime.format.PDTToString;
+import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.html.forms.HCCheckBox;
 import com.helger.html.hc.html.forms.HCEdit;
 import com.helger.html.hc.html.forms.HCHiddenField;
 import com.helger.html.hc.html.forms.HCTextArea;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.hc.html.tabular.HCCol;
 import com.helger.html.hc.html.tabular.HCTable;
+import com.helger.html.hc.html.textlevel.HCA;
+import com.helger.html.hc.html.textlevel.HCCode;
 import com.helger.html.hc.impl.HCNodeList;
 import com.helger.html.hc.impl.HCTextNode;
+import com.helger.html.hc.render.HCRenderer;
+import com.helger.html.jquery.JQuery;
+import com.helger.html.jscode.JSAnonymousFunction;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
 import com.helger.http.EHttpMethod;
 import com.helger.http.header.HttpHeaderMap;
 import com.helger.httpclient.HttpClientHelper;
 import com.helger.httpclient.HttpClientManager;
 import com.helger.httpclient.HttpClientSettings;
 import com.helger.httpclient.response.ResponseHandlerHttpEntity;
+import com.helger.io.file.FileOperationManager;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.mime.CMimeType;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
 import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.badge.BootstrapBadge;
+import com.helger.photon.bootstrap5.badge.EBootstrapBadgeType;
 import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
+import com.helger.photon.bootstrap5.buttongroup.BootstrapButtonToolbar;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.pages.BootstrapWebPageUIHandler;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.bootstrap5.uictrls.datatables.BootstrapDataTables;
 import com.helger.photon.bootstrap5.uictrls.ext.BootstrapTechnicalUI;
 import com.helger.photon.core.form.FormErrorList;
 import com.helger.photon.core.form.RequestField;
+import com.helger.photon.core.form.RequestFieldBoolean;
+import com.helger.photon.io.WebFileIO;
+import com.helger.photon.security.login.LoggedInUserManager;
+import com.helger.photon.security.user.IUser;
 import com.helger.photon.uicore.css.CPageParam;
 import com.helger.photon.uicore.html.select.HCExtSelect;
+import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.photon.uictrls.datatables.DataTablesLengthMenu;
 import com.helger.photon.uictrls.datatables.column.DTCol;
+import com.helger.servlet.response.EContentDispositionType;
 import com.helger.text.IMultilingualText;
 import com.helger.url.SimpleURL;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Page with the possibility to perform a remote query to check if the network connectivity is
- * given. Using {@link HttpClientConfigRegistry} external configurations can be added.
+ * given. Using {@link HttpClientConfigRegistry} external configurations can be added. In the load
+ * test mode the same query is sent many times concurrently in the background via
+ * {@link HttpLoadTest} to check the capacity of a downstream service.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -205,25 +258,54 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
     }
   }
 
+  /**
+   * Response handler that streams the response body: only a size-capped preview is kept in memory,
+   * while byte count and digest are computed on the fly. Optionally the full body is written to a
+   * file.
+   */
   private static final class DebugResponseHandler implements HttpClientResponseHandler <String>
   {
     private final Charset m_aDefaultCharset;
+    private final File m_aBodyFile;
     private StatusLine m_aUsedStatusLine;
     private Charset m_aUsedCharset;
     private final HttpHeaderMap m_aUsedHeaders = new HttpHeaderMap ();
-
-    public DebugResponseHandler (@NonNull final Charset aDefaultCharset)
+    private int m_nHeaderCount;
+    private long m_nResponseNanos;
+    private long m_nEndNanos;
+    private long m_nBodyBytes;
+    private String m_sBodyDigest;
+    private boolean m_bPreviewTruncated;
+    private boolean m_bBodyFileTruncated;
+
+    public DebugResponseHandler (@NonNull final Charset aDefaultCharset, @Nullable final File aBodyFile)
     {
       m_aDefaultCharset = aDefaultCharset;
+      m_aBodyFile = aBodyFile;
     }
 
     @Nullable
     public String handleResponse (@NonNull final ClassicHttpResponse aHttpResponse) throws IOException
     {
+      // Called as soon as the response headers are available
+      m_nResponseNanos = System.nanoTime ();
+      m_aUsedStatusLine = new StatusLine (aHttpResponse);
+      m_aUsedHeaders.removeAll ();
+      m_nHeaderCount = 0;
+      for (final Header aHeader : aHttpResponse.getHeaders ())
+      {
+        if (m_nHeaderCount < MAX_RESPONSE_HEADERS)
+          m_aUsedHeaders.addHeader (aHeader.getName (), aHeader.getValue ());
+        m_nHeaderCount++;
+      }
+
       // Convert to entity
       final HttpEntity aEntity = ResponseHandlerHttpEntity.INSTANCE.handleResponse (aHttpResponse);
       if (aEntity == null)
+      {
+        m_nEndNanos = System.nanoTime ();
         return null;
+      }
 
       final Charset aCharset;
       final ContentType aContentType = HttpClientHelper.getContentType (aEntity);
@@ -234,13 +316,46 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
         // Get the charset from the content type or the default charset
         aCharset = HttpClientHelper.getCharset (aContentType, m_aDefaultCharset);
       }
-      m_aUsedStatusLine = new StatusLine (aHttpResponse);
       m_aUsedCharset = aCharset;
-      m_aUsedHeaders.removeAll ();
-      for (final Header aHeader : aHttpResponse.getHeaders ())
-        m_aUsedHeaders.addHeader (aHeader.getName (), aHeader.getValue ());
 
-      return HttpClientHelper.entityToString (aEntity, aCharset);
+      final MessageDigest aDigest;
+      try
+      {
+        aDigest = MessageDigest.getInstance (BODY_DIGEST_ALGORITHM);
+      }
+      catch (final NoSuchAlgorithmException ex)
+      {
+        throw new IllegalStateException (ex);
+      }
+
+      final ByteArrayOutputStream aPreview = new ByteArrayOutputStream ();
+      final byte [] aBuffer = new byte [16 * 1024];
+      try (final InputStream aIS = aEntity.getContent ();
+           final OutputStream aFileOS = m_aBodyFile == null ? null : new FileOutputStream (m_aBodyFile))
+      {
+        int nRead;
+        while ((nRead = aIS.read (aBuffer)) >= 0)
+        {
+          aDigest.update (aBuffer, 0, nRead);
+          final int nPreviewBytes = (int) Math.min (nRead, MAX_PREVIEW_BYTES - aPreview.size ());
+          if (nPreviewBytes > 0)
+            aPreview.write (aBuffer, 0, nPreviewBytes);
+          if (nPreviewBytes < nRead)
+            m_bPreviewTruncated = true;
+          if (aFileOS != null)
+          {
+            final int nFileBytes = (int) Math.max (0, Math.min (nRead, MAX_STORED_BYTES - m_nBodyBytes));
+            if (nFileBytes > 0)
+              aFileOS.write (aBuffer, 0, nFileBytes);
+            if (nFileBytes < nRead)
+              m_bBodyFileTruncated = true;
+          }
+          m_nBodyBytes += nRead;
+        }
+      }
+      m_nEndNanos = System.nanoTime ();
+      m_sBodyDigest = HexFormat.of ().formatHex (aDigest.digest ());
+      return new String (aPreview.toByteArray (), aCharset);
     }
   }
 
@@ -248,6 +363,66 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
   private static final String FIELD_CONFIG = "config";
   private static final String FIELD_HTTP_METHOD = "http_method";
   private static final String FIELD_URI = "uri";
+  private static final String FIELD_MODE = "mode";
+  private static final String FIELD_CONNECT_TIMEOUT = "connect_timeout";
+  private static final String FIELD_RESPONSE_TIMEOUT = "response_timeout";
+  private static final String FIELD_REQUESTS = "requests";
+  private static final String FIELD_CONCURRENCY = "concurrency";
+  private static final String FIELD_DURATION = "duration";
+  private static final String FIELD_REUSE_CONNECTIONS = "reuse_connections";
+  private static final String MODE_SINGLE = "single";
+  private static final String MODE_LOAD = "load";
+  private static final String ACTION_ABORT_LOAD = "abortload";
+  private static final String FIELD_STORE_BODY = "store_body";
+  private static final String PARAM_FILE = "file";
+  private static final int DEFAULT_PROBE_TIMEOUT_MS = 10_000;
+  private static final int MAX_RESPONSE_HEADERS = 100;
+  private static final int MAX_PREVIEW_BYTES = 64 * 1024;
+  private static final long MAX_STORED_BYTES = 1024L * 1024 * 1024;
+  private static final String BODY_DIGEST_ALGORITHM = "SHA-256";
+  /** The directory inside the data path where response bodies are stored */
+  private static final String RESPONSE_DIRECTORY_NAME = "httpclient";
+  /** Random UUIDs, so that the file names cannot be guessed */
+  private static final Pattern RESPONSE_FILE_NAME = Pattern.compile ("response-[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.bin");
+  private static final int MAX_STORED_RESPONSES = 5;
+  private static final String LOAD_TEST_CONTAINER_ID = "httploadtest";
+  private static final long LOAD_TEST_POLL_MILLIS = 1_000;
+  /** Upper bounds of the latency buckets in milliseconds */
+  private static final long [] LATENCY_BUCKETS_MS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, Long.MAX_VALUE };
+  private static final AjaxFunctionDeclaration AJAX_LOAD_TEST;
+  private static final AjaxFunctionDeclaration AJAX_DOWNLOAD_RESPONSE;
+
+  static
+  {
+    AJAX_LOAD_TEST = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      final IHCNode aNode = createLoadTestResult (aRequestScope);
+      aAjaxResponse.setContentAndCharset (HCRenderer.getAsHTMLStringWithoutNamespaces (aNode), StandardCharsets.UTF_8);
+      aAjaxResponse.setMimeType (CMimeType.TEXT_HTML);
+      aAjaxResponse.disableCaching ();
+    });
+    AJAX_DOWNLOAD_RESPONSE = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      // AJAX functions are not covered by the menu item filter
+      final IUser aUser = LoggedInUserManager.getInstance ().getCurrentUser ();
+      if (aUser == null || !aUser.isAdministrator ())
+      {
+        aAjaxResponse.setStatus (HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+
+      final File aFile = _getResponseFile (aRequestScope.params ().getAsString (PARAM_FILE));
+      if (aFile != null)
+      {
+        // Stream from disk - responses may be large
+        aAjaxResponse.setContent (new FileSystemResource (aFile));
+        aAjaxResponse.setMimeType (CMimeType.APPLICATION_OCTET_STREAM);
+        aAjaxResponse.setContentDispositionType (EContentDispositionType.ATTACHMENT);
+        aAjaxResponse.setContentDispositionFilename (aFile.getName ());
+        aAjaxResponse.disableCaching ();
+      }
+      else
+        aAjaxResponse.createBadRequest ();
+    });
+  }
 
   public BasePageUtilsHttpClient (@NonNull @Nonempty final String sID)
   {
@@ -273,6 +448,224 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
     super (sID, aName, aDescription);
   }
 
+  @NonNull
+  private static String _getNanosAsMillis (final long nNanos)
+  {
+    return nNanos < 0 ? "-" : String.format (Locale.ROOT, "%.1f", nNanos / 1_000_000d);
+  }
+
+  @NonNull
+  private static File _getResponseDirectory ()
+  {
+    return WebFileIO.getDataIO ().getFile (RESPONSE_DIRECTORY_NAME);
+  }
+
+  @Nullable
+  private static File _getResponseFile (@Nullable final String sFilename)
+  {
+    if (sFilename == null || !RESPONSE_FILE_NAME.matcher (sFilename).matches ())
+      return null;
+    final File aFile = new File (_getResponseDirectory (), sFilename);
+    return aFile.isFile () ? aFile : null;
+  }
+
+  /**
+   * Create a new file for a response body and delete the oldest stored bodies, so that at most
+   * {@link #MAX_STORED_RESPONSES} are kept.
+   */
+  @NonNull
+  private static File _createResponseFile ()
+  {
+    final File aDir = _getResponseDirectory ();
+    FileOperationManager.INSTANCE.createDirRecursiveIfNotExisting (aDir);
+    final File [] aFiles = aDir.listFiles ( (d, n) -> RESPONSE_FILE_NAME.matcher (n).matches ());
+    if (aFiles != null && aFiles.length >= MAX_STORED_RESPONSES)
+    {
+      Arrays.sort (aFiles, Comparator.comparingLong (File::lastModified));
+      for (int i = 0; i <= aFiles.length - MAX_STORED_RESPONSES; ++i)
+        FileOperationManager.INSTANCE.deleteFileIfExisting (aFiles[i]);
+    }
+    return new File (aDir, "response-" + UUID.randomUUID ().toString () + ".bin");
+  }
+
+  @NonNull
+  private static String _getMillis (final long nMicros)
+  {
+    return String.format (Locale.ROOT, "%.1f", nMicros / 1000d);
+  }
+
+  private static long _getPercentile (@NonNull final long [] aSorted, final double dPercentile)
+  {
+    if (aSorted.length == 0)
+      return 0;
+    final int nIndex = (int) Math.ceil (dPercentile / 100d * aSorted.length) - 1;
+    return aSorted[Math.max (0, Math.min (aSorted.length - 1, nIndex))];
+  }
+
+  @NonNull
+  private static IHCNode _createBar (final long nPart, final long nTotal)
+  {
+    final double dShare = nTotal <= 0 ? 0 : Math.min (100d, nPart * 100d / nTotal);
+    final HCDiv aBar = new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR);
+    aBar.addStyle (CCSSProperties.WIDTH.newValue (ECSSUnit.perc (dShare)));
+    return new HCDiv ().addClass (CBootstrapCSS.PROGRESS).addChild (aBar);
+  }
+
+  /**
+   * Create the result of the current or last load test. As long as the load test is running, the
+   * result contains a script that reloads it after a short delay.
+   *
+   * @param aRequestScope
+   *        The current request scope. May not be <code>null</code>.
+   * @return The created node. Never <code>null</code>.
+   */
+  @NonNull
+  public static IHCNode createLoadTestResult (@NonNull final IRequestWebScopeWithoutResponse aRequestScope)
+  {
+    final BootstrapWebPageUIHandler aUIHandler = BootstrapWebPageUIHandler.INSTANCE;
+    final HCNodeList ret = new HCNodeList ();
+    final HttpLoadTest.Job aJob = HttpLoadTest.getInstance ().getJob ();
+    if (aJob == null)
+    {
+      ret.addChild (new HCDiv ().addChild ("No load test was run yet."));
+      return ret;
+    }
+
+    final boolean bRunning = aJob.isRunning ();
+    final int nCompleted = aJob.getCompletedCount ();
+    ret.addChild (new HCDiv ().addChild ("Load test of " + aJob.getMethod ().getName () + " ")
+                              .addChild (new HCCode ().addChild (aJob.getURI ()))
+                              .addChild (" using '" +
+                                         aJob.getConfigName () +
+                                         "' started at " +
+                                         PDTToString.getAsString (aJob.getStartDateTime (), Locale.ROOT) +
+                                         ": " +
+                                         (bRunning ? "running" : aJob.isAborted () ? "aborted" : "finished")));
+
+    // Summary
+    {
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star ());
+      aTable.setCondensed (true);
+      aTable.addBodyRow ().addCells ("Completed requests", nCompleted + " of at most " + aJob.getMaxRequests ());
+      aTable.addBodyRow ().addCells ("Concurrency", Integer.toString (aJob.getConcurrency ()));
+      if (aJob.getDuration () != null)
+        aTable.addBodyRow ().addCells ("Maximum duration", aJob.getDuration ().toSeconds () + " seconds");
+      aTable.addBodyRow ().addCells ("Reuse connections", aJob.isReuseConnections () ? "yes" : "no");
+      aTable.addBodyRow ()
+            .addCells ("Elapsed", String.format (Locale.ROOT, "%.1f seconds", aJob.getElapsed ().toMillis () / 1000d));
+      aTable.addBodyRow ()
+            .addCells ("Throughput", String.format (Locale.ROOT, "%.1f requests per second", aJob.getThroughput ()));
+      ret.addChild (aTable);
+    }
+
+    if (nCompleted > 0)
+    {
+      // Outcomes
+      ret.addChild (aUIHandler.createDataGroupHeader ("Outcomes"));
+      final ICommonsSortedMap <String, Long> aOutcomes = aJob.getAllOutcomes ();
+      final BootstrapTable aOutcomeTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+      aOutcomeTable.setStriped (true).setCondensed (true);
+      aOutcomeTable.addHeaderRow ().addCells ("Outcome", "Count", "Share");
+      for (final Map.Entry <String, Long> aEntry : aOutcomes.entrySet ())
+      {
+        final long nCount = aEntry.getValue ().longValue ();
+        final boolean bError = !aEntry.getKey ().equals ("2xx") && !aEntry.getKey ().equals ("3xx");
+        aOutcomeTable.addBodyRow ()
+                     .addCell (new BootstrapBadge (bError ? EBootstrapBadgeType.DANGER : EBootstrapBadgeType.SUCCESS).addChild (aEntry.getKey ()))
+                     .addCell (Long.toString (nCount))
+                     .addCell (String.format (Locale.ROOT, "%.1f%%", nCount * 100d / nCompleted));
+      }
+      ret.addChild (aOutcomeTable);
+
+      // Latency percentiles
+      final long [] aLatencies = aJob.getSortedLatencyMicros ();
+      long nSum = 0;
+      for (final long n : aLatencies)
+        nSum += n;
+      ret.addChild (aUIHandler.createDataGroupHeader ("Latency (ms)"));
+      final BootstrapTable aPercentileTable = new BootstrapTable (HCCol.star (),
+                                                                  HCCol.star (),
+                                                                  HCCol.star (),
+                                                                  HCCol.star (),
+                                                                  HCCol.star (),
+                                                                  HCCol.star (),
+                                                                  HCCol.star ());
+      aPercentileTable.setCondensed (true);
+      aPercentileTable.addHeaderRow ().addCells ("Min", "Average", "p50", "p90", "p95", "p99", "Max");
+      aPercentileTable.addBodyRow ()
+                      .addCells (_getMillis (aLatencies[0]),
+                                 _getMillis (nSum / aLatencies.length),
+                                 _getMillis (_getPercentile (aLatencies, 50)),
+                                 _getMillis (_getPercentile (aLatencies, 90)),
+                                 _getMillis (_getPercentile (aLatencies, 95)),
+                                 _getMillis (_getPercentile (aLatencies, 99)),
+                                 _getMillis (aLatencies[aLatencies.length - 1]));
+      ret.addChild (aPercentileTable);
+
+      // Latency histogram
+      final long [] aBucketCounts = new long [LATENCY_BUCKETS_MS.length];
+      int nBucket = 0;
+      for (final long nMicros : aLatencies)
+      {
+        // Latencies are sorted, so the bucket index only grows
+        while (nMicros > LATENCY_BUCKETS_MS[nBucket] * 1000 && nBucket < LATENCY_BUCKETS_MS.length - 1)
+          nBucket++;
+        aBucketCounts[nBucket]++;
+      }
+      final BootstrapTable aHistogramTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+      aHistogramTable.setStriped (true).setCondensed (true);
+      aHistogramTable.addHeaderRow ().addCells ("Latency (ms)", "Count", "");
+      long nLowerBound = 0;
+      for (int i = 0; i < LATENCY_BUCKETS_MS.length; ++i)
+      {
+        final long nUpperBound = LATENCY_BUCKETS_MS[i];
+        if (aBucketCounts[i] > 0)
+          aHistogramTable.addBodyRow ()
+                         .addCell (nUpperBound == Long.MAX_VALUE ? "> " + nLowerBound
+                                                                 : nLowerBound + " - " + nUpperBound)
+                         .addCell (Long.toString (aBucketCounts[i]))
+                         .addCell (_createBar (aBucketCounts[i], aLatencies.length));
+        nLowerBound = nUpperBound;
+      }
+      ret.addChild (aHistogramTable);
+    }
+
+    if (bRunning)
+    {
+      // Reload once - the reloaded content schedules the next reload until the test is finished
+      final JSAnonymousFunction aReload = new JSAnonymousFunction ();
+      aReload.body ()
+             .add (JQuery.idRef (LOAD_TEST_CONTAINER_ID)
+                         .load (AJAX_LOAD_TEST.getInvocationURL (aRequestScope).getAsString ()));
+      final JSPackage aPkg = new JSPackage ();
+      aPkg.add (JSExpr.invoke ("setTimeout").arg (aReload).arg (LOAD_TEST_POLL_MILLIS));
+      ret.addChild (new HCScriptInline (aPkg));
+    }
+    return ret;
+  }
+
+  /**
+   * Parse an optional positive integer form field.
+   *
+   * @return -1 if the field is empty, 0 if it is invalid.
+   */
+  private static int _getPositiveInt (@NonNull final IWebPageExecutionContext aWPEC,
+                                      @NonNull final String sFieldName,
+                                      final int nMax,
+                                      @NonNull final FormErrorList aFormErrors)
+  {
+    final String sValue = aWPEC.params ().getAsStringTrimmed (sFieldName);
+    if (StringHelper.isEmpty (sValue))
+      return -1;
+    final int ret = StringParser.parseInt (sValue, 0);
+    if (ret < 1 || ret > nMax)
+    {
+      aFormErrors.addFieldError (sFieldName, "The value must be between 1 and " + nMax + ".");
+      return 0;
+    }
+    return ret;
+  }
+
   @Override
   protected void fillContent (@NonNull final WPECTYPE aWPEC)
   {
@@ -282,6 +675,9 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
     aNodeList.addChild (info ("This page allows to perform arbitrary http(s) queries to test network connectivity problems."));
 
     final FormErrorList aFormErrors = new FormErrorList ();
+    if (aWPEC.hasAction (ACTION_ABORT_LOAD))
+      HttpLoadTest.getInstance ().abortJob ();
+
     if (aWPEC.hasAction (CPageParam.ACTION_PERFORM))
     {
       final String sConfigID = aWPEC.params ().getAsStringTrimmed (FIELD_CONFIG);
@@ -289,6 +685,9 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
       final String sHttpMethod = aWPEC.params ().getAsStringTrimmed (FIELD_HTTP_METHOD);
       final EHttpMethod eHttpMethod = EHttpMethod.getFromNameOrNull (sHttpMethod);
       final String sURI = aWPEC.params ().getAsStringTrimmed (FIELD_URI);
+      final boolean bLoadTest = MODE_LOAD.equals (aWPEC.params ().getAsStringTrimmed (FIELD_MODE));
+      final int nConnectTimeoutMS = _getPositiveInt (aWPEC, FIELD_CONNECT_TIMEOUT, 600_000, aFormErrors);
+      final int nResponseTimeoutMS = _getPositiveInt (aWPEC, FIELD_RESPONSE_TIMEOUT, 600_000, aFormErrors);
 
       if (StringHelper.isEmpty (sConfigID))
         aFormErrors.addFieldError (FIELD_CONFIG, "A configuration must be selected.");
@@ -307,80 +706,230 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
       else
         if (!sURI.startsWith ("http://") && !sURI.startsWith ("https://"))
           aFormErrors.addFieldError (FIELD_URI, "The URI must start with 'http://' or 'https://'");
+
+      int nRequests = -1;
+      int nConcurrency = -1;
+      int nDurationSecs = -1;
+      if (bLoadTest)
+      {
+        nRequests = _getPositiveInt (aWPEC, FIELD_REQUESTS, HttpLoadTest.MAX_REQUESTS, aFormErrors);
+        nConcurrency = _getPositiveInt (aWPEC, FIELD_CONCURRENCY, HttpLoadTest.MAX_CONCURRENCY, aFormErrors);
+        nDurationSecs = _getPositiveInt (aWPEC,
+                                         FIELD_DURATION,
+                                         (int) HttpLoadTest.MAX_DURATION.toSeconds (),
+                                         aFormErrors);
+        if (nRequests < 0 && nDurationSecs < 0)
+          aFormErrors.addFieldError (FIELD_REQUESTS, "Either the number of requests or the duration must be provided.");
+        if (nConcurrency < 0)
+          aFormErrors.addFieldError (FIELD_CONCURRENCY, "The concurrency must be provided.");
+      }
+
+      HttpClientSettings aHCS = null;
       if (aFormErrors.isEmpty ())
       {
-        String sResultContent;
-        boolean bSuccess = false;
-
-        LOGGER.info ("http client " +
-                     eHttpMethod.getName () +
-                     " query '" +
-                     sURI +
-                     "' using configuration '" +
-                     aConfig.getID () +
-                     "'");
-
-        final StopWatch aSW = StopWatch.createdStarted ();
-        final HttpClientSettings aHCS = aConfig.getHttpClientSettings (sURI);
-        final DebugResponseHandler aResponseHdl = new DebugResponseHandler (StandardCharsets.UTF_8);
-        try (final HttpClientManager aHCM = HttpClientManager.create (aHCS))
-        {
-          // Create depending on the method
-          final HttpUriRequestBase aReq = HttpClientHelper.createRequest (eHttpMethod, new SimpleURL (sURI));
-          sResultContent = aHCM.execute (aReq, aResponseHdl);
-          bSuccess = true;
-          LOGGER.info ("http client " + eHttpMethod.getName () + " query succeeded");
-        }
-        catch (final IOException ex)
+        aHCS = aConfig.getHttpClientSettings (sURI);
+        if (nConnectTimeoutMS > 0)
+          aHCS.setConnectTimeout (Timeout.ofMilliseconds (nConnectTimeoutMS));
+        if (nResponseTimeoutMS > 0)
+          aHCS.setResponseTimeout (Timeout.ofMilliseconds (nResponseTimeoutMS));
+      }
+
+      if (aFormErrors.isEmpty () && bLoadTest)
+      {
+        final HttpLoadTest.Job aJob = HttpLoadTest.getInstance ()
+                                                  .startJob (aConfig.getDisplayName (),
+                                                             eHttpMethod,
+                                                             sURI,
+                                                             nRequests > 0 ? nRequests : HttpLoadTest.MAX_REQUESTS,
+                                                             nConcurrency,
+                                                             nDurationSecs > 0 ? Duration.ofSeconds (nDurationSecs)
+                                                                               : null,
+                                                             aWPEC.params ()
+                                                                  .isCheckBoxChecked (FIELD_REUSE_CONNECTIONS, false),
+                                                             aHCS);
+        if (aJob == null)
+          aNodeList.addChild (error ("Another load test is still running. Please wait until it is finished or abort it."));
+      }
+      else
+        if (aFormErrors.isEmpty ())
         {
-          sResultContent = BootstrapTechnicalUI.getTechnicalDetailsString (ex, aDisplayLocale);
-          LOGGER.warn ("http client " +
+          String sResultContent;
+          boolean bSuccess = false;
+
+          LOGGER.info ("http client " +
                        eHttpMethod.getName () +
-                       " query failed with " +
-                       ex.getClass ().getName () +
-                       " - " +
-                       ex.getMessage ());
+                       " query '" +
+                       sURI +
+                       "' using configuration '" +
+                       aConfig.getID () +
+                       "'");
+
+          // Measure the connection phases separately, as the HTTP client does not expose them.
+          // The probe connects directly, so it would measure a different route if a proxy is used.
+          final boolean bProxy = aHCS.getGeneralProxy ().getProxyHost () != null;
+          HttpConnectionProbe aProbe = null;
+          if (!bProxy)
+            try
+            {
+              aProbe = HttpConnectionProbe.probe (URI.create (sURI),
+                                                  aHCS.getSSLContext (),
+                                                  nConnectTimeoutMS > 0 ? nConnectTimeoutMS : DEFAULT_PROBE_TIMEOUT_MS);
+            }
+            catch (final IllegalArgumentException ex)
+            {
+              // Not a valid java.net.URI - skip the probe
+            }
+
+          final File aBodyFile = aWPEC.params ().isCheckBoxChecked (FIELD_STORE_BODY, false) ? _createResponseFile ()
+                                                                                            : null;
+          final long nRequestStartNanos = System.nanoTime ();
+          final StopWatch aSW = StopWatch.createdStarted ();
+          final DebugResponseHandler aResponseHdl = new DebugResponseHandler (StandardCharsets.UTF_8, aBodyFile);
+          try (final HttpClientManager aHCM = HttpClientManager.create (aHCS))
+          {
+            // Create depending on the method
+            final HttpUriRequestBase aReq = HttpClientHelper.createRequest (eHttpMethod, new SimpleURL (sURI));
+            sResultContent = aHCM.execute (aReq, aResponseHdl);
+            bSuccess = true;
+            LOGGER.info ("http client " + eHttpMethod.getName () + " query succeeded");
+          }
+          catch (final IOException ex)
+          {
+            sResultContent = BootstrapTechnicalUI.getTechnicalDetailsString (ex, aDisplayLocale);
+            LOGGER.warn ("http client " +
+                         eHttpMethod.getName () +
+                         " query failed with " +
+                         ex.getClass ().getName () +
+                         " - " +
+                         ex.getMessage ());
+          }
+          aSW.stop ();
+
+          aNodeList.addChild (div ("Output of querying ").addChild (code (sURI))
+                                                         .addChild (" using ")
+                                                         .addChild (em (aConfig.getDisplayName ()))
+                                                         .addChild (": ")
+                                                         .addChild (bSuccess ? badgeSuccess ("success") : badgeDanger (
+                                                                                                                       "error")));
+          aNodeList.addChild (div ("Querying took " + aSW.getMillis () + " milliseconds"));
+
+          // Timing breakdown
+          {
+            final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+            aTable.setCondensed (true);
+            aTable.addHeaderRow ().addCells ("Phase", "Duration (ms)", "Details");
+            if (bProxy)
+              aTable.addBodyRow ()
+                    .addCells ("Connection probe",
+                               "",
+                               "Skipped, because a proxy is configured and the probe only measures direct connections");
+            if (aProbe != null)
+            {
+              aTable.addBodyRow ()
+                    .addCells ("DNS lookup (probe)", _getNanosAsMillis (aProbe.getDNSNanos ()), aProbe.getHost ());
+              aTable.addBodyRow ()
+                    .addCells ("TCP connect (probe)",
+                               _getNanosAsMillis (aProbe.getConnectNanos ()),
+                               aProbe.getAddress () == null ? "" : aProbe.getAddress () + ":" + aProbe.getPort ());
+              if (sURI.startsWith ("https://"))
+                aTable.addBodyRow ()
+                      .addCells ("TLS handshake (probe)",
+                                 _getNanosAsMillis (aProbe.getTLSNanos ()),
+                                 StringHelper.getNotNull (aProbe.getTLSDetails ()));
+              if (aProbe.getError () != null)
+                aTable.addBodyRow ().addCell ("Probe error").addCell ("").addCell (code (aProbe.getError ()));
+            }
+            if (aResponseHdl.m_nResponseNanos > 0)
+            {
+              aTable.addBodyRow ()
+                    .addCells ("Time to first byte",
+                               _getNanosAsMillis (aResponseHdl.m_nResponseNanos - nRequestStartNanos),
+                               "Including connection setup of the HTTP client");
+              if (aResponseHdl.m_nEndNanos > 0)
+                aTable.addBodyRow ()
+                      .addCells ("Transfer",
+                                 _getNanosAsMillis (aResponseHdl.m_nEndNanos - aResponseHdl.m_nResponseNanos),
+                                 "");
+            }
+            aTable.addBodyRow ().addCells ("Total request", Long.toString (aSW.getMillis ()), "");
+            aNodeList.addChild (aTable);
+          }
+
+          if (aResponseHdl.m_aUsedStatusLine != null)
+          {
+            // toString of ProtocolVersion is fine
+            aNodeList.addChild (div ("Response protocol version: ").addChild (code (String.valueOf (aResponseHdl.m_aUsedStatusLine.getProtocolVersion ()))));
+            aNodeList.addChild (div ("Response status code: ").addChild (code (Integer.toString (aResponseHdl.m_aUsedStatusLine.getStatusCode ()))));
+            aNodeList.addChild (div ("Response reason phrase: ").addChild (code (aResponseHdl.m_aUsedStatusLine.getReasonPhrase ())));
+          }
+          if (aResponseHdl.m_aUsedCharset != null)
+            aNodeList.addChild (div ("Response charset used: ").addChild (code (aResponseHdl.m_aUsedCharset.name ())));
+          if (aResponseHdl.m_aUsedHeaders.isNotEmpty ())
+          {
+            aNodeList.addChild (div ("Response HTTP headers:"));
+            if (aResponseHdl.m_nHeaderCount > MAX_RESPONSE_HEADERS)
+              aNodeList.addChild (warn ("Only the first " +
+                                        MAX_RESPONSE_HEADERS +
+                                        " of " +
+                                        aResponseHdl.m_nHeaderCount +
+                                        " response headers are shown."));
+            final HCTable aTable = new HCTable (new DTCol ("Name").setInitialSorting (ESortOrder.ASCENDING),
+                                                new DTCol ("Value")).setID ("httpresponseheaders");
+            aResponseHdl.m_aUsedHeaders.forEachSingleHeader ( (n, v) -> aTable.addBodyRow ().addCells (n, v), false);
+            final BootstrapDataTables aDT = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
+            aDT.setLengthMenu (DataTablesLengthMenu.INSTANCE_ALL);
+            aDT.setPaging (false);
+            aDT.setInfo (false);
+            aNodeList.addChild (aTable).addChild (aDT);
+          }
+          if (aResponseHdl.m_sBodyDigest != null)
+          {
+            aNodeList.addChild (div ("Response body: " +
+                                     aResponseHdl.m_nBodyBytes +
+                                     " bytes; " +
+                                     BODY_DIGEST_ALGORITHM +
+                                     ": ").addChild (code (aResponseHdl.m_sBodyDigest)));
+            if (aResponseHdl.m_bPreviewTruncated)
+              aNodeList.addChild (div ("Only the first " + MAX_PREVIEW_BYTES + " bytes of the response body are shown."));
+            if (aBodyFile != null)
+            {
+              final HCDiv aDiv = div ("The full response body was stored: ");
+              aDiv.addChild (new HCA (AJAX_DOWNLOAD_RESPONSE.getInvocationURL (aWPEC.getRequestScope ())
+                                                            .add (PARAM_FILE, aBodyFile.getName ())).addChild ("download"));
+              if (aResponseHdl.m_bBodyFileTruncated)
+                aDiv.addChild (" (truncated after " + MAX_STORED_BYTES + " bytes)");
+              aNodeList.addChild (aDiv);
+            }
+          }
+          aNodeList.addChild (new HCTextArea ("responsepayload").setRows (Math.min (10,
+                                                                                    1 +
+                                                                                        StringCount.getCharCount (sResultContent,
+                                                                                                                  '\n')))
+                                                                .setValue (sResultContent)
+                                                                .addClass (CBootstrapCSS.FORM_CONTROL)
+                                                                .addClass (CBootstrapCSS.FONT_MONOSPACE)
+                                                                .addClass (CBootstrapCSS.MB_2));
         }
-        aSW.stop ();
-
-        aNodeList.addChild (div ("Output of querying ").addChild (code (sURI))
-                                                       .addChild (" using ")
-                                                       .addChild (em (aConfig.getDisplayName ()))
-                                                       .addChild (": ")
-                                                       .addChild (bSuccess ? badgeSuccess ("success") : badgeDanger (
-                                                                                                                     "error")));
-        aNodeList.addChild (div ("Querying took " + aSW.getMillis () + " milliseconds"));
-        if (aResponseHdl.m_aUsedStatusLine != null)
-        {
-          // toString of ProtocolVersion is fine
-          aNodeList.addChild (div ("Response protocol version: ").addChild (code (String.valueOf (aResponseHdl.m_aUsedStatusLine.getProtocolVersion ()))));
-          aNodeList.addChild (div ("Response status code: ").addChild (code (Integer.toString (aResponseHdl.m_aUsedStatusLine.getStatusCode ()))));
-          aNodeList.addChild (div ("Response reason phrase: ").addChild (code (aResponseHdl.m_aUsedStatusLine.getReasonPhrase ())));
-        }
-        if (aResponseHdl.m_aUsedCharset != null)
-          aNodeList.addChild (div ("Response charset used: ").addChild (code (aResponseHdl.m_aUsedCharset.name ())));
-        if (aResponseHdl.m_aUsedHeaders.isNotEmpty ())
-        {
-          aNodeList.addChild (div ("Response HTTP headers:"));
-          final HCTable aTable = new HCTable (new DTCol ("Name").setInitialSorting (ESortOrder.ASCENDING),
-                                              new DTCol ("Value")).setID ("httpresponseheaders");
-          aResponseHdl.m_aUsedHeaders.forEachSingleHeader ( (n, v) -> aTable.addBodyRow ().addCells (n, v), false);
-          final BootstrapDataTables aDT = BootstrapDataTables.createDefaultDataTables (aWPEC, aTable);
-          aDT.setLengthMenu (DataTablesLengthMenu.INSTANCE_ALL);
-          aDT.setPaging (false);
-          aDT.setInfo (false);
-          aNodeList.addChild (aTable).addChild (aDT);
-        }
-        aNodeList.addChild (new HCTextArea ("responsepayload").setRows (Math.min (10,
-                                                                                  1 +
-                                                                                      StringCount.getCharCount (sResultContent,
-                                                                                                                '\n')))
-                                                              .setValue (sResultContent)
-                                                              .addClass (CBootstrapCSS.FORM_CONTROL)
-                                                              .addClass (CBootstrapCSS.FONT_MONOSPACE)
-                                                              .addClass (CBootstrapCSS.MB_2));
+    }
+
+    // Current or last load test
+    final HttpLoadTest.Job aLoadTestJob = HttpLoadTest.getInstance ().getJob ();
+    if (aLoadTestJob != null)
+    {
+      aNodeList.addChild (getUIHandler ().createActionHeader ("Load test"));
+      if (aLoadTestJob.isRunning ())
+      {
+        final BootstrapButtonToolbar aToolbar = new BootstrapButtonToolbar (aWPEC);
+        aToolbar.addButton ("Abort load test",
+                            aWPEC.getSelfHref ().add (CPageParam.PARAM_ACTION, ACTION_ABORT_LOAD),
+                            EDefaultIcon.CANCEL);
+        aNodeList.addChild (aToolbar);
       }
+      aNodeList.addChild (new HCDiv ().setID (LOAD_TEST_CONTAINER_ID)
+                                      .addClass (CBootstrapCSS.MB_2)
+                                      .addChild (createLoadTestResult (aWPEC.getRequestScope ())));
     }
+
     final BootstrapForm aForm = aNodeList.addAndReturnChild (new BootstrapForm (aWPEC));
     aForm.setLeft (2);
     {
@@ -411,6 +960,49 @@ public class BasePageUtilsHttpClient <WPECTYPE extends IWebPageExecutionContext>
                                                                code ("https://"),
                                                                new HCTextNode ("."))
                                                  .setErrorList (aFormErrors.getListOfField (FIELD_URI)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel ("Connect timeout (ms)")
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_CONNECT_TIMEOUT)))
+                                                 .setHelpText ("Leave empty to use the value of the configuration.")
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_CONNECT_TIMEOUT)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel ("Response timeout (ms)")
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_RESPONSE_TIMEOUT)))
+                                                 .setHelpText ("Leave empty to use the value of the configuration.")
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_RESPONSE_TIMEOUT)));
+    {
+      final HCExtSelect aSelect = new HCExtSelect (new RequestField (FIELD_MODE, MODE_SINGLE));
+      aSelect.addOption (MODE_SINGLE, "Single query");
+      aSelect.addOption (MODE_LOAD, "Load test");
+      aForm.addFormGroup (new BootstrapFormGroup ().setLabelMandatory ("Mode")
+                                                   .setCtrl (aSelect)
+                                                   .setHelpText ("A load test runs in the background. Only one load test can run at a time."));
+    }
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel ("Load test: number of requests")
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_REQUESTS, "100")))
+                                                 .setHelpText ("At most " +
+                                                               HttpLoadTest.MAX_REQUESTS +
+                                                               ". May be empty if a duration is provided.")
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_REQUESTS)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel ("Load test: concurrency")
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_CONCURRENCY, "4")))
+                                                 .setHelpText ("The number of concurrent requests. At most " +
+                                                               HttpLoadTest.MAX_CONCURRENCY +
+                                                               ".")
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_CONCURRENCY)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabel ("Load test: duration (seconds)")
+                                                 .setCtrl (new HCEdit (new RequestField (FIELD_DURATION)))
+                                                 .setHelpText ("Optional maximum duration. At most " +
+                                                               HttpLoadTest.MAX_DURATION.toSeconds () +
+                                                               " seconds.")
+                                                 .setErrorList (aFormErrors.getListOfField (FIELD_DURATION)));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabelForCheckBox ("Load test: reuse connections")
+                                                 .setCtrl (new HCCheckBox (new RequestFieldBoolean (FIELD_REUSE_CONNECTIONS,
+                                                                                                    true))));
+    aForm.addFormGroup (new BootstrapFormGroup ().setLabelForCheckBox ("Store the full response body for download")
+                                                 .setCtrl (new HCCheckBox (new RequestFieldBoolean (FIELD_STORE_BODY,
+                                                                                                    false)))
+                                                 .setHelpText ("Only for single queries. At most " +
+                                                               MAX_PREVIEW_BYTES +
+                                                               " bytes are shown on the page."));
     aForm.addChild (new HCHiddenField (CPageParam.PARAM_ACTION, CPageParam.ACTION_PERFORM));
     aForm.addChild (new BootstrapSubmitButton ().addChild ("Query now"));
   }
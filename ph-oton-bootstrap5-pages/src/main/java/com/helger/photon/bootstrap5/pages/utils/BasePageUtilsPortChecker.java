@@ -16,6 +16,8 @@
  */
 package com.helger.photon.bootstrap5.pages.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.Locale;
 
 import org.jspecify.annotations.NonNull;
@@ -24,22 +26,39 @@ import org.jspecify.annotations.Nullable;
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.misc.Translatable;
 import com.helger.base.string.StringHelper;
+import com.helger.base.string.StringImplode;
 import com.helger.base.string.StringParser;
 import com.helger.cache.regex.RegExHelper;
 import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashSet;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedSet;
+import com.helger.html.hc.IHCNode;
 import com.helger.html.hc.html.forms.HCEdit;
 import com.helger.html.hc.html.forms.HCHiddenField;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.hc.html.tabular.HCCol;
+import com.helger.html.hc.html.textlevel.HCCode;
 import com.helger.html.hc.impl.HCNodeList;
+import com.helger.html.hc.render.HCRenderer;
+import com.helger.html.jquery.JQuery;
+import com.helger.html.jscode.JSAnonymousFunction;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.mime.CMimeType;
 import com.helger.network.port.ENetworkPortStatus;
-import com.helger.network.port.NetworkPortHelper;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
 import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.badge.BootstrapBadge;
+import com.helger.photon.bootstrap5.badge.EBootstrapBadgeType;
 import com.helger.photon.bootstrap5.button.BootstrapSubmitButton;
 import com.helger.photon.bootstrap5.card.BootstrapCard;
 import com.helger.photon.bootstrap5.card.BootstrapCardBody;
 import com.helger.photon.bootstrap5.form.BootstrapForm;
 import com.helger.photon.bootstrap5.form.BootstrapFormGroup;
 import com.helger.photon.bootstrap5.pages.AbstractBootstrapWebPage;
+import com.helger.photon.bootstrap5.table.BootstrapTable;
 import com.helger.photon.core.form.FormErrorList;
 import com.helger.photon.core.form.RequestField;
 import com.helger.photon.uicore.css.CPageParam;
@@ -47,13 +66,15 @@ import com.helger.photon.uicore.icon.EDefaultIcon;
 import com.helger.photon.uicore.page.EWebPageText;
 import com.helger.photon.uicore.page.IWebPageExecutionContext;
 import com.helger.text.IMultilingualText;
-import com.helger.text.display.IHasDisplayText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
 
 /**
  * Page with the possibility to check if remote ports are open using the current configuration or
- * not.
+ * not. The ports are checked concurrently in the background by the {@link PortScanner} and the
+ * results are shown progressively.
  *
  * @author Philip Helger
  * @param <WPECTYPE>
@@ -63,21 +84,32 @@ public class BasePageUtilsPortChecker <WPECTYPE extends IWebPageExecutionContext
                                       AbstractBootstrapWebPage <WPECTYPE>
 {
   @Translatable
-  protected enum EText implements IHasDisplayText
+  protected enum EText implements IHasDisplayTextWithArgs
   {
     MSG_NOTE ("Hinweis: es können nur TCP-Ports geprüft werden.", "Note: only TCP ports can be checked."),
     MSG_HOSTNAME ("Hostname", "Hostname"),
     MSG_HOSTNAME_HELPTEXT ("Es kann ein Hostname oder eine IP-Adresse angegeben werden.",
                            "A hostname or an IP address can be provided"),
     MSG_PORTS ("Port Nummer(n)", "Port(s)"),
-    MSG_PORTS_HELPTEXT ("Mehrere Port-Nummern können durch Leerzeichen getrennt angegeben werden.",
-                        "Multiple port numbers can be provided, separated by space characters."),
+    MSG_PORTS_HELPTEXT ("Mehrere Port-Nummern oder Bereiche (z.B. 8000-8100) können durch Leerzeichen getrennt angegeben werden.",
+                        "Multiple port numbers or ranges (e.g. 8000-8100) can be provided, separated by space characters."),
     MSG_BUTTON_CHECK ("Prüfe Ports", "Check ports"),
     MSG_ERROR_HOSTNAME_MISSING ("Es muss ein Hostname angegeben werden.", "The hostname to check is mandatory."),
     MSG_ERROR_PORT_MISSING ("Es muss mindestens eine Port-Nummer angegeben werden.",
                             "At least one port number must be provided."),
-    MSG_RESULT_HEADER ("Überprüfungsergebnisse", "Port check results"),
-    MSG_RESULT_STATUS_PREFIX ("Status von ", "Status for ");
+    MSG_ERROR_PORT_INVALID ("''{0}'' ist keine gültige Port-Nummer und kein gültiger Bereich.",
+                            "''{0}'' is neither a valid port number nor a valid range."),
+    MSG_ERROR_TOO_MANY_PORTS ("Es können maximal {0} Ports auf einmal geprüft werden.",
+                              "At most {0} ports can be checked at once."),
+    MSG_RESULT_HEADER ("Überprüfungsergebnisse für {0}", "Port check results for {0}"),
+    MSG_RESULT_PROGRESS ("{0} von {1} Ports geprüft, {2} offen", "{0} of {1} ports checked, {2} open"),
+    MSG_RESULT_RUNNING ("Die Prüfung läuft noch...", "The check is still running..."),
+    MSG_RESULT_NOT_CHECKED ("Vor Ablauf von {0} Sekunden nicht geprüft: {1}",
+                            "Not checked within {0} seconds: {1}"),
+    MSG_RESULT_UNKNOWN ("Die Prüfung ist nicht mehr verfügbar.", "The check is no longer available."),
+    MSG_PORT ("Port", "Port"),
+    MSG_STATUS ("Status", "Status"),
+    MSG_LATENCY ("Latenz (ms)", "Latency (ms)");
 
     private final IMultilingualText m_aTP;
 
@@ -95,6 +127,21 @@ public class BasePageUtilsPortChecker <WPECTYPE extends IWebPageExecutionContext
 
   private static final String FIELD_HOST = "host";
   private static final String FIELD_PORT = "port";
+  private static final String PARAM_SCAN = "scan";
+  private static final long POLL_MILLIS = 500;
+  private static final AjaxFunctionDeclaration AJAX_RESULT;
+
+  static
+  {
+    AJAX_RESULT = addAjax ( (aRequestScope, aAjaxResponse) -> {
+      final IHCNode aNode = createScanResult (aRequestScope,
+                                              aRequestScope.params ().getAsString (PARAM_SCAN),
+                                              aRequestScope.getRequest ().getLocale ());
+      aAjaxResponse.setContentAndCharset (HCRenderer.getAsHTMLStringWithoutNamespaces (aNode), StandardCharsets.UTF_8);
+      aAjaxResponse.setMimeType (CMimeType.TEXT_HTML);
+      aAjaxResponse.disableCaching ();
+    });
+  }
 
   public BasePageUtilsPortChecker (@NonNull @Nonempty final String sID)
   {
@@ -120,6 +167,130 @@ public class BasePageUtilsPortChecker <WPECTYPE extends IWebPageExecutionContext
     super (sID, aName, aDescription);
   }
 
+  @NonNull
+  @Nonempty
+  private static String _getResultContainerID (@NonNull @Nonempty final String sScanID)
+  {
+    return "portscan-" + sScanID;
+  }
+
+  /**
+   * Create the current result of a scan. As long as the scan is running, the result contains a
+   * script that reloads it after a short delay.
+   *
+   * @param aRequestScope
+   *        The current request scope. May not be <code>null</code>.
+   * @param sScanID
+   *        The ID of the scan. May be <code>null</code>.
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @return The created node. Never <code>null</code>.
+   */
+  @NonNull
+  public static IHCNode createScanResult (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                                          @Nullable final String sScanID,
+                                          @NonNull final Locale aDisplayLocale)
+  {
+    final HCNodeList ret = new HCNodeList ();
+    final PortScanner.Scan aScan = PortScanner.getInstance ().getScanOfID (sScanID);
+    if (aScan == null)
+    {
+      ret.addChild (new HCDiv ().addChild (EText.MSG_RESULT_UNKNOWN.getDisplayText (aDisplayLocale)));
+      return ret;
+    }
+
+    final boolean bComplete = aScan.isComplete ();
+    final ICommonsList <PortScanner.PortResult> aResults = aScan.getAllResults ();
+    aResults.sort (Comparator.comparingInt (PortScanner.PortResult::getPort));
+    final int nOpen = aResults.getAll (x -> x.getStatus () != null && x.getStatus ().isPortOpen ()).size ();
+
+    ret.addChild (new HCDiv ().addClass (CBootstrapCSS.MB_2)
+                              .addChild (EText.MSG_RESULT_PROGRESS.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                           Integer.valueOf (aResults.size ()),
+                                                                                           Integer.valueOf (aScan.getAllPorts ()
+                                                                                                                 .size ()),
+                                                                                           Integer.valueOf (nOpen))));
+    if (aResults.isNotEmpty ())
+    {
+      final BootstrapTable aTable = new BootstrapTable (HCCol.star (), HCCol.star (), HCCol.star ());
+      aTable.setStriped (true).setCondensed (true);
+      aTable.addHeaderRow ()
+            .addCells (EText.MSG_PORT.getDisplayText (aDisplayLocale),
+                       EText.MSG_STATUS.getDisplayText (aDisplayLocale),
+                       EText.MSG_LATENCY.getDisplayText (aDisplayLocale));
+      for (final PortScanner.PortResult aResult : aResults)
+      {
+        final ENetworkPortStatus eStatus = aResult.getStatus ();
+        aTable.addBodyRow ()
+              .addCell (new HCCode ().addChild (aScan.getHost () + ":" + aResult.getPort ()))
+              .addCell (new BootstrapBadge (eStatus.isPortOpen () ? EBootstrapBadgeType.SUCCESS
+                                                                  : EBootstrapBadgeType.DANGER).addChild (eStatus.toString ()))
+              .addCell (Long.toString (aResult.getLatencyMillis ()));
+      }
+      ret.addChild (aTable);
+    }
+
+    if (bComplete)
+    {
+      final ICommonsList <Integer> aPending = aScan.getAllPendingPorts ();
+      if (aPending.isNotEmpty ())
+        ret.addChild (new HCDiv ().addClass (CBootstrapCSS.TEXT_WARNING)
+                                  .addChild (EText.MSG_RESULT_NOT_CHECKED.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                                  Long.valueOf (PortScanner.DEFAULT_DEADLINE.toSeconds ()),
+                                                                                                  StringImplode.getImploded (", ",
+                                                                                                                             aPending))));
+    }
+    else
+    {
+      ret.addChild (new HCDiv ().addChild (EText.MSG_RESULT_RUNNING.getDisplayText (aDisplayLocale)));
+
+      // Reload once - the reloaded content schedules the next reload until the scan is complete
+      final JSAnonymousFunction aReload = new JSAnonymousFunction ();
+      aReload.body ()
+             .add (JQuery.idRef (_getResultContainerID (aScan.getID ()))
+                         .load (AJAX_RESULT.getInvocationURL (aRequestScope).add (PARAM_SCAN, aScan.getID ()).getAsString ()));
+      final JSPackage aPkg = new JSPackage ();
+      aPkg.add (JSExpr.invoke ("setTimeout").arg (aReload).arg (POLL_MILLIS));
+      ret.addChild (new HCScriptInline (aPkg));
+    }
+    return ret;
+  }
+
+  /**
+   * Parse the port list. Ports and ranges like <code>8000-8100</code> are separated by whitespaces.
+   * Duplicates are removed.
+   */
+  @NonNull
+  private static ICommonsOrderedSet <Integer> _parsePorts (@Nullable final String sPorts,
+                                                           @NonNull final FormErrorList aFormErrors,
+                                                           @NonNull final Locale aDisplayLocale)
+  {
+    final ICommonsOrderedSet <Integer> ret = new CommonsLinkedHashSet <> ();
+    if (sPorts != null)
+      for (final String sPart : RegExHelper.getSplitToArray (sPorts, "\\s+"))
+      {
+        final int nSep = sPart.indexOf ('-');
+        final int nFrom = StringParser.parseInt (nSep < 0 ? sPart : sPart.substring (0, nSep), -1);
+        final int nTo = nSep < 0 ? nFrom : StringParser.parseInt (sPart.substring (nSep + 1), -1);
+        if (nFrom < 1 || nTo > 65535 || nFrom > nTo)
+        {
+          aFormErrors.addFieldError (FIELD_PORT, EText.MSG_ERROR_PORT_INVALID.getDisplayTextWithArgs (aDisplayLocale, sPart));
+          continue;
+        }
+        // Avoid building huge sets for ranges like 1-65535
+        if (nTo - nFrom + 1 > PortScanner.MAX_PORTS || ret.size () + nTo - nFrom + 1 > PortScanner.MAX_PORTS)
+        {
+          aFormErrors.addFieldError (FIELD_PORT,
+                                     EText.MSG_ERROR_TOO_MANY_PORTS.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                             Integer.valueOf (PortScanner.MAX_PORTS)));
+          break;
+        }
+        for (int nPort = nFrom; nPort <= nTo; ++nPort)
+          ret.add (Integer.valueOf (nPort));
+      }
+    return ret;
+  }
+
   @Override
   public void fillContent (@NonNull final WPECTYPE aWPEC)
   {
@@ -134,35 +305,28 @@ public class BasePageUtilsPortChecker <WPECTYPE extends IWebPageExecutionContext
     {
       final String sHost = aWPEC.params ().getAsStringTrimmed (FIELD_HOST);
       final String sPorts = aWPEC.params ().getAsStringTrimmed (FIELD_PORT);
-      final ICommonsList <Integer> aPorts = new CommonsArrayList <> ();
-      if (sPorts != null)
-        for (final String sPart : RegExHelper.getSplitToArray (sPorts, "\\s+"))
-        {
-          final int n = StringParser.parseInt (sPart, -1);
-          if (n > 0)
-            aPorts.add (Integer.valueOf (n));
-        }
+      final ICommonsOrderedSet <Integer> aPorts = _parsePorts (sPorts, aFormErrors, aDisplayLocale);
 
       if (StringHelper.isEmpty (sHost))
         aFormErrors.addFieldError (FIELD_HOST, EText.MSG_ERROR_HOSTNAME_MISSING.getDisplayText (aDisplayLocale));
 
-      if (aPorts.isEmpty ())
+      if (aPorts.isEmpty () && aFormErrors.getListOfField (FIELD_PORT).isEmpty ())
         aFormErrors.addFieldError (FIELD_PORT, EText.MSG_ERROR_PORT_MISSING.getDisplayText (aDisplayLocale));
 
       if (aFormErrors.isEmpty ())
       {
+        // Runs in the background - the result is loaded progressively
+        final PortScanner.Scan aScan = PortScanner.getInstance ()
+                                                  .startScan (sHost,
+                                                              new CommonsArrayList <> (aPorts),
+                                                              PortScanner.DEFAULT_PORT_TIMEOUT,
+                                                              PortScanner.DEFAULT_DEADLINE);
+
         final BootstrapCard aResult = new BootstrapCard ();
-        aResult.createAndAddHeader ().addChild (EText.MSG_RESULT_HEADER.getDisplayText (aDisplayLocale));
+        aResult.createAndAddHeader ().addChild (EText.MSG_RESULT_HEADER.getDisplayTextWithArgs (aDisplayLocale, sHost));
         final BootstrapCardBody aBody = aResult.createAndAddBody ();
-        for (final Integer aPort : aPorts)
-        {
-          final ENetworkPortStatus eStatus = NetworkPortHelper.checkPortOpen (sHost, aPort.intValue (), 3_000);
-          aBody.addChild (div ().addChild (EText.MSG_RESULT_STATUS_PREFIX.getDisplayText (aDisplayLocale))
-                                .addChild (code (sHost + ":" + aPort))
-                                .addChild (" = ")
-                                .addChild (eStatus.isPortOpen () ? badgeSuccess (eStatus.toString ()) : badgeDanger (
-                                                                                                                     eStatus.toString ())));
-        }
+        aBody.addChild (new HCDiv ().setID (_getResultContainerID (aScan.getID ()))
+                                    .addChild (createScanResult (aWPEC.getRequestScope (), aScan.getID (), aDisplayLocale)));
         aNodeList.addChild (aResult.addClass (CBootstrapCSS.MB_2));
       }
     }
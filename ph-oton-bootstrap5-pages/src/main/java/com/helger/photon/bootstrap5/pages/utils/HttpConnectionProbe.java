@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.utils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * Measures the connection phases of an HTTP(S) URL - DNS resolution, TCP
+ * connect and TLS handshake - with a separate probe connection. The HTTP client
+ * does not expose these phases, so they are measured directly before the actual
+ * request. No data is sent over the probe connection. The probe always connects
+ * directly and does not support proxies, so it should not be used if the HTTP
+ * client is configured to use a proxy.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class HttpConnectionProbe
+{
+  private final String m_sHost;
+  private final int m_nPort;
+  private final long m_nDNSNanos;
+  private final String m_sAddress;
+  private final long m_nConnectNanos;
+  private final long m_nTLSNanos;
+  private final String m_sTLSDetails;
+  private final String m_sError;
+
+  private HttpConnectionProbe (@NonNull final String sHost,
+                               final int nPort,
+                               final long nDNSNanos,
+                               @Nullable final String sAddress,
+                               final long nConnectNanos,
+                               final long nTLSNanos,
+                               @Nullable final String sTLSDetails,
+                               @Nullable final String sError)
+  {
+    m_sHost = sHost;
+    m_nPort = nPort;
+    m_nDNSNanos = nDNSNanos;
+    m_sAddress = sAddress;
+    m_nConnectNanos = nConnectNanos;
+    m_nTLSNanos = nTLSNanos;
+    m_sTLSDetails = sTLSDetails;
+    m_sError = sError;
+  }
+
+  @NonNull
+  public String getHost ()
+  {
+    return m_sHost;
+  }
+
+  public int getPort ()
+  {
+    return m_nPort;
+  }
+
+  /**
+   * @return The DNS resolution time in nanoseconds or -1 if not measured.
+   */
+  public long getDNSNanos ()
+  {
+    return m_nDNSNanos;
+  }
+
+  /**
+   * @return The resolved IP address or <code>null</code> if resolution failed.
+   */
+  @Nullable
+  public String getAddress ()
+  {
+    return m_sAddress;
+  }
+
+  /**
+   * @return The TCP connect time in nanoseconds or -1 if not measured.
+   */
+  public long getConnectNanos ()
+  {
+    return m_nConnectNanos;
+  }
+
+  /**
+   * @return The TLS handshake time in nanoseconds or -1 if not measured or not
+   *         TLS.
+   */
+  public long getTLSNanos ()
+  {
+    return m_nTLSNanos;
+  }
+
+  /**
+   * @return The negotiated TLS protocol and cipher suite or <code>null</code>.
+   */
+  @Nullable
+  public String getTLSDetails ()
+  {
+    return m_sTLSDetails;
+  }
+
+  /**
+   * @return The error that stopped the probe or <code>null</code> if all phases
+   *         succeeded.
+   */
+  @Nullable
+  public String getError ()
+  {
+    return m_sError;
+  }
+
+  /**
+   * Probe the connection to the host of the provided URI.
+   *
+   * @param aURI
+   *        The URI to probe. Must be absolute with scheme http or https. May
+   *        not be <code>null</code>.
+   * @param aSSLContext
+   *        The SSL context to use for https. May be <code>null</code> to use
+   *        the JVM default.
+   * @param nTimeoutMillis
+   *        The connect and handshake timeout in milliseconds.
+   * @return The probe result. Never <code>null</code>.
+   */
+  @NonNull
+  public static HttpConnectionProbe probe (@NonNull final URI aURI,
+                                           @Nullable final SSLContext aSSLContext,
+                                           final int nTimeoutMillis)
+  {
+    ValueEnforcer.notNull (aURI, "URI");
+
+    final boolean bTLS = "https".equalsIgnoreCase (aURI.getScheme ());
+    final String sHost = aURI.getHost ();
+    final int nPort = aURI.getPort () > 0 ? aURI.getPort () : bTLS ? 443 : 80;
+    if (sHost == null)
+      return new HttpConnectionProbe ("", nPort, -1, null, -1, -1, null, "The URI contains no host");
+
+    // DNS
+    long nStart = System.nanoTime ();
+    final InetAddress aAddress;
+    try
+    {
+      aAddress = InetAddress.getByName (sHost);
+    }
+    catch (final IOException ex)
+    {
+      return new HttpConnectionProbe (sHost, nPort, -1, null, -1, -1, null, ex.toString ());
+    }
+    final long nDNSNanos = System.nanoTime () - nStart;
+
+    // TCP connect
+    final Socket aSocket = new Socket ();
+    try
+    {
+      nStart = System.nanoTime ();
+      try
+      {
+        aSocket.connect (new InetSocketAddress (aAddress, nPort), nTimeoutMillis);
+      }
+      catch (final IOException ex)
+      {
+        return new HttpConnectionProbe (sHost, nPort, nDNSNanos, aAddress.getHostAddress (), -1, -1, null, ex.toString ());
+      }
+      final long nConnectNanos = System.nanoTime () - nStart;
+      if (!bTLS)
+        return new HttpConnectionProbe (sHost, nPort, nDNSNanos, aAddress.getHostAddress (), nConnectNanos, -1, null, null);
+
+      // TLS handshake on top of the existing connection
+      nStart = System.nanoTime ();
+      try
+      {
+        final SSLContext aRealSSLContext = aSSLContext != null ? aSSLContext : SSLContext.getDefault ();
+        aSocket.setSoTimeout (nTimeoutMillis);
+        try (final SSLSocket aSSLSocket = (SSLSocket) aRealSSLContext.getSocketFactory ()
+                                                                     .createSocket (aSocket, sHost, nPort, true))
+        {
+          aSSLSocket.startHandshake ();
+          final long nTLSNanos = System.nanoTime () - nStart;
+          final SSLSession aSession = aSSLSocket.getSession ();
+          return new HttpConnectionProbe (sHost,
+                                          nPort,
+                                          nDNSNanos,
+                                          aAddress.getHostAddress (),
+                                          nConnectNanos,
+                                          nTLSNanos,
+                                          aSession.getProtocol () + " " + aSession.getCipherSuite (),
+                                          null);
+        }
+      }
+      catch (final IOException | GeneralSecurityException ex)
+      {
+        return new HttpConnectionProbe (sHost,
+                                        nPort,
+                                        nDNSNanos,
+                                        aAddress.getHostAddress (),
+                                        nConnectNanos,
+                                        -1,
+                                        null,
+                                        ex.toString ());
+      }
+    }
+    finally
+    {
+      try
+      {
+        aSocket.close ();
+      }
+      catch (final IOException ex)
+      {
+        // Ignore
+      }
+    }
+  }
+}
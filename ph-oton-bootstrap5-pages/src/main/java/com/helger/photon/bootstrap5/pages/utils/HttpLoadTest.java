@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.utils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.io.stream.StreamHelper;
+import com.helger.collection.commons.CommonsTreeMap;
+import com.helger.collection.commons.ICommonsSortedMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.http.CHttpHeader;
+import com.helger.http.EHttpMethod;
+import com.helger.httpclient.HttpClientHelper;
+import com.helger.httpclient.HttpClientManager;
+import com.helger.httpclient.HttpClientSettings;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+import com.helger.url.SimpleURL;
+
+/**
+ * Runs HTTP load tests against a single URL in the background. Only one load
+ * test can run at a time, and the number of requests, the concurrency and the
+ * duration are capped, so that a load test cannot starve the application
+ * itself. Each worker thread uses its own HTTP client, so the connection reuse
+ * is not limited by a shared connection pool.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class HttpLoadTest extends AbstractGlobalSingleton
+{
+  /** The maximum number of requests of a single load test */
+  public static final int MAX_REQUESTS = 100_000;
+  /** The maximum number of concurrent requests */
+  public static final int MAX_CONCURRENCY = 50;
+  /** The maximum duration of a single load test */
+  public static final Duration MAX_DURATION = Duration.ofMinutes (5);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (HttpLoadTest.class);
+  /** Marker for a latency slot that was reserved but not yet written */
+  private static final long LATENCY_NOT_WRITTEN = -1;
+
+  // Read the whole body, so that the connection can be reused
+  private static final HttpClientResponseHandler <Integer> RESPONSE_HANDLER = aResponse -> {
+    EntityUtils.consume (aResponse.getEntity ());
+    return Integer.valueOf (aResponse.getCode ());
+  };
+
+  /**
+   * A single load test run.
+   *
+   * @author Philip Helger
+   */
+  @ThreadSafe
+  public static final class Job
+  {
+    private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+    private final String m_sConfigName;
+    private final EHttpMethod m_eMethod;
+    private final String m_sURI;
+    private final int m_nMaxRequests;
+    private final int m_nConcurrency;
+    private final Duration m_aDuration;
+    private final boolean m_bReuseConnections;
+    private final HttpClientSettings m_aSettings;
+    private final LocalDateTime m_aStartDateTime;
+    private final long m_nStartNanos;
+    private final AtomicInteger m_aIssued = new AtomicInteger (0);
+    /** Reserves the latency slots */
+    private final AtomicInteger m_aRecorded = new AtomicInteger (0);
+    /** Only incremented after the latency slot was written */
+    private final AtomicInteger m_aCompleted = new AtomicInteger (0);
+    private final AtomicInteger m_aRunningWorkers;
+    private final AtomicLongArray m_aLatencyMicros;
+    @GuardedBy ("m_aRWLock")
+    private final ICommonsSortedMap <String, Long> m_aOutcomes = new CommonsTreeMap <> ();
+    private volatile boolean m_bAborted = false;
+    private volatile long m_nEndNanos = 0;
+    private ExecutorService m_aExecutor;
+
+    Job (@NonNull @Nonempty final String sConfigName,
+         @NonNull final EHttpMethod eMethod,
+         @NonNull @Nonempty final String sURI,
+         final int nMaxRequests,
+         final int nConcurrency,
+         @Nullable final Duration aDuration,
+         final boolean bReuseConnections,
+         @NonNull final HttpClientSettings aSettings)
+    {
+      m_sConfigName = sConfigName;
+      m_eMethod = eMethod;
+      m_sURI = sURI;
+      m_nMaxRequests = nMaxRequests;
+      m_nConcurrency = nConcurrency;
+      m_aDuration = aDuration;
+      m_bReuseConnections = bReuseConnections;
+      m_aSettings = aSettings;
+      m_aStartDateTime = PDTFactory.getCurrentLocalDateTime ();
+      m_nStartNanos = System.nanoTime ();
+      m_aRunningWorkers = new AtomicInteger (nConcurrency);
+      m_aLatencyMicros = new AtomicLongArray (nMaxRequests);
+      for (int i = 0; i < nMaxRequests; ++i)
+        m_aLatencyMicros.set (i, LATENCY_NOT_WRITTEN);
+    }
+
+    @NonNull
+    public String getConfigName ()
+    {
+      return m_sConfigName;
+    }
+
+    @NonNull
+    public EHttpMethod getMethod ()
+    {
+      return m_eMethod;
+    }
+
+    @NonNull
+    public String getURI ()
+    {
+      return m_sURI;
+    }
+
+    public int getMaxRequests ()
+    {
+      return m_nMaxRequests;
+    }
+
+    public int getConcurrency ()
+    {
+      return m_nConcurrency;
+    }
+
+    /**
+     * @return The maximum duration or <code>null</code> if the test only ends
+     *         after the number of requests.
+     */
+    @Nullable
+    public Duration getDuration ()
+    {
+      return m_aDuration;
+    }
+
+    public boolean isReuseConnections ()
+    {
+      return m_bReuseConnections;
+    }
+
+    @NonNull
+    public LocalDateTime getStartDateTime ()
+    {
+      return m_aStartDateTime;
+    }
+
+    public boolean isRunning ()
+    {
+      return m_aRunningWorkers.get () > 0;
+    }
+
+    public boolean isAborted ()
+    {
+      return m_bAborted;
+    }
+
+    private void _onWorkerFinished (final int nWorkers)
+    {
+      if (m_aRunningWorkers.addAndGet (-nWorkers) == 0)
+      {
+        m_nEndNanos = System.nanoTime ();
+        m_aExecutor.shutdown ();
+        LOGGER.info ("Finished HTTP load test of '" + m_sURI + "' with " + getCompletedCount () + " requests");
+      }
+    }
+
+    void abort ()
+    {
+      m_bAborted = true;
+      // Workers that never started will not finish either
+      final int nNotStarted = m_aExecutor.shutdownNow ().size ();
+      if (nNotStarted > 0)
+        _onWorkerFinished (nNotStarted);
+    }
+
+    private boolean _isStopRequested ()
+    {
+      if (m_bAborted)
+        return true;
+      return m_aDuration != null && System.nanoTime () - m_nStartNanos >= m_aDuration.toNanos ();
+    }
+
+    private void _record (final long nLatencyNanos, @NonNull final String sOutcome)
+    {
+      final int nIndex = m_aRecorded.getAndIncrement ();
+      if (nIndex < m_nMaxRequests)
+        m_aLatencyMicros.set (nIndex, TimeUnit.NANOSECONDS.toMicros (nLatencyNanos));
+      m_aRWLock.writeLocked ( () -> m_aOutcomes.merge (sOutcome, Long.valueOf (1), (a, b) -> Long.valueOf (a.longValue () +
+                                                                                                             b.longValue ())));
+      // Publish after the slot was written
+      m_aCompleted.incrementAndGet ();
+    }
+
+    void runWorker ()
+    {
+      final HttpClientManager aHCM = HttpClientManager.create (m_aSettings);
+      try
+      {
+        final SimpleURL aURL = new SimpleURL (m_sURI);
+        while (!_isStopRequested () && m_aIssued.getAndIncrement () < m_nMaxRequests)
+        {
+          final HttpUriRequestBase aReq = HttpClientHelper.createRequest (m_eMethod, aURL);
+          if (!m_bReuseConnections)
+            aReq.setHeader (CHttpHeader.CONNECTION, "close");
+
+          final long nStart = System.nanoTime ();
+          String sOutcome;
+          try
+          {
+            final int nStatusCode = aHCM.execute (aReq, RESPONSE_HANDLER).intValue ();
+            sOutcome = (nStatusCode / 100) + "xx";
+          }
+          catch (final IOException ex)
+          {
+            if (m_bAborted)
+              break;
+            sOutcome = ex.getClass ().getSimpleName ();
+          }
+          _record (System.nanoTime () - nStart, sOutcome);
+        }
+      }
+      finally
+      {
+        StreamHelper.close (aHCM);
+        _onWorkerFinished (1);
+      }
+    }
+
+    @Nonnegative
+    public int getCompletedCount ()
+    {
+      return Math.min (m_aCompleted.get (), m_nMaxRequests);
+    }
+
+    /**
+     * @return The elapsed time so far or the total time if the test finished.
+     */
+    @NonNull
+    public Duration getElapsed ()
+    {
+      final long nEnd = m_nEndNanos != 0 ? m_nEndNanos : System.nanoTime ();
+      return Duration.ofNanos (nEnd - m_nStartNanos);
+    }
+
+    /**
+     * @return The completed requests per second.
+     */
+    public double getThroughput ()
+    {
+      final long nMillis = getElapsed ().toMillis ();
+      return nMillis <= 0 ? 0 : getCompletedCount () * 1000d / nMillis;
+    }
+
+    /**
+     * @return The number of requests per outcome. The outcome is either the
+     *         status code class (e.g. "2xx") or the simple name of the
+     *         exception. Never <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsSortedMap <String, Long> getAllOutcomes ()
+    {
+      return m_aRWLock.readLockedGet (m_aOutcomes::getClone);
+    }
+
+    /**
+     * @return The latencies of all completed requests in microseconds, sorted
+     *         ascending. Never <code>null</code>.
+     */
+    @NonNull
+    public long [] getSortedLatencyMicros ()
+    {
+      final int nCount = Math.min (m_aRecorded.get (), m_nMaxRequests);
+      final long [] aLatencies = new long [nCount];
+      int nWritten = 0;
+      for (int i = 0; i < nCount; ++i)
+      {
+        // A slot reserved by a concurrent worker may not be written yet
+        final long nLatency = m_aLatencyMicros.get (i);
+        if (nLatency != LATENCY_NOT_WRITTEN)
+          aLatencies[nWritten++] = nLatency;
+      }
+      final long [] ret = nWritten == nCount ? aLatencies : Arrays.copyOf (aLatencies, nWritten);
+      Arrays.sort (ret);
+      return ret;
+    }
+  }
+
+  @GuardedBy ("m_aRWLock")
+  private Job m_aJob;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private HttpLoadTest ()
+  {}
+
+  @NonNull
+  public static HttpLoadTest getInstance ()
+  {
+    return getGlobalSingleton (HttpLoadTest.class);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    abortJob ();
+  }
+
+  /**
+   * Start a new load test.
+   *
+   * @param sConfigName
+   *        The display name of the used configuration. May neither be
+   *        <code>null</code> nor empty.
+   * @param eMethod
+   *        The HTTP method to use. May not be <code>null</code>.
+   * @param sURI
+   *        The URI to query. May neither be <code>null</code> nor empty.
+   * @param nMaxRequests
+   *        The number of requests. Must be between 1 and
+   *        {@link #MAX_REQUESTS}.
+   * @param nConcurrency
+   *        The number of concurrent requests. Must be between 1 and
+   *        {@link #MAX_CONCURRENCY}.
+   * @param aDuration
+   *        The optional maximum duration. If present, must not exceed
+   *        {@link #MAX_DURATION}.
+   * @param bReuseConnections
+   *        <code>true</code> to use keep-alive connections, <code>false</code>
+   *        to open a new connection per request.
+   * @param aSettings
+   *        The HTTP client settings to use, including the timeouts. May not be
+   *        <code>null</code>.
+   * @return The new job or <code>null</code> if another load test is still
+   *         running.
+   */
+  @Nullable
+  public Job startJob (@NonNull @Nonempty final String sConfigName,
+                       @NonNull final EHttpMethod eMethod,
+                       @NonNull @Nonempty final String sURI,
+                       final int nMaxRequests,
+                       final int nConcurrency,
+                       @Nullable final Duration aDuration,
+                       final boolean bReuseConnections,
+                       @NonNull final HttpClientSettings aSettings)
+  {
+    ValueEnforcer.notEmpty (sConfigName, "ConfigName");
+    ValueEnforcer.notNull (eMethod, "Method");
+    ValueEnforcer.notEmpty (sURI, "URI");
+    ValueEnforcer.isBetweenInclusive (nMaxRequests, "MaxRequests", 1, MAX_REQUESTS);
+    ValueEnforcer.isBetweenInclusive (nConcurrency, "Concurrency", 1, MAX_CONCURRENCY);
+    if (aDuration != null)
+      ValueEnforcer.isTrue (!aDuration.isNegative () && aDuration.compareTo (MAX_DURATION) <= 0,
+                            "Duration is out of range");
+    ValueEnforcer.notNull (aSettings, "Settings");
+
+    return m_aRWLock.writeLockedGet ( () -> {
+      if (m_aJob != null && m_aJob.isRunning ())
+        return null;
+
+      final Job aJob = new Job (sConfigName,
+                                eMethod,
+                                sURI,
+                                nMaxRequests,
+                                nConcurrency,
+                                aDuration,
+                                bReuseConnections,
+                                aSettings);
+      final AtomicInteger aCounter = new AtomicInteger (0);
+      aJob.m_aExecutor = Executors.newFixedThreadPool (nConcurrency, r -> {
+        final Thread t = new Thread (r, "ph-http-load-test-" + aCounter.incrementAndGet ());
+        t.setDaemon (true);
+        return t;
+      });
+      LOGGER.info ("Starting HTTP load test of " +
+                   eMethod.getName () +
+                   " '" +
+                   sURI +
+                   "' with " +
+                   nMaxRequests +
+                   " requests and concurrency " +
+                   nConcurrency);
+      for (int i = 0; i < nConcurrency; ++i)
+        aJob.m_aExecutor.submit (aJob::runWorker);
+      m_aJob = aJob;
+      return aJob;
+    });
+  }
+
+  /**
+   * @return The current or last load test. May be <code>null</code>.
+   */
+  @Nullable
+  public Job getJob ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aJob);
+  }
+
+  public void abortJob ()
+  {
+    final Job aJob = getJob ();
+    if (aJob != null && aJob.isRunning ())
+    {
+      LOGGER.info ("Aborting HTTP load test of '" + aJob.getURI () + "'");
+      aJob.abort ();
+    }
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.factory.GlobalIDFactory;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.network.port.ENetworkPortStatus;
+import com.helger.network.port.NetworkPortHelper;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * Checks TCP ports concurrently in the background, so that no request thread
+ * is blocked. Virtual threads are used if the runtime supports them. Each scan
+ * has an overall deadline - ports that could not be checked until then are
+ * reported as not checked. The results of a scan can be polled while it is
+ * still running.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PortScanner extends AbstractGlobalSingleton
+{
+  /** The timeout for a single port */
+  public static final Duration DEFAULT_PORT_TIMEOUT = Duration.ofSeconds (3);
+  /** The maximum duration of a complete scan */
+  public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds (30);
+  /** The maximum number of ports per scan */
+  public static final int MAX_PORTS = 1_024;
+  /** The maximum number of ports of a single scan being checked at once */
+  public static final int MAX_PARALLEL_PER_SCAN = 64;
+  /** The maximum number of scans kept for polling */
+  public static final int MAX_SCANS = 20;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (PortScanner.class);
+  private static final int MAX_PLATFORM_THREADS = 32;
+
+  /**
+   * The result of a single port.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class PortResult
+  {
+    private final int m_nPort;
+    private final ENetworkPortStatus m_eStatus;
+    private final long m_nLatencyMillis;
+
+    PortResult (final int nPort, @Nullable final ENetworkPortStatus eStatus, final long nLatencyMillis)
+    {
+      m_nPort = nPort;
+      m_eStatus = eStatus;
+      m_nLatencyMillis = nLatencyMillis;
+    }
+
+    public int getPort ()
+    {
+      return m_nPort;
+    }
+
+    /**
+     * @return The port status or <code>null</code> if the port could not be
+     *         checked before the deadline.
+     */
+    @Nullable
+    public ENetworkPortStatus getStatus ()
+    {
+      return m_eStatus;
+    }
+
+    public boolean isChecked ()
+    {
+      return m_eStatus != null;
+    }
+
+    /**
+     * @return The time it took to connect or fail in milliseconds.
+     */
+    public long getLatencyMillis ()
+    {
+      return m_nLatencyMillis;
+    }
+  }
+
+  /**
+   * A single scan of one host.
+   *
+   * @author Philip Helger
+   */
+  @ThreadSafe
+  public static final class Scan
+  {
+    private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+    private final String m_sID;
+    private final String m_sHost;
+    private final ICommonsList <Integer> m_aPorts;
+    private final long m_nDeadlineNanos;
+    @GuardedBy ("m_aRWLock")
+    private final ICommonsOrderedMap <Integer, PortResult> m_aResults = new CommonsLinkedHashMap <> ();
+
+    Scan (@NonNull @Nonempty final String sID,
+          @NonNull @Nonempty final String sHost,
+          @NonNull final ICommonsList <Integer> aPorts,
+          final long nDeadlineNanos)
+    {
+      m_sID = sID;
+      m_sHost = sHost;
+      m_aPorts = aPorts;
+      m_nDeadlineNanos = nDeadlineNanos;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getID ()
+    {
+      return m_sID;
+    }
+
+    @NonNull
+    @Nonempty
+    public String getHost ()
+    {
+      return m_sHost;
+    }
+
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <Integer> getAllPorts ()
+    {
+      return m_aPorts.getClone ();
+    }
+
+    void addResult (@NonNull final PortResult aResult)
+    {
+      m_aRWLock.writeLocked ( () -> m_aResults.put (Integer.valueOf (aResult.getPort ()), aResult));
+    }
+
+    /**
+     * @return The results so far, in the order of completion. Never
+     *         <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <PortResult> getAllResults ()
+    {
+      return m_aRWLock.readLockedGet (m_aResults::copyOfValues);
+    }
+
+    public boolean isDeadlineExceeded ()
+    {
+      return System.nanoTime () - m_nDeadlineNanos >= 0;
+    }
+
+    /**
+     * @return <code>true</code> if all ports were checked or the deadline
+     *         passed.
+     */
+    public boolean isComplete ()
+    {
+      if (isDeadlineExceeded ())
+        return true;
+      return m_aRWLock.readLockedGet ( () -> Boolean.valueOf (m_aResults.size () >= m_aPorts.size ())).booleanValue ();
+    }
+
+    /**
+     * @return The ports that were not checked (yet). Never <code>null</code>.
+     */
+    @NonNull
+    @ReturnsMutableCopy
+    public ICommonsList <Integer> getAllPendingPorts ()
+    {
+      return m_aRWLock.readLockedGet ( () -> m_aPorts.getAll (x -> !m_aResults.containsKey (x)));
+    }
+  }
+
+  private ExecutorService m_aExecutor;
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsOrderedMap <String, Scan> m_aScans = new CommonsLinkedHashMap <> ();
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private PortScanner ()
+  {}
+
+  @NonNull
+  public static PortScanner getInstance ()
+  {
+    return getGlobalSingleton (PortScanner.class);
+  }
+
+  @NonNull
+  private static ExecutorService _createExecutor ()
+  {
+    try
+    {
+      // Java 21+
+      return (ExecutorService) Executors.class.getMethod ("newVirtualThreadPerTaskExecutor").invoke (null);
+    }
+    catch (final ReflectiveOperationException ex)
+    {
+      // Fall through
+    }
+
+    final AtomicInteger aCounter = new AtomicInteger (0);
+    final ThreadPoolExecutor aExecutor = new ThreadPoolExecutor (MAX_PLATFORM_THREADS,
+                                                                 MAX_PLATFORM_THREADS,
+                                                                 60,
+                                                                 TimeUnit.SECONDS,
+                                                                 new LinkedBlockingQueue <> (),
+                                                                 r -> {
+                                                                   final Thread t = new Thread (r,
+                                                                                                "ph-port-scanner-" +
+                                                                                                   aCounter.incrementAndGet ());
+                                                                   t.setDaemon (true);
+                                                                   return t;
+                                                                 });
+    aExecutor.allowCoreThreadTimeOut (true);
+    return aExecutor;
+  }
+
+  @Override
+  protected void onAfterInstantiation (@NonNull final IScope aScope)
+  {
+    m_aExecutor = _createExecutor ();
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    if (m_aExecutor != null)
+      m_aExecutor.shutdownNow ();
+  }
+
+  private static void _checkPort (@NonNull final Scan aScan,
+                                  final int nPort,
+                                  @NonNull final Duration aPortTimeout,
+                                  @NonNull final Semaphore aPermits)
+  {
+    try
+    {
+      final long nRemainingNanos = aScan.m_nDeadlineNanos - System.nanoTime ();
+      if (nRemainingNanos <= 0 || !aPermits.tryAcquire (nRemainingNanos, TimeUnit.NANOSECONDS))
+        return;
+      try
+      {
+        // Never wait longer than the deadline
+        final long nTimeoutMillis = Math.min (aPortTimeout.toMillis (),
+                                              TimeUnit.NANOSECONDS.toMillis (aScan.m_nDeadlineNanos -
+                                                                             System.nanoTime ()));
+        if (nTimeoutMillis <= 0)
+          return;
+        final long nStart = System.nanoTime ();
+        final ENetworkPortStatus eStatus = NetworkPortHelper.checkPortOpen (aScan.getHost (),
+                                                                            nPort,
+                                                                            (int) nTimeoutMillis);
+        aScan.addResult (new PortResult (nPort,
+                                         eStatus,
+                                         TimeUnit.NANOSECONDS.toMillis (System.nanoTime () - nStart)));
+      }
+      finally
+      {
+        aPermits.release ();
+      }
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+    }
+  }
+
+  /**
+   * Start a new scan. The method returns immediately.
+   *
+   * @param sHost
+   *        The host to check. May neither be <code>null</code> nor empty.
+   * @param aPorts
+   *        The ports to check. May neither be <code>null</code> nor empty and
+   *        may contain at most {@link #MAX_PORTS} entries.
+   * @param aPortTimeout
+   *        The timeout for a single port. May not be <code>null</code>.
+   * @param aDeadline
+   *        The maximum duration of the whole scan. May not be
+   *        <code>null</code>.
+   * @return The new scan. Never <code>null</code>.
+   */
+  @NonNull
+  public Scan startScan (@NonNull @Nonempty final String sHost,
+                         @NonNull @Nonempty final ICommonsList <Integer> aPorts,
+                         @NonNull final Duration aPortTimeout,
+                         @NonNull final Duration aDeadline)
+  {
+    ValueEnforcer.notEmpty (sHost, "Host");
+    ValueEnforcer.notEmpty (aPorts, "Ports");
+    ValueEnforcer.isTrue (aPorts.size () <= MAX_PORTS, "Too many ports");
+    ValueEnforcer.notNull (aPortTimeout, "PortTimeout");
+    ValueEnforcer.notNull (aDeadline, "Deadline");
+
+    final Scan aScan = new Scan (GlobalIDFactory.getNewStringID (),
+                                 sHost,
+                                 aPorts.getClone (),
+                                 System.nanoTime () + aDeadline.toNanos ());
+    m_aRWLock.writeLocked ( () -> {
+      m_aScans.put (aScan.getID (), aScan);
+      while (m_aScans.size () > MAX_SCANS)
+        m_aScans.remove (m_aScans.getFirstKey ());
+    });
+
+    LOGGER.info ("Checking " + aPorts.size () + " port(s) of '" + sHost + "'");
+    final Semaphore aPermits = new Semaphore (MAX_PARALLEL_PER_SCAN);
+    for (final Integer aPort : aPorts)
+      m_aExecutor.submit ( () -> _checkPort (aScan, aPort.intValue (), aPortTimeout, aPermits));
+    return aScan;
+  }
+
+  @Nullable
+  public Scan getScanOfID (@Nullable final String sScanID)
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aScans.get (sScanID));
+  }
+}
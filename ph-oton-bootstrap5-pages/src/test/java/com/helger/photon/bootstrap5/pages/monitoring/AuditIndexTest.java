@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pages.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+import com.helger.photon.bootstrap5.pages.monitoring.AuditIndex.Cursor;
+
+/**
+ * Test class for class {@link AuditIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class AuditIndexTest
+{
+  private static final LocalDate DAY = LocalDate.of (2025, 3, 10);
+  private static final LocalDateTime T1 = DAY.atTime (10, 0);
+  private static final LocalDateTime T2 = DAY.atTime (11, 0);
+  private static final LocalDateTime T3 = DAY.atTime (12, 0);
+
+  @Test
+  public void testCursorRoundtrip ()
+  {
+    final Cursor aCursor = new Cursor (T2, -17, 3);
+    final Cursor aParsed = Cursor.parse (aCursor.getAsString ());
+    assertNotNull (aParsed);
+    assertEquals (T2, aParsed.getDateTime ());
+    assertEquals (-17, aParsed.getTieKey ());
+    assertEquals (3, aParsed.getPassedEqual ());
+  }
+
+  @Test
+  public void testCursorInvalid ()
+  {
+    assertNull (Cursor.parse (null));
+    assertNull (Cursor.parse (""));
+    assertNull (Cursor.parse ("bla"));
+    assertNull (Cursor.parse ("2025-03-10@5"));
+    assertNull (Cursor.parse ("2025-03-10T11:00@x@0"));
+    assertNull (Cursor.parse ("2025-03-10T11:00@5@-1"));
+    assertNull (Cursor.parse ("2025-13-10T11:00@5@0"));
+  }
+
+  @Test
+  public void testSeekIndex ()
+  {
+    final LocalDateTime [] aDTs = { T1, T2, T2, T2, T3 };
+    final int [] aTieKeys = { 0, 1, 5, 5, 0 };
+
+    // Exact match of the last item
+    assertEquals (4, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T3, 0, 0)));
+    // Exact match of a single item
+    assertEquals (1, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T2, 1, 0)));
+    // Group of two equal items
+    assertEquals (3, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T2, 5, 0)));
+    assertEquals (2, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T2, 5, 1)));
+    // More passed than present - continue before the group
+    assertEquals (1, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T2, 5, 7)));
+    // The cursor item was removed in the meantime
+    assertEquals (1, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (T2, 3, 0)));
+    // Before the first and after the last item
+    assertEquals (-1, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (DAY.atTime (9, 0), 0, 0)));
+    assertEquals (4, AuditIndex.getSeekIndex (aDTs, aTieKeys, new Cursor (DAY.atTime (13, 0), 0, 0)));
+    // New items inserted before the cursor don't change the position
+    final LocalDateTime [] aDTs2 = { T1, T1, T2, T2, T2, T3, T3 };
+    final int [] aTieKeys2 = { 0, 9, 1, 5, 5, 0, 4 };
+    assertEquals (3, AuditIndex.getSeekIndex (aDTs2, aTieKeys2, new Cursor (T2, 5, 1)));
+    // Empty day
+    assertEquals (-1, AuditIndex.getSeekIndex (new LocalDateTime [0], new int [0], new Cursor (T2, 5, 0)));
+  }
+
+  @Test
+  public void testIsRefreshRequired ()
+  {
+    final LocalDateTime aIndexDT = DAY.atTime (23, 59, 50);
+    // Too young
+    assertFalse (AuditIndex.isRefreshRequired (DAY, aIndexDT, aIndexDT.plusSeconds (10)));
+    // Indexed before midnight - refresh after the date changed
+    assertTrue (AuditIndex.isRefreshRequired (DAY, aIndexDT, aIndexDT.plus (AuditIndex.TODAY_REFRESH).plusSeconds (1)));
+    assertTrue (AuditIndex.isRefreshRequired (DAY, aIndexDT, DAY.plusDays (3).atStartOfDay ()));
+    // Indexed after the end of the day - never refreshed
+    final LocalDateTime aLateIndexDT = DAY.plusDays (1).atStartOfDay ();
+    assertFalse (AuditIndex.isRefreshRequired (DAY, aLateIndexDT, aLateIndexDT.plusDays (10)));
+    // Future days behave like the current day
+    assertTrue (AuditIndex.isRefreshRequired (DAY.plusDays (1), aIndexDT, aIndexDT.plusMinutes (5)));
+  }
+}
@@ -29,6 +29,7 @@ import com.helger.base.enforce.ValueEnforcer;
 import com.helger.photon.ajax.servlet.PhotonAjaxServlet;
 import com.helger.photon.api.servlet.PhotonAPIServlet;
 import com.helger.photon.bootstrap5.stub.PhotonStubServletContextListener;
+import com.helger.photon.bootstrap5.uictrls.chunkedupload.ChunkedUploadServlet;
 import com.helger.photon.core.go.GoServlet;
 import com.helger.photon.core.resource.ResourceBundleServlet;
 import com.helger.photon.core.servlet.AbstractObjectDeliveryHttpHandler;
@@ -151,6 +152,15 @@ public final class PhotonStubServletInitializer
         }
       }
 
+      {
+        final ServletRegistration.Dynamic aServlet = aSC.addServlet ("ChunkedUploadServlet", ChunkedUploadServlet.class);
+        if (aServlet != null)
+        {
+          aServlet.setAsyncSupported (true);
+          aServlet.addMapping (ChunkedUploadServlet.SERVLET_DEFAULT_PATH + "/*");
+        }
+      }
+
       {
         final ServletRegistration.Dynamic aServlet = aSC.addServlet ("LogoutServlet", LogoutServlet.class);
         if (aServlet != null)
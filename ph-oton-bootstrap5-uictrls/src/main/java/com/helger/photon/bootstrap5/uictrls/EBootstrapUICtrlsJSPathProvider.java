@@ -26,7 +26,11 @@ import com.helger.html.resource.js.IJSPathProvider;
 public enum EBootstrapUICtrlsJSPathProvider implements IJSPathProvider
 {
   TREE_VIEW ("external/quercusjs/0.3.1/treeview.js"),
-  DATETIMEPICKER ("external/tempusdominus/6.9.4/tempus-dominus.js");
+  DATETIMEPICKER ("external/tempusdominus/6.9.4/tempus-dominus.js"),
+  CHUNKED_UPLOAD ("ph-oton/chunked-upload.js"),
+  PARTIAL_NAVIGATION ("ph-oton/partial-navigation.js"),
+  LOG_TAIL ("ph-oton/log-tail.js"),
+  MEMORY_MONITOR ("ph-oton/memory-monitor.js");
 
   private final ConstantJSPathProvider m_aPP;
 
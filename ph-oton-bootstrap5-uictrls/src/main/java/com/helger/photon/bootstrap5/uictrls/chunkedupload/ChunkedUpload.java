@@ -0,0 +1,427 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.chunkedupload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.IHasID;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonArray;
+import com.helger.json.JsonObject;
+
+/**
+ * A single chunked, resumable upload. All chunks have the same size (except
+ * for the last one) and are written directly at their final position into the
+ * target file using positional {@link FileChannel} writes. Therefore chunks
+ * may arrive in any order and in parallel, and no reassembly copy is needed
+ * once all chunks were received.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ChunkedUpload implements IHasID <String>
+{
+  public static final String JSON_UPLOAD_ID = "uploadid";
+  public static final String JSON_FILENAME = "filename";
+  public static final String JSON_TOTAL_SIZE = "totalsize";
+  public static final String JSON_CHUNK_SIZE = "chunksize";
+  public static final String JSON_CHUNK_COUNT = "chunkcount";
+  public static final String JSON_RECEIVED_CHUNKS = "received";
+  public static final String JSON_COMPLETE = "complete";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (ChunkedUpload.class);
+
+  private final String m_sID;
+  private final String m_sOwnerSessionID;
+  private final String m_sFilename;
+  private final long m_nTotalSize;
+  private final int m_nChunkSize;
+  private final int m_nChunkCount;
+  private final File m_aTargetFile;
+  private final LocalDateTime m_aCreationDT;
+
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  @GuardedBy ("m_aRWLock")
+  private final BitSet m_aReceivedChunks;
+  @GuardedBy ("m_aRWLock")
+  private FileChannel m_aChannel;
+  @GuardedBy ("m_aRWLock")
+  private LocalDateTime m_aLastModificationDT;
+  @GuardedBy ("m_aRWLock")
+  private boolean m_bComplete = false;
+  @GuardedBy ("m_aRWLock")
+  private int m_nActiveWriters = 0;
+  @GuardedBy ("m_aRWLock")
+  private boolean m_bDiscarded = false;
+  @GuardedBy ("m_aRWLock")
+  private boolean m_bDeleteOnDiscard = false;
+
+  ChunkedUpload (@NonNull @Nonempty final String sID,
+                 @NonNull @Nonempty final String sOwnerSessionID,
+                 @NonNull @Nonempty final String sFilename,
+                 @Nonnegative final long nTotalSize,
+                 @Nonnegative final int nChunkSize,
+                 @NonNull final File aTargetFile)
+  {
+    ValueEnforcer.notEmpty (sID, "ID");
+    ValueEnforcer.notEmpty (sOwnerSessionID, "OwnerSessionID");
+    ValueEnforcer.notEmpty (sFilename, "Filename");
+    ValueEnforcer.isGE0 (nTotalSize, "TotalSize");
+    ValueEnforcer.isGT0 (nChunkSize, "ChunkSize");
+    ValueEnforcer.notNull (aTargetFile, "TargetFile");
+    m_sID = sID;
+    m_sOwnerSessionID = sOwnerSessionID;
+    m_sFilename = sFilename;
+    m_nTotalSize = nTotalSize;
+    m_nChunkSize = nChunkSize;
+    // An empty file still consists of a single empty chunk
+    m_nChunkCount = Math.max (1, (int) ((nTotalSize + nChunkSize - 1) / nChunkSize));
+    m_aTargetFile = aTargetFile;
+    m_aCreationDT = PDTFactory.getCurrentLocalDateTime ();
+    m_aLastModificationDT = m_aCreationDT;
+    m_aReceivedChunks = new BitSet (m_nChunkCount);
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getOwnerSessionID ()
+  {
+    return m_sOwnerSessionID;
+  }
+
+  /**
+   * @return The original file name as provided by the client. Only use it for
+   *         display purposes. Never <code>null</code>.
+   */
+  @NonNull
+  @Nonempty
+  public String getFilename ()
+  {
+    return m_sFilename;
+  }
+
+  @Nonnegative
+  public long getTotalSize ()
+  {
+    return m_nTotalSize;
+  }
+
+  @Nonnegative
+  public int getChunkSize ()
+  {
+    return m_nChunkSize;
+  }
+
+  @Nonnegative
+  public int getChunkCount ()
+  {
+    return m_nChunkCount;
+  }
+
+  /**
+   * @return The file the data is written to. Only contains the full content if
+   *         {@link #isComplete()} returns <code>true</code>.
+   */
+  @NonNull
+  public File getTargetFile ()
+  {
+    return m_aTargetFile;
+  }
+
+  @NonNull
+  public LocalDateTime getCreationDateTime ()
+  {
+    return m_aCreationDT;
+  }
+
+  @NonNull
+  public LocalDateTime getLastModificationDateTime ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aLastModificationDT);
+  }
+
+  public boolean isComplete ()
+  {
+    return m_aRWLock.readLockedBoolean ( () -> m_bComplete);
+  }
+
+  @Nonnegative
+  public int getReceivedChunkCount ()
+  {
+    return m_aRWLock.readLockedInt (m_aReceivedChunks::cardinality);
+  }
+
+  public boolean isChunkReceived (final int nChunkIndex)
+  {
+    return m_aRWLock.readLockedBoolean ( () -> m_aReceivedChunks.get (nChunkIndex));
+  }
+
+  /**
+   * Get the expected length of the chunk with the provided index.
+   *
+   * @param nChunkIndex
+   *        The 0-based chunk index.
+   * @return The number of bytes in this chunk.
+   */
+  @Nonnegative
+  public long getChunkLength (final int nChunkIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nChunkIndex, "ChunkIndex", 0, m_nChunkCount - 1);
+    final long nStart = (long) nChunkIndex * m_nChunkSize;
+    return Math.min (m_nChunkSize, m_nTotalSize - nStart);
+  }
+
+  @NonNull
+  private FileChannel _getOrOpenChannel () throws IOException
+  {
+    // Must be called within the write lock
+    if (m_aChannel == null)
+      m_aChannel = FileChannel.open (m_aTargetFile.toPath (), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    return m_aChannel;
+  }
+
+  /**
+   * Write a single chunk. The data is transferred from the provided stream
+   * directly to the final position in the target file. Multiple chunks of the
+   * same upload may be written concurrently. Writing a chunk that was already
+   * received, or writing to an upload that is already complete, is a no-op,
+   * so that retried requests are idempotent.
+   *
+   * @param nChunkIndex
+   *        The 0-based chunk index.
+   * @param aIS
+   *        The input stream to read the chunk data from. It is not closed by
+   *        this method. May not be <code>null</code>.
+   * @return <code>true</code> if the upload was completed by this chunk,
+   *         <code>false</code> otherwise.
+   * @throws IOException
+   *         In case of an IO error, if the chunk has an invalid length or if
+   *         the upload was discarded in the meantime
+   */
+  public boolean writeChunk (final int nChunkIndex, @NonNull final InputStream aIS) throws IOException
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    final long nExpectedLength = getChunkLength (nChunkIndex);
+    final long nPosition = (long) nChunkIndex * m_nChunkSize;
+
+    final FileChannel aChannel;
+    m_aRWLock.writeLock ().lock ();
+    try
+    {
+      // Don't recreate the file of a removed upload
+      if (m_bDiscarded)
+        throw new IOException ("Chunked upload '" + m_sID + "' was discarded");
+      if (m_bComplete || m_aReceivedChunks.get (nChunkIndex))
+      {
+        LOGGER.info ("Ignoring duplicate chunk " + nChunkIndex + " of upload '" + m_sID + "'");
+        return false;
+      }
+      aChannel = _getOrOpenChannel ();
+      // The channel may not be closed while this chunk is written
+      m_nActiveWriters++;
+    }
+    finally
+    {
+      m_aRWLock.writeLock ().unlock ();
+    }
+
+    try
+    {
+      // Positional writes are thread-safe on a FileChannel, so no lock is
+      // needed while transferring
+      final ReadableByteChannel aSrc = Channels.newChannel (aIS);
+      long nWritten = 0;
+      while (nWritten < nExpectedLength)
+      {
+        final long nCount = aChannel.transferFrom (aSrc, nPosition + nWritten, nExpectedLength - nWritten);
+        if (nCount <= 0)
+          break;
+        nWritten += nCount;
+      }
+      if (nWritten != nExpectedLength)
+        throw new IOException ("Chunk " +
+                               nChunkIndex +
+                               " of upload '" +
+                               m_sID +
+                               "' has length " +
+                               nWritten +
+                               " but expected " +
+                               nExpectedLength);
+      if (aIS.read () >= 0)
+        throw new IOException ("Chunk " + nChunkIndex + " of upload '" + m_sID + "' is longer than " + nExpectedLength);
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      m_aRWLock.writeLocked (this::_onWriterDone);
+      throw ex;
+    }
+
+    m_aRWLock.writeLock ().lock ();
+    try
+    {
+      if (m_bDiscarded)
+      {
+        _onWriterDone ();
+        throw new IOException ("Chunked upload '" + m_sID + "' was discarded while writing chunk " + nChunkIndex);
+      }
+      m_aReceivedChunks.set (nChunkIndex);
+      m_aLastModificationDT = PDTFactory.getCurrentLocalDateTime ();
+      final boolean bCompletedNow = !m_bComplete && m_aReceivedChunks.cardinality () == m_nChunkCount;
+      if (bCompletedNow)
+      {
+        m_bComplete = true;
+        LOGGER.info ("Chunked upload '" + m_sID + "' with " + m_nTotalSize + " bytes is complete");
+      }
+      _onWriterDone ();
+      return bCompletedNow;
+    }
+    finally
+    {
+      m_aRWLock.writeLock ().unlock ();
+    }
+  }
+
+  private void _onWriterDone ()
+  {
+    // Must be called within the write lock
+    m_nActiveWriters--;
+    // Close the channel only after the last concurrent writer is done
+    if (m_nActiveWriters == 0)
+      if (m_bDiscarded)
+        _discardNow ();
+      else
+        if (m_bComplete)
+          try
+          {
+            _closeChannel ();
+          }
+          catch (final IOException ex)
+          {
+            LOGGER.warn ("Failed to close file channel of chunked upload '" + m_sID + "'", ex);
+          }
+  }
+
+  private void _closeChannel () throws IOException
+  {
+    // Must be called within the write lock
+    if (m_aChannel != null)
+    {
+      try
+      {
+        m_aChannel.force (false);
+        m_aChannel.close ();
+      }
+      finally
+      {
+        m_aChannel = null;
+      }
+    }
+  }
+
+  private void _discardNow ()
+  {
+    // Must be called within the write lock and without active writers
+    try
+    {
+      _closeChannel ();
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.warn ("Failed to close file channel of chunked upload '" + m_sID + "'", ex);
+    }
+    if (m_bDeleteOnDiscard)
+      if (m_aTargetFile.exists () && !m_aTargetFile.delete ())
+        LOGGER.warn ("Failed to delete file of chunked upload '" + m_sID + "': " + m_aTargetFile.getAbsolutePath ());
+  }
+
+  /**
+   * Close any open resources and delete the target file if the upload is not
+   * complete. Afterwards no more chunks are accepted. If chunks are currently
+   * being written, this happens after the last of them finished.
+   *
+   * @param bDeleteFile
+   *        <code>true</code> to delete the target file in any case.
+   */
+  void discard (final boolean bDeleteFile)
+  {
+    m_aRWLock.writeLocked ( () -> {
+      if (m_bDiscarded)
+        return;
+      m_bDiscarded = true;
+      m_bDeleteOnDiscard = bDeleteFile || !m_bComplete;
+      if (m_nActiveWriters == 0)
+        _discardNow ();
+    });
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public IJsonObject getAsJson ()
+  {
+    return m_aRWLock.readLockedGet ( () -> {
+      final JsonArray aReceived = new JsonArray ();
+      for (int i = m_aReceivedChunks.nextSetBit (0); i >= 0; i = m_aReceivedChunks.nextSetBit (i + 1))
+        aReceived.add (i);
+      return new JsonObject ().add (JSON_UPLOAD_ID, m_sID)
+                              .add (JSON_FILENAME, m_sFilename)
+                              .add (JSON_TOTAL_SIZE, m_nTotalSize)
+                              .add (JSON_CHUNK_SIZE, m_nChunkSize)
+                              .add (JSON_CHUNK_COUNT, m_nChunkCount)
+                              .addJson (JSON_RECEIVED_CHUNKS, aReceived)
+                              .add (JSON_COMPLETE, m_bComplete);
+    });
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("ID", m_sID)
+                                       .append ("Filename", m_sFilename)
+                                       .append ("TotalSize", m_nTotalSize)
+                                       .append ("ChunkSize", m_nChunkSize)
+                                       .append ("TargetFile", m_aTargetFile)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.chunkedupload;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.annotation.style.UsedViaReflection;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.io.file.FileOperationManager;
+import com.helger.photon.io.WebFileIO;
+import com.helger.scope.IScope;
+import com.helger.scope.singleton.AbstractGlobalSingleton;
+
+/**
+ * Global manager for all active {@link ChunkedUpload} objects. The partial
+ * files are stored in the <code>chunkedupload</code> directory of the data
+ * path.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ChunkedUploadManager extends AbstractGlobalSingleton
+{
+  /** The sub directory of the data path where the uploads are stored */
+  public static final String DIRECTORY_NAME = "chunkedupload";
+  /** Default minimum chunk size: 64 KiB */
+  public static final int DEFAULT_MIN_CHUNK_SIZE = 64 * 1024;
+  /** Default maximum chunk size: 64 MiB */
+  public static final int DEFAULT_MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+  /** Default maximum total file size: 10 GiB */
+  public static final long DEFAULT_MAX_TOTAL_SIZE = 10L * 1024 * 1024 * 1024;
+  /** Default maximum number of uploads per session */
+  public static final int DEFAULT_MAX_UPLOADS_PER_SESSION = 10;
+  /** Default maximum total size of all uploads of a single session: 20 GiB */
+  public static final long DEFAULT_MAX_SESSION_SIZE = 20L * 1024 * 1024 * 1024;
+  /** Uploads not modified for this duration are removed */
+  public static final Duration DEFAULT_EXPIRATION = Duration.ofHours (24);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (ChunkedUploadManager.class);
+
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <String, ChunkedUpload> m_aMap = new CommonsHashMap <> ();
+  @GuardedBy ("m_aRWLock")
+  private long m_nMaxTotalSize = DEFAULT_MAX_TOTAL_SIZE;
+  @GuardedBy ("m_aRWLock")
+  private int m_nMaxUploadsPerSession = DEFAULT_MAX_UPLOADS_PER_SESSION;
+  @GuardedBy ("m_aRWLock")
+  private long m_nMaxSessionSize = DEFAULT_MAX_SESSION_SIZE;
+  @GuardedBy ("m_aRWLock")
+  private Duration m_aExpiration = DEFAULT_EXPIRATION;
+  @GuardedBy ("m_aRWLock")
+  private Consumer <? super ChunkedUpload> m_aCompletionHandler;
+
+  @Deprecated (forRemoval = false)
+  @UsedViaReflection
+  private ChunkedUploadManager ()
+  {}
+
+  @NonNull
+  public static ChunkedUploadManager getInstance ()
+  {
+    return getGlobalSingleton (ChunkedUploadManager.class);
+  }
+
+  @Override
+  protected void onDestroy (@NonNull final IScope aScopeInDestruction) throws Exception
+  {
+    // The upload IDs are not persisted, so the files cannot be accessed
+    // afterwards anyway
+    m_aRWLock.writeLocked ( () -> {
+      for (final ChunkedUpload aUpload : m_aMap.values ())
+        aUpload.discard (true);
+      m_aMap.clear ();
+    });
+  }
+
+  @Nonnegative
+  public long getMaxTotalSize ()
+  {
+    return m_aRWLock.readLockedLong ( () -> m_nMaxTotalSize);
+  }
+
+  public void setMaxTotalSize (@Nonnegative final long nMaxTotalSize)
+  {
+    ValueEnforcer.isGT0 (nMaxTotalSize, "MaxTotalSize");
+    m_aRWLock.writeLocked ( () -> m_nMaxTotalSize = nMaxTotalSize);
+  }
+
+  /**
+   * @return The maximum number of uploads a single session may have at the
+   *         same time. Completed uploads count until they are removed.
+   */
+  @Nonnegative
+  public int getMaxUploadsPerSession ()
+  {
+    return m_aRWLock.readLockedInt ( () -> m_nMaxUploadsPerSession);
+  }
+
+  public void setMaxUploadsPerSession (@Nonnegative final int nMaxUploadsPerSession)
+  {
+    ValueEnforcer.isGT0 (nMaxUploadsPerSession, "MaxUploadsPerSession");
+    m_aRWLock.writeLocked ( () -> m_nMaxUploadsPerSession = nMaxUploadsPerSession);
+  }
+
+  /**
+   * @return The maximum sum of the total sizes of all uploads of a single
+   *         session. Completed uploads count until they are removed.
+   */
+  @Nonnegative
+  public long getMaxSessionSize ()
+  {
+    return m_aRWLock.readLockedLong ( () -> m_nMaxSessionSize);
+  }
+
+  public void setMaxSessionSize (@Nonnegative final long nMaxSessionSize)
+  {
+    ValueEnforcer.isGT0 (nMaxSessionSize, "MaxSessionSize");
+    m_aRWLock.writeLocked ( () -> m_nMaxSessionSize = nMaxSessionSize);
+  }
+
+  @NonNull
+  public Duration getExpiration ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aExpiration);
+  }
+
+  public void setExpiration (@NonNull final Duration aExpiration)
+  {
+    ValueEnforcer.notNull (aExpiration, "Expiration");
+    ValueEnforcer.isFalse (aExpiration.isNegative () || aExpiration.isZero (), "Expiration must be positive");
+    m_aRWLock.writeLocked ( () -> m_aExpiration = aExpiration);
+  }
+
+  @Nullable
+  public Consumer <? super ChunkedUpload> getCompletionHandler ()
+  {
+    return m_aRWLock.readLockedGet ( () -> m_aCompletionHandler);
+  }
+
+  /**
+   * Set the handler that is invoked exactly once for each upload after the
+   * last chunk was written.
+   *
+   * @param aCompletionHandler
+   *        The handler to use. May be <code>null</code>.
+   */
+  public void setCompletionHandler (@Nullable final Consumer <? super ChunkedUpload> aCompletionHandler)
+  {
+    m_aRWLock.writeLocked ( () -> m_aCompletionHandler = aCompletionHandler);
+  }
+
+  @NonNull
+  private static File _getBaseDirectory ()
+  {
+    final File aDir = WebFileIO.getDataIO ().getFile (DIRECTORY_NAME);
+    FileOperationManager.INSTANCE.createDirRecursiveIfNotExisting (aDir);
+    return aDir;
+  }
+
+  /**
+   * Create a new upload.
+   *
+   * @param sOwnerSessionID
+   *        The ID of the session that is allowed to access the upload. May
+   *        neither be <code>null</code> nor empty.
+   * @param sFilename
+   *        The original file name. May neither be <code>null</code> nor empty.
+   * @param nTotalSize
+   *        The total file size in bytes.
+   * @param nChunkSize
+   *        The requested chunk size in bytes. It is clamped to the range
+   *        {@link #DEFAULT_MIN_CHUNK_SIZE} to {@link #DEFAULT_MAX_CHUNK_SIZE}.
+   * @return <code>null</code> if the total size exceeds the maximum size or
+   *         if the session limits ({@link #getMaxUploadsPerSession()} and
+   *         {@link #getMaxSessionSize()}) would be exceeded.
+   */
+  @Nullable
+  public ChunkedUpload createUpload (@NonNull @Nonempty final String sOwnerSessionID,
+                                     @NonNull @Nonempty final String sFilename,
+                                     @Nonnegative final long nTotalSize,
+                                     final int nChunkSize)
+  {
+    ValueEnforcer.isGE0 (nTotalSize, "TotalSize");
+    if (nTotalSize > getMaxTotalSize ())
+    {
+      LOGGER.warn ("Refusing chunked upload of " + nTotalSize + " bytes because it exceeds the maximum size");
+      return null;
+    }
+
+    removeExpiredUploads ();
+
+    final int nRealChunkSize = Math.max (DEFAULT_MIN_CHUNK_SIZE, Math.min (nChunkSize, DEFAULT_MAX_CHUNK_SIZE));
+    // Use a random ID, so that it cannot be guessed
+    final String sID = UUID.randomUUID ().toString ();
+    final File aTargetFile = new File (_getBaseDirectory (), sID + ".part");
+    final ChunkedUpload aUpload = new ChunkedUpload (sID,
+                                                     sOwnerSessionID,
+                                                     sFilename,
+                                                     nTotalSize,
+                                                     nRealChunkSize,
+                                                     aTargetFile);
+    final boolean bAdded = m_aRWLock.writeLockedBoolean ( () -> {
+      // Check the session limits and add in one step
+      int nSessionUploads = 0;
+      long nSessionSize = nTotalSize;
+      for (final ChunkedUpload aOther : m_aMap.values ())
+        if (aOther.getOwnerSessionID ().equals (sOwnerSessionID))
+        {
+          nSessionUploads++;
+          nSessionSize += aOther.getTotalSize ();
+        }
+      if (nSessionUploads >= m_nMaxUploadsPerSession || nSessionSize > m_nMaxSessionSize)
+        return false;
+      m_aMap.put (sID, aUpload);
+      return true;
+    });
+    if (!bAdded)
+    {
+      LOGGER.warn ("Refusing chunked upload of " +
+                   nTotalSize +
+                   " bytes because it exceeds the limits of session '" +
+                   sOwnerSessionID +
+                   "'");
+      return null;
+    }
+    LOGGER.info ("Created chunked upload " + aUpload);
+    return aUpload;
+  }
+
+  /**
+   * Get the upload with the provided ID, if it is owned by the provided
+   * session.
+   *
+   * @param sUploadID
+   *        Upload ID. May be <code>null</code>.
+   * @param sOwnerSessionID
+   *        The session ID that must own the upload. May be <code>null</code>.
+   * @return <code>null</code> if no such upload exists or if it is owned by
+   *         another session.
+   */
+  @Nullable
+  public ChunkedUpload getUploadOfID (@Nullable final String sUploadID, @Nullable final String sOwnerSessionID)
+  {
+    if (sUploadID == null || sOwnerSessionID == null)
+      return null;
+    final ChunkedUpload aUpload = m_aRWLock.readLockedGet ( () -> m_aMap.get (sUploadID));
+    return aUpload != null && aUpload.getOwnerSessionID ().equals (sOwnerSessionID) ? aUpload : null;
+  }
+
+  /**
+   * Get the completed upload with the provided ID. This is the method to be
+   * used when the surrounding form is submitted with the upload ID.
+   *
+   * @param sUploadID
+   *        Upload ID. May be <code>null</code>.
+   * @param sOwnerSessionID
+   *        The session ID that must own the upload. May be <code>null</code>.
+   * @return <code>null</code> if no such upload exists, if it is owned by
+   *         another session or if it is not yet complete.
+   */
+  @Nullable
+  public ChunkedUpload getCompletedUploadOfID (@Nullable final String sUploadID, @Nullable final String sOwnerSessionID)
+  {
+    final ChunkedUpload aUpload = getUploadOfID (sUploadID, sOwnerSessionID);
+    return aUpload != null && aUpload.isComplete () ? aUpload : null;
+  }
+
+  /**
+   * Called by the servlet handler after the last chunk of an upload was
+   * written.
+   *
+   * @param aUpload
+   *        The completed upload. May not be <code>null</code>.
+   */
+  void onUploadCompleted (@NonNull final ChunkedUpload aUpload)
+  {
+    final Consumer <? super ChunkedUpload> aHandler = getCompletionHandler ();
+    if (aHandler != null)
+      aHandler.accept (aUpload);
+  }
+
+  /**
+   * Remove an upload and delete the underlying file.
+   *
+   * @param sUploadID
+   *        Upload ID. May be <code>null</code>.
+   * @return The removed upload or <code>null</code> if no such upload exists.
+   */
+  @Nullable
+  public ChunkedUpload removeUpload (@Nullable final String sUploadID)
+  {
+    if (sUploadID == null)
+      return null;
+    final ChunkedUpload aUpload = m_aRWLock.writeLockedGet ( () -> m_aMap.remove (sUploadID));
+    if (aUpload != null)
+      aUpload.discard (true);
+    return aUpload;
+  }
+
+  /**
+   * Remove all uploads that were not modified within the configured
+   * expiration duration.
+   *
+   * @return The list of removed uploads. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ChunkedUpload> removeExpiredUploads ()
+  {
+    final LocalDateTime aLimit = PDTFactory.getCurrentLocalDateTime ().minus (getExpiration ());
+    final ICommonsList <ChunkedUpload> ret = new CommonsArrayList <> ();
+    m_aRWLock.writeLocked ( () -> {
+      for (final ChunkedUpload aUpload : m_aMap.copyOfValues ())
+        if (aUpload.getLastModificationDateTime ().isBefore (aLimit))
+        {
+          m_aMap.remove (aUpload.getID ());
+          ret.add (aUpload);
+        }
+    });
+    for (final ChunkedUpload aUpload : ret)
+    {
+      aUpload.discard (true);
+      LOGGER.info ("Removed expired chunked upload " + aUpload);
+    }
+    return ret;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ChunkedUpload> getAllUploads ()
+  {
+    return m_aRWLock.readLockedGet (m_aMap::copyOfValues);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.chunkedupload;
+
+import com.helger.http.EHttpMethod;
+import com.helger.xservlet.AbstractXServlet;
+
+/**
+ * Servlet that receives chunked, resumable uploads as sent by the chunked mode
+ * of {@link com.helger.photon.bootstrap5.uictrls.ext.BootstrapFileUpload}.
+ *
+ * @author Philip Helger
+ */
+public class ChunkedUploadServlet extends AbstractXServlet
+{
+  public static final String SERVLET_DEFAULT_NAME = "chunkedupload";
+  public static final String SERVLET_DEFAULT_PATH = '/' + SERVLET_DEFAULT_NAME;
+
+  public ChunkedUploadServlet ()
+  {
+    final ChunkedUploadXServletHandler aHandler = new ChunkedUploadXServletHandler ();
+    handlerRegistry ().registerHandler (EHttpMethod.POST, aHandler, false);
+    handlerRegistry ().registerHandler (EHttpMethod.GET, aHandler, false);
+    handlerRegistry ().registerHandler (EHttpMethod.PUT, aHandler, false);
+  }
+}
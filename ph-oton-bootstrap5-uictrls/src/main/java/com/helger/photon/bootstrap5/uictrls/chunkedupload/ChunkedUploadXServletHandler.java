@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.chunkedupload;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.base.string.StringHelper;
+import com.helger.http.EHttpMethod;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonObject;
+import com.helger.mime.CMimeType;
+import com.helger.servlet.response.UnifiedResponse;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+import com.helger.web.scope.mgr.WebScopeManager;
+import com.helger.xservlet.handler.simple.IXServletSimpleHandler;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Handler for chunked uploads. The following requests are supported:
+ * <ul>
+ * <li><code>POST</code> with parameters {@value #PARAM_FILENAME},
+ * {@value #PARAM_SIZE} and optionally {@value #PARAM_CHUNK_SIZE} creates a new
+ * upload</li>
+ * <li><code>GET</code> with parameter {@value #PARAM_UPLOAD_ID} returns the
+ * status of an upload, including the indices of the already received chunks.
+ * This is used to resume an interrupted upload.</li>
+ * <li><code>PUT</code> with parameters {@value #PARAM_UPLOAD_ID} and
+ * {@value #PARAM_CHUNK} and the raw chunk bytes as the request body writes a
+ * single chunk</li>
+ * </ul>
+ * All responses are JSON objects as created by
+ * {@link ChunkedUpload#getAsJson()}. Uploads can only be accessed from the
+ * session that created them.
+ *
+ * @author Philip Helger
+ */
+public class ChunkedUploadXServletHandler implements IXServletSimpleHandler
+{
+  public static final String PARAM_UPLOAD_ID = "uploadid";
+  public static final String PARAM_FILENAME = "filename";
+  public static final String PARAM_SIZE = "size";
+  public static final String PARAM_CHUNK_SIZE = "chunksize";
+  public static final String PARAM_CHUNK = "chunk";
+  public static final String JSON_ERROR = "error";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (ChunkedUploadXServletHandler.class);
+
+  private static void _sendJson (@NonNull final UnifiedResponse aUnifiedResponse, @NonNull final IJsonObject aJson)
+  {
+    aUnifiedResponse.disableCaching ()
+                    .setContentAndCharset (aJson.getAsJsonString (), StandardCharsets.UTF_8)
+                    .setMimeType (CMimeType.APPLICATION_JSON);
+  }
+
+  private static void _sendError (@NonNull final UnifiedResponse aUnifiedResponse,
+                                  final int nStatusCode,
+                                  @NonNull final String sMsg)
+  {
+    aUnifiedResponse.setStatus (nStatusCode);
+    _sendJson (aUnifiedResponse, new JsonObject ().add (JSON_ERROR, sMsg));
+  }
+
+  @Nullable
+  private static String _getSessionID ()
+  {
+    return WebScopeManager.getSessionScope ().getID ();
+  }
+
+  public void handleRequest (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                             @NonNull final UnifiedResponse aUnifiedResponse) throws Exception
+  {
+    final ChunkedUploadManager aMgr = ChunkedUploadManager.getInstance ();
+    final EHttpMethod eMethod = aRequestScope.getHttpMethod ();
+    if (eMethod == EHttpMethod.POST)
+    {
+      // Create a new upload
+      final String sFilename = aRequestScope.params ().getAsStringTrimmed (PARAM_FILENAME);
+      final long nSize = aRequestScope.params ().getAsLong (PARAM_SIZE, -1);
+      final int nChunkSize = aRequestScope.params ().getAsInt (PARAM_CHUNK_SIZE, ChunkedUploadManager.DEFAULT_MIN_CHUNK_SIZE);
+      if (StringHelper.isEmpty (sFilename) || nSize < 0)
+      {
+        _sendError (aUnifiedResponse, HttpServletResponse.SC_BAD_REQUEST, "File name and size are required");
+        return;
+      }
+
+      final ChunkedUpload aUpload = aMgr.createUpload (_getSessionID (), sFilename, nSize, nChunkSize);
+      if (aUpload == null)
+      {
+        _sendError (aUnifiedResponse, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "The file is too large or too many uploads are active");
+        return;
+      }
+      _sendJson (aUnifiedResponse, aUpload.getAsJson ());
+      return;
+    }
+
+    final String sUploadID = aRequestScope.params ().getAsString (PARAM_UPLOAD_ID);
+    final ChunkedUpload aUpload = aMgr.getUploadOfID (sUploadID, _getSessionID ());
+    if (aUpload == null)
+    {
+      _sendError (aUnifiedResponse, HttpServletResponse.SC_NOT_FOUND, "No such upload");
+      return;
+    }
+
+    if (eMethod == EHttpMethod.GET)
+    {
+      // Status for resuming
+      _sendJson (aUnifiedResponse, aUpload.getAsJson ());
+      return;
+    }
+
+    if (eMethod == EHttpMethod.PUT)
+    {
+      final int nChunkIndex = aRequestScope.params ().getAsInt (PARAM_CHUNK, -1);
+      if (nChunkIndex < 0 || nChunkIndex >= aUpload.getChunkCount ())
+      {
+        _sendError (aUnifiedResponse, HttpServletResponse.SC_BAD_REQUEST, "Invalid chunk index");
+        return;
+      }
+
+      final boolean bCompleted;
+      try (final InputStream aIS = aRequestScope.getRequest ().getInputStream ())
+      {
+        // Stream the body directly to the target position
+        bCompleted = aUpload.writeChunk (nChunkIndex, aIS);
+      }
+      catch (final Exception ex)
+      {
+        LOGGER.warn ("Failed to write chunk " + nChunkIndex + " of upload '" + sUploadID + "'", ex);
+        _sendError (aUnifiedResponse, HttpServletResponse.SC_BAD_REQUEST, "Failed to write chunk " + nChunkIndex);
+        return;
+      }
+
+      if (bCompleted)
+        aMgr.onUploadCompleted (aUpload);
+      _sendJson (aUnifiedResponse, new JsonObject ().add (ChunkedUpload.JSON_UPLOAD_ID, aUpload.getID ())
+                                                    .add (PARAM_CHUNK, nChunkIndex)
+                                                    .add (ChunkedUpload.JSON_COMPLETE, aUpload.isComplete ()));
+      return;
+    }
+
+    _sendError (aUnifiedResponse, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Unsupported method");
+  }
+}
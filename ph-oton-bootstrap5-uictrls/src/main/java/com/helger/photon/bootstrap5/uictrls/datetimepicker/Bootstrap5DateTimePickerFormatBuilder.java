@@ -19,39 +19,101 @@ package com.helger.photon.bootstrap5.uictrls.datetimepicker;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.cache.impl.Cache;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.format.PDTFormatter;
 import com.helger.datetime.format.PDTFromString;
 import com.helger.photon.uicore.datetime.IDateFormatBuilder;
 
+/**
+ * Builder for date time formats that can be used both in Java and with
+ * TempusDominus. Once the builder is locked (all instances returned by
+ * {@link #fromJavaPattern(String)} are locked), it is immutable and the
+ * derived Java pattern, JS pattern and {@link DateTimeFormatter} are computed
+ * only once, so that parsing does not allocate anything but the result.
+ * <p>
+ * The builder itself is not thread-safe and must not be modified concurrently.
+ * Only locked instances may be shared between threads - the memoized derived
+ * values and the static pattern caches are safe for concurrent use.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
 public class Bootstrap5DateTimePickerFormatBuilder implements IDateFormatBuilder
 {
   // List of Character or ETempusDominusFormatToken
   private final ICommonsList <Object> m_aList = new CommonsArrayList <> ();
+  private volatile boolean m_bLocked = false;
+  // Memoized derived values - reset on modification
+  private volatile String m_sJSCalendarFormat;
+  private volatile String m_sJavaFormat;
+  private volatile DateTimeFormatter m_aJavaFormatter;
 
   public Bootstrap5DateTimePickerFormatBuilder ()
   {}
 
+  private void _checkNotLocked ()
+  {
+    if (m_bLocked)
+      throw new IllegalStateException ("This format builder is locked and cannot be modified");
+  }
+
+  private void _onModified ()
+  {
+    m_sJSCalendarFormat = null;
+    m_sJavaFormat = null;
+    m_aJavaFormatter = null;
+  }
+
+  /**
+   * @return <code>true</code> if this builder is locked and can no longer be
+   *         modified, <code>false</code> if not.
+   */
+  public final boolean isLocked ()
+  {
+    return m_bLocked;
+  }
+
+  /**
+   * Lock this builder so that it can no longer be modified. Afterwards it can
+   * safely be shared between threads.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public final Bootstrap5DateTimePickerFormatBuilder lock ()
+  {
+    m_bLocked = true;
+    return this;
+  }
+
   @NonNull
   public Bootstrap5DateTimePickerFormatBuilder append (@NonNull final ETempusDominusFormatToken eToken)
   {
     ValueEnforcer.notNull (eToken, "Token");
+    _checkNotLocked ();
     m_aList.add (eToken);
+    _onModified ();
     return this;
   }
 
   @NonNull
   public Bootstrap5DateTimePickerFormatBuilder append (final char c)
   {
+    _checkNotLocked ();
     m_aList.add (Character.valueOf (c));
+    _onModified ();
     return this;
   }
 
@@ -65,64 +127,130 @@ public class Bootstrap5DateTimePickerFormatBuilder implements IDateFormatBuilder
   @NonNull
   public String getJSCalendarFormatString ()
   {
-    final StringBuilder aSB = new StringBuilder ();
-    for (final Object o : m_aList)
-      if (o instanceof final ETempusDominusFormatToken eToken)
-        aSB.append (eToken.getJSToken ());
-      else
-        aSB.append (((Character) o).charValue ());
-    return aSB.toString ();
+    String ret = m_sJSCalendarFormat;
+    if (ret == null)
+    {
+      final StringBuilder aSB = new StringBuilder ();
+      for (final Object o : m_aList)
+        if (o instanceof final ETempusDominusFormatToken eToken)
+          aSB.append (eToken.getJSToken ());
+        else
+          aSB.append (((Character) o).charValue ());
+      ret = aSB.toString ();
+      m_sJSCalendarFormat = ret;
+    }
+    return ret;
   }
 
   @NonNull
   public String getJavaFormatString ()
   {
-    final StringBuilder aSB = new StringBuilder ();
-    for (final Object o : m_aList)
-      if (o instanceof final ETempusDominusFormatToken eToken)
-        aSB.append (eToken.getJavaToken ());
-      else
-        aSB.append (((Character) o).charValue ());
-    return aSB.toString ();
+    String ret = m_sJavaFormat;
+    if (ret == null)
+    {
+      final StringBuilder aSB = new StringBuilder ();
+      for (final Object o : m_aList)
+        if (o instanceof final ETempusDominusFormatToken eToken)
+          aSB.append (eToken.getJavaToken ());
+        else
+          aSB.append (((Character) o).charValue ());
+      ret = aSB.toString ();
+      m_sJavaFormat = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * @return The compiled {@link DateTimeFormatter} for the Java format string.
+   *         It is only compiled once. Never <code>null</code>.
+   */
+  @NonNull
+  public DateTimeFormatter getJavaFormatter ()
+  {
+    DateTimeFormatter ret = m_aJavaFormatter;
+    if (ret == null)
+    {
+      ret = PDTFormatter.getForPattern (getJavaFormatString ());
+      m_aJavaFormatter = ret;
+    }
+    return ret;
   }
 
   @NonNull
   public LocalDate getDateFormatted (@Nullable final String sDate)
   {
-    return PDTFromString.getLocalDateFromString (sDate, getJavaFormatString ());
+    return PDTFromString.getLocalDateFromString (sDate, getJavaFormatter ());
   }
 
   @NonNull
   public LocalTime getTimeFormatted (@Nullable final String sTime)
   {
-    return PDTFromString.getLocalTimeFromString (sTime, getJavaFormatString ());
+    return PDTFromString.getLocalTimeFromString (sTime, getJavaFormatter ());
   }
 
   @NonNull
   public LocalDateTime getLocalDateTimeFormatted (@Nullable final String sDateTime)
   {
-    return PDTFromString.getLocalDateTimeFromString (sDateTime, getJavaFormatString ());
+    return PDTFromString.getLocalDateTimeFromString (sDateTime, getJavaFormatter ());
   }
 
   @Override
   public String toString ()
   {
-    return new ToStringGenerator (this).append ("List", m_aList).getToString ();
+    return new ToStringGenerator (this).append ("List", m_aList).append ("Locked", m_bLocked).getToString ();
   }
 
-  // Cache for standard patterns
+  /** The maximum number of distinct patterns kept in the cache */
+  public static final int PATTERN_CACHE_MAX_SIZE = 1_000;
+
+  // Cache for standard patterns. Hit and miss statistics are automatically
+  // reported to the StatisticsManager.
   private static final class PatternCache extends Cache <String, Bootstrap5DateTimePickerFormatBuilder>
   {
     public PatternCache ()
     {
-      super (Bootstrap5DateTimePickerFormatBuilder::fromJavaPattern, "BS5DTPickerFormatCache");
+      super (Bootstrap5DateTimePickerFormatBuilder::_parseJavaPattern,
+             PATTERN_CACHE_MAX_SIZE,
+             "BS5DTPickerFormatCache");
     }
   }
 
   private static final PatternCache CACHE = new PatternCache ();
 
+  /**
+   * @return The number of patterns currently contained in the cache.
+   */
+  @Nonnegative
+  public static int getPatternCacheSize ()
+  {
+    return CACHE.size ();
+  }
+
+  /**
+   * Remove all cached patterns.
+   */
+  public static void clearPatternCache ()
+  {
+    CACHE.clearCache ();
+  }
+
+  /**
+   * Get the locked format builder for the provided Java pattern. The result
+   * is cached.
+   *
+   * @param sJavaPattern
+   *        The Java pattern to use. May not be <code>null</code>.
+   * @return The locked format builder. Never <code>null</code>.
+   */
   @NonNull
   public static Bootstrap5DateTimePickerFormatBuilder fromJavaPattern (@NonNull final String sJavaPattern)
+  {
+    ValueEnforcer.notNull (sJavaPattern, "JavaPattern");
+    return CACHE.getFromCache (sJavaPattern);
+  }
+
+  @NonNull
+  private static Bootstrap5DateTimePickerFormatBuilder _parseJavaPattern (@NonNull final String sJavaPattern)
   {
     final Bootstrap5DateTimePickerFormatBuilder aBuilder = new Bootstrap5DateTimePickerFormatBuilder ();
     final int nLen = sJavaPattern.length ();
@@ -280,6 +408,6 @@ public class Bootstrap5DateTimePickerFormatBuilder implements IDateFormatBuilder
       if (!bFound)
         aBuilder.append (c);
     }
-    return aBuilder;
+    return aBuilder.lock ();
   }
 }
@@ -22,11 +22,14 @@ import com.helger.base.tostring.ToStringGenerator;
 import com.helger.html.annotation.OutOfBandNode;
 import com.helger.html.hc.html.script.AbstractHCScriptInline;
 import com.helger.html.hc.special.SpecialNodeListModifier;
+import com.helger.html.js.CollectingJSCodeProvider;
+import com.helger.html.js.IHasJSCode;
 
 /**
  * A special script that initializes the {@link BootstrapDateTimePicker}. It is
  * a separate class, so that potentially identical options can be merged to a
- * single invocation.
+ * single invocation and that shared localization blocks are only declared once
+ * per page.
  *
  * @author Philip Helger
  */
@@ -38,10 +41,22 @@ public class Bootstrap5DateTimePickerJS extends AbstractHCScriptInline <Bootstra
 
   public Bootstrap5DateTimePickerJS (@NonNull final BootstrapDateTimePicker aDTP)
   {
-    super (aDTP.getJSInitCode ());
+    super (_getJSCode (aDTP));
     m_aDTP = aDTP;
   }
 
+  @NonNull
+  private static IHasJSCode _getJSCode (@NonNull final BootstrapDateTimePicker aDTP)
+  {
+    final Bootstrap5DateTimePickerLocalization aSharedLocalization = aDTP.getSharedLocalization ();
+    if (aSharedLocalization == null)
+      return aDTP.getJSInitCode ();
+
+    // Standalone version needs to declare the shared localization itself
+    return new CollectingJSCodeProvider ().append (aSharedLocalization.getJSDeclaration ())
+                                          .append (aDTP.getJSInitCode ());
+  }
+
   @NonNull
   public BootstrapDateTimePicker getDateTimePicker ()
   {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.datetimepicker;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.html.js.IHasJSCode;
+import com.helger.html.jscode.IJSExpression;
+import com.helger.html.jscode.JSAssocArray;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSVar;
+
+/**
+ * The precomputed "localization" block of a {@link BootstrapDateTimePicker}
+ * for a combination of display locale and mode. The block is created only
+ * once per combination and emitted as a single shared JS variable per page,
+ * that is referenced by all date time pickers using the same combination.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class Bootstrap5DateTimePickerLocalization
+{
+  private static final String JS_VAR_PREFIX = "tdLoc_";
+
+  private static final SimpleReadWriteLock RW_LOCK = new SimpleReadWriteLock ();
+  @GuardedBy ("RW_LOCK")
+  private static final ICommonsMap <String, Bootstrap5DateTimePickerLocalization> CACHE = new CommonsHashMap <> ();
+
+  private final String m_sJSVarName;
+  private final IJSExpression m_aJSRef;
+  private final JSVar m_aJSDeclaration;
+
+  private Bootstrap5DateTimePickerLocalization (@NonNull @Nonempty final String sJSVarName,
+                                                @NonNull final JSAssocArray aLocalization)
+  {
+    m_sJSVarName = sJSVarName;
+    // Always use the same reference object, so that JS options of different
+    // pickers using the same localization are considered equal
+    m_aJSRef = JSExpr.ref (sJSVarName);
+    m_aJSDeclaration = new JSVar (sJSVarName, aLocalization);
+  }
+
+  /**
+   * @return The name of the JS variable holding the localization block. Never
+   *         <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getJSVarName ()
+  {
+    return m_sJSVarName;
+  }
+
+  /**
+   * @return The JS expression referencing the shared variable. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public IJSExpression getJSRef ()
+  {
+    return m_aJSRef;
+  }
+
+  /**
+   * @return The JS code declaring the shared variable. Must be emitted before
+   *         the first reference via {@link #getJSRef()}. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public IHasJSCode getJSDeclaration ()
+  {
+    return m_aJSDeclaration;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("JSVarName", m_sJSVarName).getToString ();
+  }
+
+  /**
+   * Create a new localization block. This is the uncached version, that is
+   * e.g. used if a custom format is used.
+   *
+   * @param aDisplayLocale
+   *        Display locale to use. May not be <code>null</code>.
+   * @param sJSFormat
+   *        The JS format string to use. May not be <code>null</code>.
+   * @return A new localization block. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static JSAssocArray createLocalization (@NonNull final Locale aDisplayLocale,
+                                                 @NonNull final String sJSFormat)
+  {
+    final JSAssocArray aLocalization = new JSAssocArray ();
+    // Texts
+    aLocalization.add ("today", EBootstrap5DateTimePickerTexts.TODAY.getDisplayText (aDisplayLocale));
+    aLocalization.add ("clear", EBootstrap5DateTimePickerTexts.CLEAR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("close", EBootstrap5DateTimePickerTexts.CLOSE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("selectMonth", EBootstrap5DateTimePickerTexts.SELECT_MONTH.getDisplayText (aDisplayLocale));
+    aLocalization.add ("previousMonth", EBootstrap5DateTimePickerTexts.PREV_MONTH.getDisplayText (aDisplayLocale));
+    aLocalization.add ("nextMonth", EBootstrap5DateTimePickerTexts.NEXT_MONTH.getDisplayText (aDisplayLocale));
+    aLocalization.add ("selectYear", EBootstrap5DateTimePickerTexts.SELECT_YEAR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("previousYear", EBootstrap5DateTimePickerTexts.PREV_YEAR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("nextYear", EBootstrap5DateTimePickerTexts.NEXT_YEAR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("selectDecade", EBootstrap5DateTimePickerTexts.SELECT_DECADE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("previousDecade", EBootstrap5DateTimePickerTexts.PREV_DECADE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("nextDecade", EBootstrap5DateTimePickerTexts.NEXT_DECADE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("previousCentury",
+                       EBootstrap5DateTimePickerTexts.PREV_CENTURY.getDisplayText (aDisplayLocale));
+    aLocalization.add ("nextCentury", EBootstrap5DateTimePickerTexts.NEXT_CENTURY.getDisplayText (aDisplayLocale));
+    aLocalization.add ("pickHour", EBootstrap5DateTimePickerTexts.PICK_HOUR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("incrementHour",
+                       EBootstrap5DateTimePickerTexts.INCREMENT_HOUR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("decrementHour",
+                       EBootstrap5DateTimePickerTexts.DECREMENT_HOUR.getDisplayText (aDisplayLocale));
+    aLocalization.add ("pickMinute", EBootstrap5DateTimePickerTexts.PICK_MINUTE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("incrementMinute",
+                       EBootstrap5DateTimePickerTexts.INCREMENT_MINUTE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("decrementMinute",
+                       EBootstrap5DateTimePickerTexts.DECREMENT_MINUTE.getDisplayText (aDisplayLocale));
+    aLocalization.add ("pickSecond", EBootstrap5DateTimePickerTexts.PICK_SECOND.getDisplayText (aDisplayLocale));
+    aLocalization.add ("incrementSecond",
+                       EBootstrap5DateTimePickerTexts.INCREMENT_SECOND.getDisplayText (aDisplayLocale));
+    aLocalization.add ("decrementSecond",
+                       EBootstrap5DateTimePickerTexts.DECREMENT_SECOND.getDisplayText (aDisplayLocale));
+    aLocalization.add ("toggleMeridiem",
+                       EBootstrap5DateTimePickerTexts.TOGGLE_MERIDIEM.getDisplayText (aDisplayLocale));
+    aLocalization.add ("selectTime", EBootstrap5DateTimePickerTexts.SELECT_TIME.getDisplayText (aDisplayLocale));
+    aLocalization.add ("selectDate", EBootstrap5DateTimePickerTexts.SELECT_DATE.getDisplayText (aDisplayLocale));
+
+    // Locale
+    aLocalization.add ("locale", aDisplayLocale.toLanguageTag ());
+    // Default to 24h for now, can be improved
+    aLocalization.add ("hourCycle", "h23");
+    // Format
+    aLocalization.add ("format", sJSFormat);
+    return aLocalization;
+  }
+
+  @NonNull
+  @Nonempty
+  private static String _getJSVarName (@NonNull final Locale aDisplayLocale,
+                                       @NonNull final EBootstrap5DateTimePickerMode eMode)
+  {
+    final StringBuilder aSB = new StringBuilder (JS_VAR_PREFIX);
+    for (final char c : aDisplayLocale.toLanguageTag ().toCharArray ())
+      aSB.append (Character.isLetterOrDigit (c) ? c : '_');
+    return aSB.append ('_').append (eMode.name ()).toString ();
+  }
+
+  /**
+   * Get the shared localization block for the provided display locale and
+   * mode. It is created on first access and cached afterwards.
+   *
+   * @param aDisplayLocale
+   *        Display locale to use. May not be <code>null</code>.
+   * @param eMode
+   *        Date time picker mode to use. May not be <code>null</code>.
+   * @return The shared localization. Never <code>null</code>.
+   */
+  @NonNull
+  public static Bootstrap5DateTimePickerLocalization getInstance (@NonNull final Locale aDisplayLocale,
+                                                                  @NonNull final EBootstrap5DateTimePickerMode eMode)
+  {
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (eMode, "Mode");
+
+    final String sJSVarName = _getJSVarName (aDisplayLocale, eMode);
+    final Bootstrap5DateTimePickerLocalization ret = RW_LOCK.readLockedGet ( () -> CACHE.get (sJSVarName));
+    if (ret != null)
+      return ret;
+
+    return RW_LOCK.writeLockedGet ( () -> CACHE.computeIfAbsent (sJSVarName,
+                                                                 k -> new Bootstrap5DateTimePickerLocalization (k,
+                                                                                                                createLocalization (aDisplayLocale,
+                                                                                                                                    eMode.getJSFormat (aDisplayLocale)))));
+  }
+}
@@ -22,7 +22,9 @@ import org.jspecify.annotations.NonNull;
 
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashSet;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedSet;
 import com.helger.html.hc.IHCNode;
 import com.helger.html.hc.html.script.HCScriptInlineOnDocumentReady;
 import com.helger.html.hc.special.IHCSpecialNodeListModifier;
@@ -63,6 +65,19 @@ public final class Bootstrap5DateTimePickerSpecialNodeListModifier implements IH
 
     final String sScriptNonce = aDTPs.getFirstOrNull ().getNonce ();
     final CollectingJSCodeProvider aMergedJS = new CollectingJSCodeProvider ();
+
+    // Declare all shared localization blocks only once
+    final ICommonsOrderedSet <Bootstrap5DateTimePickerLocalization> aSharedLocalizations = new CommonsLinkedHashSet <> ();
+    for (final Bootstrap5DateTimePickerJS aDTP : aDTPs)
+    {
+      final Bootstrap5DateTimePickerLocalization aSharedLocalization = aDTP.getDateTimePicker ()
+                                                                           .getSharedLocalization ();
+      if (aSharedLocalization != null)
+        aSharedLocalizations.add (aSharedLocalization);
+    }
+    for (final Bootstrap5DateTimePickerLocalization aSharedLocalization : aSharedLocalizations)
+      aMergedJS.append (aSharedLocalization.getJSDeclaration ());
+
     final ICommonsList <Bootstrap5DateTimePickerJS> aRest = aDTPs.getClone ();
     while (aRest.isNotEmpty ())
     {
@@ -85,7 +100,9 @@ public final class Bootstrap5DateTimePickerSpecialNodeListModifier implements IH
       if (aSameOptions.isEmpty ())
       {
         // No other object has the same options
-        aMergedJS.append (aCurrent.getJSCodeProvider ());
+        // Don't use the JS code of the script itself, as it contains the
+        // declaration of the shared localization
+        aMergedJS.append (aCurrent.getDateTimePicker ().getJSInitCode ());
       }
       else
       {
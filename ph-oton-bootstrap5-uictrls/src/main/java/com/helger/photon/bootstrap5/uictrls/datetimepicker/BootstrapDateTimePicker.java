@@ -245,6 +245,19 @@ public class BootstrapDateTimePicker extends BootstrapInputGroup
     return this;
   }
 
+  /**
+   * @return The shared localization block used by this picker or
+   *         <code>null</code> if a custom format is set and the localization
+   *         block is therefore specific to this picker.
+   */
+  @Nullable
+  public Bootstrap5DateTimePickerLocalization getSharedLocalization ()
+  {
+    if (StringHelper.isNotEmpty (m_sFormat))
+      return null;
+    return Bootstrap5DateTimePickerLocalization.getInstance (m_aDisplayLocale, m_eMode);
+  }
+
   @NonNull
   public JSAssocArray getJSOptions ()
   {
@@ -293,55 +306,17 @@ public class BootstrapDateTimePicker extends BootstrapInputGroup
     aOptions.add ("display", aDisplay);
 
     // 2. Localization Options
-    final JSAssocArray aLocalization = new JSAssocArray ();
-    // Texts
-    aLocalization.add ("today", EBootstrap5DateTimePickerTexts.TODAY.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("clear", EBootstrap5DateTimePickerTexts.CLEAR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("close", EBootstrap5DateTimePickerTexts.CLOSE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("selectMonth", EBootstrap5DateTimePickerTexts.SELECT_MONTH.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("previousMonth", EBootstrap5DateTimePickerTexts.PREV_MONTH.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("nextMonth", EBootstrap5DateTimePickerTexts.NEXT_MONTH.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("selectYear", EBootstrap5DateTimePickerTexts.SELECT_YEAR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("previousYear", EBootstrap5DateTimePickerTexts.PREV_YEAR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("nextYear", EBootstrap5DateTimePickerTexts.NEXT_YEAR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("selectDecade", EBootstrap5DateTimePickerTexts.SELECT_DECADE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("previousDecade", EBootstrap5DateTimePickerTexts.PREV_DECADE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("nextDecade", EBootstrap5DateTimePickerTexts.NEXT_DECADE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("previousCentury",
-                       EBootstrap5DateTimePickerTexts.PREV_CENTURY.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("nextCentury", EBootstrap5DateTimePickerTexts.NEXT_CENTURY.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("pickHour", EBootstrap5DateTimePickerTexts.PICK_HOUR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("incrementHour",
-                       EBootstrap5DateTimePickerTexts.INCREMENT_HOUR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("decrementHour",
-                       EBootstrap5DateTimePickerTexts.DECREMENT_HOUR.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("pickMinute", EBootstrap5DateTimePickerTexts.PICK_MINUTE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("incrementMinute",
-                       EBootstrap5DateTimePickerTexts.INCREMENT_MINUTE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("decrementMinute",
-                       EBootstrap5DateTimePickerTexts.DECREMENT_MINUTE.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("pickSecond", EBootstrap5DateTimePickerTexts.PICK_SECOND.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("incrementSecond",
-                       EBootstrap5DateTimePickerTexts.INCREMENT_SECOND.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("decrementSecond",
-                       EBootstrap5DateTimePickerTexts.DECREMENT_SECOND.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("toggleMeridiem",
-                       EBootstrap5DateTimePickerTexts.TOGGLE_MERIDIEM.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("selectTime", EBootstrap5DateTimePickerTexts.SELECT_TIME.getDisplayText (m_aDisplayLocale));
-    aLocalization.add ("selectDate", EBootstrap5DateTimePickerTexts.SELECT_DATE.getDisplayText (m_aDisplayLocale));
-
-    // Locale
-    aLocalization.add ("locale", m_aDisplayLocale.toLanguageTag ());
-    // Default to 24h for now, can be improved
-    aLocalization.add ("hourCycle", "h23");
-
-    // Format
-    String sJSFormat = m_sFormat;
-    if (StringHelper.isEmpty (sJSFormat))
-      sJSFormat = m_eMode.getJSFormat (m_aDisplayLocale);
-    aLocalization.add ("format", sJSFormat);
-
-    aOptions.add ("localization", aLocalization);
+    final Bootstrap5DateTimePickerLocalization aSharedLocalization = getSharedLocalization ();
+    if (aSharedLocalization != null)
+    {
+      // Reference the shared block, that is emitted only once per page
+      aOptions.add ("localization", aSharedLocalization.getJSRef ());
+    }
+    else
+    {
+      // Custom format - cannot be shared
+      aOptions.add ("localization", Bootstrap5DateTimePickerLocalization.createLocalization (m_aDisplayLocale, m_sFormat));
+    }
 
     // 3. Restrictions Options
     final JSAssocArray aRestrictions = new JSAssocArray ();
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.ext;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.base.string.StringHelper;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.photon.ajax.executor.IAjaxExecutor;
+import com.helger.photon.app.PhotonUnifiedResponse;
+import com.helger.photon.core.execcontext.LayoutExecutionContext;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+/**
+ * AJAX executor that renders only the content area of the selected menu item
+ * (as provided in the standard menu item request parameter). The response
+ * contains the HTML as well as the CSS and JS required by the page. The new
+ * document title is sent URL encoded in the
+ * {@link BootstrapPartialNavigation#HTTP_HEADER_PAGE_TITLE} header. Used by
+ * the partial navigation - see {@link BootstrapPartialNavigation}.
+ *
+ * @author Philip Helger
+ */
+public class AjaxExecutorPageContent implements IAjaxExecutor
+{
+  public void handleRequest (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                             @NonNull final PhotonUnifiedResponse aAjaxResponse) throws Exception
+  {
+    final LayoutExecutionContext aLEC = LayoutExecutionContext.createForAjaxOrAction (aRequestScope);
+
+    // Same as the content of the full page
+    final HCNodeList aContent = BootstrapPageRenderer.getPageContent (aLEC);
+
+    final String sTitle = BootstrapPartialNavigation.getPageTitleProvider ().apply (aLEC);
+    if (StringHelper.isNotEmpty (sTitle))
+    {
+      // Headers are ASCII only - decoded with decodeURIComponent on the client
+      aAjaxResponse.addCustomResponseHeader (BootstrapPartialNavigation.HTTP_HEADER_PAGE_TITLE,
+                                             URLEncoder.encode (sTitle, StandardCharsets.UTF_8).replace ("+", "%20"));
+    }
+
+    aAjaxResponse.html (aContent);
+  }
+}
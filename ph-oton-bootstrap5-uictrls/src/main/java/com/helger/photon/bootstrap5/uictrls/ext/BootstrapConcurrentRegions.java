@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.ext;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.impl.HCNodeList;
+import com.helger.photon.core.execcontext.ILayoutExecutionContext;
+import com.helger.photon.core.interror.InternalErrorBuilder;
+import com.helger.xservlet.forcedredirect.ForcedRedirectException;
+
+/**
+ * Render independent page regions concurrently. This is meant for pages that
+ * combine a slow backend region (e.g. a remote call) with cheap content: the
+ * page submits the slow region at the beginning of its content creation,
+ * builds the remaining content on the request thread in the meantime and
+ * finally calls {@link #joinAll()}, so that it only pays the slowest latency
+ * instead of the sum. Each region is submitted with its own deadline and
+ * immediately returns a container node that can be placed in the layout. {@link #joinAll()} must be called on the request thread
+ * before the response is rendered - it fills the containers with the region
+ * content, the placeholder in case the deadline was exceeded, or the error
+ * message created by {@link InternalErrorBuilder}.
+ * <p>
+ * Region producers run on a different thread and therefore must not rely on
+ * the thread-bound request scope (e.g. the logged-in user). Everything
+ * thread-bound must be determined before submission.
+ * <p>
+ * On runtimes supporting virtual threads, one virtual thread is used per
+ * region. Otherwise a shared pool of daemon threads with a bounded queue is
+ * used. If the queue is full, the region is rendered on the submitting
+ * thread.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class BootstrapConcurrentRegions
+{
+  /** Maximum number of platform threads, if no virtual threads are available */
+  public static final int MAX_PLATFORM_THREADS = 64;
+  /** Maximum number of queued regions, if no virtual threads are available */
+  public static final int MAX_QUEUED_REGIONS = 256;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (BootstrapConcurrentRegions.class);
+  private static final ExecutorService EXECUTOR = _createExecutor ();
+
+  private static final class Region
+  {
+    private final String m_sName;
+    private final long m_nDeadlineNanos;
+    private final Future <IHCNode> m_aFuture;
+    private final Supplier <? extends IHCNode> m_aPlaceholder;
+    private final HCNodeList m_aContainer = new HCNodeList ();
+
+    Region (@NonNull final String sName,
+            final long nDeadlineNanos,
+            @NonNull final Future <IHCNode> aFuture,
+            @Nullable final Supplier <? extends IHCNode> aPlaceholder)
+    {
+      m_sName = sName;
+      m_nDeadlineNanos = nDeadlineNanos;
+      m_aFuture = aFuture;
+      m_aPlaceholder = aPlaceholder;
+    }
+  }
+
+  private final ILayoutExecutionContext m_aLEC;
+  private final ICommonsList <Region> m_aRegions = new CommonsArrayList <> ();
+
+  public BootstrapConcurrentRegions (@NonNull final ILayoutExecutionContext aLEC)
+  {
+    ValueEnforcer.notNull (aLEC, "LEC");
+    m_aLEC = aLEC;
+  }
+
+  @NonNull
+  private static ExecutorService _createExecutor ()
+  {
+    try
+    {
+      // Java 21+
+      final Object aExecutor = Executors.class.getMethod ("newVirtualThreadPerTaskExecutor").invoke (null);
+      LOGGER.info ("Using virtual threads for concurrent page regions");
+      return (ExecutorService) aExecutor;
+    }
+    catch (final ReflectiveOperationException ex)
+    {
+      // Fall through
+    }
+
+    final AtomicInteger aCounter = new AtomicInteger (0);
+    final ThreadPoolExecutor aExecutor = new ThreadPoolExecutor (MAX_PLATFORM_THREADS,
+                                                                 MAX_PLATFORM_THREADS,
+                                                                 60,
+                                                                 TimeUnit.SECONDS,
+                                                                 new ArrayBlockingQueue <> (MAX_QUEUED_REGIONS),
+                                                                 r -> {
+                                                                   final Thread t = new Thread (r,
+                                                                                                "ph-page-region-" +
+                                                                                                   aCounter.incrementAndGet ());
+                                                                   t.setDaemon (true);
+                                                                   return t;
+                                                                 },
+                                                                 new ThreadPoolExecutor.CallerRunsPolicy ());
+    aExecutor.allowCoreThreadTimeOut (true);
+    return aExecutor;
+  }
+
+  /**
+   * Submit a region for concurrent rendering.
+   *
+   * @param sName
+   *        Region name for logging and error messages. May neither be
+   *        <code>null</code> nor empty.
+   * @param aDeadline
+   *        The maximum duration to wait for the region, measured from now. May
+   *        not be <code>null</code>.
+   * @param aProducer
+   *        The region producer. Invoked on another thread. May not be
+   *        <code>null</code>.
+   * @param aPlaceholder
+   *        The supplier for the node to be used if the deadline is exceeded.
+   *        Invoked on the request thread. May be <code>null</code> to leave
+   *        the region empty.
+   * @return The container node that will contain the result after
+   *         {@link #joinAll()} was called. Never <code>null</code>.
+   */
+  @NonNull
+  public HCNodeList submit (@NonNull @Nonempty final String sName,
+                            @NonNull final Duration aDeadline,
+                            @NonNull final Supplier <? extends IHCNode> aProducer,
+                            @Nullable final Supplier <? extends IHCNode> aPlaceholder)
+  {
+    ValueEnforcer.notEmpty (sName, "Name");
+    ValueEnforcer.notNull (aDeadline, "Deadline");
+    ValueEnforcer.notNull (aProducer, "Producer");
+
+    final long nDeadlineNanos = System.nanoTime () + aDeadline.toNanos ();
+    final Future <IHCNode> aFuture = EXECUTOR.submit (aProducer::get);
+    final Region aRegion = new Region (sName, nDeadlineNanos, aFuture, aPlaceholder);
+    m_aRegions.add (aRegion);
+    return aRegion.m_aContainer;
+  }
+
+  private void _handleError (@NonNull final Region aRegion, @NonNull final Throwable t)
+  {
+    if (t instanceof final ForcedRedirectException ex)
+      throw ex;
+
+    new InternalErrorBuilder ().setThrowable (t)
+                               .setRequestScope (m_aLEC.getRequestScope ())
+                               .setDisplayLocale (m_aLEC.getDisplayLocale ())
+                               .addErrorMessage ("html-error-filling-region-" + aRegion.m_sName)
+                               .setUIErrorHandlerFor (aRegion.m_aContainer)
+                               .handle ();
+  }
+
+  /**
+   * Wait for all submitted regions until their respective deadline and fill
+   * the containers. Must be called on the request thread.
+   */
+  public void joinAll ()
+  {
+    for (final Region aRegion : m_aRegions)
+    {
+      final long nRemaining = aRegion.m_nDeadlineNanos - System.nanoTime ();
+      try
+      {
+        final IHCNode aNode = aRegion.m_aFuture.get (Math.max (0, nRemaining), TimeUnit.NANOSECONDS);
+        if (aNode != null)
+          aRegion.m_aContainer.addChild (aNode);
+      }
+      catch (final TimeoutException | CancellationException ex)
+      {
+        aRegion.m_aFuture.cancel (true);
+        LOGGER.warn ("Page region '" + aRegion.m_sName + "' exceeded its deadline - using placeholder");
+        if (aRegion.m_aPlaceholder != null)
+          aRegion.m_aContainer.addChild (aRegion.m_aPlaceholder.get ());
+      }
+      catch (final ExecutionException ex)
+      {
+        _handleError (aRegion, ex.getCause () != null ? ex.getCause () : ex);
+      }
+      catch (final InterruptedException ex)
+      {
+        Thread.currentThread ().interrupt ();
+        aRegion.m_aFuture.cancel (true);
+        if (aRegion.m_aPlaceholder != null)
+          aRegion.m_aContainer.addChild (aRegion.m_aPlaceholder.get ());
+      }
+    }
+    m_aRegions.clear ();
+  }
+}
@@ -22,25 +22,45 @@ import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
 import com.helger.annotation.misc.Translatable;
 import com.helger.annotation.style.OverrideOnDemand;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.string.StringHelper;
+import com.helger.html.EHTMLRole;
 import com.helger.html.hc.IHCConversionSettingsToNode;
 import com.helger.html.hc.IHCHasChildrenMutable;
 import com.helger.html.hc.IHCNode;
 import com.helger.html.hc.html.IHCElement;
 import com.helger.html.hc.html.forms.HCEditFile;
+import com.helger.html.hc.html.forms.HCHiddenField;
 import com.helger.html.hc.html.forms.HCLabel;
 import com.helger.html.hc.html.grouping.AbstractHCDiv;
+import com.helger.html.hc.html.grouping.HCDiv;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.jscode.JSAssocArray;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.photon.app.html.PhotonJS;
 import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.photon.bootstrap5.uictrls.EBootstrapUICtrlsJSPathProvider;
+import com.helger.photon.bootstrap5.uictrls.chunkedupload.ChunkedUploadManager;
+import com.helger.photon.bootstrap5.uictrls.chunkedupload.ChunkedUploadServlet;
 import com.helger.text.IMultilingualText;
 import com.helger.text.display.IHasDisplayTextWithArgs;
 import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
+import com.helger.url.ISimpleURL;
 
 /**
- * Custom file upload.
+ * Custom file upload. Optionally the upload can be performed in chunked mode
+ * (see {@link #setChunkedUpload(ISimpleURL)}). In that case the file is sliced
+ * on the client side and the chunks are sent in parallel to the
+ * {@link ChunkedUploadServlet} while showing a progress bar. Interrupted
+ * uploads of the same file are resumed. Upon form submission only the ID of the
+ * completed upload is sent in the field {@link #getChunkedUploadIDFieldName()}
+ * and the file can be retrieved via
+ * {@link ChunkedUploadManager#getCompletedUploadOfID(String, String)}.
  *
  * @author Philip Helger
  */
@@ -66,11 +86,21 @@ public class BootstrapFileUpload extends AbstractHCDiv <BootstrapFileUpload>
     }
   }
 
+  /** The suffix of the field name that contains the chunked upload ID */
+  public static final String CHUNKED_UPLOAD_ID_FIELD_SUFFIX = "-uploadid";
+  /** The default chunk size: 1 MiB */
+  public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+  /** The default number of chunks uploaded in parallel */
+  public static final int DEFAULT_PARALLEL_CHUNKS = 4;
+
   private final String m_sFieldName;
   private final Locale m_aDisplayLocale;
   private final HCEditFile m_aEditFile;
   private String m_sCustomPlaceholder;
   private String m_sCustomButtonText;
+  private ISimpleURL m_aChunkedUploadURL;
+  private int m_nChunkSize = DEFAULT_CHUNK_SIZE;
+  private int m_nParallelChunks = DEFAULT_PARALLEL_CHUNKS;
 
   public BootstrapFileUpload (@NonNull @Nonempty final String sName, @NonNull final Locale aDisplayLocale)
   {
@@ -123,6 +153,82 @@ public class BootstrapFileUpload extends AbstractHCDiv <BootstrapFileUpload>
     return this;
   }
 
+  public final boolean isChunkedUpload ()
+  {
+    return m_aChunkedUploadURL != null;
+  }
+
+  @Nullable
+  public final ISimpleURL getChunkedUploadURL ()
+  {
+    return m_aChunkedUploadURL;
+  }
+
+  /**
+   * Enable or disable the chunked upload mode.
+   *
+   * @param aChunkedUploadURL
+   *        The URL of the {@link ChunkedUploadServlet}. May be <code>null</code>
+   *        to disable the chunked mode.
+   * @return this for chaining
+   */
+  @NonNull
+  public final BootstrapFileUpload setChunkedUpload (@Nullable final ISimpleURL aChunkedUploadURL)
+  {
+    m_aChunkedUploadURL = aChunkedUploadURL;
+    return this;
+  }
+
+  @Nonnegative
+  public final int getChunkSize ()
+  {
+    return m_nChunkSize;
+  }
+
+  /**
+   * @param nChunkSize
+   *        The preferred chunk size in bytes. The server may adjust it. Must be
+   *        &gt; 0.
+   * @return this for chaining
+   */
+  @NonNull
+  public final BootstrapFileUpload setChunkSize (@Nonnegative final int nChunkSize)
+  {
+    ValueEnforcer.isGT0 (nChunkSize, "ChunkSize");
+    m_nChunkSize = nChunkSize;
+    return this;
+  }
+
+  @Nonnegative
+  public final int getParallelChunks ()
+  {
+    return m_nParallelChunks;
+  }
+
+  /**
+   * @param nParallelChunks
+   *        The number of chunks to be uploaded in parallel. Must be &gt; 0.
+   * @return this for chaining
+   */
+  @NonNull
+  public final BootstrapFileUpload setParallelChunks (@Nonnegative final int nParallelChunks)
+  {
+    ValueEnforcer.isGT0 (nParallelChunks, "ParallelChunks");
+    m_nParallelChunks = nParallelChunks;
+    return this;
+  }
+
+  /**
+   * @return The name of the hidden field that contains the ID of the completed
+   *         chunked upload upon form submission.
+   */
+  @NonNull
+  @Nonempty
+  public final String getChunkedUploadIDFieldName ()
+  {
+    return m_sFieldName + CHUNKED_UPLOAD_ID_FIELD_SUFFIX;
+  }
+
   /**
    * Create the "placeholder" component. By default it is a "label". To switch this to a "div" or a
    * "span" just override this method.
@@ -162,5 +268,42 @@ public class BootstrapFileUpload extends AbstractHCDiv <BootstrapFileUpload>
 
     // Note: Custom button text is not supported in standard Bootstrap 5 file inputs
     // as they rely on the browser's default rendering.
+
+    if (m_aChunkedUploadURL != null)
+    {
+      final HCHiddenField aUploadID = new HCHiddenField (getChunkedUploadIDFieldName (), (String) null);
+      aUploadID.ensureID ();
+      addChild (aUploadID);
+
+      // Shown as soon as the upload starts
+      final HCDiv aProgress = new HCDiv ().addClass (CBootstrapCSS.PROGRESS)
+                                          .addClass (CBootstrapCSS.MT_2)
+                                          .addClass (CBootstrapCSS.D_NONE);
+      aProgress.setRole (EHTMLRole.PROGRESSBAR);
+      aProgress.ensureID ();
+      aProgress.addChild (new HCDiv ().addClass (CBootstrapCSS.PROGRESS_BAR));
+      addChild (aProgress);
+
+      final JSAssocArray aOptions = new JSAssocArray ().add ("chunkSize", m_nChunkSize)
+                                                       .add ("parallel", m_nParallelChunks);
+      final JSPackage aPkg = new JSPackage ();
+      aPkg.add (JSExpr.ref ("phChunkedUpload")
+                      .invoke ("bind")
+                      .arg (m_aEditFile.getID ())
+                      .arg (aProgress.getID ())
+                      .arg (aUploadID.getID ())
+                      .arg (m_aChunkedUploadURL.getAsString ())
+                      .arg (aOptions));
+      aTargetNode.addChild (new HCScriptInline (aPkg));
+    }
+  }
+
+  @Override
+  protected void onRegisterExternalResources (@NonNull final IHCConversionSettingsToNode aConversionSettings,
+                                              final boolean bForceRegistration)
+  {
+    super.onRegisterExternalResources (aConversionSettings, bForceRegistration);
+    if (m_aChunkedUploadURL != null)
+      PhotonJS.registerJSIncludeForThisRequest (EBootstrapUICtrlsJSPathProvider.CHUNKED_UPLOAD);
   }
 }
@@ -16,13 +16,24 @@
  */
 package com.helger.photon.bootstrap5.uictrls.ext;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
 import com.helger.annotation.style.OverrideOnDemand;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.lang.clazz.FactoryNewInstance;
+import com.helger.base.string.StringHelper;
 import com.helger.collection.commons.ICommonsMap;
+import com.helger.html.CHTMLAttributes;
 import com.helger.html.css.DefaultCSSClassProvider;
 import com.helger.html.css.ICSSClassProvider;
 import com.helger.html.hc.IHCNode;
@@ -30,7 +41,9 @@ import com.helger.html.hc.html.IHCElement;
 import com.helger.html.hc.html.grouping.HCLI;
 import com.helger.html.hc.html.grouping.HCUL;
 import com.helger.html.hc.html.textlevel.HCA;
+import com.helger.html.hc.impl.HCDOMWrapper;
 import com.helger.html.hc.impl.HCTextNode;
+import com.helger.html.hc.render.HCRenderer;
 import com.helger.photon.bootstrap5.CBootstrapCSS;
 import com.helger.photon.bootstrap5.card.BootstrapCard;
 import com.helger.photon.core.execcontext.ILayoutExecutionContext;
@@ -44,15 +57,101 @@ import com.helger.photon.core.menu.MenuItemDeterminatorCallback;
 import com.helger.photon.core.menu.ui.AbstractMenuItemRenderer;
 import com.helger.photon.core.menu.ui.IMenuItemRenderer;
 import com.helger.photon.core.menu.ui.MenuRendererCallback;
+import com.helger.xml.microdom.IMicroElement;
+import com.helger.xml.microdom.IMicroNode;
 
 /**
- * Default implementation of {@link IMenuItemRenderer}
+ * Default implementation of {@link IMenuItemRenderer}. The side bar menu
+ * created by
+ * {@link #createSideBarMenu(ILayoutExecutionContext, IMenuTree, IMenuItemDeterminatorCallback, BootstrapMenuItemRenderer)}
+ * is cached in its rendered form. The cache key consists of the menu tree, the
+ * cache version (see {@link #invalidateSideBarMenuCache()}), the content
+ * locale, the renderer class, the link base and the set of visible menu items
+ * including their expansion state. On a cache hit only the active class of the
+ * selected menu item is patched.
  *
  * @author Philip Helger
  */
 public class BootstrapMenuItemRenderer extends AbstractMenuItemRenderer <HCUL>
 {
   private static final ICSSClassProvider CSS_CLASS_SEPARATOR = DefaultCSSClassProvider.create ("menu-separator");
+  /** The data attribute on menu item links containing the menu item ID */
+  public static final String DATA_ATTR_MENU_ITEM = "menuitem";
+  /**
+   * The maximum number of rendered side bar menus kept in the cache. If it is
+   * exceeded, the least recently used entry is evicted.
+   */
+  public static final int SIDEBAR_CACHE_MAX_SIZE = 1_000;
+
+  private static final String HTML_DATA_ATTR_MENU_ITEM = CHTMLAttributes.HTML_DATA_ATTR_PREFIX + DATA_ATTR_MENU_ITEM;
+
+  private static final class SideBarCacheKey
+  {
+    private final IMenuTree m_aMenuTree;
+    private final int m_nVersion;
+    private final Locale m_aContentLocale;
+    private final Class <?> m_aRendererClass;
+    private final String m_sLinkBase;
+    private final ICommonsMap <String, Boolean> m_aDisplayMenuItemIDs;
+    private final int m_nHashCode;
+
+    SideBarCacheKey (@NonNull final IMenuTree aMenuTree,
+                     final int nVersion,
+                     @NonNull final Locale aContentLocale,
+                     @NonNull final Class <?> aRendererClass,
+                     @NonNull final String sLinkBase,
+                     @NonNull final ICommonsMap <String, Boolean> aDisplayMenuItemIDs)
+    {
+      m_aMenuTree = aMenuTree;
+      m_nVersion = nVersion;
+      m_aContentLocale = aContentLocale;
+      m_aRendererClass = aRendererClass;
+      m_sLinkBase = sLinkBase;
+      m_aDisplayMenuItemIDs = aDisplayMenuItemIDs;
+      m_nHashCode = new HashCodeGenerator (this).append (System.identityHashCode (aMenuTree))
+                                                .append (nVersion)
+                                                .append (aContentLocale)
+                                                .append (aRendererClass)
+                                                .append (sLinkBase)
+                                                .append (aDisplayMenuItemIDs)
+                                                .getHashCode ();
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (o == null || !getClass ().equals (o.getClass ()))
+        return false;
+      final SideBarCacheKey rhs = (SideBarCacheKey) o;
+      return m_aMenuTree == rhs.m_aMenuTree &&
+             m_nVersion == rhs.m_nVersion &&
+             m_aContentLocale.equals (rhs.m_aContentLocale) &&
+             m_aRendererClass.equals (rhs.m_aRendererClass) &&
+             m_sLinkBase.equals (rhs.m_sLinkBase) &&
+             EqualsHelper.equals (m_aDisplayMenuItemIDs, rhs.m_aDisplayMenuItemIDs);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return m_nHashCode;
+    }
+  }
+
+  private static final AtomicInteger SIDEBAR_CACHE_VERSION = new AtomicInteger (0);
+  private static final SimpleReadWriteLock SIDEBAR_CACHE_LOCK = new SimpleReadWriteLock ();
+  // Access ordered, so that the least recently used entry is evicted first
+  @GuardedBy ("SIDEBAR_CACHE_LOCK")
+  private static final Map <SideBarCacheKey, IMicroElement> SIDEBAR_CACHE = new LinkedHashMap <> (16, 0.75f, true)
+  {
+    @Override
+    protected boolean removeEldestEntry (final Map.Entry <SideBarCacheKey, IMicroElement> aEldest)
+    {
+      return size () > SIDEBAR_CACHE_MAX_SIZE;
+    }
+  };
 
   public BootstrapMenuItemRenderer (@NonNull final Locale aContentLocale)
   {
@@ -99,6 +198,12 @@ public class BootstrapMenuItemRenderer extends AbstractMenuItemRenderer <HCUL>
   {
     final HCA aLink = new HCA (aSWEC.getLinkToMenuItem (aMenuItem.getID ()));
     aLink.addClass (CBootstrapCSS.NAV_LINK);
+    aLink.customAttrs ().setDataAttr (DATA_ATTR_MENU_ITEM, aMenuItem.getID ());
+    if (!bHasChildren && BootstrapPartialNavigation.isEnabled ())
+    {
+      // Only the content area needs to be replaced
+      aLink.customAttrs ().setDataAttr (BootstrapPartialNavigation.DATA_ATTR_PARTIAL, "true");
+    }
     aLink.addChild (getMenuItemPageLabel (aMenuItem, bHasChildren, bIsSelected, bIsExpanded));
     if (bHasChildren && !bIsExpanded)
       aLink.addChild (new HCTextNode (" + "));
@@ -139,6 +244,7 @@ public class BootstrapMenuItemRenderer extends AbstractMenuItemRenderer <HCUL>
     final HCA aLink = new HCA (aMenuItem.getURL ());
     aLink.setTargetBlank ();
     aLink.addClass (CBootstrapCSS.NAV_LINK);
+    aLink.customAttrs ().setDataAttr (DATA_ATTR_MENU_ITEM, aMenuItem.getID ());
     aLink.addChild (getMenuItemExternalLabel (aMenuItem, bHasChildren, bIsSelected, bIsExpanded));
     if (bHasChildren && !bIsExpanded)
       aLink.addChild (new HCTextNode (" + "));
@@ -175,6 +281,96 @@ public class BootstrapMenuItemRenderer extends AbstractMenuItemRenderer <HCUL>
       aLI.addClass (CBootstrapCSS.ACTIVE);
   }
 
+  /**
+   * Determine if the side bar menu rendered with this renderer may be cached.
+   * Override this and return <code>false</code> if the rendering depends on
+   * anything else but the content locale, the menu item links and the
+   * visibility and expansion state of the menu items (e.g. if the labels
+   * depend on the selection state or if the menu item links are rendered
+   * without the {@link #DATA_ATTR_MENU_ITEM} data attribute).
+   *
+   * @return <code>true</code> by default.
+   */
+  @OverrideOnDemand
+  protected boolean isSideBarMenuCacheable ()
+  {
+    return true;
+  }
+
+  /**
+   * Remove all cached side bar menus. This must be called if the content of a
+   * menu tree changes after it was rendered for the first time.
+   */
+  public static void invalidateSideBarMenuCache ()
+  {
+    SIDEBAR_CACHE_LOCK.writeLocked ( () -> {
+      SIDEBAR_CACHE_VERSION.incrementAndGet ();
+      SIDEBAR_CACHE.clear ();
+    });
+  }
+
+  /**
+   * @return The number of rendered side bar menus currently in the cache.
+   */
+  @Nonnegative
+  public static int getSideBarMenuCacheSize ()
+  {
+    return SIDEBAR_CACHE_LOCK.readLockedInt (SIDEBAR_CACHE::size);
+  }
+
+  private static boolean _hasClass (@Nullable final String sClasses, @NonNull final String sClass)
+  {
+    if (StringHelper.isEmpty (sClasses))
+      return false;
+    for (final String s : sClasses.split (" "))
+      if (s.equals (sClass))
+        return true;
+    return false;
+  }
+
+  private static void _setActive (@NonNull final IMicroElement aLI, final boolean bActive)
+  {
+    final String sActive = CBootstrapCSS.ACTIVE.getCSSClass ();
+    final String sClasses = aLI.getAttributeValue (CHTMLAttributes.CLASS);
+    if (bActive)
+    {
+      if (!_hasClass (sClasses, sActive))
+        aLI.setAttribute (CHTMLAttributes.CLASS, StringHelper.isEmpty (sClasses) ? sActive : sClasses + " " + sActive);
+    }
+    else
+      if (_hasClass (sClasses, sActive))
+      {
+        final StringBuilder aSB = new StringBuilder ();
+        for (final String s : sClasses.split (" "))
+          if (s.length () > 0 && !s.equals (sActive))
+          {
+            if (aSB.length () > 0)
+              aSB.append (' ');
+            aSB.append (s);
+          }
+        aLI.setAttribute (CHTMLAttributes.CLASS, aSB.toString ());
+      }
+  }
+
+  @Nullable
+  private static IMicroElement _findMenuItemLI (@NonNull final IMicroElement aElement, @NonNull final String sMenuItemID)
+  {
+    if (sMenuItemID.equals (aElement.getAttributeValue (HTML_DATA_ATTR_MENU_ITEM)))
+    {
+      // The link is the child of the list item
+      final IMicroNode aParent = aElement.getParent ();
+      return aParent instanceof final IMicroElement aParentElement ? aParentElement : null;
+    }
+    if (aElement.hasChildren ())
+      for (final IMicroElement aChild : aElement.getAllChildElements ())
+      {
+        final IMicroElement ret = _findMenuItemLI (aChild, sMenuItemID);
+        if (ret != null)
+          return ret;
+      }
+    return null;
+  }
+
   @NonNull
   public static IHCElement <?> createSideBarMenu (@NonNull final ILayoutExecutionContext aLEC)
   {
@@ -204,15 +400,74 @@ public class BootstrapMenuItemRenderer extends AbstractMenuItemRenderer <HCUL>
                                                   @NonNull final BootstrapMenuItemRenderer aRenderer)
   {
     final ICommonsMap <String, Boolean> aAllDisplayMenuItemIDs = MenuItemDeterminatorCallback.getAllDisplayMenuItemIDs (aDeterminator);
-    final HCUL aUL = MenuRendererCallback.createRenderedMenu (aLEC,
-                                                              FactoryNewInstance.create (HCUL.class),
-                                                              aMenuTree.getRootItem (),
-                                                              aRenderer,
-                                                              aAllDisplayMenuItemIDs)
-                                         .addClass (CBootstrapCSS.NAV)
-                                         .addClass (CBootstrapCSS.FLEX_COLUMN);
     final BootstrapCard ret = new BootstrapCard ();
-    ret.createAndAddBody ().addChild (aUL);
+    if (!aRenderer.isSideBarMenuCacheable ())
+    {
+      ret.createAndAddBody ().addChild (_createRenderedMenu (aLEC, aMenuTree, aRenderer, aAllDisplayMenuItemIDs));
+      return ret;
+    }
+
+    final String sSelectedMenuItemID = aLEC.getSelectedMenuItemID ();
+    final SideBarCacheKey aKey = new SideBarCacheKey (aMenuTree,
+                                                      SIDEBAR_CACHE_VERSION.get (),
+                                                      aRenderer.getContentLocale (),
+                                                      aRenderer.getClass (),
+                                                      aLEC.getLinkToMenuItem (aMenuTree.getRootItem ().getID ())
+                                                          .getAsString (),
+                                                      aAllDisplayMenuItemIDs);
+    // A lookup changes the access order, so the write lock is needed
+    IMicroElement aCached = SIDEBAR_CACHE_LOCK.writeLockedGet ( () -> SIDEBAR_CACHE.get (aKey));
+    if (aCached == null)
+    {
+      final IMicroNode aNode = HCRenderer.getAsNode (_createRenderedMenu (aLEC,
+                                                                          aMenuTree,
+                                                                          aRenderer,
+                                                                          aAllDisplayMenuItemIDs));
+      if (!(aNode instanceof final IMicroElement aElement))
+      {
+        // Cannot be patched
+        ret.createAndAddBody ().addChild (new HCDOMWrapper (aNode));
+        return ret;
+      }
+      aCached = aElement;
+
+      // Remove the selection specific part, so that the cached version can be
+      // used for all selected items with the same expansion state
+      if (sSelectedMenuItemID != null && !Boolean.TRUE.equals (aAllDisplayMenuItemIDs.get (sSelectedMenuItemID)))
+      {
+        final IMicroElement aLI = _findMenuItemLI (aCached, sSelectedMenuItemID);
+        if (aLI != null)
+          _setActive (aLI, false);
+      }
+
+      final IMicroElement aFinalCached = aCached;
+      SIDEBAR_CACHE_LOCK.writeLocked ( () -> SIDEBAR_CACHE.put (aKey, aFinalCached));
+    }
+
+    // Never modify the cached element
+    final IMicroElement aUL = aCached.getClone ();
+    if (sSelectedMenuItemID != null)
+    {
+      final IMicroElement aLI = _findMenuItemLI (aUL, sSelectedMenuItemID);
+      if (aLI != null)
+        _setActive (aLI, true);
+    }
+    ret.createAndAddBody ().addChild (new HCDOMWrapper (aUL));
     return ret;
   }
+
+  @NonNull
+  private static HCUL _createRenderedMenu (@NonNull final ILayoutExecutionContext aLEC,
+                                           @NonNull final IMenuTree aMenuTree,
+                                           @NonNull final BootstrapMenuItemRenderer aRenderer,
+                                           @NonNull final ICommonsMap <String, Boolean> aAllDisplayMenuItemIDs)
+  {
+    return MenuRendererCallback.createRenderedMenu (aLEC,
+                                                    FactoryNewInstance.create (HCUL.class),
+                                                    aMenuTree.getRootItem (),
+                                                    aRenderer,
+                                                    aAllDisplayMenuItemIDs)
+                               .addClass (CBootstrapCSS.NAV)
+                               .addClass (CBootstrapCSS.FLEX_COLUMN);
+  }
 }
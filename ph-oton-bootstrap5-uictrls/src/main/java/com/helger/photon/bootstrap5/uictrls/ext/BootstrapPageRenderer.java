@@ -173,7 +173,11 @@ public final class BootstrapPageRenderer
          .addChild (new HCDiv ().setID (CLayout.LAYOUT_AREAID_SPECIAL));
 
     // content - determine is exactly same as for view
-    aCol2.addChild (BootstrapPageRenderer.getPageContent (aLEC, WebPageExecutionContext::new));
+    // We need a wrapper div for the partial navigation
+    aCol2.addChild (new HCDiv ().setID (CLayout.LAYOUT_AREAID_CONTENT)
+                                .addChild (BootstrapPageRenderer.getPageContent (aLEC, WebPageExecutionContext::new)));
+    if (BootstrapPartialNavigation.isEnabled ())
+      aRow.addChild (BootstrapPartialNavigation.createInitScript (aLEC));
 
     return aRow;
   }
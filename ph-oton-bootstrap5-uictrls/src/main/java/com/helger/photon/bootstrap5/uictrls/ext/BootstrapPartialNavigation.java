@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.ext;
+
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.html.hc.html.script.HCScriptInline;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSPackage;
+import com.helger.photon.ajax.decl.AjaxFunctionDeclaration;
+import com.helger.photon.ajax.decl.IAjaxFunctionDeclaration;
+import com.helger.photon.app.html.PhotonJS;
+import com.helger.photon.bootstrap5.uictrls.EBootstrapUICtrlsJSPathProvider;
+import com.helger.photon.core.execcontext.ILayoutExecutionContext;
+import com.helger.photon.core.html.CLayout;
+import com.helger.photon.uicore.css.CPageParam;
+
+/**
+ * PJAX-style partial navigation. If enabled, clicks on menu items without
+ * children only fetch the content area ({@link CLayout#LAYOUT_AREAID_CONTENT})
+ * via {@link #AJAX_PAGE_CONTENT} and replace it in place. Newly required CSS
+ * and JS files are loaded, the active menu item is updated and the browser
+ * history is maintained with <code>pushState</code>. In case of an error, the
+ * regular full page navigation is performed.
+ * <p>
+ * To use it, register {@link #AJAX_PAGE_CONTENT} in the AJAX registry, call
+ * {@link #setEnabled(boolean)} and make sure the content area has the ID
+ * {@link CLayout#LAYOUT_AREAID_CONTENT} (as done by
+ * {@link BootstrapPageRenderer#getMenuAndPageNextToEachOther(ILayoutExecutionContext)}).
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class BootstrapPartialNavigation
+{
+  /** The data attribute marking menu item links for partial navigation */
+  public static final String DATA_ATTR_PARTIAL = "pjax";
+  /** The response header containing the URL encoded page title */
+  public static final String HTTP_HEADER_PAGE_TITLE = "X-Page-Title";
+  /** By default the display text of the selected menu item is the title */
+  public static final Function <ILayoutExecutionContext, String> DEFAULT_PAGE_TITLE_PROVIDER = aLEC -> aLEC.getSelectedMenuItem ()
+                                                                                                         .getDisplayText (aLEC.getDisplayLocale ());
+
+  public static final IAjaxFunctionDeclaration AJAX_PAGE_CONTENT = AjaxFunctionDeclaration.builder ("bs5PageContent")
+                                                                                           .executor (AjaxExecutorPageContent.class)
+                                                                                           .build ();
+
+  private static final SimpleReadWriteLock RW_LOCK = new SimpleReadWriteLock ();
+  @GuardedBy ("RW_LOCK")
+  private static boolean s_bEnabled = false;
+  @GuardedBy ("RW_LOCK")
+  private static Function <ILayoutExecutionContext, String> s_aPageTitleProvider = DEFAULT_PAGE_TITLE_PROVIDER;
+
+  private BootstrapPartialNavigation ()
+  {}
+
+  public static boolean isEnabled ()
+  {
+    return RW_LOCK.readLockedBoolean ( () -> s_bEnabled);
+  }
+
+  /**
+   * Enable or disable partial navigation globally.
+   *
+   * @param bEnabled
+   *        <code>true</code> to enable, <code>false</code> to disable.
+   */
+  public static void setEnabled (final boolean bEnabled)
+  {
+    RW_LOCK.writeLocked ( () -> s_bEnabled = bEnabled);
+    // The menu links are rendered differently
+    BootstrapMenuItemRenderer.invalidateSideBarMenuCache ();
+  }
+
+  @NonNull
+  public static Function <ILayoutExecutionContext, String> getPageTitleProvider ()
+  {
+    return RW_LOCK.readLockedGet ( () -> s_aPageTitleProvider);
+  }
+
+  /**
+   * Set the provider for the document title after a partial navigation. It
+   * should create the same title as the full page rendering does.
+   *
+   * @param aPageTitleProvider
+   *        The provider to use. May not be <code>null</code>. The provider may
+   *        return <code>null</code> to keep the current title.
+   */
+  public static void setPageTitleProvider (@NonNull final Function <ILayoutExecutionContext, String> aPageTitleProvider)
+  {
+    ValueEnforcer.notNull (aPageTitleProvider, "PageTitleProvider");
+    RW_LOCK.writeLocked ( () -> s_aPageTitleProvider = aPageTitleProvider);
+  }
+
+  /**
+   * Create the script that activates the partial navigation on the client side
+   * and registers the required JS file.
+   *
+   * @param aLEC
+   *        The layout execution context. May not be <code>null</code>.
+   * @return The script to be added once per page. Never <code>null</code>.
+   */
+  @NonNull
+  public static HCScriptInline createInitScript (@NonNull final ILayoutExecutionContext aLEC)
+  {
+    PhotonJS.registerJSIncludeForThisRequest (EBootstrapUICtrlsJSPathProvider.PARTIAL_NAVIGATION);
+
+    final JSPackage aPkg = new JSPackage ();
+    aPkg.add (JSExpr.ref ("phPartialNav")
+                    .invoke ("init")
+                    .arg (AJAX_PAGE_CONTENT.getInvocationURL (aLEC.getRequestScope ()).getAsString ())
+                    .arg (CPageParam.PARAM_MENU_ITEM)
+                    .arg (CLayout.LAYOUT_AREAID_CONTENT)
+                    .arg (CLayout.LAYOUT_AREAID_MENU)
+                    .arg (aLEC.getSelectedMenuItemID ()));
+    return new HCScriptInline (aPkg);
+  }
+}
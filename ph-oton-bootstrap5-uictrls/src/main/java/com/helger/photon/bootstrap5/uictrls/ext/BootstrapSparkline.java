@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.ext;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.html.hc.IHCConversionSettingsToNode;
+import com.helger.html.hc.IHCHasChildrenMutable;
+import com.helger.html.hc.IHCNode;
+import com.helger.html.hc.html.textlevel.AbstractHCSpan;
+import com.helger.html.hc.impl.HCDOMWrapper;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.xml.microdom.IMicroElement;
+import com.helger.xml.microdom.MicroElement;
+
+/**
+ * A small inline SVG line chart of a series of values. Intended for table
+ * cells. The values are taken as is and scaled to the available height.
+ *
+ * @author Philip Helger
+ */
+public class BootstrapSparkline extends AbstractHCSpan <BootstrapSparkline>
+{
+  public static final int DEFAULT_WIDTH = 120;
+  public static final int DEFAULT_HEIGHT = 24;
+
+  private final double [] m_aValues;
+  private int m_nWidth = DEFAULT_WIDTH;
+  private int m_nHeight = DEFAULT_HEIGHT;
+
+  public BootstrapSparkline (@NonNull final long [] aValues)
+  {
+    ValueEnforcer.notNull (aValues, "Values");
+    m_aValues = new double [aValues.length];
+    for (int i = 0; i < aValues.length; ++i)
+      m_aValues[i] = aValues[i];
+  }
+
+  public BootstrapSparkline (@NonNull final double [] aValues)
+  {
+    ValueEnforcer.notNull (aValues, "Values");
+    m_aValues = aValues.clone ();
+  }
+
+  @Nonnegative
+  public final int getWidth ()
+  {
+    return m_nWidth;
+  }
+
+  @Nonnegative
+  public final int getHeight ()
+  {
+    return m_nHeight;
+  }
+
+  @NonNull
+  public final BootstrapSparkline setSize (@Nonnegative final int nWidth, @Nonnegative final int nHeight)
+  {
+    ValueEnforcer.isGT0 (nWidth, "Width");
+    ValueEnforcer.isGT0 (nHeight, "Height");
+    m_nWidth = nWidth;
+    m_nHeight = nHeight;
+    return this;
+  }
+
+  @NonNull
+  private IMicroElement _createSVG ()
+  {
+    double dMin = Double.MAX_VALUE;
+    double dMax = -Double.MAX_VALUE;
+    for (final double d : m_aValues)
+    {
+      dMin = Math.min (dMin, d);
+      dMax = Math.max (dMax, d);
+    }
+    final double dRange = dMax > dMin ? dMax - dMin : 1;
+
+    // Keep a pixel margin so that the line is not cut
+    final double dHeight = m_nHeight - 2.0;
+    final double dStepX = m_aValues.length > 1 ? (double) m_nWidth / (m_aValues.length - 1) : 0;
+    final StringBuilder aPoints = new StringBuilder (m_aValues.length * 12);
+    for (int i = 0; i < m_aValues.length; ++i)
+    {
+      final double dX = i * dStepX;
+      final double dY = 1 + dHeight - (m_aValues[i] - dMin) / dRange * dHeight;
+      if (i > 0)
+        aPoints.append (' ');
+      aPoints.append (String.format (Locale.ROOT, "%.1f,%.1f", Double.valueOf (dX), Double.valueOf (dY)));
+    }
+
+    final IMicroElement eSVG = new MicroElement ("svg");
+    eSVG.setAttribute ("width", Integer.toString (m_nWidth));
+    eSVG.setAttribute ("height", Integer.toString (m_nHeight));
+    eSVG.setAttribute ("viewBox", "0 0 " + m_nWidth + " " + m_nHeight);
+    eSVG.setAttribute ("aria-hidden", "true");
+    eSVG.addElement ("polyline")
+        .setAttribute ("points", aPoints.toString ())
+        .setAttribute ("fill", "none")
+        .setAttribute ("stroke", "currentColor")
+        .setAttribute ("stroke-width", "1");
+    return eSVG;
+  }
+
+  @Override
+  protected void onFinalizeNodeState (@NonNull final IHCConversionSettingsToNode aConversionSettings,
+                                      @NonNull final IHCHasChildrenMutable <?, ? super IHCNode> aTargetNode)
+  {
+    super.onFinalizeNodeState (aConversionSettings, aTargetNode);
+    addClass (CBootstrapCSS.TEXT_PRIMARY);
+    if (m_aValues.length > 0)
+      addChild (new HCDOMWrapper (_createSVG ()));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.select2;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.photon.ajax.executor.IAjaxExecutor;
+import com.helger.photon.app.PhotonUnifiedResponse;
+import com.helger.photon.core.execcontext.LayoutExecutionContext;
+import com.helger.web.scope.IRequestWebScopeWithoutResponse;
+
+/**
+ * AJAX executor that serves the data of a {@link BootstrapSelect2} in remote
+ * data mode from an {@link ISelect2DataSource}. Register one AJAX function per
+ * data source, e.g.
+ *
+ * <pre>
+ * AjaxFunctionDeclaration.builder ("select2-users").executor (new AjaxExecutorSelect2 (aUserDataSource)).build ();
+ * </pre>
+ *
+ * @author Philip Helger
+ */
+public class AjaxExecutorSelect2 implements IAjaxExecutor
+{
+  /** The request parameter containing the search term */
+  public static final String PARAM_TERM = "term";
+  /** The request parameter containing the 1-based page number */
+  public static final String PARAM_PAGE = "page";
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 1_000;
+
+  private final ISelect2DataSource m_aDataSource;
+  private final int m_nPageSize;
+
+  public AjaxExecutorSelect2 (@NonNull final ISelect2DataSource aDataSource)
+  {
+    this (aDataSource, DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aDataSource
+   *        The data source to query. May not be <code>null</code>.
+   * @param nPageSize
+   *        The number of items per page. Must be &gt; 0 and &le;
+   *        {@link #MAX_PAGE_SIZE}.
+   */
+  public AjaxExecutorSelect2 (@NonNull final ISelect2DataSource aDataSource, final int nPageSize)
+  {
+    ValueEnforcer.notNull (aDataSource, "DataSource");
+    ValueEnforcer.isGT0 (nPageSize, "PageSize");
+    ValueEnforcer.isTrue (nPageSize <= MAX_PAGE_SIZE, "PageSize must be <= " + MAX_PAGE_SIZE);
+    m_aDataSource = aDataSource;
+    m_nPageSize = nPageSize;
+  }
+
+  @NonNull
+  public final ISelect2DataSource getDataSource ()
+  {
+    return m_aDataSource;
+  }
+
+  @Nonnegative
+  public final int getPageSize ()
+  {
+    return m_nPageSize;
+  }
+
+  public void handleRequest (@NonNull final IRequestWebScopeWithoutResponse aRequestScope,
+                             @NonNull final PhotonUnifiedResponse aAjaxResponse) throws Exception
+  {
+    final LayoutExecutionContext aLEC = LayoutExecutionContext.createForAjaxOrAction (aRequestScope);
+    final Locale aDisplayLocale = aLEC.getDisplayLocale ();
+
+    final String sTerm = aRequestScope.params ().getAsStringTrimmed (PARAM_TERM);
+    // Select2 uses 1-based page numbers
+    final int nPageIndex = Math.max (aRequestScope.params ().getAsInt (PARAM_PAGE, 1), 1) - 1;
+
+    final Select2DataPage aPage = m_aDataSource.getPage (sTerm, nPageIndex, m_nPageSize, aDisplayLocale);
+    aAjaxResponse.json (aPage.getAsJson ());
+  }
+}
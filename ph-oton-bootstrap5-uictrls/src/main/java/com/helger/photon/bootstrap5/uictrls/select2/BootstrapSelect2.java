@@ -16,31 +16,151 @@
  */
 package com.helger.photon.bootstrap5.uictrls.select2;
 
+import java.util.Locale;
+
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import com.helger.annotation.Nonnegative;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.html.hc.IHCConversionSettingsToNode;
+import com.helger.html.jscode.JSAnonymousFunction;
 import com.helger.html.jscode.JSAssocArray;
+import com.helger.html.jscode.JSExpr;
+import com.helger.html.jscode.JSVar;
 import com.helger.html.request.IHCRequestField;
 import com.helger.html.request.IHCRequestFieldMultiValue;
 import com.helger.photon.app.html.PhotonCSS;
 import com.helger.photon.uictrls.EUICtrlsCSSPathProvider;
 import com.helger.photon.uictrls.select2.HCSelect2;
+import com.helger.url.ISimpleURL;
 
 /**
- * Bootstrap 5 version of Select2. Uses the Select2 Bootstrap 5 theme.
+ * Bootstrap 5 version of Select2. Uses the Select2 Bootstrap 5 theme.<br>
+ * For large option sets use the remote data mode via
+ * {@link #setRemoteData(ISimpleURL, ISelect2DataSource, Locale)}: only the
+ * pre-selected options are rendered and all other options are loaded page by
+ * page from an {@link AjaxExecutorSelect2} while the user scrolls or types.
  *
  * @author Philip Helger
  */
 public class BootstrapSelect2 extends HCSelect2
 {
+  public static final int DEFAULT_REMOTE_DELAY_MS = 250;
+  public static final int DEFAULT_MINIMUM_INPUT_LENGTH = 0;
+
+  private final ICommonsList <String> m_aPreselectedValues;
+  private ISimpleURL m_aRemoteDataURL;
+  private int m_nRemoteDelayMS = DEFAULT_REMOTE_DELAY_MS;
+  private int m_nMinimumInputLength = DEFAULT_MINIMUM_INPUT_LENGTH;
+
   public BootstrapSelect2 (@NonNull final IHCRequestField aRF)
   {
     super (aRF);
+    m_aPreselectedValues = new CommonsArrayList <> ();
+    final String sValue = aRF.getRequestValue ();
+    if (StringHelper.isNotEmpty (sValue))
+      m_aPreselectedValues.add (sValue);
   }
 
   public BootstrapSelect2 (@NonNull final IHCRequestFieldMultiValue aRF)
   {
     super (aRF);
+    m_aPreselectedValues = new CommonsArrayList <> (aRF.getRequestValues ());
+    m_aPreselectedValues.removeIf (StringHelper::isEmpty);
+  }
+
+  /**
+   * @return <code>true</code> if this select box is in remote data mode,
+   *         <code>false</code> if all options are rendered into the page.
+   */
+  public final boolean isRemoteData ()
+  {
+    return m_aRemoteDataURL != null;
+  }
+
+  @Nullable
+  public final ISimpleURL getRemoteDataURL ()
+  {
+    return m_aRemoteDataURL;
+  }
+
+  /**
+   * Switch this select box to remote data mode. Only the currently
+   * pre-selected values are resolved via the data source and rendered as
+   * options. All other options are loaded page by page from the provided URL,
+   * which must be served by an {@link AjaxExecutorSelect2} using the same data
+   * source.
+   *
+   * @param aRemoteDataURL
+   *        The URL of the AJAX function serving the data. May not be
+   *        <code>null</code>.
+   * @param aDataSource
+   *        The data source used to resolve the pre-selected values. May not
+   *        be <code>null</code>.
+   * @param aDisplayLocale
+   *        The display locale to use for resolving the pre-selected values.
+   *        May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public BootstrapSelect2 setRemoteData (@NonNull final ISimpleURL aRemoteDataURL,
+                                         @NonNull final ISelect2DataSource aDataSource,
+                                         @NonNull final Locale aDisplayLocale)
+  {
+    ValueEnforcer.notNull (aRemoteDataURL, "RemoteDataURL");
+    ValueEnforcer.notNull (aDataSource, "DataSource");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    m_aRemoteDataURL = aRemoteDataURL;
+
+    // Hydrate the pre-selected values, so that they are displayed correctly
+    if (m_aPreselectedValues.isNotEmpty ())
+      for (final Select2DataItem aItem : aDataSource.getAllItemsOfID (m_aPreselectedValues, aDisplayLocale))
+        addOption (aItem.getID (), aItem.getText ()).setSelected (true);
+    return this;
+  }
+
+  @Nonnegative
+  public final int getRemoteDelayMS ()
+  {
+    return m_nRemoteDelayMS;
+  }
+
+  /**
+   * @param nRemoteDelayMS
+   *        The number of milliseconds to wait after the last key stroke before
+   *        the remote data is requested. Must be &ge; 0.
+   * @return this for chaining
+   */
+  @NonNull
+  public BootstrapSelect2 setRemoteDelayMS (@Nonnegative final int nRemoteDelayMS)
+  {
+    ValueEnforcer.isGE0 (nRemoteDelayMS, "RemoteDelayMS");
+    m_nRemoteDelayMS = nRemoteDelayMS;
+    return this;
+  }
+
+  @Nonnegative
+  public final int getMinimumInputLength ()
+  {
+    return m_nMinimumInputLength;
+  }
+
+  /**
+   * @param nMinimumInputLength
+   *        The minimum number of characters that need to be entered before a
+   *        remote search is started. Must be &ge; 0.
+   * @return this for chaining
+   */
+  @NonNull
+  public BootstrapSelect2 setMinimumInputLength (@Nonnegative final int nMinimumInputLength)
+  {
+    ValueEnforcer.isGE0 (nMinimumInputLength, "MinimumInputLength");
+    m_nMinimumInputLength = nMinimumInputLength;
+    return this;
   }
 
   @Override
@@ -51,6 +171,30 @@ public class BootstrapSelect2 extends HCSelect2
       ret = new JSAssocArray ();
     // Select2 Bootstrap 5 theme name
     ret.add ("theme", "bootstrap-5");
+
+    if (m_nMinimumInputLength > 0)
+      ret.add ("minimumInputLength", m_nMinimumInputLength);
+
+    if (m_aRemoteDataURL != null)
+    {
+      // function (params) { return { term: params.term, page: params.page || 1 }; }
+      final JSAnonymousFunction aDataFunc = new JSAnonymousFunction ();
+      final JSVar aParams = aDataFunc.param ("params");
+      aDataFunc.body ()
+               ._return (new JSAssocArray ().add (AjaxExecutorSelect2.PARAM_TERM, aParams.ref ("term"))
+                                            .add (AjaxExecutorSelect2.PARAM_PAGE,
+                                                  aParams.ref ("page").cor (JSExpr.lit (1))));
+
+      // The response is already in the format Select2 expects, incl.
+      // "pagination.more" for infinite scrolling
+      final JSAssocArray aAjax = new JSAssocArray ();
+      aAjax.add ("url", m_aRemoteDataURL.getAsString ());
+      aAjax.add ("dataType", "json");
+      aAjax.add ("delay", m_nRemoteDelayMS);
+      aAjax.add ("cache", true);
+      aAjax.add ("data", aDataFunc);
+      ret.add ("ajax", aAjax);
+    }
     return ret;
   }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.select2;
+
+import java.util.Collection;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Server side data source for a {@link BootstrapSelect2} that works in remote
+ * data mode. Instead of rendering all options into the page, the data is
+ * requested page by page via {@link AjaxExecutorSelect2}.
+ *
+ * @author Philip Helger
+ */
+public interface ISelect2DataSource
+{
+  /**
+   * Get a single page of items matching the provided search term.
+   *
+   * @param sTerm
+   *        The search term entered by the user. May be <code>null</code> or
+   *        empty if no search term was entered so far.
+   * @param nPageIndex
+   *        The 0-based index of the page to retrieve.
+   * @param nPageSize
+   *        The maximum number of items per page. Always &gt; 0.
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @return The page with the matching items. May not be <code>null</code>.
+   */
+  @NonNull
+  Select2DataPage getPage (@Nullable String sTerm,
+                           @Nonnegative int nPageIndex,
+                           @Nonnegative int nPageSize,
+                           @NonNull Locale aDisplayLocale);
+
+  /**
+   * Resolve the items for the provided IDs. This is used to render the
+   * pre-selected values of a select box, so that they can be displayed without
+   * the need to load the first page.
+   *
+   * @param aIDs
+   *        The IDs of the items to resolve. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The display locale to use. May not be <code>null</code>.
+   * @return The resolved items in the order of the provided IDs. Unknown IDs
+   *         should be skipped. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  ICommonsList <Select2DataItem> getAllItemsOfID (@NonNull Collection <String> aIDs, @NonNull Locale aDisplayLocale);
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.select2;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.id.IHasID;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonObject;
+
+/**
+ * A single item of a {@link Select2DataPage}.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class Select2DataItem implements IHasID <String>
+{
+  public static final String JSON_ID = "id";
+  public static final String JSON_TEXT = "text";
+
+  private final String m_sID;
+  private final String m_sText;
+
+  public Select2DataItem (@NonNull @Nonempty final String sID, @NonNull final String sText)
+  {
+    ValueEnforcer.notEmpty (sID, "ID");
+    ValueEnforcer.notNull (sText, "Text");
+    m_sID = sID;
+    m_sText = sText;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @NonNull
+  public String getText ()
+  {
+    return m_sText;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public IJsonObject getAsJson ()
+  {
+    return new JsonObject ().add (JSON_ID, m_sID).add (JSON_TEXT, m_sText);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ID", m_sID).append ("Text", m_sText).getToString ();
+  }
+}
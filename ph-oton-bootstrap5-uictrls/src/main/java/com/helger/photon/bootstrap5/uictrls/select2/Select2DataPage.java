@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.uictrls.select2;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.json.IJsonObject;
+import com.helger.json.JsonArray;
+import com.helger.json.JsonObject;
+
+/**
+ * A single page of {@link Select2DataItem}s as returned by an
+ * {@link ISelect2DataSource}. The JSON representation matches the structure
+ * expected by the Select2 "ajax" transport, so that infinite scrolling works
+ * out of the box.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class Select2DataPage
+{
+  public static final String JSON_RESULTS = "results";
+  public static final String JSON_PAGINATION = "pagination";
+  public static final String JSON_MORE = "more";
+
+  private final ICommonsList <Select2DataItem> m_aItems;
+  private final boolean m_bMore;
+
+  /**
+   * Constructor
+   *
+   * @param aItems
+   *        The items of this page. May not be <code>null</code>.
+   * @param bMore
+   *        <code>true</code> if there are more pages available,
+   *        <code>false</code> if this is the last page.
+   */
+  public Select2DataPage (@NonNull final Iterable <? extends Select2DataItem> aItems, final boolean bMore)
+  {
+    ValueEnforcer.notNull (aItems, "Items");
+    m_aItems = new CommonsArrayList <> (aItems);
+    m_bMore = bMore;
+  }
+
+  /**
+   * @return A copy of the items of this page. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <Select2DataItem> getAllItems ()
+  {
+    return m_aItems.getClone ();
+  }
+
+  public boolean hasMore ()
+  {
+    return m_bMore;
+  }
+
+  @NonNull
+  @ReturnsMutableCopy
+  public IJsonObject getAsJson ()
+  {
+    final JsonArray aResults = new JsonArray ();
+    for (final Select2DataItem aItem : m_aItems)
+      aResults.add (aItem.getAsJson ());
+    return new JsonObject ().addJson (JSON_RESULTS, aResults)
+                            .addJson (JSON_PAGINATION, new JsonObject ().add (JSON_MORE, m_bMore));
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Items", m_aItems).append ("More", m_bMore).getToString ();
+  }
+
+  /**
+   * Create a page from a list of all matching items by extracting the
+   * requested page. This is a convenience method for data sources that have
+   * all matching items in memory anyway.
+   *
+   * @param aAllMatching
+   *        All matching items. May not be <code>null</code>.
+   * @param nPageIndex
+   *        0-based page index.
+   * @param nPageSize
+   *        Page size. Must be &gt; 0.
+   * @return The created page. Never <code>null</code>.
+   */
+  @NonNull
+  public static Select2DataPage createFromList (@NonNull final ICommonsList <? extends Select2DataItem> aAllMatching,
+                                                final int nPageIndex,
+                                                final int nPageSize)
+  {
+    ValueEnforcer.notNull (aAllMatching, "AllMatching");
+    ValueEnforcer.isGE0 (nPageIndex, "PageIndex");
+    ValueEnforcer.isGT0 (nPageSize, "PageSize");
+
+    final long nStart = (long) nPageIndex * nPageSize;
+    final int nTotal = aAllMatching.size ();
+    if (nStart >= nTotal)
+      return new Select2DataPage (new CommonsArrayList <> (), false);
+
+    final int nEnd = (int) Math.min (nStart + nPageSize, nTotal);
+    return new Select2DataPage (aAllMatching.subList ((int) nStart, nEnd), nEnd < nTotal);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+'use strict';
+
+/**
+ * Chunked, resumable file upload. The selected file is sliced into chunks
+ * that are sent in parallel via PUT requests. The server writes each chunk
+ * directly to its final position. Already received chunks are skipped when
+ * the same file is selected again after an interrupted upload.
+ */
+var phChunkedUpload = (function () {
+  var STORAGE_PREFIX = 'ph-chunked-upload:';
+
+  function _storageKey (url, file) {
+    return STORAGE_PREFIX + url + ':' + file.name + ':' + file.size + ':' + file.lastModified;
+  }
+
+  function _readStorage (key) {
+    try {
+      return window.localStorage.getItem (key);
+    } catch (e) {
+      return null;
+    }
+  }
+
+  function _writeStorage (key, value) {
+    try {
+      if (value === null)
+        window.localStorage.removeItem (key);
+      else
+        window.localStorage.setItem (key, value);
+    } catch (e) {
+      // Ignore - resuming is just not possible
+    }
+  }
+
+  function _json (response) {
+    if (!response.ok)
+      throw new Error ('HTTP ' + response.status);
+    return response.json ();
+  }
+
+  function _setProgress (progress, done, total) {
+    if (!progress)
+      return;
+    var percent = total > 0 ? Math.floor (done * 100 / total) : 100;
+    var bar = progress.querySelector ('.progress-bar');
+    progress.classList.remove ('d-none');
+    progress.setAttribute ('aria-valuenow', percent);
+    if (bar) {
+      bar.style.width = percent + '%';
+      bar.textContent = percent + '%';
+    }
+  }
+
+  // Create a new upload or resume the one stored for this file
+  function _start (url, file, chunkSize) {
+    var key = _storageKey (url, file);
+    var uploadID = _readStorage (key);
+    var create = function () {
+      var params = new URLSearchParams ();
+      params.append ('filename', file.name);
+      params.append ('size', file.size);
+      params.append ('chunksize', chunkSize);
+      return fetch (url, { method : 'POST', body : params }).then (_json).then (function (status) {
+        _writeStorage (key, status.uploadid);
+        return status;
+      });
+    };
+    if (!uploadID)
+      return create ();
+    return fetch (url + '?uploadid=' + encodeURIComponent (uploadID)).then (_json).catch (function () {
+      // Unknown or expired upload
+      _writeStorage (key, null);
+      return create ();
+    });
+  }
+
+  /**
+   * Upload a single file.
+   * @param url The URL of the chunked upload servlet
+   * @param file The file to upload
+   * @param options Object with the optional properties chunkSize, parallel and
+   *        progress (the Bootstrap progress element)
+   * @return a Promise resolving to the upload ID
+   */
+  function upload (url, file, options) {
+    var opts = options || {};
+    var parallel = Math.max (1, opts.parallel || 4);
+    var key = _storageKey (url, file);
+    return _start (url, file, opts.chunkSize || 1048576).then (function (status) {
+      var received = {};
+      status.received.forEach (function (i) { received[i] = true; });
+      var pending = [];
+      for (var i = 0; i < status.chunkcount; i++)
+        if (!received[i])
+          pending.push (i);
+      var done = status.chunkcount - pending.length;
+      _setProgress (opts.progress, done, status.chunkcount);
+
+      var worker = function () {
+        if (pending.length === 0)
+          return Promise.resolve ();
+        var index = pending.shift ();
+        var start = index * status.chunksize;
+        var blob = file.slice (start, Math.min (start + status.chunksize, file.size));
+        return fetch (url + '?uploadid=' + encodeURIComponent (status.uploadid) + '&chunk=' + index, {
+          method : 'PUT',
+          headers : { 'Content-Type' : 'application/octet-stream' },
+          body : blob
+        }).then (_json).then (function () {
+          done++;
+          _setProgress (opts.progress, done, status.chunkcount);
+          return worker ();
+        });
+      };
+
+      var workers = [];
+      for (var w = 0; w < Math.min (parallel, Math.max (1, pending.length)); w++)
+        workers.push (worker ());
+      return Promise.all (workers).then (function () {
+        _writeStorage (key, null);
+        return status.uploadid;
+      });
+    });
+  }
+
+  /**
+   * Bind a file input to the chunked upload. The upload ID is stored in the
+   * hidden field and the file input is removed from the form submission.
+   */
+  function bind (fileInputID, progressID, hiddenFieldID, url, options) {
+    var input = document.getElementById (fileInputID);
+    var hidden = document.getElementById (hiddenFieldID);
+    if (!input || !hidden)
+      return;
+    var opts = Object.assign ({}, options || {}, { progress : document.getElementById (progressID) });
+    var form = input.form;
+    var busy = false;
+    // The file content is transferred separately
+    input.removeAttribute ('name');
+    input.addEventListener ('change', function () {
+      hidden.value = '';
+      if (!input.files || input.files.length === 0)
+        return;
+      busy = true;
+      if (opts.progress)
+        opts.progress.querySelector ('.progress-bar').classList.remove ('bg-danger');
+      upload (url, input.files[0], opts).then (function (uploadID) {
+        hidden.value = uploadID;
+      }).catch (function () {
+        if (opts.progress)
+          opts.progress.querySelector ('.progress-bar').classList.add ('bg-danger');
+      }).finally (function () {
+        busy = false;
+      });
+    });
+    if (form)
+      form.addEventListener ('submit', function (e) {
+        // Don't submit while the upload is still running
+        if (busy)
+          e.preventDefault ();
+      });
+  }
+
+  return { upload : upload, bind : bind };
+}) ();
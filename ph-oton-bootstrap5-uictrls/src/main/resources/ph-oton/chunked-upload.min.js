@@ -0,0 +1,2 @@
+'use strict';var phChunkedUpload=(function(){var STORAGE_PREFIX='ph-chunked-upload:';function _storageKey(url,file){return STORAGE_PREFIX+url+':'+file.name+':'+file.size+':'+file.lastModified;}function _readStorage(key){try{return window.localStorage.getItem(key);}catch(e){return null;}}function _writeStorage(key,value){try{if(value===null)window.localStorage.removeItem(key);else
+window.localStorage.setItem(key,value);}catch(e){}}function _json(response){if(!response.ok)throw new Error('HTTP '+response.status);return response.json();}function _setProgress(progress,done,total){if(!progress)return;var percent=total>0?Math.floor(done*100/total):100;var bar=progress.querySelector('.progress-bar');progress.classList.remove('d-none');progress.setAttribute('aria-valuenow',percent);if(bar){bar.style.width=percent+'%';bar.textContent=percent+'%';}}function _start(url,file,chunkSize){var key=_storageKey(url,file);var uploadID=_readStorage(key);var create=function(){var params=new URLSearchParams();params.append('filename',file.name);params.append('size',file.size);params.append('chunksize',chunkSize);return fetch(url,{method:'POST',body:params}).then(_json).then(function(status){_writeStorage(key,status.uploadid);return status;});};if(!uploadID)return create();return fetch(url+'?uploadid='+encodeURIComponent(uploadID)).then(_json).catch(function(){_writeStorage(key,null);return create();});}function upload(url,file,options){var opts=options||{};var parallel=Math.max(1,opts.parallel||4);var key=_storageKey(url,file);return _start(url,file,opts.chunkSize||1048576).then(function(status){var received={};status.received.forEach(function(i){received[i]=true;});var pending=[];for(var i=0;i<status.chunkcount;i++)if(!received[i])pending.push(i);var done=status.chunkcount-pending.length;_setProgress(opts.progress,done,status.chunkcount);var worker=function(){if(pending.length===0)return Promise.resolve();var index=pending.shift();var start=index*status.chunksize;var blob=file.slice(start,Math.min(start+status.chunksize,file.size));return fetch(url+'?uploadid='+encodeURIComponent(status.uploadid)+'&chunk='+index,{method:'PUT',headers:{'Content-Type':'application/octet-stream'},body:blob}).then(_json).then(function(){done++;_setProgress(opts.progress,done,status.chunkcount);return worker();});};var workers=[];for(var w=0;w<Math.min(parallel,Math.max(1,pending.length));w++)workers.push(worker());return Promise.all(workers).then(function(){_writeStorage(key,null);return status.uploadid;});});}function bind(fileInputID,progressID,hiddenFieldID,url,options){var input=document.getElementById(fileInputID);var hidden=document.getElementById(hiddenFieldID);if(!input||!hidden)return;var opts=Object.assign({},options||{},{progress:document.getElementById(progressID)});var form=input.form;var busy=false;input.removeAttribute('name');input.addEventListener('change',function(){hidden.value='';if(!input.files||input.files.length===0)return;busy=true;if(opts.progress)opts.progress.querySelector('.progress-bar').classList.remove('bg-danger');upload(url,input.files[0],opts).then(function(uploadID){hidden.value=uploadID;}).catch(function(){if(opts.progress)opts.progress.querySelector('.progress-bar').classList.add('bg-danger');}).finally(function(){busy=false;});});if(form)form.addEventListener('submit',function(e){if(busy)e.preventDefault();});}return{upload:upload,bind:bind};})();
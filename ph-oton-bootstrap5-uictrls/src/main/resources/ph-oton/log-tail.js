@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+'use strict';
+
+/**
+ * Live tail of the in-memory log: consumes the Server-Sent Events of the log
+ * tail servlet and prepends one table row per log entry. The browser
+ * reconnects automatically and continues after the last received entry.
+ */
+var phLogTail = (function () {
+  var LEVEL_CLASSES = { FATAL : 'text-danger', ERROR : 'text-danger', WARN : 'text-warning' };
+
+  function _createRow (entry) {
+    var tr = document.createElement ('tr');
+    [ entry.time, entry.level, entry.logger, entry.thread, entry.message ].forEach (function (text, idx) {
+      var td = document.createElement ('td');
+      if (idx === 4) {
+        td.className = 'font-monospace';
+        td.style.whiteSpace = 'pre-wrap';
+      }
+      td.textContent = text;
+      tr.appendChild (td);
+    });
+    if (LEVEL_CLASSES[entry.level])
+      tr.className = LEVEL_CLASSES[entry.level];
+    return tr;
+  }
+
+  function bind (tableID, buttonID, url, maxRows) {
+    var table = document.getElementById (tableID);
+    var button = document.getElementById (buttonID);
+    if (!table || !button || !window.EventSource)
+      return;
+    var tbody = table.tBodies[0] || table.createTBody ();
+    var source = null;
+    var startText = button.getAttribute ('data-start') || button.textContent;
+    var stopText = button.getAttribute ('data-stop') || button.textContent;
+
+    function _onLog (e) {
+      var entry;
+      try {
+        entry = JSON.parse (e.data);
+      } catch (ex) {
+        return;
+      }
+      tbody.insertBefore (_createRow (entry), tbody.firstChild);
+      while (tbody.rows.length > maxRows)
+        tbody.deleteRow (-1);
+    }
+
+    function _stop () {
+      if (source) {
+        source.close ();
+        source = null;
+      }
+      button.textContent = startText;
+    }
+
+    function _start () {
+      source = new EventSource (url);
+      source.addEventListener ('log', _onLog);
+      button.textContent = stopText;
+    }
+
+    button.addEventListener ('click', function (e) {
+      e.preventDefault ();
+      if (source)
+        _stop ();
+      else
+        _start ();
+    });
+    window.addEventListener ('pagehide', _stop);
+  }
+
+  return { bind : bind };
+}) ();
@@ -0,0 +1 @@
+'use strict';var phLogTail=(function(){var LEVEL_CLASSES={FATAL:'text-danger',ERROR:'text-danger',WARN:'text-warning'};function _createRow(entry){var tr=document.createElement('tr');[entry.time,entry.level,entry.logger,entry.thread,entry.message].forEach(function(text,idx){var td=document.createElement('td');if(idx===4){td.className='font-monospace';td.style.whiteSpace='pre-wrap';}td.textContent=text;tr.appendChild(td);});if(LEVEL_CLASSES[entry.level])tr.className=LEVEL_CLASSES[entry.level];return tr;}function bind(tableID,buttonID,url,maxRows){var table=document.getElementById(tableID);var button=document.getElementById(buttonID);if(!table||!button||!window.EventSource)return;var tbody=table.tBodies[0]||table.createTBody();var source=null;var startText=button.getAttribute('data-start')||button.textContent;var stopText=button.getAttribute('data-stop')||button.textContent;function _onLog(e){var entry;try{entry=JSON.parse(e.data);}catch(ex){return;}tbody.insertBefore(_createRow(entry),tbody.firstChild);while(tbody.rows.length>maxRows)tbody.deleteRow(-1);}function _stop(){if(source){source.close();source=null;}button.textContent=startText;}function _start(){source=new EventSource(url);source.addEventListener('log',_onLog);button.textContent=stopText;}button.addEventListener('click',function(e){e.preventDefault();if(source)_stop();else _start();});window.addEventListener('pagehide',_stop);}return{bind:bind};})();
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+'use strict';
+
+/**
+ * Incremental refresh of the JVM memory dashboard. Each poll passes the last
+ * seen sample index and GC event sequence, so that the server only sends the
+ * new samples and GC events. The samples are appended to the sparklines, the
+ * GC events are prepended to the table of recent events. If the structure of
+ * the dashboard changed (e.g. the first samples arrived), the whole dashboard
+ * is reloaded once.
+ */
+var phMemoryMonitor = (function () {
+  function _part (container, name) {
+    return container.querySelector ('[data-memory="' + name + '"]');
+  }
+
+  function _createRow (event) {
+    var tr = document.createElement ('tr');
+    [ event.time, event.gc, event.action, event.cause, event.duration, event.collected, event.promoted ].forEach (function (text) {
+      var td = document.createElement ('td');
+      td.textContent = text;
+      tr.appendChild (td);
+    });
+    return tr;
+  }
+
+  function _updateSparkline (span, values) {
+    var svg = span.querySelector ('svg');
+    var line = svg ? svg.querySelector ('polyline') : null;
+    if (!line || values.length === 0)
+      return;
+    var width = parseFloat (svg.getAttribute ('width'));
+    var height = parseFloat (svg.getAttribute ('height')) - 2;
+    var min = Math.min.apply (null, values);
+    var max = Math.max.apply (null, values);
+    var range = max > min ? max - min : 1;
+    var stepX = values.length > 1 ? width / (values.length - 1) : 0;
+    var points = values.map (function (v, i) {
+      return (i * stepX).toFixed (1) + ',' + (1 + height - (v - min) / range * height).toFixed (1);
+    });
+    line.setAttribute ('points', points.join (' '));
+  }
+
+  function bind (containerID, url, fullURL, intervalMillis, capacity, maxEvents, gcSequence) {
+    var container = document.getElementById (containerID);
+    if (!container || !window.fetch)
+      return;
+    var nextSample = 0;
+    var nextGCSequence = gcSequence;
+    var series = [];
+    var timer = null;
+    var stopped = false;
+
+    function _schedule () {
+      if (!stopped)
+        timer = window.setTimeout (_poll, intervalMillis);
+    }
+
+    function _reload () {
+      return fetch (fullURL, { credentials : 'same-origin', cache : 'no-store' }).then (function (r) {
+        return r.text ();
+      }).then (function (html) {
+        container.innerHTML = html;
+        // Resend all samples for the new sparklines
+        nextSample = 0;
+        series = [];
+      });
+    }
+
+    function _apply (data) {
+      var history = _part (container, 'history');
+      var events = _part (container, 'events');
+      var rows = history ? history.tBodies[0].rows : [];
+      if ((data.series.length > 0 && rows.length !== data.series.length) || (data.events.length > 0 && !events))
+        return _reload ().then (function () {
+          nextGCSequence = data.gcseq;
+        });
+
+      _part (container, 'header').textContent = data.header;
+      _part (container, 'current').innerHTML = data.current;
+      data.series.forEach (function (s, idx) {
+        var values = (series[idx] || []).concat (s.values);
+        if (values.length > capacity)
+          values = values.slice (values.length - capacity);
+        series[idx] = values;
+        var cells = rows[idx].cells;
+        s.cells.forEach (function (text, i) {
+          cells[i + 1].textContent = text;
+        });
+        _updateSparkline (cells[cells.length - 1], values);
+      });
+      var pauses = _part (container, 'pauses');
+      if (pauses && data.pauses !== undefined)
+        pauses.innerHTML = data.pauses;
+      if (events) {
+        var tbody = events.tBodies[0];
+        for (var i = data.events.length - 1; i >= 0; --i)
+          tbody.insertBefore (_createRow (data.events[i]), tbody.firstChild);
+        while (tbody.rows.length > maxEvents)
+          tbody.deleteRow (-1);
+      }
+      nextSample = data.sample;
+      nextGCSequence = data.gcseq;
+    }
+
+    function _poll () {
+      var sep = url.indexOf ('?') < 0 ? '?' : '&';
+      fetch (url + sep + 'sample=' + nextSample + '&gcseq=' + nextGCSequence, {
+        credentials : 'same-origin',
+        cache : 'no-store'
+      }).then (function (r) {
+        if (!r.ok)
+          throw new Error ('HTTP ' + r.status);
+        return r.json ();
+      }).then (_apply).then (_schedule, _schedule);
+    }
+
+    window.addEventListener ('pagehide', function () {
+      stopped = true;
+      if (timer)
+        window.clearTimeout (timer);
+    });
+    _poll ();
+  }
+
+  return { bind : bind };
+}) ();
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+'use strict';
+
+/**
+ * PJAX-style partial navigation: menu links marked with "data-pjax" only
+ * fetch the content area. Newly required CSS and JS files are loaded, the
+ * document title is updated and the browser history is maintained via
+ * pushState. On any error a regular page
+ * load is performed.
+ */
+var phPartialNav = (function () {
+  // Required for inline scripts if a CSP with nonces is used
+  var nonce = document.currentScript ? document.currentScript.nonce : null;
+  var ajaxURL, paramName, contentID, menuID;
+  var pending = null;
+
+  function _getURL (item) {
+    return typeof item === 'string' ? item : (item && (item.href || item.src || item.url));
+  }
+
+  function _hasResource (selector, attr, url) {
+    var nodes = document.querySelectorAll (selector);
+    for (var i = 0; i < nodes.length; i++)
+      if (nodes[i].getAttribute (attr) === url)
+        return true;
+    return false;
+  }
+
+  function _loadCSS (list) {
+    (list || []).forEach (function (item) {
+      var url = _getURL (item);
+      if (url && !_hasResource ('link[rel="stylesheet"]', 'href', url)) {
+        var link = document.createElement ('link');
+        link.rel = 'stylesheet';
+        link.href = url;
+        if (item.media)
+          link.media = item.media;
+        document.head.appendChild (link);
+      }
+    });
+  }
+
+  // Load JS files one after the other to keep the order
+  function _loadJS (list) {
+    return (list || []).reduce (function (chain, item) {
+      var url = _getURL (item);
+      if (!url || _hasResource ('script[src]', 'src', url))
+        return chain;
+      return chain.then (function () {
+        return new Promise (function (resolve, reject) {
+          var script = document.createElement ('script');
+          script.src = url;
+          script.onload = resolve;
+          script.onerror = reject;
+          document.head.appendChild (script);
+        });
+      });
+    }, Promise.resolve ());
+  }
+
+  function _runInline (code) {
+    if (!code)
+      return;
+    var script = document.createElement ('script');
+    if (nonce)
+      script.nonce = nonce;
+    script.textContent = code;
+    document.body.appendChild (script).remove ();
+  }
+
+  function _setActive (menuItemID) {
+    var menu = document.getElementById (menuID);
+    if (!menu)
+      return;
+    menu.querySelectorAll ('li.active').forEach (function (li) {
+      // Keep expanded parents active
+      if (!li.querySelector ('ul'))
+        li.classList.remove ('active');
+    });
+    var link = menu.querySelector ('a[data-menuitem="' + CSS.escape (menuItemID) + '"]');
+    if (link && link.parentElement)
+      link.parentElement.classList.add ('active');
+  }
+
+  function navigate (href, menuItemID, push) {
+    var content = document.getElementById (contentID);
+    if (!content) {
+      window.location.href = href;
+      return;
+    }
+    // Abort a previous navigation that is still running
+    if (pending)
+      pending.abort ();
+    var controller = new AbortController ();
+    pending = controller;
+    var title = null;
+    var sep = ajaxURL.indexOf ('?') >= 0 ? '&' : '?';
+    fetch (ajaxURL + sep + encodeURIComponent (paramName) + '=' + encodeURIComponent (menuItemID), {
+      headers : { 'Accept' : 'application/json' },
+      signal : controller.signal
+    }).then (function (response) {
+      if (!response.ok)
+        throw new Error ('HTTP ' + response.status);
+      title = response.headers.get ('X-Page-Title');
+      return response.json ();
+    }).then (function (data) {
+      var value = data.value || data;
+      _loadCSS (value.externalcss);
+      if (value.inlinecss) {
+        var style = document.createElement ('style');
+        if (nonce)
+          style.nonce = nonce;
+        style.textContent = value.inlinecss;
+        document.head.appendChild (style);
+      }
+      return _loadJS (value.externaljs).then (function () {
+        content.innerHTML = value.html || '';
+        _runInline (value.inlinejs);
+        _setActive (menuItemID);
+        if (title)
+          document.title = decodeURIComponent (title);
+        if (push)
+          window.history.pushState ({ phMenuItem : menuItemID }, '', href);
+        window.scrollTo (0, 0);
+      });
+    }).catch (function (e) {
+      if (e.name !== 'AbortError')
+        window.location.href = href;
+    }).finally (function () {
+      if (pending === controller)
+        pending = null;
+    });
+  }
+
+  function init (url, param, contentAreaID, menuAreaID, currentMenuItemID) {
+    ajaxURL = url;
+    paramName = param;
+    contentID = contentAreaID;
+    menuID = menuAreaID;
+    if (!window.history.pushState || !window.fetch)
+      return;
+    window.history.replaceState ({ phMenuItem : currentMenuItemID }, '', window.location.href);
+    document.addEventListener ('click', function (e) {
+      if (e.defaultPrevented || e.button !== 0 || e.ctrlKey || e.metaKey || e.shiftKey || e.altKey)
+        return;
+      var link = e.target.closest ('a[data-pjax][data-menuitem]');
+      if (!link || link.target)
+        return;
+      e.preventDefault ();
+      navigate (link.href, link.getAttribute ('data-menuitem'), true);
+    });
+    window.addEventListener ('popstate', function (e) {
+      if (e.state && e.state.phMenuItem)
+        navigate (window.location.href, e.state.phMenuItem, false);
+    });
+  }
+
+  return { init : init, navigate : navigate };
+}) ();
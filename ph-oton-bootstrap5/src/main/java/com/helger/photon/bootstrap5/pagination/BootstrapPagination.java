@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2025-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.photon.bootstrap5.pagination;
+
+import java.util.function.IntFunction;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.html.css.ICSSClassProvider;
+import com.helger.html.hc.html.grouping.AbstractHCUL;
+import com.helger.html.hc.html.grouping.HCLI;
+import com.helger.html.hc.html.textlevel.HCA;
+import com.helger.html.hc.html.textlevel.HCSpan;
+import com.helger.photon.bootstrap5.CBootstrapCSS;
+import com.helger.url.ISimpleURL;
+
+/**
+ * Bootstrap pagination.
+ *
+ * @author Philip Helger
+ */
+public class BootstrapPagination extends AbstractHCUL <BootstrapPagination>
+{
+  /** The number of pages shown before and after the current page */
+  public static final int DEFAULT_SURROUNDING_PAGES = 3;
+
+  public BootstrapPagination ()
+  {
+    addClass (CBootstrapCSS.PAGINATION).addClass (CBootstrapCSS.FLEX_WRAP);
+  }
+
+  @Override
+  @NonNull
+  protected HCLI createEmptyItem ()
+  {
+    return new HCLI ().addClass (CBootstrapCSS.PAGE_ITEM);
+  }
+
+  /**
+   * Add a page link.
+   *
+   * @param aURL
+   *        The URL of the page. May not be <code>null</code>.
+   * @param sText
+   *        The text of the link. May not be <code>null</code>.
+   * @param aStateClass
+   *        {@link CBootstrapCSS#ACTIVE}, {@link CBootstrapCSS#DISABLED} or
+   *        <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public final BootstrapPagination addPageItem (@NonNull final ISimpleURL aURL,
+                                                @NonNull final String sText,
+                                                @Nullable final ICSSClassProvider aStateClass)
+  {
+    addItem ().addClass (aStateClass).addChild (new HCA (aURL).addClass (CBootstrapCSS.PAGE_LINK).addChild (sText));
+    return this;
+  }
+
+  /**
+   * Add a disabled "&hellip;" item to indicate skipped pages.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public final BootstrapPagination addEllipsisItem ()
+  {
+    addItem ().addClass (CBootstrapCSS.DISABLED).addChild (new HCSpan ().addClass (CBootstrapCSS.PAGE_LINK).addChild ("…"));
+    return this;
+  }
+
+  /**
+   * Create a complete pagination with "previous" and "next" links, the first
+   * and the last page and the {@link #DEFAULT_SURROUNDING_PAGES} pages around
+   * the current page.
+   *
+   * @param nPage
+   *        The 0-based index of the current page.
+   * @param nPageCount
+   *        The total number of pages. Must be &gt; 0.
+   * @param aPageURL
+   *        The function to create the URL for a 0-based page index. May not be
+   *        <code>null</code>.
+   * @param sPrevText
+   *        The text of the "previous" link. May not be <code>null</code>.
+   * @param sNextText
+   *        The text of the "next" link. May not be <code>null</code>.
+   * @return The created pagination. Never <code>null</code>.
+   */
+  @NonNull
+  public static BootstrapPagination create (@Nonnegative final int nPage,
+                                            @Nonnegative final int nPageCount,
+                                            @NonNull final IntFunction <? extends ISimpleURL> aPageURL,
+                                            @NonNull final String sPrevText,
+                                            @NonNull final String sNextText)
+  {
+    ValueEnforcer.isGT0 (nPageCount, "PageCount");
+    ValueEnforcer.isBetweenInclusive (nPage, "Page", 0, nPageCount - 1);
+    ValueEnforcer.notNull (aPageURL, "PageURL");
+
+    final BootstrapPagination ret = new BootstrapPagination ();
+    ret.addPageItem (aPageURL.apply (Math.max (0, nPage - 1)), sPrevText, nPage == 0 ? CBootstrapCSS.DISABLED : null);
+    int nLastShown = -1;
+    for (int i = 0; i < nPageCount; ++i)
+      if (i == 0 || i == nPageCount - 1 || Math.abs (i - nPage) <= DEFAULT_SURROUNDING_PAGES)
+      {
+        if (nLastShown >= 0 && i > nLastShown + 1)
+          ret.addEllipsisItem ();
+        ret.addPageItem (aPageURL.apply (i), Integer.toString (i + 1), i == nPage ? CBootstrapCSS.ACTIVE : null);
+        nLastShown = i;
+      }
+    ret.addPageItem (aPageURL.apply (Math.min (nPageCount - 1, nPage + 1)),
+                     sNextText,
+                     nPage == nPageCount - 1 ? CBootstrapCSS.DISABLED : null);
+    return ret;
+  }
+}